@@ -0,0 +1,94 @@
+package com.am.register.benchmark;
+
+import com.am.register.model.Item;
+import com.am.register.model.Payment;
+import com.am.register.model.Transaction;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic catalogs and baskets shared by the benchmarks.
+ * Category mix roughly follows the price book: mostly default-rate goods with
+ * some tobacco and alcohol, so tax breakdowns have several rates.
+ */
+final class BenchmarkData {
+
+    private static final String[] CATEGORIES =
+            {"GROCERY", "GROCERY", "GROCERY", "SNACKS", "BEVERAGE", "DAIRY", "ALCOHOL", "TOBACCO"};
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Builds a catalog of distinct items with 12-digit UPCs.
+     */
+    static List<Item> catalog(int size) {
+        Random random = new Random(42);
+        List<Item> items = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            String upc = String.format("%012d", 100_000_000_000L + i);
+            double price = (99 + random.nextInt(4900)) / 100.0;
+            String category = CATEGORIES[random.nextInt(CATEGORIES.length)];
+            items.add(new Item(upc, "Benchmark Item " + i, price, category, i % 20 == 0));
+        }
+        return items;
+    }
+
+    /**
+     * Gets the scans for a basket: one per line, with about one line in five scanned
+     * twice so addItem() also takes its increment path.
+     */
+    static List<Item> scans(List<Item> catalog, int basketSize) {
+        Random random = new Random(7);
+        List<Item> scans = new ArrayList<>();
+        for (int i = 0; i < basketSize; i++) {
+            Item item = catalog.get(i % catalog.size());
+            scans.add(item);
+            if (random.nextInt(5) == 0) {
+                scans.add(item);
+            }
+        }
+        return scans;
+    }
+
+    /**
+     * Builds a shopping transaction from a list of scans.
+     */
+    static Transaction basket(List<Item> scans) {
+        Transaction transaction = new Transaction();
+        for (Item item : scans) {
+            transaction.addItem(item);
+        }
+        return transaction;
+    }
+
+    /**
+     * Builds a basket paid in cash, ready for a receipt.
+     */
+    static Transaction paidBasket(List<Item> scans) {
+        Transaction transaction = basket(scans);
+        transaction.startTendering();
+        double total = transaction.getTotal();
+        double tendered = Math.ceil(total);
+        transaction.setPayment(Payment.createCashPayment(tendered, tendered - total));
+        return transaction;
+    }
+
+    /**
+     * Renders catalog items as price book lines, alternating the 3 and 5 column formats.
+     */
+    static String[] priceBookLines(List<Item> catalog) {
+        String[] lines = new String[catalog.size()];
+        for (int i = 0; i < lines.length; i++) {
+            Item item = catalog.get(i);
+            String line = item.getUpc() + "\t" + item.getDescription() + "\t" + String.format("%.2f", item.getPrice());
+            if (i % 2 == 0) {
+                line += "\t" + item.getCategory() + "\t" + item.isPopular();
+            }
+            lines[i] = line;
+        }
+        return lines;
+    }
+}
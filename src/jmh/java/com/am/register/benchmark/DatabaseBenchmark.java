@@ -0,0 +1,116 @@
+package com.am.register.benchmark;
+
+import com.am.register.database.DatabaseManager;
+import com.am.register.database.DatabaseMigration;
+import com.am.register.model.Item;
+import com.am.register.service.CatalogService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Item lookups against an in-memory H2 loaded with the full schema.
+ * The TCP server the register uses adds a network round trip on top of these.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DatabaseBenchmark {
+
+    private static final int LOOKUP_KEYS = 1024;  // Power of two
+
+    @Param({"100", "1000", "10000"})
+    private int catalogSize;
+
+    private DatabaseManager database;
+    private CatalogService catalog;
+    private String[] hits;
+    private String[] misses;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        database = new DatabaseManager("jdbc:h2:mem:bench" + catalogSize + ";DB_CLOSE_DELAY=-1");
+        if (!database.connect() || !database.createTables()
+                || !new DatabaseMigration(database.getConnection()).migrate()) {
+            throw new IllegalStateException("Could not set up the benchmark database");
+        }
+
+        database.clearAllItems();
+        List<Item> items = BenchmarkData.catalog(catalogSize);
+        for (Item item : items) {
+            database.insertItem(item);
+        }
+
+        Random random = new Random(3);
+        hits = new String[LOOKUP_KEYS];
+        misses = new String[LOOKUP_KEYS];
+        for (int i = 0; i < LOOKUP_KEYS; i++) {
+            hits[i] = items.get(random.nextInt(items.size())).getUpc();
+            misses[i] = String.format("%012d", 900_000_000_000L + i);
+        }
+
+        // Warm the catalog cache so cachedLookup measures the hit path only
+        catalog = new CatalogService(database);
+        for (String upc : hits) {
+            catalog.getItem(upc);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.disconnect();
+    }
+
+    private int nextKey() {
+        int index = next;
+        next = (index + 1) & (LOOKUP_KEYS - 1);
+        return index;
+    }
+
+    /**
+     * Uncached primary key lookup of an item in the catalog.
+     */
+    @Benchmark
+    public Item lookupHit() {
+        return database.getItemByUPC(hits[nextKey()]);
+    }
+
+    /**
+     * Lookup of an unknown UPC, as for a mis-scan.
+     */
+    @Benchmark
+    public Item lookupMiss() {
+        return database.getItemByUPC(misses[nextKey()]);
+    }
+
+    /**
+     * Lookup through the shared catalog cache, as processUPCScan() does.
+     */
+    @Benchmark
+    public Item cachedLookup() {
+        return catalog.getItem(hits[nextKey()]);
+    }
+
+    @Benchmark
+    public int itemCount() {
+        return database.getItemCount();
+    }
+}
@@ -0,0 +1,62 @@
+package com.am.register.benchmark;
+
+import com.am.register.database.PriceBookParser;
+import com.am.register.model.Item;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Price book line parsing, without the database insert.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PriceBookParserBenchmark {
+
+    @Param({"1000"})
+    private int catalogSize;
+
+    private String[] lines;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        lines = BenchmarkData.priceBookLines(BenchmarkData.catalog(catalogSize));
+    }
+
+    /**
+     * Parses one line, cycling through 3 and 5 column lines.
+     */
+    @Benchmark
+    public Item parseLine() {
+        int index = next;
+        next = index + 1 == lines.length ? 0 : index + 1;
+        return PriceBookParser.parseItem(lines[index], index + 1);
+    }
+
+    /**
+     * Parses a whole price book.
+     */
+    @Benchmark
+    public void parseCatalog(Blackhole blackhole) {
+        for (int i = 0; i < lines.length; i++) {
+            blackhole.consume(PriceBookParser.parseItem(lines[i], i + 1));
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.am.register.benchmark;
+
+import com.am.register.model.Receipt;
+import com.am.register.model.Transaction;
+import com.am.register.util.ReceiptGenerator;
+import com.am.register.util.ReceiptNumberGenerator;
+import com.am.register.util.ReceiptRenderer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Receipt creation and rendering at tender time.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReceiptBenchmark {
+
+    @Param({"5", "25", "100"})
+    private int basketSize;
+
+    private Transaction paid;
+    private Receipt receipt;
+    private ReceiptRenderer renderer;
+    private ReceiptNumberGenerator receiptNumbers;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Blocks come from memory rather than the database
+        AtomicLong blocks = new AtomicLong();
+        receiptNumbers = new ReceiptNumberGenerator(ReceiptNumberGenerator.DEFAULT_STORE_NUMBER, 1,
+                ReceiptNumberGenerator.DEFAULT_BLOCK_SIZE,
+                blockSize -> blocks.getAndAdd(blockSize) + 1);
+
+        paid = BenchmarkData.paidBasket(BenchmarkData.scans(BenchmarkData.catalog(basketSize), basketSize));
+        receipt = ReceiptGenerator.createReceipt(paid, receiptNumbers.next());
+        renderer = new ReceiptRenderer();
+    }
+
+    @Benchmark
+    public Receipt createReceipt() {
+        return ReceiptGenerator.createReceipt(paid, receiptNumbers.next());
+    }
+
+    /**
+     * Text rendering through the shared per-thread renderer, as the register does.
+     */
+    @Benchmark
+    public String formatReceipt() {
+        return ReceiptGenerator.formatReceipt(receipt);
+    }
+
+    @Benchmark
+    public String renderText() {
+        return renderer.renderText(receipt);
+    }
+
+    @Benchmark
+    public byte[] renderEscPos() {
+        return renderer.renderEscPos(receipt);
+    }
+
+    /**
+     * One lane's own generator, uncontended.
+     */
+    @Benchmark
+    public String nextReceiptNumber() {
+        return receiptNumbers.next();
+    }
+
+    /**
+     * One generator shared by every thread: contention on the block counter,
+     * the block refill and the cached timestamp.
+     */
+    @State(Scope.Benchmark)
+    public static class SharedNumbers {
+        ReceiptNumberGenerator receiptNumbers;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            AtomicLong blocks = new AtomicLong();
+            receiptNumbers = new ReceiptNumberGenerator(ReceiptNumberGenerator.DEFAULT_STORE_NUMBER, 1,
+                    ReceiptNumberGenerator.DEFAULT_BLOCK_SIZE,
+                    blockSize -> blocks.getAndAdd(blockSize) + 1);
+        }
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String nextReceiptNumberContended(SharedNumbers shared) {
+        return shared.receiptNumbers.next();
+    }
+
+    /**
+     * Threads drawing from a shared generator while another renders receipts.
+     */
+    @Benchmark
+    @Group("tender")
+    @GroupThreads(3)
+    public String tenderNextNumber(SharedNumbers shared) {
+        return shared.receiptNumbers.next();
+    }
+
+    @Benchmark
+    @Group("tender")
+    @GroupThreads(1)
+    public String tenderRender() {
+        return renderer.renderText(receipt);
+    }
+}
@@ -0,0 +1,116 @@
+package com.am.register.benchmark;
+
+import com.am.register.model.Item;
+import com.am.register.scanner.ScanDecoder;
+import com.am.register.scanner.ScanListener;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scanner input throughput: codes per second through the per-device decoders.
+ * Run with -prof gc to confirm the only allocation is the code handed on.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScanDecoderBenchmark {
+
+    private static final int CODES = 1000;
+
+    private byte[] stream;  // CODES newline-terminated UPCs, as a serial scanner sends them
+    private char[][] codes;
+    private ScanDecoder streamDecoder;
+    private ScanDecoder handheld;
+    private ScanDecoder flatbed;
+    private ScanDecoder repeating;
+    private long nanos;
+
+    @Setup(Level.Trial)
+    public void setUp(Blackhole blackhole) {
+        List<Item> catalog = BenchmarkData.catalog(CODES);
+        StringBuilder text = new StringBuilder();
+        codes = new char[CODES][];
+        for (int i = 0; i < CODES; i++) {
+            String upc = catalog.get(i).getUpc();
+            text.append(upc).append('\n');
+            codes[i] = (upc + "\r").toCharArray();
+        }
+        stream = text.toString().getBytes(StandardCharsets.US_ASCII);
+
+        ScanListener listener = new ScanListener() {
+            @Override
+            public void scanned(String deviceId, String code, long receivedNanos) {
+                blackhole.consume(code);
+            }
+
+            @Override
+            public void duplicateSuppressed(String deviceId) {
+                blackhole.consume(deviceId);
+            }
+        };
+        streamDecoder = new ScanDecoder("stream", 0, ScanDecoder.DEFAULT_DUPLICATE_WINDOW_MILLIS, listener);
+        handheld = new ScanDecoder("handheld", 100, ScanDecoder.DEFAULT_DUPLICATE_WINDOW_MILLIS, listener);
+        flatbed = new ScanDecoder("flatbed", 100, ScanDecoder.DEFAULT_DUPLICATE_WINDOW_MILLIS, listener);
+        repeating = new ScanDecoder("repeating", 0, ScanDecoder.DEFAULT_DUPLICATE_WINDOW_MILLIS, listener);
+        nanos = System.nanoTime();
+    }
+
+    /**
+     * A serial or socket scanner: bytes arrive in reads and are decoded in place.
+     */
+    @Benchmark
+    @OperationsPerInvocation(CODES)
+    public void streamedCodes() {
+        streamDecoder.accept(stream, 0, stream.length, nanos += 1_000_000);
+    }
+
+    /**
+     * Two keyboard-speed devices whose characters interleave one for one.
+     */
+    @Benchmark
+    @OperationsPerInvocation(CODES)
+    public void interleavedDevices() {
+        for (int i = 0; i < CODES; i += 2) {
+            char[] first = codes[i];
+            char[] second = codes[i + 1];
+            for (int c = 0; c < first.length; c++) {
+                nanos += 1_000;
+                handheld.accept(first[c], nanos);
+                flatbed.accept(second[c], nanos);
+            }
+        }
+    }
+
+    /**
+     * A held trigger re-reading one code: every read after the first is suppressed.
+     */
+    @Benchmark
+    @OperationsPerInvocation(CODES)
+    public void duplicateReads() {
+        char[] code = codes[0];
+        for (int i = 0; i < CODES; i++) {
+            nanos += 1_000;
+            for (char c : code) {
+                repeating.accept(c, nanos);
+            }
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.am.register.benchmark;
+
+import com.am.register.model.Item;
+import com.am.register.model.SuspendedTransaction;
+import com.am.register.model.Transaction;
+import com.am.register.model.TransactionItem;
+import com.am.register.util.BasketCodec;
+import com.am.register.util.TransactionSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Suspend/resume round trips: the compact BasketCodec used for new suspensions
+ * against the legacy Gson format still read for older ones.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializerBenchmark {
+
+    @Param({"5", "25", "100"})
+    private int basketSize;
+
+    private Transaction basket;
+    private List<TransactionItem> lines;
+    private Map<String, Item> catalog;
+    private byte[] encoded;
+    private String json;
+    private SuspendedTransaction suspension;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<Item> items = BenchmarkData.catalog(basketSize);
+        catalog = new HashMap<>();
+        for (Item item : items) {
+            catalog.put(item.getUpc(), item);
+        }
+
+        basket = BenchmarkData.basket(BenchmarkData.scans(items, basketSize));
+        lines = basket.getItems();
+        encoded = BasketCodec.encode(lines);
+        json = TransactionSerializer.serializeItems(lines);
+        suspension = TransactionSerializer.createSuspension(basket, "S-BENCH", null);
+    }
+
+    @Benchmark
+    public byte[] codecEncode() {
+        return BasketCodec.encode(lines);
+    }
+
+    @Benchmark
+    public List<BasketCodec.Line> codecDecode() {
+        return BasketCodec.decode(encoded);
+    }
+
+    @Benchmark
+    public String jsonSerialize() {
+        return TransactionSerializer.serializeItems(lines);
+    }
+
+    @Benchmark
+    public List<TransactionItem> jsonDeserialize() {
+        return TransactionSerializer.deserializeItems(json);
+    }
+
+    /**
+     * Suspend: snapshot totals and encode the basket.
+     */
+    @Benchmark
+    public SuspendedTransaction suspend() {
+        return TransactionSerializer.createSuspension(basket, "S-BENCH", null);
+    }
+
+    /**
+     * Resume: decode and rebuild the transaction against the catalog.
+     */
+    @Benchmark
+    public Transaction resume() {
+        return TransactionSerializer.restoreTransaction(suspension, catalog::get);
+    }
+
+    /**
+     * Full round trip through the legacy JSON format.
+     */
+    @Benchmark
+    public List<TransactionItem> jsonRoundTrip() {
+        return TransactionSerializer.deserializeItems(TransactionSerializer.serializeItems(lines));
+    }
+
+    /**
+     * Full round trip through the compact codec.
+     */
+    @Benchmark
+    public Transaction codecRoundTrip() {
+        SuspendedTransaction suspended = TransactionSerializer.createSuspension(basket, "S-BENCH", null);
+        return TransactionSerializer.restoreTransaction(suspended, catalog::get);
+    }
+}
@@ -0,0 +1,88 @@
+package com.am.register.benchmark;
+
+import com.am.register.model.Item;
+import com.am.register.model.TaxBreakdown;
+import com.am.register.model.Transaction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Basket building and the totals the display recomputes after every scan.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransactionBenchmark {
+
+    @Param({"5", "25", "100"})
+    private int basketSize;
+
+    private List<Item> scans;
+    private Item nextScan;
+    private Transaction basket;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<Item> catalog = BenchmarkData.catalog(Math.max(basketSize * 2, 100));
+        scans = BenchmarkData.scans(catalog, basketSize);
+        nextScan = catalog.get(basketSize);  // Not yet in the basket
+        basket = BenchmarkData.basket(scans);
+    }
+
+    /**
+     * Scans a whole basket from empty.
+     */
+    @Benchmark
+    public Transaction buildBasket() {
+        return BenchmarkData.basket(scans);
+    }
+
+    /**
+     * One scan followed by the totals the display shows, as in processUPCScan().
+     */
+    @Benchmark
+    public void scanAndTotal(Blackhole blackhole) {
+        basket.addItem(nextScan);
+        blackhole.consume(basket.getSubtotal());
+        blackhole.consume(basket.getTaxAmount());
+        blackhole.consume(basket.getTotal());
+        basket.removeItem(basket.getLineCount() - 1);
+    }
+
+    @Benchmark
+    public double subtotal() {
+        return basket.getSubtotal();
+    }
+
+    @Benchmark
+    public double taxAmount() {
+        return basket.getTaxAmount();
+    }
+
+    @Benchmark
+    public double total() {
+        return basket.getTotal();
+    }
+
+    @Benchmark
+    public TaxBreakdown taxBreakdown() {
+        return basket.calculateTaxBreakdown();
+    }
+}
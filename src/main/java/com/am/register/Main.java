@@ -1,18 +1,23 @@
 package com.am.register;
 
+import com.am.register.controller.AsyncLane;
 import com.am.register.controller.RegisterController;
 import com.am.register.controller.ScannerInputHandler;
 import com.am.register.database.DatabaseManager;
-import com.am.register.database.DatabaseMigration;  // ADD THIS
+import com.am.register.database.DatabaseMigration;
 import com.am.register.model.Item;
 import com.am.register.model.Transaction;
+import com.am.register.scanner.ScanInputSource;
+import com.am.register.scanner.SocketScanSource;
+import com.am.register.scanner.StreamScanSource;
 import com.am.register.util.H2ServerManager;
 import com.am.register.util.PopularityManager;
+import com.am.register.util.SuspensionStore;
+import com.am.register.view.EventThreadWatchdog;
 import com.am.register.view.MainFrame;
-import com.am.register.model.SuspendedTransaction;
-import com.am.register.model.TransactionItem;
-import com.am.register.util.TransactionSerializer;
-import java.util.List;
+import com.am.register.view.SwingLaneView;
+import java.nio.file.Paths;
+import java.time.Duration;
 
 import javax.swing.*;
 
@@ -50,19 +55,30 @@ public class Main {
         }
         System.out.println("      ✓ Connected");
 
-        // Step 2.5: Run Migration
-        System.out.println("[2.5/6] Running database migration...");
-        DatabaseMigration migration = new DatabaseMigration(dbManager.getConnection());
-        migration.migrateToVersion2();
-
         // Step 3: Create Tables
         System.out.print("[3/6] Creating database tables... ");
         dbManager.createTables();
         System.out.println("✓");
 
+        // Step 3.5: Run Migrations (needs the base tables to exist)
+        System.out.println("[3.5/6] Running database migrations...");
+        DatabaseMigration migration = new DatabaseMigration(dbManager.getConnection());
+        if (!migration.migrate()) {
+            System.err.println("      FAILED: Schema migration refused or incomplete");
+            dbManager.disconnect();
+            showErrorAndExit("Database schema could not be migrated!\n\n" +
+                    "The recorded schema does not match this version of the register\n" +
+                    "(edited, newer or partly applied migrations).\n" +
+                    "See the console output for details.");
+            return;
+        }
+
         // Step 4: Create Controller
         System.out.print("[4/6] Initializing controller... ");
-        RegisterController controller = new RegisterController(dbManager);
+        int maxSuspensions = (int) positiveOption(args, "--max-suspensions", SuspensionStore.DEFAULT_CAPACITY);
+        long suspensionTtlHours = positiveOption(args, "--suspension-ttl-hours", SuspensionStore.DEFAULT_TTL.toHours());
+        RegisterController controller = new RegisterController(dbManager, RegisterController.DEFAULT_LANE_ID,
+                maxSuspensions, Duration.ofHours(suspensionTtlHours));
         System.out.println("✓");
 
         // Step 5: Load Price Book
@@ -84,59 +100,6 @@ public class Main {
         }
         System.out.println("✓");
 
-        // After loading price book, before creating GUI
-        System.out.println("\n=== TESTING SUSPENSION SYSTEM ===");
-
-        // Test 1: Create and serialize a transaction
-        Transaction testTx = new Transaction();
-        Item testItem1 = dbManager.getItemByUPC("049000053418"); // Coca Cola
-        Item testItem2 = dbManager.getItemByUPC("028200003843"); // Marlboro
-        if (testItem1 != null) testTx.addItem(testItem1);
-        if (testItem1 != null) testTx.addItem(testItem1); // Add twice (qty=2)
-        if (testItem2 != null) testTx.addItem(testItem2);
-
-        System.out.println("Test transaction: " + testTx.getItemCount() + " items, $" +
-                String.format("%.2f", testTx.getTotal()));
-
-        // Test 2: Serialize
-        String json = TransactionSerializer.serializeItems(testTx.getItems());
-        System.out.println("Serialized JSON length: " + json.length() + " characters");
-
-        // Test 3: Deserialize
-        List<TransactionItem> restored = TransactionSerializer.deserializeItems(json);
-        System.out.println("Deserialized: " + restored.size() + " line items");
-
-        // Test 4: Create suspension
-        int sequence = dbManager.getNextSuspensionSequence();
-        String suspensionId = SuspendedTransaction.generateSuspensionId(sequence);
-        SuspendedTransaction suspension = TransactionSerializer.createSuspension(
-                testTx, suspensionId, "Test suspension"
-        );
-
-        System.out.println("Created suspension: " + suspension.getSuspensionId());
-
-        // Test 5: Save to database
-        boolean saved = dbManager.saveSuspendedTransaction(suspension);
-        System.out.println("Saved to database: " + (saved ? "✓" : "✗"));
-
-        // Test 6: Load from database
-        List<SuspendedTransaction> loaded = dbManager.getAllSuspendedTransactions();
-        System.out.println("Loaded from database: " + loaded.size() + " suspensions");
-
-        // Test 7: Restore transaction
-        if (!loaded.isEmpty()) {
-            Transaction restoredTx = TransactionSerializer.restoreTransaction(loaded.get(0));
-            System.out.println("Restored transaction: " + restoredTx.getItemCount() + " items, $" +
-                    String.format("%.2f", restoredTx.getTotal()));
-            System.out.println("State: " + restoredTx.getState());
-        }
-
-        // Test 8: Cleanup
-        dbManager.deleteSuspendedTransaction(suspensionId);
-        System.out.println("Cleanup: ✓");
-
-        System.out.println("=== SUSPENSION SYSTEM TEST COMPLETE ===\n");
-
         System.out.println("\n=== PHASE 13B: CONTROLLER SUSPENSION TEST ===");
 
         // Create a test transaction
@@ -157,7 +120,7 @@ public class Main {
 
         System.out.println("Current suspended count: " + controller.getSuspendedTransactionCount());
         System.out.println("Limit reached: " + controller.isSuspensionLimitReached());
-        System.out.println("Max limit: " + 10);
+        System.out.println("Max limit: " + controller.getMaxSuspendedTransactions());
 
         // Test cleanup
         System.out.println("\nTesting daily cleanup...");
@@ -173,9 +136,12 @@ public class Main {
 
         // Step 6: Create Scanner Handler
         System.out.print("[6/6] Initializing scanner handler... ");
-        ScannerInputHandler scannerHandler = new ScannerInputHandler(controller);
-        controller.setScannerHandler(scannerHandler);  // ADD THIS LINE
+        // The lane runs on its own thread so database work never blocks the window
+        AsyncLane lane = new AsyncLane(controller);
+        ScannerInputHandler scannerHandler = new ScannerInputHandler(lane);
+        lane.run(c -> c.addListener(scannerHandler));
         System.out.println("✓");
+        addScannerSources(scannerHandler, args);
 
         System.out.println();
         System.out.println("╔══════════════════════════════════════════╗");
@@ -193,10 +159,11 @@ public class Main {
             }
 
             // Create main frame
-            MainFrame frame = new MainFrame(scannerHandler, controller);
+            MainFrame frame = new MainFrame(scannerHandler, lane);
 
             // Connect view to controller
-            controller.setDisplayPanel(frame.getDisplayPanel());
+            SwingLaneView view = new SwingLaneView(frame.getDisplayPanel());
+            lane.run(c -> c.addListener(view));
 
             // Add window close handler
             frame.addWindowListener(new java.awt.event.WindowAdapter() {
@@ -206,7 +173,8 @@ public class Main {
                     System.out.println("\n╔══════════════════════════════════════════╗");
                     System.out.println("║           SHUTTING DOWN...               ║");
                     System.out.println("╚══════════════════════════════════════════╝");
-                    controller.shutdown();
+                    scannerHandler.shutdown();
+                    lane.shutdown();
                     H2ServerManager.stopServer();
                     System.out.println("\n✓ Goodbye!");
                     System.exit(0);
@@ -216,11 +184,87 @@ public class Main {
             // Show the window
             frame.setVisible(true);
 
+            // Report any work that freezes the window (ui.eventDelay, ui.stalls)
+            new EventThreadWatchdog(controller.getMetrics()).start();
+
             // Print usage instructions
             printUsageInstructions();
         });
     }
 
+    /**
+     * Adds the scanners named on the command line, next to the keyboard wedge:
+     * --scanner-socket PORT, --scanner-stdin, --scanner-device PATH (repeatable).
+     */
+    private static void addScannerSources(ScannerInputHandler scannerHandler, String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            ScanInputSource source;
+            switch (args[i]) {
+                case "--scanner-socket":
+                    int port = SocketScanSource.DEFAULT_PORT;
+                    if (i + 1 < args.length && !args[i + 1].startsWith("--")) {
+                        String value = args[++i];
+                        try {
+                            port = Integer.parseInt(value);
+                        } catch (NumberFormatException e) {
+                            port = -1;
+                        }
+                        if (port < 1 || port > 65535) {
+                            System.err.println("✗ --scanner-socket port must be 1-65535: " + value);
+                            continue;
+                        }
+                    }
+                    source = new SocketScanSource(port);
+                    break;
+                case "--scanner-stdin":
+                    source = StreamScanSource.stdin();
+                    break;
+                case "--scanner-device":
+                    if (i + 1 >= args.length) {
+                        System.err.println("✗ --scanner-device needs a path");
+                        continue;
+                    }
+                    source = StreamScanSource.device(Paths.get(args[++i]));
+                    break;
+                case "--max-suspensions":
+                case "--suspension-ttl-hours":
+                    i++;  // Read by positiveOption()
+                    continue;
+                default:
+                    System.err.println("✗ Unknown option: " + args[i]);
+                    continue;
+            }
+
+            if (scannerHandler.addSource(source)) {
+                System.out.println("      ✓ Scanner input: " + source.getName());
+            }
+        }
+    }
+
+    /**
+     * Reads a positive whole-number option such as --max-suspensions 50.
+     * A missing or bad value is reported and the default kept.
+     */
+    private static long positiveOption(String[] args, String option, long defaultValue) {
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].equals(option)) {
+                continue;
+            }
+            String value = i + 1 < args.length ? args[i + 1] : "";
+            try {
+                long parsed = Long.parseLong(value);
+                if (parsed >= 1 && parsed <= Integer.MAX_VALUE) {
+                    return parsed;
+                }
+            } catch (NumberFormatException e) {
+                // Reported below
+            }
+            System.err.println("✗ " + option + " must be a positive number: " + value
+                    + " (using " + defaultValue + ")");
+        }
+        return defaultValue;
+    }
+
     /**
      * Prints usage instructions to console.
      */
@@ -228,6 +272,8 @@ public class Main {
         System.out.println("USAGE INSTRUCTIONS:");
         System.out.println("─────────────────────────────────────────");
         System.out.println("• Scan items with barcode scanner (works globally)");
+        System.out.println("• More scanners: --scanner-socket PORT, --scanner-stdin, --scanner-device PATH");
+        System.out.println("• Parked baskets: --max-suspensions N, --suspension-ttl-hours N");
         System.out.println("• Click items in grid for quick selection");
         System.out.println("• Type UPC in manual entry field + Enter");
         System.out.println("• Press F2 to clear transaction");
@@ -0,0 +1,117 @@
+package com.am.register.analytics;
+
+import com.am.register.database.DatabaseManager;
+import com.am.register.database.SalesArchiveManager;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * Exports sales history into columnar sales files for offline analysis.
+ * Rows are streamed from the database straight into the writer, so exports of
+ * any size run in bounded memory on a dedicated connection.
+ */
+public class ColumnarSalesExporter {
+
+    private static final int FETCH_SIZE = 5_000;
+
+    private final DatabaseManager databaseManager;
+    private final SalesArchiveManager archiveManager;
+
+    public ColumnarSalesExporter(DatabaseManager databaseManager, SalesArchiveManager archiveManager) {
+        if (databaseManager == null) {
+            throw new IllegalArgumentException("DatabaseManager cannot be null");
+        }
+        this.databaseManager = databaseManager;
+        this.archiveManager = archiveManager;
+    }
+
+    /**
+     * Exports every sold line in a date range, spanning live and archived tables.
+     * @param from First day (inclusive)
+     * @param to Last day (inclusive)
+     * @param file Destination file (overwritten)
+     * @return Number of rows exported, or -1 on failure
+     */
+    public long export(LocalDate from, LocalDate to, Path file) {
+        Timestamp start = Timestamp.valueOf(from.atStartOfDay());
+        Timestamp end = Timestamp.valueOf(to.plusDays(1).atStartOfDay());
+        Path partial = file.resolveSibling(file.getFileName() + ".partial");
+
+        try (Connection conn = databaseManager.openConnection()) {
+            List<String[]> sources = archiveManager.getSourceTablesBetween(conn, from, to);
+
+            long rows;
+            try (ColumnarSalesWriter writer = new ColumnarSalesWriter(partial)) {
+                for (String[] source : sources) {
+                    exportSource(conn, source[0], source[1], start, end, writer);
+                }
+                rows = writer.getRowCount();
+            }
+
+            // The writer is closed, so the file is complete before it takes the final name
+            Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING);
+
+            System.out.println("✓ Exported " + rows + " sales lines (" +
+                    from + " to " + to + ") to " + file);
+            return rows;
+
+        } catch (SQLException | IOException e) {
+            System.err.println("✗ Columnar export failed: " + e.getMessage());
+            try {
+                Files.deleteIfExists(partial);
+            } catch (IOException ignored) {
+                // Leave the partial file; it is never read as a complete export
+            }
+            return -1;
+        }
+    }
+
+    private void exportSource(Connection conn, String transactionsTable, String itemsTable,
+                              Timestamp start, Timestamp end, ColumnarSalesWriter writer)
+            throws SQLException, IOException {
+        String sql = "SELECT T.TIMESTAMP, T.PAYMENT_METHOD, TI.UPC, TI.DESCRIPTION, " +
+                "I.CATEGORY, TI.QUANTITY, TI.UNIT_PRICE, TI.LINE_TOTAL " +
+                "FROM " + itemsTable + " TI " +
+                "JOIN " + transactionsTable + " T ON TI.TRANSACTION_ID = T.TRANSACTION_ID " +
+                "LEFT JOIN ITEMS I ON I.UPC = TI.UPC " +
+                "WHERE T.TIMESTAMP >= ? AND T.TIMESTAMP < ?";
+
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setFetchSize(FETCH_SIZE);
+            pstmt.setTimestamp(1, start);
+            pstmt.setTimestamp(2, end);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    String category = rs.getString(5);
+                    writer.append(
+                            rs.getTimestamp(1).toLocalDateTime().toEpochSecond(ZoneOffset.UTC),
+                            rs.getString(3),
+                            rs.getString(4),
+                            category != null ? category : "OTHER",
+                            rs.getString(2),
+                            rs.getInt(6),
+                            toCents(rs.getBigDecimal(7)),
+                            toCents(rs.getBigDecimal(8)));
+                }
+            }
+        }
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValue();
+    }
+}
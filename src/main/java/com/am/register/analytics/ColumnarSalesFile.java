@@ -0,0 +1,72 @@
+package com.am.register.analytics;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Layout constants and varint codec for the columnar sales file (.posc).
+ *
+ * File layout:
+ *   header:    MAGIC (int), VERSION (short)
+ *   row group: rowCount (int), then one block per dictionary and per Column,
+ *              each block = rawLength (int), compressedLength (int), deflated bytes
+ *   footer:    groupCount (int), per group: offset (long), rows (int), minEpoch (long), maxEpoch (long)
+ *   trailer:   footerOffset (long), MAGIC (int)
+ *
+ * Every row group carries its own dictionaries, so groups can be decoded
+ * independently and scanned in parallel.
+ */
+public final class ColumnarSalesFile {
+
+    static final int MAGIC = 0x504F5343;  // "POSC"
+    static final short VERSION = 1;
+    static final int HEADER_BYTES = 6;
+    static final int TRAILER_BYTES = 12;
+    static final int DEFAULT_ROWS_PER_GROUP = 65_536;
+
+    /**
+     * Dictionary-encoded string columns, in on-disk order.
+     */
+    public enum Dictionary {
+        UPC, DESCRIPTION, CATEGORY, PAYMENT_METHOD
+    }
+
+    /**
+     * Numeric columns, in on-disk order after the dictionaries.
+     * Dictionary columns hold ids into the matching Dictionary.
+     */
+    public enum Column {
+        EPOCH_SECOND,     // local wall-clock seconds, stored as delta from the group minimum
+        UPC_ID,
+        DESCRIPTION_ID,
+        CATEGORY_ID,
+        PAYMENT_METHOD_ID,
+        QUANTITY,
+        UNIT_PRICE_CENTS,
+        LINE_TOTAL_CENTS
+    }
+
+    private ColumnarSalesFile() {
+    }
+
+    static void writeVarLong(ByteArrayOutputStream out, long value) {
+        long zigzag = (value << 1) ^ (value >> 63);
+        while ((zigzag & ~0x7FL) != 0) {
+            out.write((int) ((zigzag & 0x7F) | 0x80));
+            zigzag >>>= 7;
+        }
+        out.write((int) zigzag);
+    }
+
+    static long readVarLong(ByteBuffer in) {
+        long result = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = in.get();
+            result |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return (result >>> 1) ^ -(result & 1);
+    }
+}
@@ -0,0 +1,192 @@
+package com.am.register.analytics;
+
+import com.am.register.analytics.ColumnarSalesFile.Column;
+import com.am.register.analytics.ColumnarSalesFile.Dictionary;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Reads a columnar sales file written by ColumnarSalesWriter.
+ * Row groups are read with positional I/O, so one reader can serve
+ * several scanning threads at once.
+ */
+public class ColumnarSalesReader implements AutoCloseable {
+
+    private final FileChannel channel;
+    private final long[] groupOffsets;
+    private final int[] groupRows;
+    private final long[] groupMinEpoch;
+    private final long[] groupMaxEpoch;
+    private final long footerOffset;
+
+    public ColumnarSalesReader(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+
+        try {
+            ByteBuffer header = readFully(0, ColumnarSalesFile.HEADER_BYTES);
+            if (header.getInt() != ColumnarSalesFile.MAGIC) {
+                throw new IOException("Not a columnar sales file: " + file);
+            }
+            short version = header.getShort();
+            if (version != ColumnarSalesFile.VERSION) {
+                throw new IOException("Unsupported columnar sales file version " + version + ": " + file);
+            }
+
+            long size = channel.size();
+            ByteBuffer trailer = readFully(size - ColumnarSalesFile.TRAILER_BYTES, ColumnarSalesFile.TRAILER_BYTES);
+            footerOffset = trailer.getLong();
+            if (trailer.getInt() != ColumnarSalesFile.MAGIC) {
+                throw new IOException("Truncated columnar sales file: " + file);
+            }
+
+            ByteBuffer footer = readFully(footerOffset, (int) (size - ColumnarSalesFile.TRAILER_BYTES - footerOffset));
+            int groups = footer.getInt();
+            groupOffsets = new long[groups];
+            groupRows = new int[groups];
+            groupMinEpoch = new long[groups];
+            groupMaxEpoch = new long[groups];
+            for (int i = 0; i < groups; i++) {
+                groupOffsets[i] = footer.getLong();
+                groupRows[i] = footer.getInt();
+                groupMinEpoch[i] = footer.getLong();
+                groupMaxEpoch[i] = footer.getLong();
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public int getRowGroupCount() {
+        return groupOffsets.length;
+    }
+
+    public int getRowCount(int group) {
+        return groupRows[group];
+    }
+
+    public long getMinEpochSecond(int group) {
+        return groupMinEpoch[group];
+    }
+
+    public long getMaxEpochSecond(int group) {
+        return groupMaxEpoch[group];
+    }
+
+    /**
+     * Loads a row group. Columns are decompressed only when requested.
+     */
+    public RowGroup readRowGroup(int group) throws IOException {
+        long start = groupOffsets[group];
+        long end = group + 1 < groupOffsets.length ? groupOffsets[group + 1] : footerOffset;
+        return new RowGroup(readFully(start, (int) (end - start)), groupMinEpoch[group]);
+    }
+
+    private ByteBuffer readFully(long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new IOException("Unexpected end of columnar sales file");
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * One decoded-on-demand row group.
+     */
+    public static class RowGroup {
+        private final ByteBuffer data;
+        private final int rowCount;
+        private final long minEpoch;
+        private final int[] blockOffsets;
+
+        RowGroup(ByteBuffer data, long minEpoch) {
+            this.data = data;
+            this.minEpoch = minEpoch;
+            this.rowCount = data.getInt();
+
+            int blocks = Dictionary.values().length + Column.values().length;
+            this.blockOffsets = new int[blocks];
+            int position = data.position();
+            for (int i = 0; i < blocks; i++) {
+                blockOffsets[i] = position;
+                int compressedLength = data.getInt(position + 4);
+                position += 8 + compressedLength;
+            }
+        }
+
+        public int getRowCount() {
+            return rowCount;
+        }
+
+        /**
+         * Decodes a dictionary; index i holds the string for id i.
+         */
+        public String[] dictionary(Dictionary dictionary) throws IOException {
+            ByteBuffer block = inflate(dictionary.ordinal());
+            String[] values = new String[(int) ColumnarSalesFile.readVarLong(block)];
+            for (int i = 0; i < values.length; i++) {
+                int length = (int) ColumnarSalesFile.readVarLong(block);
+                values[i] = new String(block.array(), block.position(), length, StandardCharsets.UTF_8);
+                block.position(block.position() + length);
+            }
+            return values;
+        }
+
+        /**
+         * Decodes a numeric column into a fresh array of rowCount values.
+         */
+        public long[] column(Column column) throws IOException {
+            ByteBuffer block = inflate(Dictionary.values().length + column.ordinal());
+            long base = column == Column.EPOCH_SECOND ? minEpoch : 0;
+            long[] values = new long[rowCount];
+            for (int i = 0; i < rowCount; i++) {
+                values[i] = ColumnarSalesFile.readVarLong(block) + base;
+            }
+            return values;
+        }
+
+        private ByteBuffer inflate(int block) throws IOException {
+            int offset = blockOffsets[block];
+            int rawLength = data.getInt(offset);
+            int compressedLength = data.getInt(offset + 4);
+
+            byte[] raw = new byte[rawLength];
+            Inflater inflater = new Inflater();
+            try {
+                inflater.setInput(data.array(), data.arrayOffset() + offset + 8, compressedLength);
+                int length = 0;
+                while (length < rawLength) {
+                    int n = inflater.inflate(raw, length, rawLength - length);
+                    if (n == 0 && (inflater.finished() || inflater.needsInput())) {
+                        break;
+                    }
+                    length += n;
+                }
+                if (length != rawLength) {
+                    throw new IOException("Corrupt column block");
+                }
+            } catch (DataFormatException e) {
+                throw new IOException("Corrupt column block: " + e.getMessage(), e);
+            } finally {
+                inflater.end();
+            }
+            return ByteBuffer.wrap(raw);
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package com.am.register.analytics;
+
+import com.am.register.analytics.ColumnarSalesFile.Column;
+import com.am.register.analytics.ColumnarSalesFile.Dictionary;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Runs filtered aggregations over columnar sales files.
+ * Row groups outside the time filter are skipped using the footer alone;
+ * the remaining groups are decoded and aggregated in parallel across cores.
+ * Never touches the register database.
+ */
+public class ColumnarSalesScanner {
+
+    private final int parallelism;
+
+    public ColumnarSalesScanner() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public ColumnarSalesScanner(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1");
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Row filter. Null fields match everything.
+     */
+    public static class Filter {
+        private LocalDateTime from;
+        private LocalDateTime to;
+        private String upc;
+        private String category;
+        private String paymentMethod;
+
+        /** Limits to sales at or after from and before to. */
+        public Filter between(LocalDateTime from, LocalDateTime to) {
+            this.from = from;
+            this.to = to;
+            return this;
+        }
+
+        public Filter upc(String upc) {
+            this.upc = upc;
+            return this;
+        }
+
+        public Filter category(String category) {
+            this.category = category;
+            return this;
+        }
+
+        public Filter paymentMethod(String paymentMethod) {
+            this.paymentMethod = paymentMethod;
+            return this;
+        }
+
+        long fromEpoch() {
+            return from != null ? from.toEpochSecond(ZoneOffset.UTC) : Long.MIN_VALUE;
+        }
+
+        long toEpoch() {
+            return to != null ? to.toEpochSecond(ZoneOffset.UTC) : Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * Aggregated totals for one UPC.
+     */
+    public static class Totals {
+        private String description;
+        private long unitsSold;
+        private long revenueCents;
+        private int lineCount;
+
+        void merge(Totals other) {
+            if (description == null) {
+                description = other.description;
+            }
+            unitsSold += other.unitsSold;
+            revenueCents += other.revenueCents;
+            lineCount += other.lineCount;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        public long getUnitsSold() {
+            return unitsSold;
+        }
+
+        public double getRevenue() {
+            return revenueCents / 100.0;
+        }
+
+        public int getLineCount() {
+            return lineCount;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: %d units, $%.2f", description, unitsSold, getRevenue());
+        }
+    }
+
+    /**
+     * Aggregates units and revenue per UPC over all matching rows in the given files.
+     */
+    public Map<String, Totals> aggregateByUpc(List<Path> files, Filter filter) throws IOException {
+        Filter effective = filter != null ? filter : new Filter();
+        List<ColumnarSalesReader> readers = new ArrayList<>();
+
+        try {
+            List<Object[]> tasks = new ArrayList<>();
+            for (Path file : files) {
+                ColumnarSalesReader reader = new ColumnarSalesReader(file);
+                readers.add(reader);
+
+                for (int group = 0; group < reader.getRowGroupCount(); group++) {
+                    if (reader.getMaxEpochSecond(group) >= effective.fromEpoch() &&
+                            reader.getMinEpochSecond(group) < effective.toEpoch()) {
+                        tasks.add(new Object[]{reader, group});
+                    }
+                }
+            }
+
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                return pool.submit(() -> tasks.parallelStream()
+                        .map(task -> scanGroup((ColumnarSalesReader) task[0], (Integer) task[1], effective))
+                        .reduce(new HashMap<>(), ColumnarSalesScanner::mergeInto))
+                        .get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Scan interrupted", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof UncheckedIOException) {
+                    throw ((UncheckedIOException) e.getCause()).getCause();
+                }
+                throw new IOException("Scan failed: " + e.getCause(), e.getCause());
+            } finally {
+                pool.shutdown();
+            }
+
+        } finally {
+            for (ColumnarSalesReader reader : readers) {
+                reader.close();
+            }
+        }
+    }
+
+    private static Map<String, Totals> mergeInto(Map<String, Totals> left, Map<String, Totals> right) {
+        Map<String, Totals> merged = new HashMap<>(left);
+        right.forEach((upc, totals) -> merged.merge(upc, totals, (a, b) -> {
+            Totals sum = new Totals();
+            sum.merge(a);
+            sum.merge(b);
+            return sum;
+        }));
+        return merged;
+    }
+
+    /**
+     * Scans one row group. Filters are resolved to dictionary ids first,
+     * so string comparisons happen once per group rather than once per row.
+     */
+    private static Map<String, Totals> scanGroup(ColumnarSalesReader reader, int group, Filter filter) {
+        try {
+            ColumnarSalesReader.RowGroup rows = reader.readRowGroup(group);
+            String[] upcs = rows.dictionary(Dictionary.UPC);
+            String[] descriptions = rows.dictionary(Dictionary.DESCRIPTION);
+
+            int upcId = resolve(filter.upc, upcs);
+            int categoryId = filter.category == null ? -1 : resolve(filter.category, rows.dictionary(Dictionary.CATEGORY));
+            int paymentId = filter.paymentMethod == null ? -1
+                    : resolve(filter.paymentMethod, rows.dictionary(Dictionary.PAYMENT_METHOD));
+
+            // A filter value absent from this group's dictionary matches nothing
+            if (upcId == -2 || categoryId == -2 || paymentId == -2) {
+                return new HashMap<>();
+            }
+
+            long from = filter.fromEpoch();
+            long to = filter.toEpoch();
+            boolean timeFiltered = reader.getMinEpochSecond(group) < from || reader.getMaxEpochSecond(group) >= to;
+
+            long[] epochs = timeFiltered ? rows.column(Column.EPOCH_SECOND) : null;
+            long[] upcIds = rows.column(Column.UPC_ID);
+            long[] descriptionIds = rows.column(Column.DESCRIPTION_ID);
+            long[] categoryIds = categoryId >= 0 ? rows.column(Column.CATEGORY_ID) : null;
+            long[] paymentIds = paymentId >= 0 ? rows.column(Column.PAYMENT_METHOD_ID) : null;
+            long[] quantities = rows.column(Column.QUANTITY);
+            long[] lineTotals = rows.column(Column.LINE_TOTAL_CENTS);
+
+            Totals[] byUpcId = new Totals[upcs.length];
+            for (int i = 0; i < rows.getRowCount(); i++) {
+                if (epochs != null && (epochs[i] < from || epochs[i] >= to)) continue;
+                if (upcId >= 0 && upcIds[i] != upcId) continue;
+                if (categoryIds != null && categoryIds[i] != categoryId) continue;
+                if (paymentIds != null && paymentIds[i] != paymentId) continue;
+
+                int id = (int) upcIds[i];
+                Totals totals = byUpcId[id];
+                if (totals == null) {
+                    totals = new Totals();
+                    totals.description = descriptions[(int) descriptionIds[i]];
+                    byUpcId[id] = totals;
+                }
+                totals.unitsSold += quantities[i];
+                totals.revenueCents += lineTotals[i];
+                totals.lineCount++;
+            }
+
+            Map<String, Totals> result = new HashMap<>();
+            for (int id = 0; id < byUpcId.length; id++) {
+                if (byUpcId[id] != null) {
+                    result.put(upcs[id], byUpcId[id]);
+                }
+            }
+            return result;
+
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Looks up a filter value's id: -1 when unfiltered, -2 when not present.
+     */
+    private static int resolve(String value, String[] dictionary) {
+        if (value == null) {
+            return -1;
+        }
+        for (int i = 0; i < dictionary.length; i++) {
+            if (dictionary[i].equals(value)) {
+                return i;
+            }
+        }
+        return -2;
+    }
+}
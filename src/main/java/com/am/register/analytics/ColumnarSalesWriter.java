@@ -0,0 +1,205 @@
+package com.am.register.analytics;
+
+import com.am.register.analytics.ColumnarSalesFile.Column;
+import com.am.register.analytics.ColumnarSalesFile.Dictionary;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+
+/**
+ * Streams sales line rows into a columnar sales file.
+ * Rows are buffered per column and flushed as a compressed row group
+ * every rowsPerGroup rows, so memory use is bounded regardless of history size.
+ */
+public class ColumnarSalesWriter implements AutoCloseable {
+
+    private final DataOutputStream out;
+    private final int rowsPerGroup;
+    private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    private final List<long[]> footer = new ArrayList<>();
+    private long position;
+
+    // Current row group
+    private final long[][] columns = new long[Column.values().length][];
+    private final List<Map<String, Integer>> dictionaries = new ArrayList<>();
+    private int rowCount;
+    private long totalRows;
+    private boolean closed;
+
+    public ColumnarSalesWriter(Path file) throws IOException {
+        this(file, ColumnarSalesFile.DEFAULT_ROWS_PER_GROUP);
+    }
+
+    public ColumnarSalesWriter(Path file, int rowsPerGroup) throws IOException {
+        if (rowsPerGroup < 1) {
+            throw new IllegalArgumentException("rowsPerGroup must be positive");
+        }
+        this.rowsPerGroup = rowsPerGroup;
+        this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 1 << 16));
+
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = new long[Math.min(rowsPerGroup, 1024)];
+        }
+        for (int i = 0; i < Dictionary.values().length; i++) {
+            dictionaries.add(new HashMap<>());
+        }
+
+        out.writeInt(ColumnarSalesFile.MAGIC);
+        out.writeShort(ColumnarSalesFile.VERSION);
+        position = ColumnarSalesFile.HEADER_BYTES;
+    }
+
+    /**
+     * Appends one sold line.
+     */
+    public void append(long epochSecond, String upc, String description, String category,
+                       String paymentMethod, int quantity, long unitPriceCents, long lineTotalCents)
+            throws IOException {
+        if (rowCount == columns[0].length) {
+            int grown = Math.min(rowsPerGroup, rowCount * 2);
+            for (int i = 0; i < columns.length; i++) {
+                columns[i] = Arrays.copyOf(columns[i], grown);
+            }
+        }
+
+        int row = rowCount++;
+        columns[Column.EPOCH_SECOND.ordinal()][row] = epochSecond;
+        columns[Column.UPC_ID.ordinal()][row] = encode(Dictionary.UPC, upc);
+        columns[Column.DESCRIPTION_ID.ordinal()][row] = encode(Dictionary.DESCRIPTION, description);
+        columns[Column.CATEGORY_ID.ordinal()][row] = encode(Dictionary.CATEGORY, category);
+        columns[Column.PAYMENT_METHOD_ID.ordinal()][row] = encode(Dictionary.PAYMENT_METHOD, paymentMethod);
+        columns[Column.QUANTITY.ordinal()][row] = quantity;
+        columns[Column.UNIT_PRICE_CENTS.ordinal()][row] = unitPriceCents;
+        columns[Column.LINE_TOTAL_CENTS.ordinal()][row] = lineTotalCents;
+        totalRows++;
+
+        if (rowCount == rowsPerGroup) {
+            flushGroup();
+        }
+    }
+
+    private int encode(Dictionary dictionary, String value) {
+        Map<String, Integer> ids = dictionaries.get(dictionary.ordinal());
+        String key = value != null ? value : "";
+        return ids.computeIfAbsent(key, k -> ids.size());
+    }
+
+    /**
+     * Gets the number of rows written so far.
+     */
+    public long getRowCount() {
+        return totalRows;
+    }
+
+    private void flushGroup() throws IOException {
+        if (rowCount == 0) {
+            return;
+        }
+
+        long[] epochs = columns[Column.EPOCH_SECOND.ordinal()];
+        long minEpoch = Long.MAX_VALUE;
+        long maxEpoch = Long.MIN_VALUE;
+        for (int i = 0; i < rowCount; i++) {
+            minEpoch = Math.min(minEpoch, epochs[i]);
+            maxEpoch = Math.max(maxEpoch, epochs[i]);
+        }
+        footer.add(new long[]{position, rowCount, minEpoch, maxEpoch});
+
+        out.writeInt(rowCount);
+        position += 4;
+
+        ByteArrayOutputStream raw = new ByteArrayOutputStream(rowCount * 2);
+
+        for (Map<String, Integer> ids : dictionaries) {
+            String[] values = new String[ids.size()];
+            ids.forEach((value, id) -> values[id] = value);
+
+            raw.reset();
+            ColumnarSalesFile.writeVarLong(raw, values.length);
+            for (String value : values) {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                ColumnarSalesFile.writeVarLong(raw, bytes.length);
+                raw.write(bytes, 0, bytes.length);
+            }
+            writeBlock(raw);
+        }
+
+        for (Column column : Column.values()) {
+            long[] values = columns[column.ordinal()];
+            long base = column == Column.EPOCH_SECOND ? minEpoch : 0;
+
+            raw.reset();
+            for (int i = 0; i < rowCount; i++) {
+                ColumnarSalesFile.writeVarLong(raw, values[i] - base);
+            }
+            writeBlock(raw);
+        }
+
+        rowCount = 0;
+        for (Map<String, Integer> ids : dictionaries) {
+            ids.clear();
+        }
+    }
+
+    private void writeBlock(ByteArrayOutputStream raw) throws IOException {
+        byte[] input = raw.toByteArray();
+        byte[] compressed = new byte[input.length + 64];
+
+        deflater.reset();
+        deflater.setInput(input);
+        deflater.finish();
+        int length = 0;
+        while (!deflater.finished()) {
+            if (length == compressed.length) {
+                compressed = Arrays.copyOf(compressed, compressed.length * 2);
+            }
+            length += deflater.deflate(compressed, length, compressed.length - length);
+        }
+
+        out.writeInt(input.length);
+        out.writeInt(length);
+        out.write(compressed, 0, length);
+        position += 8 + length;
+    }
+
+    /**
+     * Flushes the last row group and writes the footer.
+     * Safe to call more than once.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+
+        try {
+            flushGroup();
+
+            long footerOffset = position;
+            out.writeInt(footer.size());
+            for (long[] entry : footer) {
+                out.writeLong(entry[0]);
+                out.writeInt((int) entry[1]);
+                out.writeLong(entry[2]);
+                out.writeLong(entry[3]);
+            }
+            out.writeLong(footerOffset);
+            out.writeInt(ColumnarSalesFile.MAGIC);
+        } finally {
+            deflater.end();
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.am.register.api;
+
+import com.am.register.controller.LaneListener;
+import com.am.register.controller.RegisterController;
+
+/**
+ * One lane opened through the HTTP API.
+ * A lane is driven by one request at a time: handlers hold the lane's monitor
+ * for the whole call, including writing the response, because the basket
+ * they report is live. A slow client therefore only delays its own lane.
+ */
+class ApiLane implements LaneListener {
+
+    private final RegisterController controller;
+    private String lastError;  // Guarded by this
+    private long lastUsedNanos = System.nanoTime();  // Guarded by this
+    private boolean closed;  // Guarded by this
+
+    ApiLane(RegisterController controller) {
+        this.controller = controller;
+        controller.addListener(this);
+    }
+
+    RegisterController getController() {
+        return controller;
+    }
+
+    /**
+     * Marks the start of a request and clears the previous request's error.
+     * @return false if the lane has been closed and must not be used
+     */
+    synchronized boolean begin() {
+        if (closed) {
+            return false;
+        }
+        lastError = null;
+        lastUsedNanos = System.nanoTime();
+        return true;
+    }
+
+    /**
+     * Gets the error the controller raised during the current request, if any.
+     */
+    synchronized String takeError() {
+        String error = lastError;
+        lastError = null;
+        return error;
+    }
+
+    synchronized long getIdleNanos() {
+        return System.nanoTime() - lastUsedNanos;
+    }
+
+    /**
+     * Closes the lane's controller and connection. Later requests find it closed.
+     */
+    synchronized void close() {
+        if (!closed) {
+            closed = true;
+            controller.removeListener(this);
+            controller.shutdown();
+        }
+    }
+
+    @Override
+    public synchronized void errorRaised(String message) {
+        lastError = message;
+    }
+}
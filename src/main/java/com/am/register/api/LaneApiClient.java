@@ -0,0 +1,245 @@
+package com.am.register.api;
+
+import com.am.register.model.CardType;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+/**
+ * Client for the lane API, used by devices written in Java and by the load generator.
+ * Thread-safe; one client can drive any number of lanes over pooled
+ * keep-alive connections. Refusals come back as responses with an error,
+ * not exceptions; IOException means the server could not be reached.
+ */
+public class LaneApiClient {
+
+    public static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(10);
+
+    private final HttpClient http;
+    private final String baseUrl;
+    private final Duration timeout;
+
+    /**
+     * @param baseUrl Server address, e.g. "http://127.0.0.1:8765"
+     */
+    public LaneApiClient(String baseUrl) {
+        this(baseUrl, DEFAULT_TIMEOUT);
+    }
+
+    public LaneApiClient(String baseUrl, Duration timeout) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.timeout = timeout;
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(timeout)
+                .build();
+    }
+
+    /**
+     * A parsed reply: the HTTP status and its JSON body.
+     */
+    public static class Response {
+        private final int status;
+        private final JsonObject body;
+
+        Response(int status, JsonObject body) {
+            this.status = status;
+            this.body = body;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+
+        public JsonObject getBody() {
+            return body;
+        }
+
+        public boolean isOk() {
+            return status >= 200 && status < 300;
+        }
+
+        /**
+         * Gets the server's explanation of a refusal, or null on success.
+         */
+        public String getError() {
+            if (isOk()) {
+                return null;
+            }
+            return body.has("error") ? body.get("error").getAsString() : "HTTP " + status;
+        }
+
+        /**
+         * Gets the lane's basket as it stood after the request, or null if not included.
+         */
+        public JsonObject getTransaction() {
+            return body.has("transaction") ? body.getAsJsonObject("transaction") : null;
+        }
+    }
+
+    // ==================== LANES ====================
+
+    public Response openLane(String laneId) throws IOException {
+        return send("POST", lanePath(laneId), null);
+    }
+
+    public Response getLane(String laneId) throws IOException {
+        return send("GET", lanePath(laneId), null);
+    }
+
+    public Response closeLane(String laneId) throws IOException {
+        return send("DELETE", lanePath(laneId), null);
+    }
+
+    public Response scan(String laneId, String upc) throws IOException {
+        JsonObject body = new JsonObject();
+        body.addProperty("upc", upc);
+        return send("POST", lanePath(laneId) + "/scan", body);
+    }
+
+    public Response voidLine(String laneId, int line) throws IOException {
+        JsonObject body = new JsonObject();
+        body.addProperty("line", line);
+        return send("POST", lanePath(laneId) + "/void", body);
+    }
+
+    public Response changeQuantity(String laneId, int line, int quantity) throws IOException {
+        JsonObject body = new JsonObject();
+        body.addProperty("line", line);
+        body.addProperty("quantity", quantity);
+        return send("POST", lanePath(laneId) + "/quantity", body);
+    }
+
+    public Response suspend(String laneId, String note) throws IOException {
+        JsonObject body = new JsonObject();
+        body.addProperty("note", note);
+        return send("POST", lanePath(laneId) + "/suspend", body);
+    }
+
+    public Response resume(String laneId, String suspensionId) throws IOException {
+        JsonObject body = new JsonObject();
+        body.addProperty("suspensionId", suspensionId);
+        return send("POST", lanePath(laneId) + "/resume", body);
+    }
+
+    public Response deleteSuspension(String laneId, String suspensionId) throws IOException {
+        return send("DELETE", lanePath(laneId) + "/suspensions/" + encode(suspensionId), null);
+    }
+
+    /**
+     * Pays the exact total in cash.
+     */
+    public Response tenderExact(String laneId) throws IOException {
+        return tender(laneId, "EXACT", null, null);
+    }
+
+    public Response tenderCash(String laneId, double amount) throws IOException {
+        return tender(laneId, "CASH", amount, null);
+    }
+
+    public Response tenderCard(String laneId, CardType cardType) throws IOException {
+        return tender(laneId, "CARD", null, cardType);
+    }
+
+    private Response tender(String laneId, String method, Double amount, CardType cardType) throws IOException {
+        JsonObject body = new JsonObject();
+        body.addProperty("method", method);
+        if (amount != null) {
+            body.addProperty("amount", amount);
+        }
+        if (cardType != null) {
+            body.addProperty("cardType", cardType.name());
+        }
+        return send("POST", lanePath(laneId) + "/tender", body);
+    }
+
+    public Response clear(String laneId) throws IOException {
+        return send("POST", lanePath(laneId) + "/clear", null);
+    }
+
+    // ==================== SHARED ====================
+
+    public Response listItems() throws IOException {
+        return send("GET", "/items", null);
+    }
+
+    public Response listSuspensions() throws IOException {
+        return send("GET", "/suspensions", null);
+    }
+
+    /**
+     * Lists parked baskets whose note has words starting with every word of the query.
+     */
+    public Response searchSuspensions(String query) throws IOException {
+        return send("GET", "/suspensions?q=" + encode(query), null);
+    }
+
+    /**
+     * Gets a receipt's printable text.
+     * @return The text, or null if the server has no such receipt
+     */
+    public String getReceiptText(String receiptNumber) throws IOException {
+        HttpResponse<String> response = execute(request("GET", "/receipts/" + encode(receiptNumber), null),
+                HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+        return response.statusCode() == 200 ? response.body() : null;
+    }
+
+    // ==================== TRANSPORT ====================
+
+    private static String lanePath(String laneId) {
+        return "/lanes/" + encode(laneId);
+    }
+
+    private static String encode(String segment) {
+        return URLEncoder.encode(segment, StandardCharsets.UTF_8).replace("+", "%20");
+    }
+
+    private HttpRequest request(String method, String path, JsonObject body) {
+        HttpRequest.BodyPublisher publisher = body != null
+                ? HttpRequest.BodyPublishers.ofString(body.toString(), StandardCharsets.UTF_8)
+                : HttpRequest.BodyPublishers.noBody();
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(timeout)
+                .method(method, publisher);
+        if (body != null) {
+            builder.header("Content-Type", "application/json; charset=utf-8");
+        }
+        return builder.build();
+    }
+
+    /**
+     * Sends a request and parses the reply as it arrives.
+     */
+    private Response send(String method, String path, JsonObject body) throws IOException {
+        HttpResponse<InputStream> response = execute(request(method, path, body),
+                HttpResponse.BodyHandlers.ofInputStream());
+        try (InputStreamReader reader = new InputStreamReader(response.body(), StandardCharsets.UTF_8)) {
+            JsonElement parsed = JsonParser.parseReader(reader);
+            JsonObject json = parsed.isJsonObject() ? parsed.getAsJsonObject() : new JsonObject();
+            return new Response(response.statusCode(), json);
+        } catch (JsonParseException e) {
+            throw new IOException("Unreadable reply to " + method + " " + path + ": " + e.getMessage(), e);
+        }
+    }
+
+    private <T> HttpResponse<T> execute(HttpRequest request, HttpResponse.BodyHandler<T> handler) throws IOException {
+        try {
+            return http.send(request, handler);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted waiting for " + request.uri(), e);
+        }
+    }
+}
@@ -0,0 +1,822 @@
+package com.am.register.api;
+
+import com.am.register.controller.RegisterController;
+import com.am.register.database.DatabaseManager;
+import com.am.register.database.DatabaseMigration;
+import com.am.register.database.PriceBookParser;
+import com.am.register.model.CardType;
+import com.am.register.model.InputSource;
+import com.am.register.model.Item;
+import com.am.register.model.Payment;
+import com.am.register.model.Receipt;
+import com.am.register.model.SuspendedTransaction;
+import com.am.register.model.Transaction;
+import com.am.register.model.TransactionItem;
+import com.am.register.service.RegisterServices;
+import com.am.register.util.ConsoleJournal;
+import com.am.register.util.SuspensionStore;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonWriter;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local HTTP/JSON API for kiosks and handheld line-busting devices.
+ * Each device opens its own lane and drives it with small JSON requests;
+ * every lane is an ordinary headless RegisterController on shared services.
+ *
+ * <pre>
+ * GET    /lanes                            Open lanes
+ * POST   /lanes/{lane}                     Open a lane (or rejoin it)
+ * GET    /lanes/{lane}                     Current basket
+ * DELETE /lanes/{lane}                     Close an empty lane
+ * POST   /lanes/{lane}/scan                {"upc": "...", "source": "SCANNER"}
+ * POST   /lanes/{lane}/void                {"line": 0}
+ * POST   /lanes/{lane}/quantity            {"line": 0, "quantity": 3}
+ * POST   /lanes/{lane}/suspend             {"note": "..."}
+ * POST   /lanes/{lane}/resume              {"suspensionId": "S-20250101-001"}
+ * POST   /lanes/{lane}/tender              {"method": "EXACT|NEXT_DOLLAR|CASH|CARD", "amount": 20, "cardType": "VISA"}
+ * POST   /lanes/{lane}/clear
+ * DELETE /lanes/{lane}/suspensions/{id}    Discard a parked basket
+ * GET    /suspensions[?q=words]           Parked baskets, newest first; q matches note word prefixes
+ * GET    /items                           Catalog
+ * GET    /receipts/{number}               Receipt text
+ * </pre>
+ *
+ * Lane responses carry the basket after the action; refusals return
+ * {"error": "..."} with 400, 404, 409 or 503. Bodies are written straight to
+ * the connection as they are produced (chunked) rather than built in memory.
+ *
+ * Connections are multiplexed by the server's dispatcher, so open lanes cost
+ * a controller and a JDBC connection each, not a thread; requests run on a
+ * fixed worker pool sized for the database rather than for the lane count.
+ * Lanes left idle with an empty basket are closed to return their connections.
+ *
+ * Usage: LaneApiServer [--port 8765] [--bind 127.0.0.1] [--jdbc url] [--threads 32]
+ *        [--max-lanes 256] [--idle-minutes 30] [--max-suspensions 200]
+ *        [--suspension-ttl-hours 24] [--console]
+ */
+public class LaneApiServer {
+
+    public static final int DEFAULT_PORT = 8765;
+    public static final int DEFAULT_THREADS = 32;
+    public static final int DEFAULT_MAX_LANES = 256;
+    public static final Duration DEFAULT_IDLE_TIMEOUT = Duration.ofMinutes(30);
+
+    private static final String PRICE_BOOK = "pricebook_categorized.tsv";
+    private static final String JSON = "application/json; charset=utf-8";
+
+    private final RegisterServices services;
+    private final int maxLanes;
+    private final long idleTimeoutNanos;
+    private final Map<String, ApiLane> lanes = new ConcurrentHashMap<>();
+    private final Object openLock = new Object();  // Serializes opening so the lane cap holds
+    private final HttpServer server;
+    private final ExecutorService workers;
+    private final ScheduledExecutorService reaper;
+
+    /**
+     * @param services Shared services the lanes run on; left open by stop()
+     * @param address Address to listen on; use loopback unless devices connect over the network
+     * @param threads Worker threads handling requests
+     * @param maxLanes Most lanes open at once (each holds a database connection)
+     * @param idleTimeout How long an empty lane may sit unused before it is closed
+     */
+    public LaneApiServer(RegisterServices services, InetSocketAddress address, int threads,
+                         int maxLanes, Duration idleTimeout) throws IOException {
+        if (services == null) {
+            throw new IllegalArgumentException("Services cannot be null");
+        }
+        this.services = services;
+        this.maxLanes = maxLanes;
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+
+        AtomicInteger workerNumber = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "lane-api-" + workerNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.reaper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "lane-api-reaper");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.server = HttpServer.create(address, 0);
+        server.setExecutor(workers);
+        server.createContext("/lanes", exchange -> serve(exchange, this::handleLanes));
+        server.createContext("/suspensions", exchange -> serve(exchange, this::handleSuspensions));
+        server.createContext("/items", exchange -> serve(exchange, this::handleItems));
+        server.createContext("/receipts", exchange -> serve(exchange, this::handleReceipts));
+    }
+
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+
+        int port = DEFAULT_PORT;
+        String bind = "127.0.0.1";
+        String jdbcUrl = DatabaseManager.DEFAULT_JDBC_URL;
+        int threads = DEFAULT_THREADS;
+        int maxLanes = DEFAULT_MAX_LANES;
+        long idleMinutes = DEFAULT_IDLE_TIMEOUT.toMinutes();
+        int maxSuspensions = SuspensionStore.DEFAULT_CAPACITY;
+        long suspensionTtlHours = SuspensionStore.DEFAULT_TTL.toHours();
+        boolean console = false;
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String option = args[i];
+                if (option.equals("--console")) {
+                    console = true;
+                    continue;
+                }
+                if (i + 1 == args.length) {
+                    throw new IllegalArgumentException("Missing value for " + option);
+                }
+                String value = args[++i];
+                switch (option) {
+                    case "--port": port = Integer.parseInt(value); break;
+                    case "--bind": bind = value; break;
+                    case "--jdbc": jdbcUrl = value; break;
+                    case "--threads": threads = Integer.parseInt(value); break;
+                    case "--max-lanes": maxLanes = Integer.parseInt(value); break;
+                    case "--idle-minutes": idleMinutes = Long.parseLong(value); break;
+                    case "--max-suspensions": maxSuspensions = Integer.parseInt(value); break;
+                    case "--suspension-ttl-hours": suspensionTtlHours = Long.parseLong(value); break;
+                    default: throw new IllegalArgumentException("Unknown option " + option);
+                }
+            }
+            if (threads < 1 || maxLanes < 1 || idleMinutes < 1) {
+                throw new IllegalArgumentException("Threads, lanes and idle minutes must be positive");
+            }
+            if (maxSuspensions < 1 || suspensionTtlHours < 1) {
+                throw new IllegalArgumentException("Suspension limit and TTL must be positive");
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println("✗ " + e.getMessage());
+            System.err.println("Usage: LaneApiServer [--port N] [--bind address] [--jdbc url] [--threads N]");
+            System.err.println("       [--max-lanes N] [--idle-minutes N] [--max-suspensions N]");
+            System.err.println("       [--suspension-ttl-hours N] [--console]");
+            System.exit(2);
+        }
+
+        ConsoleJournal.setConsoleOutput(console);
+
+        // An in-memory database starts empty and lives as long as this connection
+        DatabaseManager setupDatabase = new DatabaseManager(jdbcUrl);
+        if (!setupDatabase.connect()) {
+            System.exit(1);
+        }
+        if (jdbcUrl.startsWith("jdbc:h2:mem:")
+                && (!setupDatabase.createTables()
+                    || !new DatabaseMigration(setupDatabase.getConnection()).migrate()
+                    || !new PriceBookParser(setupDatabase).parseFile(PRICE_BOOK))) {
+            System.err.println("✗ Could not prepare the in-memory database");
+            System.exit(1);
+        }
+
+        RegisterServices services = RegisterServices.open(jdbcUrl,
+                maxSuspensions, Duration.ofHours(suspensionTtlHours));
+        if (services == null) {
+            System.exit(1);
+        }
+
+        LaneApiServer apiServer;
+        try {
+            apiServer = new LaneApiServer(services, new InetSocketAddress(bind, port),
+                    threads, maxLanes, Duration.ofMinutes(idleMinutes));
+        } catch (IOException e) {
+            System.err.println("✗ Could not listen on " + bind + ":" + port + ": " + e.getMessage());
+            services.shutdown();
+            System.exit(1);
+            return;
+        }
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            apiServer.stop();
+            services.shutdown();
+            setupDatabase.disconnect();
+            ConsoleJournal.shutdown();
+        }, "lane-api-shutdown"));
+
+        apiServer.start();
+        System.out.println("✓ Lane API listening on http://" + bind + ":" + apiServer.getPort()
+                + " (" + threads + " workers, up to " + maxLanes + " lanes)");
+    }
+
+    /**
+     * Starts accepting requests and the idle-lane sweep.
+     */
+    public void start() {
+        long sweepNanos = Math.min(idleTimeoutNanos, TimeUnit.MINUTES.toNanos(1));
+        reaper.scheduleWithFixedDelay(() -> {
+            try {
+                closeIdleLanes();
+            } catch (RuntimeException e) {
+                System.err.println("✗ Idle lane sweep failed: " + e.getMessage());
+            }
+        }, sweepNanos, sweepNanos, TimeUnit.NANOSECONDS);
+        server.start();
+    }
+
+    /**
+     * Stops accepting requests, waits briefly for those in progress and closes every lane.
+     * Baskets still open are lost, as when a register is switched off.
+     */
+    public void stop() {
+        server.stop(1);
+        reaper.shutdownNow();
+        workers.shutdown();
+        try {
+            workers.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        for (ApiLane lane : lanes.values()) {
+            lane.close();
+        }
+        lanes.clear();
+        System.out.println("✓ Lane API stopped");
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public int getOpenLaneCount() {
+        return lanes.size();
+    }
+
+    /**
+     * Closes lanes that have sat empty and unused for longer than the idle timeout.
+     * @return Number of lanes closed
+     */
+    int closeIdleLanes() {
+        int closed = 0;
+        for (Map.Entry<String, ApiLane> entry : lanes.entrySet()) {
+            ApiLane lane = entry.getValue();
+            synchronized (lane) {
+                if (lane.getIdleNanos() < idleTimeoutNanos
+                        || lane.getController().getCurrentTransaction().getItemCount() > 0) {
+                    continue;
+                }
+                lanes.remove(entry.getKey(), lane);
+                lane.close();
+            }
+            closed++;
+            ConsoleJournal.logInfo("Closed idle API lane " + entry.getKey());
+        }
+        return closed;
+    }
+
+    // ==================== ROUTES ====================
+
+    private void handleLanes(HttpExchange exchange) throws IOException {
+        String[] path = splitPath(exchange);  // "lanes", lane, action, argument
+        String method = exchange.getRequestMethod();
+
+        if (path.length == 1) {
+            requireMethod(method, "GET");
+            List<String> laneIds = new ArrayList<>(lanes.keySet());
+            laneIds.sort(null);
+            try (JsonWriter json = beginJson(exchange, 200)) {
+                json.beginObject().name("lanes").beginArray();
+                for (String laneId : laneIds) {
+                    json.value(laneId);
+                }
+                json.endArray().endObject();
+            }
+            return;
+        }
+
+        String laneId = path[1];
+        if (path.length == 2 && method.equals("POST")) {
+            openLane(exchange, laneId);
+            return;
+        }
+
+        ApiLane lane = lanes.get(laneId);
+        if (lane == null) {
+            throw new ApiException(404, "Lane " + laneId + " is not open");
+        }
+
+        synchronized (lane) {
+            if (!lane.begin()) {
+                throw new ApiException(404, "Lane " + laneId + " is not open");
+            }
+
+            if (path.length == 2) {
+                if (method.equals("DELETE")) {
+                    closeLane(exchange, laneId, lane);
+                } else {
+                    requireMethod(method, "GET");
+                    writeLane(exchange, 200, lane, null);
+                }
+            } else if (path.length == 4 && path[2].equals("suspensions")) {
+                requireMethod(method, "DELETE");
+                if (!lane.getController().deleteSuspension(path[3])) {
+                    throw new ApiException(404, "No suspended transaction " + path[3]);
+                }
+                writeLane(exchange, 200, lane, null);
+            } else if (path.length == 3) {
+                requireMethod(method, "POST");
+                handleLaneAction(exchange, lane, path[2], readBody(exchange));
+            } else {
+                throw new ApiException(404, "No such resource");
+            }
+        }
+    }
+
+    private void openLane(HttpExchange exchange, String laneId) throws IOException {
+        ApiLane lane;
+        int status = 200;
+        synchronized (openLock) {
+            lane = lanes.get(laneId);
+            if (lane == null) {
+                if (lanes.size() >= maxLanes) {
+                    throw new ApiException(503, "Lane limit reached (" + maxLanes + ")");
+                }
+                RegisterController controller;
+                try {
+                    controller = RegisterController.openLane(services, laneId);
+                } catch (IllegalArgumentException e) {
+                    throw new ApiException(400, e.getMessage());
+                }
+                if (controller == null) {
+                    throw new ApiException(503, "Could not open a database connection for " + laneId);
+                }
+                lane = new ApiLane(controller);
+                lanes.put(laneId, lane);
+                status = 201;
+                ConsoleJournal.logInfo("Opened API lane " + laneId);
+            }
+        }
+
+        synchronized (lane) {
+            if (!lane.begin()) {
+                throw new ApiException(409, "Lane " + laneId + " is closing; try again");
+            }
+            writeLane(exchange, status, lane, null);
+        }
+    }
+
+    private void closeLane(HttpExchange exchange, String laneId, ApiLane lane) throws IOException {
+        if (lane.getController().getCurrentTransaction().getItemCount() > 0) {
+            throw new ApiException(409, "Suspend or clear the basket before closing the lane");
+        }
+        lanes.remove(laneId, lane);
+        lane.close();
+        ConsoleJournal.logInfo("Closed API lane " + laneId);
+
+        try (JsonWriter json = beginJson(exchange, 200)) {
+            json.beginObject().name("lane").value(laneId).name("closed").value(true).endObject();
+        }
+    }
+
+    /**
+     * Applies one basket action. Called holding the lane's monitor.
+     */
+    private void handleLaneAction(HttpExchange exchange, ApiLane lane, String action, JsonObject body)
+            throws IOException {
+        RegisterController controller = lane.getController();
+        Transaction transaction = controller.getCurrentTransaction();
+
+        switch (action) {
+            case "scan": {
+                long startNanos = System.nanoTime();
+                String upc = requireString(body, "upc");
+                InputSource source = body.has("source")
+                        ? parseEnum(InputSource.class, body.get("source").getAsString(), "source")
+                        : InputSource.SCANNER;
+                if (transaction.isTendering()) {
+                    throw new ApiException(409, "Basket is locked for payment");
+                }
+                TransactionItem line = controller.processUPCScan(upc, source, startNanos);
+                if (line == null) {
+                    throw refused(lane, 404, "Item not found: " + upc);
+                }
+                writeLane(exchange, 200, lane, json -> {
+                    json.name("line").value(controller.getCurrentTransaction().getItems().indexOf(line));
+                });
+                return;
+            }
+
+            case "void": {
+                int index = requireInt(body, "line");
+                requireShopping(transaction);
+                if (!controller.voidItem(index)) {
+                    throw new ApiException(404, "No line " + index);
+                }
+                writeLane(exchange, 200, lane, null);
+                return;
+            }
+
+            case "quantity": {
+                int index = requireInt(body, "line");
+                int quantity = requireInt(body, "quantity");
+                requireShopping(transaction);
+                if (quantity < 1) {
+                    throw new ApiException(400, "Quantity must be at least 1");
+                }
+                if (!controller.changeItemQuantity(index, quantity)) {
+                    throw new ApiException(404, "No line " + index);
+                }
+                writeLane(exchange, 200, lane, null);
+                return;
+            }
+
+            case "suspend": {
+                String note = body.has("note") ? body.get("note").getAsString() : null;
+                String suspensionId = controller.suspendCurrentTransaction(note);
+                if (suspensionId == null) {
+                    throw refused(lane, 409, "Could not suspend the transaction");
+                }
+                writeLane(exchange, 200, lane, json -> json.name("suspensionId").value(suspensionId));
+                return;
+            }
+
+            case "resume": {
+                String suspensionId = requireString(body, "suspensionId");
+                if (!controller.resumeSuspendedTransaction(suspensionId)) {
+                    throw refused(lane, 409, "Could not resume " + suspensionId);
+                }
+                writeLane(exchange, 200, lane, null);
+                return;
+            }
+
+            case "tender":
+                tender(exchange, lane, body);
+                return;
+
+            case "clear":
+                controller.startNewTransaction();
+                writeLane(exchange, 200, lane, null);
+                return;
+
+            default:
+                throw new ApiException(404, "Unknown action " + action);
+        }
+    }
+
+    /**
+     * Takes payment, moving the basket to tendering first as the payment panel does.
+     */
+    private void tender(HttpExchange exchange, ApiLane lane, JsonObject body) throws IOException {
+        RegisterController controller = lane.getController();
+        String method = requireString(body, "method");
+
+        if (controller.getCurrentTransaction().getItemCount() == 0) {
+            throw new ApiException(409, "Cannot tender an empty transaction");
+        }
+        if (!controller.getCurrentTransaction().isTendering() && !controller.startTendering()) {
+            throw refused(lane, 409, "Could not start tendering");
+        }
+
+        Receipt receipt;
+        switch (method) {
+            case "EXACT":
+                receipt = controller.processExactCashPayment();
+                break;
+            case "NEXT_DOLLAR":
+                receipt = controller.processNextDollarPayment();
+                break;
+            case "CASH":
+                receipt = controller.processCustomCashPayment(requireDouble(body, "amount"));
+                break;
+            case "CARD":
+                receipt = controller.processCardPayment(
+                        parseEnum(CardType.class, requireString(body, "cardType"), "cardType"));
+                break;
+            default:
+                throw new ApiException(400, "Unknown tender method " + method);
+        }
+
+        if (receipt == null) {
+            throw refused(lane, 409, "Payment refused");
+        }
+
+        writeLane(exchange, 200, lane, json -> {
+            Payment payment = receipt.getPayment();
+            json.name("receipt").beginObject()
+                    .name("receiptNumber").value(receipt.getReceiptNumber())
+                    .name("timestamp").value(receipt.getFormattedTimestamp())
+                    .name("subtotal").value(money(receipt.getSubtotal()))
+                    .name("tax").value(money(receipt.getTax()))
+                    .name("total").value(money(receipt.getSubtotal() + receipt.getTax() - receipt.getDiscount()))
+                    .name("method").value(payment.getMethod().name())
+                    .name("tendered").value(money(payment.getAmountTendered()))
+                    .name("change").value(money(payment.getChangeAmount()))
+                    .endObject();
+        });
+    }
+
+    private void handleSuspensions(HttpExchange exchange) throws IOException {
+        requireMethod(exchange.getRequestMethod(), "GET");
+        if (splitPath(exchange).length != 1) {
+            throw new ApiException(404, "No such resource");
+        }
+
+        String query = queryParameter(exchange, "q");
+        List<SuspendedTransaction> suspended = query != null
+                ? services.getSuspensions().search(query)
+                : services.getSuspensions().list();
+        try (JsonWriter json = beginJson(exchange, 200)) {
+            json.beginObject().name("suspensions").beginArray();
+            for (SuspendedTransaction suspension : suspended) {
+                json.beginObject()
+                        .name("suspensionId").value(suspension.getSuspensionId())
+                        .name("suspendedAt").value(suspension.getSuspendedAt().toString())
+                        .name("lane").value(suspension.getLaneId())
+                        .name("note").value(suspension.getNote())
+                        .name("itemCount").value(suspension.getItemCount())
+                        .name("total").value(money(suspension.getTotal()))
+                        .endObject();
+            }
+            json.endArray().endObject();
+        }
+    }
+
+    private void handleItems(HttpExchange exchange) throws IOException {
+        requireMethod(exchange.getRequestMethod(), "GET");
+        if (splitPath(exchange).length != 1) {
+            throw new ApiException(404, "No such resource");
+        }
+
+        List<Item> items = services.getCatalog().getAllItems();
+        try (JsonWriter json = beginJson(exchange, 200)) {
+            json.beginObject().name("items").beginArray();
+            for (Item item : items) {
+                json.beginObject()
+                        .name("upc").value(item.getUpc())
+                        .name("description").value(item.getDescription())
+                        .name("price").value(item.getPrice())
+                        .name("category").value(item.getCategory())
+                        .endObject();
+            }
+            json.endArray().endObject();
+        }
+    }
+
+    private void handleReceipts(HttpExchange exchange) throws IOException {
+        requireMethod(exchange.getRequestMethod(), "GET");
+        String[] path = splitPath(exchange);
+        if (path.length != 2) {
+            throw new ApiException(404, "No such resource");
+        }
+
+        String text = services.getReceipts().getText(path[1]);
+        if (text == null) {
+            throw new ApiException(404, "No receipt " + path[1]);
+        }
+
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(200, 0);
+        try (Writer writer = new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8)) {
+            writer.write(text);
+        }
+    }
+
+    // ==================== RESPONSES ====================
+
+    /**
+     * Writes extra fields of a lane response ahead of the basket.
+     */
+    private interface JsonFields {
+        void write(JsonWriter json) throws IOException;
+    }
+
+    /**
+     * Streams {"lane": ..., extra fields..., "transaction": {...}}. Called holding the lane's monitor.
+     */
+    private static void writeLane(HttpExchange exchange, int status, ApiLane lane, JsonFields fields)
+            throws IOException {
+        RegisterController controller = lane.getController();
+        try (JsonWriter json = beginJson(exchange, status)) {
+            json.beginObject().name("lane").value(controller.getLaneId());
+            if (fields != null) {
+                fields.write(json);
+            }
+            json.name("transaction");
+            writeTransaction(json, controller.getCurrentTransaction());
+            json.endObject();
+        }
+    }
+
+    private static void writeTransaction(JsonWriter json, Transaction transaction) throws IOException {
+        json.beginObject()
+                .name("state").value(transaction.getState().name())
+                .name("itemCount").value(transaction.getItemCount())
+                .name("lines").beginArray();
+        for (TransactionItem line : transaction.getItems()) {
+            json.beginObject()
+                    .name("upc").value(line.getUpc())
+                    .name("description").value(line.getDescription())
+                    .name("quantity").value(line.getQuantity())
+                    .name("unitPrice").value(line.getUnitPrice())
+                    .name("lineTotal").value(money(line.getLineTotal()))
+                    .endObject();
+        }
+        json.endArray()
+                .name("subtotal").value(money(transaction.getSubtotal()))
+                .name("tax").value(money(transaction.getTaxAmount()))
+                .name("total").value(money(transaction.getTotal()))
+                .endObject();
+    }
+
+    /**
+     * Sends the headers and returns a writer onto the body. The length is left
+     * open, so the body goes out in chunks as it is written.
+     */
+    private static JsonWriter beginJson(HttpExchange exchange, int status) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", JSON);
+        exchange.sendResponseHeaders(status, 0);
+        return new JsonWriter(new BufferedWriter(
+                new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8)));
+    }
+
+    private static double money(double amount) {
+        return Math.round(amount * 100) / 100.0;
+    }
+
+    // ==================== REQUESTS ====================
+
+    private interface Route {
+        void handle(HttpExchange exchange) throws IOException;
+    }
+
+    /**
+     * Runs a route, turning refusals and failures into JSON errors.
+     */
+    private static void serve(HttpExchange exchange, Route route) {
+        try {
+            route.handle(exchange);
+        } catch (ApiException e) {
+            sendError(exchange, e.status, e.getMessage());
+        } catch (JsonParseException | IllegalStateException | UnsupportedOperationException e) {
+            sendError(exchange, 400, "Malformed request: " + e.getMessage());
+        } catch (IOException e) {
+            // Client went away mid-response; nothing left to tell it
+        } catch (RuntimeException e) {
+            System.err.println("✗ Lane API request failed: " + exchange.getRequestMethod() + " "
+                    + exchange.getRequestURI() + ": " + e);
+            sendError(exchange, 500, "Internal error");
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) {
+        if (exchange.getResponseCode() != -1) {
+            return;  // Headers already sent; the truncated body is all the client will see
+        }
+        try (JsonWriter json = beginJson(exchange, status)) {
+            json.beginObject().name("error").value(message).endObject();
+        } catch (IOException e) {
+            // Client went away
+        }
+    }
+
+    /**
+     * Builds a refusal, preferring the explanation the controller gave the lane.
+     */
+    private static ApiException refused(ApiLane lane, int status, String fallback) {
+        String error = lane.takeError();
+        return new ApiException(status, error != null ? error : fallback);
+    }
+
+    private static String[] splitPath(HttpExchange exchange) {
+        String path = exchange.getRequestURI().getPath();
+        int start = 0;
+        while (start < path.length() && path.charAt(start) == '/') {
+            start++;
+        }
+        int end = path.length();
+        while (end > start && path.charAt(end - 1) == '/') {
+            end--;
+        }
+        return path.substring(start, end).split("/");
+    }
+
+    /**
+     * Gets a decoded query-string parameter, or null if absent.
+     */
+    private static String queryParameter(HttpExchange exchange, String name) {
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null) {
+            return null;
+        }
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+            if (key.equals(name)) {
+                return eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            }
+        }
+        return null;
+    }
+
+    private static JsonObject readBody(HttpExchange exchange) throws IOException {
+        try (InputStreamReader reader = new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8)) {
+            JsonElement body = JsonParser.parseReader(reader);
+            if (body.isJsonNull()) {
+                return new JsonObject();
+            }
+            if (!body.isJsonObject()) {
+                throw new ApiException(400, "Request body must be a JSON object");
+            }
+            return body.getAsJsonObject();
+        }
+    }
+
+    private static void requireMethod(String method, String expected) {
+        if (!method.equals(expected)) {
+            throw new ApiException(405, method + " not allowed here");
+        }
+    }
+
+    private static void requireShopping(Transaction transaction) {
+        if (transaction.isTendering()) {
+            throw new ApiException(409, "Basket is locked for payment");
+        }
+    }
+
+    private static String requireString(JsonObject body, String name) {
+        if (!body.has(name) || body.get(name).getAsString().isBlank()) {
+            throw new ApiException(400, "Missing " + name);
+        }
+        return body.get(name).getAsString().trim();
+    }
+
+    private static int requireInt(JsonObject body, String name) {
+        if (!body.has(name)) {
+            throw new ApiException(400, "Missing " + name);
+        }
+        try {
+            return body.get(name).getAsInt();
+        } catch (NumberFormatException e) {
+            throw new ApiException(400, "Invalid " + name + ": " + body.get(name));
+        }
+    }
+
+    private static double requireDouble(JsonObject body, String name) {
+        if (!body.has(name)) {
+            throw new ApiException(400, "Missing " + name);
+        }
+        double value;
+        try {
+            value = body.get(name).getAsDouble();
+        } catch (NumberFormatException e) {
+            throw new ApiException(400, "Invalid " + name + ": " + body.get(name));
+        }
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            throw new ApiException(400, "Invalid " + name + ": " + body.get(name));
+        }
+        return value;
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String value, String name) {
+        try {
+            return Enum.valueOf(type, value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new ApiException(400, "Invalid " + name + ": " + value);
+        }
+    }
+
+    /**
+     * A request the lane refused, reported to the client with an HTTP status.
+     */
+    private static class ApiException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private final int status;
+
+        ApiException(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.am.register.controller;
+
+import com.am.register.model.InputSource;
+import com.am.register.model.TransactionItem;
+import com.am.register.util.ConsoleJournal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Runs one lane's actions on the lane's own thread, in the order they were submitted.
+ * The GUI hands every scan, payment and suspension here instead of calling
+ * the controller on the Swing event thread, so a slow query or commit delays
+ * the lane but never the window. Each call returns a future for the result;
+ * callers that touch Swing continue with thenAcceptAsync(..., SwingLaneView.EVENT_THREAD).
+ * Listeners are notified on the lane thread.
+ * <p>
+ * Scans that queue up behind a slow action are not applied one by one: each
+ * run of consecutive scans is taken as a single batch, looked up together and
+ * added to the basket in one step, so a burst costs one lookup round trip and
+ * one display update instead of one per scan. Scans never jump ahead of an
+ * action submitted between them.
+ */
+public class AsyncLane {
+
+    public static final int MAX_SCAN_BATCH = 256;
+    private static final long SHUTDOWN_WAIT_SECONDS = 10;
+
+    private final RegisterController controller;
+    private final ExecutorService executor;
+    private final Object queueLock = new Object();
+    private ScanBatch openBatch;  // Guarded by queueLock; the queued batch still taking scans, if any
+
+    /**
+     * Scans collected behind the lane's queue, applied together when the lane reaches them.
+     */
+    private final class ScanBatch implements Runnable {
+        private final List<ScanRequest> scans = new ArrayList<>();
+        private final List<CompletableFuture<TransactionItem>> futures = new ArrayList<>();
+
+        @Override
+        public void run() {
+            synchronized (queueLock) {
+                if (openBatch == this) {
+                    openBatch = null;  // Later scans start a new batch
+                }
+            }
+
+            try {
+                List<TransactionItem> lines = controller.processUPCScans(scans);
+                for (int i = 0; i < futures.size(); i++) {
+                    futures.get(i).complete(lines.get(i));
+                }
+            } catch (RuntimeException e) {
+                ConsoleJournal.logError("Scan batch failed on " + controller.getLaneId() + ": " + e);
+                futures.forEach(future -> future.completeExceptionally(e));
+            }
+        }
+    }
+
+    public AsyncLane(RegisterController controller) {
+        if (controller == null) {
+            throw new IllegalArgumentException("RegisterController cannot be null");
+        }
+        this.controller = controller;
+        this.executor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "lane-" + controller.getLaneId());
+            thread.setDaemon(true);
+            return thread;
+        });
+        controller.setEventExecutor(task -> run(c -> task.run()));
+    }
+
+    /**
+     * Queues an action behind everything already submitted to this lane.
+     * A failing action is logged and completes its future exceptionally; later actions still run.
+     */
+    public <T> CompletableFuture<T> submit(Function<RegisterController, T> action) {
+        synchronized (queueLock) {
+            openBatch = null;  // Scans after this action must wait for it
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    return action.apply(controller);
+                } catch (RuntimeException e) {
+                    ConsoleJournal.logError("Lane action failed on " + controller.getLaneId() + ": " + e);
+                    throw e;
+                }
+            }, executor);
+        }
+    }
+
+    /**
+     * Queues an action that has no result.
+     */
+    public CompletableFuture<Void> run(Consumer<RegisterController> action) {
+        return submit(c -> {
+            action.accept(c);
+            return null;
+        });
+    }
+
+    /**
+     * Queues a scan. Scans are applied in arrival order, joining the batch of
+     * scans already waiting if nothing else was submitted since.
+     * @param receivedNanos System.nanoTime() when the input arrived, so queueing counts toward scan-to-display
+     * @return The basket line the item was added to, or null if it was not added
+     */
+    public CompletableFuture<TransactionItem> scan(String upc, InputSource source, long receivedNanos) {
+        CompletableFuture<TransactionItem> future = new CompletableFuture<>();
+        synchronized (queueLock) {
+            if (openBatch == null || openBatch.scans.size() >= MAX_SCAN_BATCH) {
+                openBatch = new ScanBatch();
+                executor.execute(openBatch);
+            }
+            openBatch.scans.add(new ScanRequest(upc, source, receivedNanos));
+            openBatch.futures.add(future);
+        }
+        return future;
+    }
+
+    /**
+     * Queues a void of the line for a UPC. Lines are named by UPC rather than
+     * row, because rows the window shows can shift before the action runs.
+     * @return false if the basket no longer has that line
+     */
+    public CompletableFuture<Boolean> voidItem(String upc) {
+        return submit(c -> {
+            int index = lineIndex(c, upc);
+            return index >= 0 && c.voidItem(index);
+        });
+    }
+
+    /**
+     * Queues a quantity change on the line for a UPC.
+     * @return false if the basket no longer has that line
+     */
+    public CompletableFuture<Boolean> changeItemQuantity(String upc, int newQuantity) {
+        return submit(c -> {
+            int index = lineIndex(c, upc);
+            return index >= 0 && c.changeItemQuantity(index, newQuantity);
+        });
+    }
+
+    private static int lineIndex(RegisterController controller, String upc) {
+        List<TransactionItem> items = controller.getCurrentTransaction().getItems();
+        for (int i = 0; i < items.size(); i++) {
+            if (items.get(i).getUpc().equals(upc)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Gets the controller for state that is safe to read from any thread
+     * (lane ID, shared services, suspension counts). Basket actions must go through submit().
+     */
+    public RegisterController getController() {
+        return controller;
+    }
+
+    /**
+     * Finishes the actions already queued, then shuts the controller down on the lane thread.
+     */
+    public void shutdown() {
+        run(RegisterController::shutdown);
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(SHUTDOWN_WAIT_SECONDS, TimeUnit.SECONDS)) {
+                System.err.println("✗ Lane " + controller.getLaneId() + " did not finish its queued actions");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
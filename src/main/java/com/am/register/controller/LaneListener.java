@@ -0,0 +1,41 @@
+package com.am.register.controller;
+
+import com.am.register.model.Receipt;
+import com.am.register.model.Transaction;
+
+/**
+ * Receives events from one register lane.
+ * The Swing window is one subscriber; kiosks, test harnesses and the load
+ * generator can drive a lane with none at all. Events are delivered on the
+ * lane's AsyncLane thread, or on the calling thread for a lane driven
+ * directly (e.g. through the HTTP API), never on the Swing event thread.
+ * A Swing listener must hand off to the event thread, as SwingLaneView does.
+ */
+public interface LaneListener {
+
+    /**
+     * The basket, its totals or its state changed.
+     * The transaction is live; copy anything needed after returning.
+     */
+    default void transactionChanged(Transaction transaction) {
+    }
+
+    /**
+     * An action was refused or failed.
+     * @param message Explanation for the cashier
+     */
+    default void errorRaised(String message) {
+    }
+
+    /**
+     * Scanner input should be accepted or ignored (ignored while tendering).
+     */
+    default void scanningEnabledChanged(boolean enabled) {
+    }
+
+    /**
+     * A sale completed. Called before the lane starts its next transaction.
+     */
+    default void saleCompleted(Receipt receipt) {
+    }
+}
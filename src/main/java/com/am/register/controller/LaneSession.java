@@ -0,0 +1,86 @@
+package com.am.register.controller;
+
+import com.am.register.database.DatabaseManager;
+import com.am.register.metrics.MetricsRegistry;
+import com.am.register.model.Transaction;
+import com.am.register.util.ReceiptNumberGenerator;
+
+/**
+ * State owned by a single register lane.
+ * Not thread-safe: a lane is driven by one thread at a time (the Swing event
+ * thread for the GUI lane, a worker thread for headless lanes). Anything
+ * shared between lanes lives in RegisterServices instead.
+ */
+public class LaneSession {
+
+    private final String laneId;
+    private final int laneNumber;
+    private final DatabaseManager database;  // This lane's own connection
+    private final ReceiptNumberGenerator receiptNumbers;
+    private final MetricsRegistry metrics;  // Thread-safe, read by JMX and the reporter
+    private Transaction currentTransaction = new Transaction();
+
+    public LaneSession(String laneId, DatabaseManager database) {
+        if (laneId == null || laneId.isBlank()) {
+            throw new IllegalArgumentException("Lane ID cannot be empty");
+        }
+        if (database == null) {
+            throw new IllegalArgumentException("DatabaseManager cannot be null");
+        }
+        this.laneId = laneId;
+        this.laneNumber = parseLaneNumber(laneId);
+        this.database = database;
+        this.receiptNumbers = ReceiptNumberGenerator.forDatabase(
+                database, ReceiptNumberGenerator.DEFAULT_STORE_NUMBER, laneNumber);
+        this.metrics = new MetricsRegistry(laneId);
+    }
+
+    /**
+     * Takes the lane number from the trailing digits of the lane ID ("LANE-3" is lane 3).
+     */
+    private static int parseLaneNumber(String laneId) {
+        int start = laneId.length();
+        while (start > 0 && isAsciiDigit(laneId.charAt(start - 1))) {
+            start--;
+        }
+        int number = start == laneId.length() || laneId.length() - start > 3
+                ? 0 : Integer.parseInt(laneId.substring(start));
+        if (number < 1) {
+            throw new IllegalArgumentException("Lane ID must end in a lane number (1-999): " + laneId);
+        }
+        return number;
+    }
+
+    // Character.isDigit would also accept non-ASCII digits, e.g. Arabic-Indic or fullwidth
+    private static boolean isAsciiDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    public String getLaneId() {
+        return laneId;
+    }
+
+    public int getLaneNumber() {
+        return laneNumber;
+    }
+
+    public ReceiptNumberGenerator getReceiptNumbers() {
+        return receiptNumbers;
+    }
+
+    public MetricsRegistry getMetrics() {
+        return metrics;
+    }
+
+    public DatabaseManager getDatabase() {
+        return database;
+    }
+
+    public Transaction getCurrentTransaction() {
+        return currentTransaction;
+    }
+
+    public void setCurrentTransaction(Transaction currentTransaction) {
+        this.currentTransaction = currentTransaction;
+    }
+}
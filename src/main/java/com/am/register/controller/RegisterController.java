@@ -2,63 +2,140 @@ package com.am.register.controller;
 
 import com.am.register.database.DatabaseManager;
 import com.am.register.database.PriceBookParser;
+import com.am.register.metrics.MetricsRegistry;
 import com.am.register.model.*;
 import com.am.register.util.ConsoleJournal;
-import com.am.register.view.DisplayPanel;
 import com.am.register.util.ReceiptGenerator;
-import com.am.register.view.ReceiptDialog;
 import com.am.register.model.SuspendedTransaction;
+import com.am.register.service.RegisterServices;
+import com.am.register.service.SuspensionService;
+import com.am.register.util.SuspensionStore;
 import com.am.register.util.TransactionSerializer;
 
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-
-import javax.swing.*;
-import java.awt.*;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
 
 /**
  * Main controller for the register application.
- * Orchestrates interactions between Model, Database, and View layers.
+ * Orchestrates interactions between Model and Database for one lane and
+ * reports what happened to its LaneListeners. It has no UI dependencies, so
+ * lanes can run without loading AWT; the Swing window is one listener.
  */
 public class RegisterController {
 
-    private final DatabaseManager databaseManager;
-    private Transaction currentTransaction;
-    private DisplayPanel displayPanel; // View reference
-    private com.am.register.view.PaymentPanel paymentPanel;
-    private ScannerInputHandler scannerHandler;
-    private static final int MAX_SUSPENDED_TRANSACTIONS = 10;
-    private List<SuspendedTransaction> suspendedTransactions = new ArrayList<>();
+    public static final String DEFAULT_LANE_ID = "LANE-1";
+
+    private final RegisterServices services;  // Shared, thread-safe
+    private final LaneSession lane;  // This lane only
+    private final boolean ownsServices;
+    private final List<LaneListener> listeners = new CopyOnWriteArrayList<>();
+    private volatile Executor eventExecutor = Runnable::run;
 
     /**
-     * Creates a new register controller.
+     * Creates a single-lane register controller with default suspension limits.
      * @param databaseManager The database manager for item lookups
      */
     public RegisterController(DatabaseManager databaseManager) {
-        if (databaseManager == null) {
-            throw new IllegalArgumentException("DatabaseManager cannot be null");
+        this(databaseManager, DEFAULT_LANE_ID, SuspensionStore.DEFAULT_CAPACITY, SuspensionStore.DEFAULT_TTL);
+    }
+
+    /**
+     * Creates a single-lane register controller that owns its shared services.
+     * @param databaseManager The database manager for this lane's sales
+     * @param laneId Identifies this register among lanes sharing the database
+     * @param maxSuspensions Maximum number of parked baskets
+     * @param suspensionTtl How long a parked basket is kept before it expires
+     */
+    public RegisterController(DatabaseManager databaseManager, String laneId,
+                              int maxSuspensions, Duration suspensionTtl) {
+        this(new RegisterServices(openServicesDatabase(databaseManager), maxSuspensions, suspensionTtl),
+                new LaneSession(laneId, databaseManager), true);
+    }
+
+    /**
+     * Creates a controller for one lane of a multi-lane register.
+     * Any number of lanes may share the same services and run in parallel.
+     * @param services Services shared by all lanes in this JVM
+     * @param lane This lane's own session
+     */
+    public RegisterController(RegisterServices services, LaneSession lane) {
+        this(services, lane, false);
+    }
+
+    /**
+     * Opens a headless lane on shared services, with its own database connection.
+     * Nothing here touches AWT; subscribe with addListener() to follow the lane.
+     * @param services Services shared by all lanes in this JVM
+     * @param laneId Lane ID ending in its number, e.g. "KIOSK-7"
+     * @return The lane's controller, or null if its connection could not be opened
+     * @throws IllegalArgumentException if the lane ID does not end in a lane number
+     */
+    public static RegisterController openLane(RegisterServices services, String laneId) {
+        DatabaseManager laneDatabase = services.openLaneDatabase();
+        if (laneDatabase == null) {
+            return null;
+        }
+        try {
+            return new RegisterController(services, new LaneSession(laneId, laneDatabase));
+        } catch (IllegalArgumentException e) {
+            laneDatabase.disconnect();
+            throw e;
+        }
+    }
+
+    private RegisterController(RegisterServices services, LaneSession lane, boolean ownsServices) {
+        if (services == null || lane == null) {
+            throw new IllegalArgumentException("Services and lane session cannot be null");
         }
 
-        this.databaseManager = databaseManager;
-        currentTransaction = new Transaction();
+        this.services = services;
+        this.lane = lane;
+        this.ownsServices = ownsServices;
 
-        ConsoleJournal.logInfo("RegisterController initialized");
+        services.getMetricsReporter().register(lane.getMetrics());
+
+        ConsoleJournal.logInfo("RegisterController initialized (" + lane.getLaneId() + ")");
 
         loadSuspendedTransactions();
     }
 
     /**
-     * Loads suspended transactions from database on startup.
+     * Gives the shared services their own connection so background work
+     * (suspension cleanup) never shares a JDBC connection with the lane.
+     */
+    private static DatabaseManager openServicesDatabase(DatabaseManager laneDatabase) {
+        if (laneDatabase == null) {
+            throw new IllegalArgumentException("DatabaseManager cannot be null");
+        }
+
+        DatabaseManager servicesDatabase = new DatabaseManager(laneDatabase.getJdbcUrl());
+        if (servicesDatabase.connect()) {
+            return servicesDatabase;
+        }
+
+        ConsoleJournal.logError("Could not open a second connection; sharing the lane connection");
+        return laneDatabase;
+    }
+
+    /**
+     * Loads suspended transaction headers from database on startup.
+     * Basket payloads are fetched on demand.
      */
     private void loadSuspendedTransactions() {
-        suspendedTransactions = databaseManager.getAllSuspendedTransactions();
+        int count = services.getSuspensions().load();
 
-        if (!suspendedTransactions.isEmpty()) {
-            ConsoleJournal.logInfo("Loaded " + suspendedTransactions.size() +
-                    " suspended transactions from database");
+        if (count > 0) {
+            ConsoleJournal.logInfo("Loaded " + count + " suspended transactions from database");
         }
     }
 
@@ -70,70 +147,64 @@ public class RegisterController {
      */
     public String suspendCurrentTransaction(String note) {
         // Validate transaction has items
-        if (currentTransaction.getItemCount() == 0) {
+        if (lane.getCurrentTransaction().getItemCount() == 0) {
             ConsoleJournal.logError("Cannot suspend empty transaction");
-            if (displayPanel != null) {
-                displayPanel.showError("Cannot suspend an empty transaction");
-            }
+            fireError("Cannot suspend an empty transaction");
             return null;
         }
 
         // Check suspension limit
-        if (suspendedTransactions.size() >= MAX_SUSPENDED_TRANSACTIONS) {
-            ConsoleJournal.logError("Maximum suspended transactions reached (" + MAX_SUSPENDED_TRANSACTIONS + ")");
-            if (displayPanel != null) {
-                displayPanel.showError("Cannot suspend transaction.\n\n" +
-                        "Maximum of " + MAX_SUSPENDED_TRANSACTIONS + " suspensions reached.\n" +
-                        "Please resume or delete existing suspensions.");
-            }
+        SuspensionService suspensions = services.getSuspensions();
+        if (suspensions.isFull()) {
+            int max = suspensions.getCapacity();
+            ConsoleJournal.logError("Maximum suspended transactions reached (" + max + ")");
+            fireError("Cannot suspend transaction.\n\n" +
+                    "Maximum of " + max + " suspensions reached.\n" +
+                    "Please resume or delete existing suspensions.");
             return null;
         }
 
         // Generate suspension ID
-        int sequence = databaseManager.getNextSuspensionSequence();
-        String suspensionId = SuspendedTransaction.generateSuspensionId(sequence);
+        String suspensionId = suspensions.allocateId(LocalDate.now());
+        if (suspensionId == null) {
+            ConsoleJournal.logError("Could not allocate a suspension ID");
+            fireError("Failed to suspend transaction");
+            return null;
+        }
 
         // Create suspension from current transaction
         SuspendedTransaction suspension = TransactionSerializer.createSuspension(
-                currentTransaction,
+                lane.getCurrentTransaction(),
                 suspensionId,
                 note
         );
+        suspension.setLaneId(lane.getLaneId());
 
-        // Save to database
-        boolean saved = databaseManager.saveSuspendedTransaction(suspension);
+        // Save to database; also indexes it and keeps the basket while it is recent
+        boolean saved = suspensions.save(suspension);
 
         if (!saved) {
             ConsoleJournal.logError("Failed to save suspended transaction to database");
-            if (displayPanel != null) {
-                displayPanel.showError("Failed to suspend transaction");
-            }
+            fireError("Failed to suspend transaction");
             return null;
         }
 
-        // Add to in-memory list
-        suspendedTransactions.add(suspension);
-
         // Log the suspension
         ConsoleJournal.logTransactionSuspended(
                 suspensionId,
-                currentTransaction.getItemCount(),
-                currentTransaction.getTotal(),
+                lane.getCurrentTransaction().getItemCount(),
+                lane.getCurrentTransaction().getTotal(),
                 note
         );
 
         // Re-enable scanner if it was disabled
-        if (scannerHandler != null) {
-            scannerHandler.setEnabled(true);
-        }
+        fireScanningEnabled(true);
 
         // Clear current transaction and start fresh
-        this.currentTransaction = new Transaction();
+        lane.setCurrentTransaction(new Transaction());
 
         // Update view
-        if (displayPanel != null) {
-            displayPanel.updateDisplay(currentTransaction);
-        }
+        fireTransactionChanged();
 
         ConsoleJournal.logInfo("Transaction suspended successfully. Started new transaction.");
 
@@ -141,69 +212,79 @@ public class RegisterController {
     }
 
     /**
-     * Resumes a suspended transaction by ID.
-     * Replaces current transaction (current is lost if not empty).
+     * Resumes a suspended transaction by ID, from whichever lane suspended it.
+     * The suspension is claimed in the database first, so if several lanes try
+     * to resume the same basket only one of them gets it.
      * @param suspensionId The ID of the suspension to resume
      * @return true if successful, false if failed
      */
     public boolean resumeSuspendedTransaction(String suspensionId) {
         // Find the suspension
-        SuspendedTransaction suspension = suspendedTransactions.stream()
-                .filter(s -> s.getSuspensionId().equals(suspensionId))
-                .findFirst()
-                .orElse(null);
+        SuspensionService suspensions = services.getSuspensions();
+        SuspendedTransaction header = suspensions.find(suspensionId);
 
-        if (suspension == null) {
+        if (header == null) {
             ConsoleJournal.logError("Suspension not found: " + suspensionId);
             return false;
         }
 
         // Warn if current transaction has items
-        if (currentTransaction.getItemCount() > 0) {
+        if (lane.getCurrentTransaction().getItemCount() > 0) {
             ConsoleJournal.logError("Cannot resume while current transaction has items. Suspend or void current transaction first.");
-            if (displayPanel != null) {
-                displayPanel.showError("Current transaction has items!\n\n" +
-                        "Please suspend or void the current transaction\n" +
-                        "before resuming a suspended one.");
-            }
+            fireError("Current transaction has items!\n\n" +
+                    "Please suspend or void the current transaction\n" +
+                    "before resuming a suspended one.");
+            return false;
+        }
+
+        // Claim it so no other lane can resume the same basket
+        if (!claimSuspension(header)) {
+            return false;
+        }
+
+        // Fetch the basket only now that it is needed
+        SuspendedTransaction suspension = suspensions.getBasket(suspensionId);
+        if (suspension == null) {
+            suspensions.release(suspensionId, lane.getLaneId());
+            ConsoleJournal.logError("Failed to load suspended basket: " + suspensionId);
+            fireError("Failed to load suspended transaction");
             return false;
         }
 
         // Restore transaction from suspension
         try {
-            Transaction restoredTransaction = TransactionSerializer.restoreTransaction(suspension);
+            Transaction restoredTransaction = TransactionSerializer.restoreTransaction(
+                    suspension, services.getCatalog()::getItem);
+
+            // Delete from database; only the lane still holding the claim succeeds
+            if (!suspensions.complete(suspensionId, lane.getLaneId())) {
+                ConsoleJournal.logError("Lost claim on suspension " + suspensionId + " before resume completed");
+                fireError("This transaction was resumed on another register");
+                return false;
+            }
 
             // Replace current transaction
-            currentTransaction = restoredTransaction;
-
-            // Remove from suspension list
-            suspendedTransactions.remove(suspension);
-
-            // Delete from database
-            databaseManager.deleteSuspendedTransaction(suspensionId);
+            lane.setCurrentTransaction(restoredTransaction);
 
             // Update scanner state based on restored transaction state
-            if (scannerHandler != null) {
-                scannerHandler.setEnabled(currentTransaction.isShopping());
-            }
+            fireScanningEnabled(lane.getCurrentTransaction().isShopping());
 
             // Log the resume
             ConsoleJournal.logTransactionResumed(
                     suspensionId,
-                    currentTransaction.getItemCount(),
-                    currentTransaction.getTotal()
+                    lane.getCurrentTransaction().getItemCount(),
+                    lane.getCurrentTransaction().getTotal()
             );
 
             // Update view
-            if (displayPanel != null) {
-                displayPanel.updateDisplay(currentTransaction);
-            }
+            fireTransactionChanged();
 
             ConsoleJournal.logInfo("Transaction resumed successfully");
 
             return true;
 
         } catch (Exception e) {
+            suspensions.release(suspensionId, lane.getLaneId());
             ConsoleJournal.logError("Failed to restore transaction: " + e.getMessage());
             e.printStackTrace();
             return false;
@@ -211,35 +292,137 @@ public class RegisterController {
     }
 
     /**
-     * Removes suspended transactions older than the specified cutoff date
-     * @param cutoffDate Transactions suspended before this date will be removed
-     * @return Number of transactions removed
+     * Claims a suspension at the version this lane last saw.
+     * On failure the shared list has already been refreshed.
+     */
+    private boolean claimSuspension(SuspendedTransaction header) {
+        if (services.getSuspensions().claim(header, lane.getLaneId())) {
+            return true;
+        }
+
+        ConsoleJournal.logError("Suspension " + header.getSuspensionId() + " was taken by another lane");
+        fireError("This transaction was resumed or changed on another register.\n\n" +
+                "The suspended list has been refreshed.");
+        return false;
+    }
+
+    /**
+     * Re-reads suspension headers from the database so baskets parked on other
+     * lanes show up here and ones resumed elsewhere disappear.
+     */
+    public void refreshSuspensions() {
+        services.getSuspensions().refresh();
+    }
+
+    /**
+     * Gets a suspended transaction with its basket loaded.
+     * Recently viewed baskets are served from a small LRU cache.
+     * @param suspensionId The suspension to load
+     * @return The suspension with items, or null if not found
+     */
+    public SuspendedTransaction getSuspendedBasket(String suspensionId) {
+        return services.getSuspensions().getBasket(suspensionId);
+    }
+
+    /**
+     * Searches suspension notes by word prefix (e.g. "wal" finds "forgot wallet").
+     * @return Matching suspensions, newest first
      */
-    public int cleanupOldSuspensions(LocalDateTime cutoffDate) {
-        List<SuspendedTransaction> toRemove = suspendedTransactions.stream()
-                .filter(st -> st.getSuspendedAt().isBefore(cutoffDate))
-                .collect(Collectors.toList());
+    public List<SuspendedTransaction> searchSuspensions(String query) {
+        return services.getSuspensions().search(query);
+    }
 
-        int removedCount = toRemove.size();
-        suspendedTransactions.removeAll(toRemove);
+    /**
+     * Drops suspensions whose TTL has passed, in memory and in the database.
+     * Cheap enough to call frequently; only due entries are visited.
+     * @return Number of suspensions expired
+     */
+    public int expireSuspensions() {
+        SuspensionService suspensions = services.getSuspensions();
+        List<SuspendedTransaction> expired = suspensions.expire(LocalDateTime.now());
+
+        if (!expired.isEmpty()) {
+            ConsoleJournal.logInfo("Expired " + expired.size() + " suspended transactions (TTL " +
+                    suspensions.getTtl().toHours() + "h)");
+        }
+        return expired.size();
+    }
+
+    /**
+     * Subscribes to this lane's events.
+     * The listener is sent the current transaction straight away so a new view can draw it.
+     */
+    public void addListener(LaneListener listener) {
+        listeners.add(listener);
+        listener.transactionChanged(lane.getCurrentTransaction());
+    }
 
-        return removedCount;
+    public void removeListener(LaneListener listener) {
+        listeners.remove(listener);
     }
 
     /**
-     * Sets the display panel for UI updates.
-     * Should be called after creating the view.
-     * @param displayPanel The display panel to update
+     * Sets where reports from background work, such as a receipt the archive
+     * could not write, are delivered to listeners. AsyncLane routes them onto
+     * the lane thread; otherwise they arrive on the background thread.
      */
-    public void setDisplayPanel(DisplayPanel displayPanel) {
-        this.displayPanel = displayPanel;
+    void setEventExecutor(Executor executor) {
+        this.eventExecutor = executor;
+    }
+
+    private void archiveLost(String message) {
+        ConsoleJournal.logError(message);
+        eventExecutor.execute(() -> fireError(message));
+    }
+
+    private void fireTransactionChanged() {
+        Transaction transaction = lane.getCurrentTransaction();
+        for (LaneListener listener : listeners) {
+            try {
+                listener.transactionChanged(transaction);
+            } catch (RuntimeException e) {
+                listenerFailed(listener, e);
+            }
+        }
+    }
+
+    private void fireError(String message) {
+        for (LaneListener listener : listeners) {
+            try {
+                listener.errorRaised(message);
+            } catch (RuntimeException e) {
+                listenerFailed(listener, e);
+            }
+        }
+    }
+
+    private void fireScanningEnabled(boolean enabled) {
+        for (LaneListener listener : listeners) {
+            try {
+                listener.scanningEnabledChanged(enabled);
+            } catch (RuntimeException e) {
+                listenerFailed(listener, e);
+            }
+        }
+    }
 
-        // Initial display update
-        if (displayPanel != null) {
-            displayPanel.updateDisplay(currentTransaction);
+    private void fireSaleCompleted(Receipt receipt) {
+        for (LaneListener listener : listeners) {
+            try {
+                listener.saleCompleted(receipt);
+            } catch (RuntimeException e) {
+                listenerFailed(listener, e);
+            }
         }
     }
 
+    /**
+     * A failing listener is logged and skipped; it must not break the sale.
+     */
+    private void listenerFailed(LaneListener listener, RuntimeException e) {
+        ConsoleJournal.logError("Lane listener " + listener.getClass().getSimpleName() + " failed: " + e);
+    }
+
     /**
      * Loads the price book into the database.
      * Should be called once at application startup.
@@ -250,11 +433,12 @@ public class RegisterController {
     public boolean loadPriceBook(String filename) {
         ConsoleJournal.logInfo("Loading price book: " + filename);
 
-        PriceBookParser parser = new PriceBookParser(databaseManager);
+        PriceBookParser parser = new PriceBookParser(lane.getDatabase());
         boolean success = parser.parseFile(filename);
+        services.getCatalog().invalidate();
 
         if (success) {
-            int itemCount = databaseManager.getItemCount();
+            int itemCount = services.getCatalog().getItemCount();
             ConsoleJournal.logInfo("Price book loaded: " + itemCount + " items available");
         } else {
             ConsoleJournal.logError("Failed to load price book");
@@ -268,58 +452,128 @@ public class RegisterController {
      *
      * @param upc The UPC code
      * @param source The input source (scanner/manual/grid)
+     * @return The basket line the item was added to, or null if it was not added
+     */
+    public TransactionItem processUPCScan(String upc, InputSource source) {
+        return processUPCScan(upc, source, System.nanoTime());
+    }
+
+    /**
+     * Processes a UPC code, recording scan-to-display latency from when the
+     * input actually arrived rather than when this call was dispatched.
+     *
+     * @param upc The UPC code
+     * @param source The input source (scanner/manual/grid)
+     * @param startNanos System.nanoTime() when the scan was received
+     * @return The basket line the item was added to, or null if it was not added
+     */
+    public TransactionItem processUPCScan(String upc, InputSource source, long startNanos) {
+        return processUPCScans(List.of(new ScanRequest(upc, source, startNanos))).get(0);
+    }
+
+    /**
+     * Applies a burst of scans in order as one step: the UPCs are looked up
+     * together, added to the basket in a single pass, and listeners hear about
+     * the new basket once. Journal entries for the burst carry the totals as
+     * they stand after it, since those are what the display shows.
+     *
+     * @param scans Scans in the order they arrived
+     * @return The basket line for each scan, or null where the scan was not added
      */
-    public void processUPCScan(String upc, InputSource source) {
-        if (currentTransaction.isTendering()) {
+    public List<TransactionItem> processUPCScans(List<ScanRequest> scans) {
+        MetricsRegistry metrics = lane.getMetrics();
+        Transaction transaction = lane.getCurrentTransaction();
+        List<TransactionItem> results = new ArrayList<>(Collections.nCopies(scans.size(), null));
+
+        if (transaction.isTendering()) {
             ConsoleJournal.logError("Cannot add items during tendering phase");
-            if (displayPanel != null) {
-                displayPanel.showError("Cannot add items during payment.\nVoid transaction to start over.");
+            fireError("Cannot add items during payment.\nVoid transaction to start over.");
+            return results;
+        }
+
+        List<String> upcs = new ArrayList<>(scans.size());
+        for (ScanRequest scan : scans) {
+            String upc = scan.getUpc();
+            if (upc == null || upc.trim().isEmpty()) {
+                ConsoleJournal.logError("Invalid UPC: empty or null");
+                upcs.add(null);
+            } else {
+                upcs.add(upc.trim());
             }
-            return;
         }
 
-        if (upc == null || upc.trim().isEmpty()) {
-            ConsoleJournal.logError("Invalid UPC: empty or null");
-            return;
+        List<String> valid = new ArrayList<>(upcs);
+        valid.removeIf(Objects::isNull);
+        if (valid.isEmpty()) {
+            return results;
         }
+        metrics.counter(MetricsRegistry.SCANS).add(valid.size());
+
+        long lookupStart = System.nanoTime();
+        Map<String, Item> found = services.getCatalog().getItems(valid);
+        metrics.histogram(MetricsRegistry.SCAN_LOOKUP).recordSince(lookupStart);
 
-        upc = upc.trim();
+        List<Item> added = new ArrayList<>(valid.size());
+        List<String> notFound = new ArrayList<>();
+        for (String upc : valid) {
+            Item item = found.get(upc);
+            if (item != null) {
+                added.add(item);
+            } else {
+                notFound.add(upc);
+            }
+        }
 
-        Item item = databaseManager.getItemByUPC(upc);
+        if (!added.isEmpty()) {
+            List<TransactionItem> lines = transaction.addItems(added);
 
-        if (item != null) {
-            // Add to transaction (will increment if exists)
-            currentTransaction.addItem(item);
+            long totalsStart = System.nanoTime();
+            double subtotal = transaction.getSubtotal();
+            double tax = transaction.getTaxAmount();
+            double total = transaction.getTotal();
+            metrics.histogram(MetricsRegistry.TOTALS_RECOMPUTE).recordSince(totalsStart);
 
-            // Find the transaction item to get current quantity
-            TransactionItem txItem = null;
-            for (TransactionItem ti : currentTransaction.getItems()) {
-                if (ti.getUpc().equals(upc)) {
-                    txItem = ti;
-                    break;
-                }
+            // Quantity each scan brought its line to: the final quantity less later scans of the same UPC
+            Map<String, Integer> laterScans = new HashMap<>();
+            int[] quantities = new int[lines.size()];
+            for (int i = lines.size() - 1; i >= 0; i--) {
+                String upc = lines.get(i).getUpc();
+                int later = laterScans.getOrDefault(upc, 0);
+                quantities[i] = lines.get(i).getQuantity() - later;
+                laterScans.put(upc, later + 1);
             }
 
-            // Log with quantity
-            if (txItem != null) {
-                double subtotal = currentTransaction.getSubtotal();
-                double tax = currentTransaction.getTaxAmount();
-                double total = currentTransaction.getTotal();
-                ConsoleJournal.logItemScanned(item, txItem.getQuantity(), subtotal, tax, total, source);
+            int next = 0;
+            for (int i = 0; i < scans.size(); i++) {
+                Item item = upcs.get(i) != null ? found.get(upcs.get(i)) : null;
+                if (item != null) {
+                    ConsoleJournal.logItemScanned(item, quantities[next], subtotal, tax, total, scans.get(i).getSource());
+                    results.set(i, lines.get(next++));
+                }
             }
 
             // Update view
-            if (displayPanel != null) {
-                displayPanel.updateDisplay(currentTransaction);
+            long refreshStart = System.nanoTime();
+            fireTransactionChanged();
+            metrics.histogram(MetricsRegistry.UI_REFRESH).recordSince(refreshStart);
+            for (int i = 0; i < scans.size(); i++) {
+                if (results.get(i) != null) {
+                    metrics.histogram(MetricsRegistry.SCAN_TO_DISPLAY).recordSince(scans.get(i).getReceivedNanos());
+                }
             }
+        }
 
-        } else {
-            ConsoleJournal.logItemNotFound(upc);
-
-            if (displayPanel != null) {
-                displayPanel.showError("Item not found: " + upc);
+        if (!notFound.isEmpty()) {
+            for (String upc : notFound) {
+                metrics.counter(MetricsRegistry.NOT_FOUND).increment();
+                ConsoleJournal.logItemNotFound(upc);
             }
+            fireError(notFound.size() == 1
+                    ? "Item not found: " + notFound.get(0)
+                    : "Items not found: " + String.join(", ", notFound));
         }
+
+        return results;
     }
 
     /**
@@ -327,21 +581,17 @@ public class RegisterController {
      * Used when starting a new customer checkout.
      */
     public void startNewTransaction() {
-        int itemCount = currentTransaction.getItemCount();
-        double total = currentTransaction.getSubtotal();
+        int itemCount = lane.getCurrentTransaction().getItemCount();
+        double total = lane.getCurrentTransaction().getSubtotal();
 
-        currentTransaction.clearTransaction();
+        lane.getCurrentTransaction().clearTransaction();
 
         // Re-enable scanner
-        if (scannerHandler != null) {
-            scannerHandler.setEnabled(true);
-        }
+        fireScanningEnabled(true);
 
         ConsoleJournal.logTransactionCleared(itemCount, total);
 
-        if (displayPanel != null) {
-            displayPanel.updateDisplay(currentTransaction);
-        }
+        fireTransactionChanged();
     }
 
     /**
@@ -351,11 +601,7 @@ public class RegisterController {
      * @return The current transaction
      */
     public Transaction getCurrentTransaction() {
-        return currentTransaction;
-    }
-
-    public void setPaymentPanel(com.am.register.view.PaymentPanel paymentPanel) {
-        this.paymentPanel = paymentPanel;
+        return lane.getCurrentTransaction();
     }
 
     /**
@@ -366,13 +612,19 @@ public class RegisterController {
         ConsoleJournal.logInfo("Shutting down RegisterController");
 
         // Warn if there are suspended transactions
-        if (!suspendedTransactions.isEmpty()) {
-            ConsoleJournal.logInfo("Note: " + suspendedTransactions.size() +
-                    " suspended transactions will persist until tomorrow's cleanup");
+        int suspendedCount = services.getSuspensions().size();
+        if (suspendedCount > 0) {
+            ConsoleJournal.logInfo("Note: " + suspendedCount +
+                    " suspended transactions will persist until they expire (TTL " +
+                    services.getSuspensions().getTtl().toHours() + "h)");
         }
 
         // Disconnect from database
-        databaseManager.disconnect();
+        lane.getDatabase().disconnect();
+        services.getMetricsReporter().unregister(lane.getLaneId());
+        if (ownsServices) {
+            services.shutdown();
+        }
 
         ConsoleJournal.logInfo("RegisterController shutdown complete");
     }
@@ -384,7 +636,7 @@ public class RegisterController {
     public List<Item> getAllItems() {
         // Query database for all items
         // For now, we'll need to add this method to DatabaseManager
-        return databaseManager.getAllItems();
+        return services.getCatalog().getAllItems();
     }
 
     /**
@@ -392,23 +644,24 @@ public class RegisterController {
      * @return List of popular items
      */
     public List<Item> getPopularItems() {
-        return databaseManager.getPopularItems();
+        return services.getCatalog().getPopularItems();
     }
 
     /**
      * Voids an item at the specified index.
+     * @return false if there is no such line
      */
-    public void voidItem(int index) {
-        if (index < 0 || index >= currentTransaction.getLineCount()) {
+    public boolean voidItem(int index) {
+        if (index < 0 || index >= lane.getCurrentTransaction().getLineCount()) {
             ConsoleJournal.logError("Invalid item index for void: " + index);
-            return;
+            return false;
         }
 
-        TransactionItem txItem = currentTransaction.getItem(index);
+        TransactionItem txItem = lane.getCurrentTransaction().getItem(index);
 
         if (txItem == null) {
             ConsoleJournal.logError("Item not found at index: " + index);
-            return;
+            return false;
         }
 
         // Log the void
@@ -419,228 +672,269 @@ public class RegisterController {
         );
 
         // Remove from transaction
-        currentTransaction.removeItem(index);
+        lane.getCurrentTransaction().removeItem(index);
+        lane.getMetrics().counter(MetricsRegistry.VOIDS).increment();
 
         // Update view
-        if (displayPanel != null) {
-            displayPanel.updateDisplay(currentTransaction);
-        }
+        fireTransactionChanged();
+
+        return true;
     }
 
     /**
      * Changes the quantity of an item at the specified index.
+     * @return false if the line or quantity is invalid
      */
-    public void changeItemQuantity(int index, int newQuantity) {
-        if (index < 0 || index >= currentTransaction.getLineCount()) {
+    public boolean changeItemQuantity(int index, int newQuantity) {
+        if (index < 0 || index >= lane.getCurrentTransaction().getLineCount()) {
             ConsoleJournal.logError("Invalid item index for quantity change: " + index);
-            return;
+            return false;
         }
 
         if (newQuantity < 1) {
             ConsoleJournal.logError("Invalid quantity: " + newQuantity);
-            return;
+            return false;
         }
 
-        TransactionItem txItem = currentTransaction.getItem(index);
+        TransactionItem txItem = lane.getCurrentTransaction().getItem(index);
 
         if (txItem == null) {
             ConsoleJournal.logError("Item not found at index: " + index);
-            return;
+            return false;
         }
 
         int oldQuantity = txItem.getQuantity();
 
         // Change quantity
-        currentTransaction.changeQuantity(index, newQuantity);
+        lane.getCurrentTransaction().changeQuantity(index, newQuantity);
 
         // Log the change
         ConsoleJournal.logQuantityChanged(
                 txItem.getItem(),
                 oldQuantity,
                 newQuantity,
-                currentTransaction.getSubtotal()
+                lane.getCurrentTransaction().getSubtotal()
         );
 
         // Update view
-        if (displayPanel != null) {
-            displayPanel.updateDisplay(currentTransaction);
-        }
+        fireTransactionChanged();
+
+        return true;
     }
 
     /**
      * Starts the tendering phase.
+     * @return false if the basket is empty
      */
-    public void startTendering() {
-        if (currentTransaction.getItemCount() == 0) {
+    public boolean startTendering() {
+        if (lane.getCurrentTransaction().getItemCount() == 0) {
             ConsoleJournal.logError("Cannot tender empty transaction");
-            return;
+            return false;
         }
 
-        currentTransaction.startTendering();
+        lane.getCurrentTransaction().startTendering();
 
         // Log tax calculation with breakdown
-        TaxBreakdown breakdown = currentTransaction.calculateTaxBreakdown();
+        TaxBreakdown breakdown = lane.getCurrentTransaction().calculateTaxBreakdown();
         ConsoleJournal.logTaxCalculated(
-                currentTransaction.getSubtotal(),
+                lane.getCurrentTransaction().getSubtotal(),
                 breakdown,
-                currentTransaction.getTotal()
+                lane.getCurrentTransaction().getTotal()
         );
 
         // Disable scanner
-        if (scannerHandler != null) {
-            scannerHandler.setEnabled(false);
-        }
+        fireScanningEnabled(false);
 
         ConsoleJournal.logInfo("Tendering phase started - Scanner disabled, items locked");
 
-        if (displayPanel != null) {
-            displayPanel.updateDisplay(currentTransaction);
-        }
+        fireTransactionChanged();
+
+        return true;
     }
 
     /**
      * Processes exact dollar cash payment.
+     * @return The receipt, or null if the payment was refused
      */
-    public void processExactCashPayment() {
-        if (currentTransaction.getItemCount() == 0) {
+    public Receipt processExactCashPayment() {
+        if (lane.getCurrentTransaction().getItemCount() == 0) {
             ConsoleJournal.logError("Cannot process payment: transaction is empty");
-            return;
+            return null;
         }
 
-        double total = currentTransaction.getTotal();  // Changed from getSubtotal()
+        double total = lane.getCurrentTransaction().getTotal();  // Changed from getSubtotal()
         Payment payment = Payment.createCashPayment(total, 0.0);
-        currentTransaction.setPayment(payment);
+        lane.getCurrentTransaction().setPayment(payment);
 
         ConsoleJournal.logInfo(String.format(
                 "Cash payment processed: Amount=$%.2f, Change=$0.00",
                 total
         ));
 
-        completeTransaction();
+        return completeTransaction();
     }
 
     /**
      * Processes next dollar cash payment (rounds up).
+     * @return The receipt, or null if the payment was refused
      */
-    public void processNextDollarPayment() {
-        if (currentTransaction.getItemCount() == 0) {
+    public Receipt processNextDollarPayment() {
+        if (lane.getCurrentTransaction().getItemCount() == 0) {
             ConsoleJournal.logError("Cannot process payment: transaction is empty");
-            return;
+            return null;
         }
 
-        double total = currentTransaction.getTotal();  // Changed
+        double total = lane.getCurrentTransaction().getTotal();  // Changed
         double nextDollar = Math.ceil(total);
         double change = nextDollar - total;
 
         Payment payment = Payment.createCashPayment(nextDollar, change);
-        currentTransaction.setPayment(payment);
+        lane.getCurrentTransaction().setPayment(payment);
 
         ConsoleJournal.logInfo(String.format(
                 "Cash payment processed: Amount=$%.2f, Change=$%.2f",
                 nextDollar, change
         ));
 
-        completeTransaction();
+        return completeTransaction();
     }
 
     /**
      * Processes custom amount cash payment.
+     * @return The receipt, or null if the payment was refused
      */
-    public void processCustomCashPayment(double amountTendered) {
-        if (currentTransaction.getItemCount() == 0) {
+    public Receipt processCustomCashPayment(double amountTendered) {
+        if (lane.getCurrentTransaction().getItemCount() == 0) {
             ConsoleJournal.logError("Cannot process payment: transaction is empty");
-            return;
+            return null;
         }
 
-        double total = currentTransaction.getTotal();  // Changed
+        double total = lane.getCurrentTransaction().getTotal();  // Changed
 
         if (amountTendered < total) {
-            if (displayPanel != null) {
-                displayPanel.showError(String.format(
-                        "Insufficient payment: $%.2f tendered for $%.2f total",
-                        amountTendered, total
-                ));
-            }
+            fireError(String.format(
+                    "Insufficient payment: $%.2f tendered for $%.2f total",
+                    amountTendered, total
+            ));
             ConsoleJournal.logError("Payment rejected: insufficient amount");
-            return;
+            return null;
         }
 
         double change = amountTendered - total;
         Payment payment = Payment.createCashPayment(amountTendered, change);
-        currentTransaction.setPayment(payment);
+        lane.getCurrentTransaction().setPayment(payment);
 
         ConsoleJournal.logInfo(String.format(
                 "Cash payment processed: Amount=$%.2f, Change=$%.2f",
                 amountTendered, change
         ));
 
-        completeTransaction();
+        return completeTransaction();
     }
 
     /**
      * Processes card payment.
+     * @return The receipt, or null if the payment was refused
      */
-    public void processCardPayment(CardType cardType) {
-        if (currentTransaction.getItemCount() == 0) {
+    public Receipt processCardPayment(CardType cardType) {
+        if (lane.getCurrentTransaction().getItemCount() == 0) {
             ConsoleJournal.logError("Cannot process payment: transaction is empty");
-            return;
+            return null;
         }
 
-        double total = currentTransaction.getTotal();  // Changed
+        double total = lane.getCurrentTransaction().getTotal();  // Changed
         Payment payment = Payment.createCardPayment(cardType, total);
-        currentTransaction.setPayment(payment);
+        lane.getCurrentTransaction().setPayment(payment);
 
         ConsoleJournal.logInfo(String.format(
                 "Card payment processed: Type=%s, Amount=$%.2f",
                 cardType.getDisplayName(), total
         ));
 
-        completeTransaction();
+        return completeTransaction();
     }
 
     /**
      * Completes the transaction and prepares for receipt.
+     * @return The receipt for the completed sale
      */
-    private void completeTransaction() {
+    private Receipt completeTransaction() {
+        MetricsRegistry metrics = lane.getMetrics();
+        long tenderStart = System.nanoTime();
+
         // Generate receipt
-        Receipt receipt = ReceiptGenerator.createReceipt(currentTransaction);
+        Receipt receipt = ReceiptGenerator.createReceipt(lane.getCurrentTransaction(), nextReceiptNumber());
 
-        // Save receipt to file
-        boolean savedFile = ReceiptGenerator.saveReceipt(receipt);
-        if (savedFile) {
-            ConsoleJournal.logInfo("Receipt saved to file: " + receipt.getReceiptNumber());
+        // Archive the receipt; written to disk in the background
+        boolean archived = services.getReceipts().archive(receipt, this::archiveLost);
+        metrics.histogram(MetricsRegistry.RECEIPT_RENDER).recordSince(tenderStart);
+        if (!archived) {
+            ConsoleJournal.logError("Receipt not archived: " + receipt.getReceiptNumber());
         }
 
         // NEW: Save transaction to database for analytics
-        boolean savedToDB = databaseManager.saveTransaction(currentTransaction, receipt.getReceiptNumber());
+        long persistStart = System.nanoTime();
+        boolean savedToDB = lane.getDatabase().saveTransaction(lane.getCurrentTransaction(), receipt.getReceiptNumber());
+        metrics.histogram(MetricsRegistry.DB_PERSIST).recordSince(persistStart);
         if (savedToDB) {
             ConsoleJournal.logInfo("Transaction saved to database: " + receipt.getReceiptNumber());
         } else {
             ConsoleJournal.logError("Failed to save transaction to database");
         }
 
-        // Show receipt dialog
-        if (displayPanel != null) {
-            Frame parentFrame = (Frame) SwingUtilities.getWindowAncestor(displayPanel);
-            ReceiptDialog dialog = new ReceiptDialog(parentFrame, receipt);
-            dialog.setVisible(true);
-        }
+        metrics.histogram(MetricsRegistry.TENDER).recordSince(tenderStart);
+
+        // Hand the receipt to listeners; the Swing view shows it later on the event thread
+        fireSaleCompleted(receipt);
 
         ConsoleJournal.logInfo("Transaction completed: " + receipt.getReceiptNumber());
 
         // Clear transaction (returns to SHOPPING state)
         startNewTransaction();
+
+        return receipt;
+    }
+
+    /**
+     * Draws the next receipt number for this lane.
+     * Falls back to a timestamp number if no block can be reserved, so the sale still completes.
+     */
+    @SuppressWarnings("deprecation")
+    private String nextReceiptNumber() {
+        try {
+            return lane.getReceiptNumbers().next();
+        } catch (IllegalStateException e) {
+            ConsoleJournal.logError("Receipt number reservation failed, using timestamp number: " + e.getMessage());
+            return Receipt.generateReceiptNumber();
+        }
     }
 
-    public void setScannerHandler(ScannerInputHandler handler) {
-        this.scannerHandler = handler;
+    /**
+     * Gets this lane's latency histograms and counters.
+     */
+    public MetricsRegistry getMetrics() {
+        return lane.getMetrics();
     }
 
     /**
-     * Gets the database manager (for advanced operations).
+     * Gets the ID of the lane this controller drives.
+     */
+    public String getLaneId() {
+        return lane.getLaneId();
+    }
+
+    /**
+     * Gets this lane's database manager (for advanced operations).
      */
     public DatabaseManager getDatabaseManager() {
-        return databaseManager;
+        return lane.getDatabase();
+    }
+
+    /**
+     * Gets the services shared with other lanes.
+     */
+    public RegisterServices getServices() {
+        return services;
     }
 
     /**
@@ -648,42 +942,55 @@ public class RegisterController {
      * @return List of suspended transactions (newest first)
      */
     public List<SuspendedTransaction> getSuspendedTransactions() {
-        return new ArrayList<>(suspendedTransactions);  // Return copy for safety
+        return services.getSuspensions().list();  // Returns a copy
     }
 
     /**
      * Gets count of suspended transactions.
      */
     public int getSuspendedTransactionCount() {
-        return suspendedTransactions.size();
+        return services.getSuspensions().size();
     }
 
     /**
      * Checks if suspension limit has been reached.
      */
     public boolean isSuspensionLimitReached() {
-        return suspendedTransactions.size() >= MAX_SUSPENDED_TRANSACTIONS;
+        return services.getSuspensions().isFull();
+    }
+
+    /**
+     * Gets the maximum number of suspended transactions.
+     */
+    public int getMaxSuspendedTransactions() {
+        return services.getSuspensions().getCapacity();
+    }
+
+    /**
+     * Gets how long a suspended transaction is kept before it expires.
+     */
+    public Duration getSuspensionTtl() {
+        return services.getSuspensions().getTtl();
     }
 
     /**
      * Deletes a suspended transaction without resuming it.
+     * Claimed first, like a resume, so a basket being resumed elsewhere is not lost.
      * @param suspensionId The ID to delete
      */
     public boolean deleteSuspension(String suspensionId) {
-        SuspendedTransaction suspension = suspendedTransactions.stream()
-                .filter(s -> s.getSuspensionId().equals(suspensionId))
-                .findFirst()
-                .orElse(null);
+        SuspendedTransaction suspension = services.getSuspensions().find(suspensionId);
 
         if (suspension == null) {
             return false;
         }
 
-        // Remove from list
-        suspendedTransactions.remove(suspension);
+        if (!claimSuspension(suspension)) {
+            return false;
+        }
 
-        // Delete from database
-        boolean deleted = databaseManager.deleteSuspendedTransaction(suspensionId);
+        // Delete from database and index
+        boolean deleted = services.getSuspensions().complete(suspensionId, lane.getLaneId());
 
         if (deleted) {
             ConsoleJournal.logInfo("Deleted suspended transaction: " + suspensionId);
@@ -694,14 +1001,12 @@ public class RegisterController {
 
     /**
      * Performs daily cleanup of expired suspensions.
-     * Removes all suspensions from previous days.
+     * Removes suspensions past their TTL, in the database and in memory;
+     * suspensions from previous days that are still within it are kept.
      */
     public void performDailyCleanup() {
-        // Remove from database
-        int deletedCount = databaseManager.cleanupExpiredSuspensions();
-
-        // Remove from in-memory list
-        suspendedTransactions.removeIf(s -> s.isFromPreviousDay());
+        // Remove from database and memory
+        int deletedCount = services.getSuspensions().cleanupExpired(LocalDateTime.now());
 
         // Log cleanup
         ConsoleJournal.logSuspensionCleanup(deletedCount);
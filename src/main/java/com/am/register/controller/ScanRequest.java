@@ -0,0 +1,36 @@
+package com.am.register.controller;
+
+import com.am.register.model.InputSource;
+
+/**
+ * One scan waiting to be applied to a lane's basket.
+ */
+public final class ScanRequest {
+
+    private final String upc;
+    private final InputSource source;
+    private final long receivedNanos;
+
+    /**
+     * @param upc The UPC code as read
+     * @param source The input source (scanner/manual/grid)
+     * @param receivedNanos System.nanoTime() when the input arrived
+     */
+    public ScanRequest(String upc, InputSource source, long receivedNanos) {
+        this.upc = upc;
+        this.source = source;
+        this.receivedNanos = receivedNanos;
+    }
+
+    public String getUpc() {
+        return upc;
+    }
+
+    public InputSource getSource() {
+        return source;
+    }
+
+    public long getReceivedNanos() {
+        return receivedNanos;
+    }
+}
@@ -1,21 +1,31 @@
 package com.am.register.controller;
 
+import com.am.register.metrics.MetricsRegistry;
 import com.am.register.model.InputSource;
-import javax.swing.*;
-import java.awt.*;
-import java.awt.event.KeyEvent;
+import com.am.register.scanner.KeyboardWedgeSource;
+import com.am.register.scanner.ScanInputSource;
+import com.am.register.scanner.ScanListener;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
- * Handles input from a barcode scanner globally.
- * Captures keyboard input application-wide without requiring focus.
+ * Handles input from barcode scanners.
+ * The keyboard wedge is always installed, capturing keystrokes application-wide
+ * without requiring focus; further scanners (stdin, serial, socket) can be
+ * added as sources. Every device decodes its own codes, and codes from all
+ * of them go to the lane in arrival order.
+ * Listens to its lane so keyboard scanning is switched off while tendering.
  */
-public class ScannerInputHandler {
+public class ScannerInputHandler implements LaneListener, ScanListener {
 
-    private final RegisterController controller;
-    private final StringBuilder scanBuffer;
-    private long lastKeyTime;
-    private static final long SCAN_TIMEOUT_MS = 100; // Scanner types fast
-    private boolean scanningEnabled = true;
+    private final AsyncLane lane;
+    private final LongAdder duplicateReads;
+    private final KeyboardWedgeSource keyboard;
+    private final List<ScanInputSource> sources = new CopyOnWriteArrayList<>();
+    private volatile boolean scanningEnabled = true;  // Set from the lane's thread
 
     /**
      * Enables or disables scanner input.
@@ -24,6 +34,11 @@ public class ScannerInputHandler {
         this.scanningEnabled = enabled;
     }
 
+    @Override
+    public void scanningEnabledChanged(boolean enabled) {
+        setEnabled(enabled);
+    }
+
     /**
      * Checks if scanning is enabled.
      */
@@ -34,102 +49,74 @@ public class ScannerInputHandler {
     /**
      * Creates a scanner input handler with global keyboard listener.
      *
-     * @param controller The register controller to send scanned UPCs to
+     * @param lane The lane to send scanned UPCs to
      */
-    public ScannerInputHandler(RegisterController controller) {
-        if (controller == null) {
-            throw new IllegalArgumentException("RegisterController cannot be null");
+    public ScannerInputHandler(AsyncLane lane) {
+        if (lane == null) {
+            throw new IllegalArgumentException("AsyncLane cannot be null");
         }
 
-        this.controller = controller;
-        this.scanBuffer = new StringBuilder();
-        this.lastKeyTime = System.currentTimeMillis();
+        this.lane = lane;
+        this.duplicateReads = lane.getController().getMetrics().counter(MetricsRegistry.DUPLICATE_READS);
 
-        // Install global keyboard listener
-        installGlobalKeyListener();
+        // Keys typed while scanning is off go to the focused field untouched
+        this.keyboard = new KeyboardWedgeSource(this::isEnabled);
+        if (addSource(keyboard)) {
+            System.out.println("✓ Global scanner input handler installed");
+        }
     }
 
     /**
-     * Installs a global KeyEventDispatcher to capture all keyboard input.
+     * Starts reading another scanner source.
+     * @return false if the source could not be opened
      */
-    private void installGlobalKeyListener() {
-        KeyboardFocusManager.getCurrentKeyboardFocusManager()
-                .addKeyEventDispatcher(new KeyEventDispatcher() {
-                    @Override
-                    public boolean dispatchKeyEvent(KeyEvent e) {
-                        // Only process KEY_TYPED events to get actual characters
-                        if (e.getID() == KeyEvent.KEY_TYPED) {
-                            return handleKeyTyped(e);
-                        }
-                        return false; // Allow event to propagate normally
-                    }
-                });
-
-        System.out.println("✓ Global scanner input handler installed");
+    public boolean addSource(ScanInputSource source) {
+        try {
+            source.start(this);
+        } catch (IOException e) {
+            System.err.println("✗ Could not start scanner " + source.getName() + ": " + e.getMessage());
+            return false;
+        }
+        sources.add(source);
+        return true;
     }
 
     /**
-     * Handles key typed events globally.
+     * Queues a completed code on the lane; scan-to-display includes the wait.
+     * Codes from devices other than the keyboard are sent even while scanning
+     * is off, so the lane can tell the cashier why they were refused.
      */
-    private boolean handleKeyTyped(KeyEvent e) {
-        if (!scanningEnabled) {
-            return false; // Don't process if disabled
-        }
-
-        char keyChar = e.getKeyChar();
-        long currentTime = System.currentTimeMillis();
-
-        // Check if this is part of a rapid scan sequence
-        long timeSinceLastKey = currentTime - lastKeyTime;
-
-        // If too much time passed, reset buffer (user typing vs scanner)
-        if (timeSinceLastKey > SCAN_TIMEOUT_MS && scanBuffer.length() > 0) {
-            scanBuffer.setLength(0);
-        }
-
-        lastKeyTime = currentTime;
-
-        // Handle Enter key (end of scan)
-        if (keyChar == '\n' || keyChar == '\r') {
-            if (scanBuffer.length() > 0) {
-                String scannedUPC = scanBuffer.toString().trim();
-                scanBuffer.setLength(0);
-
-                // Process the scanned UPC
-                if (!scannedUPC.isEmpty()) {
-                    SwingUtilities.invokeLater(() -> {
-                        controller.processUPCScan(scannedUPC, InputSource.SCANNER);
-                    });
-                    return true; // Consume event
-                }
-            }
-            return false; // Allow Enter to propagate if buffer empty
-        }
-
-        // Handle digits and letters (UPCs can have letters in some formats)
-        if (Character.isLetterOrDigit(keyChar)) {
-            scanBuffer.append(keyChar);
-
-            // If scanning (rapid input), consume the event
-            if (timeSinceLastKey < SCAN_TIMEOUT_MS) {
-                return true; // Consume event to prevent typing in other fields
-            }
-        }
+    @Override
+    public void scanned(String deviceId, String code, long receivedNanos) {
+        lane.scan(code, InputSource.SCANNER, receivedNanos);
+    }
 
-        return false; // Allow event to propagate normally
+    @Override
+    public void duplicateSuppressed(String deviceId) {
+        duplicateReads.increment();
     }
 
     /**
-     * Gets the current buffer content (for debugging).
+     * Gets the keyboard's partly read code (for debugging, on the event thread).
      */
     public String getBufferContent() {
-        return scanBuffer.toString();
+        return keyboard.getDecoder().getBufferContent();
     }
 
     /**
-     * Clears the scan buffer.
+     * Clears the keyboard's partly read code. Call on the event thread.
      */
     public void clearBuffer() {
-        scanBuffer.setLength(0);
+        keyboard.getDecoder().clear();
+    }
+
+    /**
+     * Stops every source, including the keyboard wedge.
+     */
+    public void shutdown() {
+        for (ScanInputSource source : sources) {
+            source.close();
+        }
+        sources.clear();
     }
-}
\ No newline at end of file
+}
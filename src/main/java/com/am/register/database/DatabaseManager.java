@@ -18,7 +18,7 @@ import java.util.Map;
 public class DatabaseManager {
 
     // Database connection details - UPDATED URL
-    private static final String JDBC_URL = "jdbc:h2:tcp://localhost:9092/register";
+    public static final String DEFAULT_JDBC_URL = "jdbc:h2:tcp://localhost:9092/register";
     private static final String JDBC_USER = "sa";
     private static final String JDBC_PASSWORD = "";
 
@@ -65,6 +65,74 @@ public class DatabaseManager {
                     "ITEMS_JSON TEXT NOT NULL, " +
                     "NOTE VARCHAR(255))";
 
+    // SUSPENSION_SEQUENCES holds one counter row per day (schema v7); IDs are drawn from it atomically
+    private static final String NEXT_SUSPENSION_SEQUENCE_SQL =
+            "SELECT LAST_VALUE FROM FINAL TABLE (" +
+                    "UPDATE SUSPENSION_SEQUENCES SET LAST_VALUE = LAST_VALUE + 1 " +
+                    "WHERE SEQUENCE_DATE = ?)";
+
+    // Seeds a new day at the last ID already issued before the counter existed
+    private static final String SEED_SUSPENSION_SEQUENCE_SQL =
+            "INSERT INTO SUSPENSION_SEQUENCES (SEQUENCE_DATE, LAST_VALUE) " +
+                    "SELECT ?, COALESCE(MAX(CAST(SUBSTRING(SUSPENSION_ID, 12) AS INT)), 0) " +
+                    "FROM SUSPENDED_TRANSACTIONS WHERE SUSPENSION_DATE = ?";
+
+    // Receipt numbers are handed out in blocks; RECEIPT_SEQUENCES (schema v8) records the last reserved per lane
+    private static final String SEED_RECEIPT_SEQUENCE_SQL =
+            "INSERT INTO RECEIPT_SEQUENCES (STORE_NUMBER, LANE_NUMBER, LAST_RESERVED) VALUES (?, ?, 0)";
+
+    private static final String RESERVE_RECEIPT_SEQUENCE_SQL =
+            "SELECT LAST_RESERVED FROM FINAL TABLE (" +
+                    "UPDATE RECEIPT_SEQUENCES SET LAST_RESERVED = LAST_RESERVED + ? " +
+                    "WHERE STORE_NUMBER = ? AND LANE_NUMBER = ?)";
+
+    // A claim older than this is treated as abandoned (e.g. the lane crashed mid-resume)
+    private static final int SUSPENSION_CLAIM_TIMEOUT_MINUTES = 5;
+
+    private static final String CLAIM_SUSPENSION_SQL =
+            "UPDATE SUSPENDED_TRANSACTIONS " +
+                    "SET CLAIMED_BY = ?, CLAIMED_AT = CURRENT_TIMESTAMP(), VERSION = VERSION + 1 " +
+                    "WHERE SUSPENSION_ID = ? AND VERSION = ? " +
+                    "AND (CLAIMED_BY IS NULL OR CLAIMED_AT < DATEADD('MINUTE', -" +
+                    SUSPENSION_CLAIM_TIMEOUT_MINUTES + ", CURRENT_TIMESTAMP()))";
+
+    private static final String RELEASE_SUSPENSION_SQL =
+            "UPDATE SUSPENDED_TRANSACTIONS " +
+                    "SET CLAIMED_BY = NULL, CLAIMED_AT = NULL, VERSION = VERSION + 1 " +
+                    "WHERE SUSPENSION_ID = ? AND CLAIMED_BY = ?";
+
+    private static final String COMPLETE_SUSPENSION_CLAIM_SQL =
+            "DELETE FROM SUSPENDED_TRANSACTIONS WHERE SUSPENSION_ID = ? AND CLAIMED_BY = ?";
+
+    // Expiry never takes a basket a lane is resuming; a stale claim no longer counts
+    private static final String UNCLAIMED_SUSPENSION_CONDITION =
+            "(CLAIMED_BY IS NULL OR CLAIMED_AT < DATEADD('MINUTE', -" +
+                    SUSPENSION_CLAIM_TIMEOUT_MINUTES + ", CURRENT_TIMESTAMP()))";
+
+    private static final String EXPIRE_SUSPENSION_SQL =
+            "DELETE FROM SUSPENDED_TRANSACTIONS WHERE SUSPENSION_ID = ? AND VERSION = ? AND " +
+                    UNCLAIMED_SUSPENSION_CONDITION;
+
+    private static final String CLEANUP_EXPIRED_SUSPENSIONS_SQL =
+            "DELETE FROM SUSPENDED_TRANSACTIONS WHERE SUSPENDED_AT < ? AND " +
+                    UNCLAIMED_SUSPENSION_CONDITION;
+
+    // DAILY_ITEM_SALES (schema v9) is keyed by the day of TRANSACTIONS.TIMESTAMP, the payment time
+    private static final String MERGE_DAILY_ITEM_SALES_SQL =
+            "MERGE INTO DAILY_ITEM_SALES D " +
+                    "USING (VALUES (CAST(? AS DATE), CAST(? AS VARCHAR(20)), CAST(? AS INT), CAST(? AS DECIMAL(12,2)))) " +
+                    "S(SALE_DATE, UPC, QUANTITY, AMOUNT) " +
+                    "ON D.SALE_DATE = S.SALE_DATE AND D.UPC = S.UPC " +
+                    "WHEN MATCHED THEN UPDATE SET " +
+                    "D.QUANTITY_SOLD = D.QUANTITY_SOLD + S.QUANTITY, D.REVENUE = D.REVENUE + S.AMOUNT " +
+                    "WHEN NOT MATCHED THEN INSERT (SALE_DATE, UPC, QUANTITY_SOLD, REVENUE) " +
+                    "VALUES (S.SALE_DATE, S.UPC, S.QUANTITY, S.AMOUNT)";
+
+    // Another lane inserting the same new day/UPC row, or holding it while waiting on ours
+    private static final String DUPLICATE_KEY_STATE = "23505";
+    private static final String LOCK_TIMEOUT_STATE = "HYT00";
+    private static final String DEADLOCK_STATE = "40001";
+
     private static final String INSERT_ITEM_SQL =
             "INSERT INTO ITEMS (UPC, DESCRIPTION, PRICE, CATEGORY, IS_POPULAR) VALUES (?, ?, ?, ?, ?)";
 
@@ -74,8 +142,28 @@ public class DatabaseManager {
     private static final String DELETE_ALL_ITEMS_SQL =
             "DELETE FROM ITEMS";
 
+    private final String jdbcUrl;
     private Connection connection;
 
+    /**
+     * Creates a manager for the register's H2 server.
+     */
+    public DatabaseManager() {
+        this(DEFAULT_JDBC_URL);
+    }
+
+    /**
+     * Creates a manager for another database, e.g. an in-memory H2 for benchmarks
+     * and load runs ("jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1").
+     * @param jdbcUrl JDBC URL of the database
+     */
+    public DatabaseManager(String jdbcUrl) {
+        if (jdbcUrl == null || jdbcUrl.isBlank()) {
+            throw new IllegalArgumentException("JDBC URL cannot be empty");
+        }
+        this.jdbcUrl = jdbcUrl;
+    }
+
     /**
      * Establishes connection to the H2 database server.
      * Note: H2 server must be running before calling this method.
@@ -85,11 +173,16 @@ public class DatabaseManager {
     public boolean connect() {
         try {
             Class.forName("org.h2.Driver");
-            connection = DriverManager.getConnection(JDBC_URL, JDBC_USER, JDBC_PASSWORD);
+            connection = DriverManager.getConnection(jdbcUrl, JDBC_USER, JDBC_PASSWORD);
 
-            System.out.println("✓ Database connection established (Server Mode)");
-            System.out.println("  Connection URL: " + JDBC_URL);
-            System.out.println("  Database file: ~/register.mv.db");
+            if (DEFAULT_JDBC_URL.equals(jdbcUrl)) {
+                System.out.println("✓ Database connection established (Server Mode)");
+                System.out.println("  Connection URL: " + jdbcUrl);
+                System.out.println("  Database file: ~/register.mv.db");
+            } else {
+                System.out.println("✓ Database connection established");
+                System.out.println("  Connection URL: " + jdbcUrl);
+            }
 
             return true;
 
@@ -99,7 +192,7 @@ public class DatabaseManager {
         } catch (SQLException e) {
             System.err.println("✗ Database connection failed: " + e.getMessage());
             System.err.println("  Make sure H2 server is running!");
-            System.err.println("  Expected URL: " + JDBC_URL);
+            System.err.println("  Expected URL: " + jdbcUrl);
             return false;
         }
     }
@@ -207,6 +300,55 @@ public class DatabaseManager {
         }
     }
 
+    /**
+     * Retrieves several items in one query, for a burst of scans.
+     *
+     * @param upcs The UPCs to search for (duplicates are fine)
+     * @return Found items keyed by UPC; UPCs not in the table are absent
+     */
+    public Map<String, Item> getItemsByUPC(java.util.Collection<String> upcs) {
+        Map<String, Item> found = new HashMap<>();
+        if (upcs == null || upcs.isEmpty()) {
+            return found;
+        }
+
+        List<String> distinct = new ArrayList<>(new java.util.LinkedHashSet<>(upcs));
+        StringBuilder sql = new StringBuilder("SELECT * FROM ITEMS WHERE UPC IN (");
+        for (int i = 0; i < distinct.size(); i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+        }
+        sql.append(")");
+
+        try (PreparedStatement pstmt = connection.prepareStatement(sql.toString())) {
+            for (int i = 0; i < distinct.size(); i++) {
+                pstmt.setString(i + 1, distinct.get(i));
+            }
+            ResultSet rs = pstmt.executeQuery();
+
+            while (rs.next()) {
+                Item item = new Item();
+                item.setUpc(rs.getString("UPC"));
+                item.setDescription(rs.getString("DESCRIPTION"));
+                item.setPrice(rs.getDouble("PRICE"));
+
+                try {
+                    item.setCategory(rs.getString("CATEGORY"));
+                    item.setPopular(rs.getBoolean("IS_POPULAR"));
+                } catch (SQLException e) {
+                    item.setCategory("OTHER");
+                    item.setPopular(false);
+                }
+
+                found.put(item.getUpc(), item);
+            }
+
+        } catch (SQLException e) {
+            System.err.println("✗ Failed to query " + distinct.size() + " items: " + e.getMessage());
+        }
+
+        return found;
+    }
+
     /**
      * Deletes all items from the database.
      * Useful for testing and resetting the database.
@@ -346,6 +488,8 @@ public class DatabaseManager {
 
     /**
      * Saves a completed transaction to the database.
+     * The sale rows and the DAILY_ITEM_SALES rollup are written in one commit.
+     * A commit that collides with another lane's sale of the same item is retried once.
      */
     public boolean saveTransaction(Transaction transaction, String receiptNumber) {
         if (transaction == null || !transaction.isPaid()) {
@@ -354,61 +498,146 @@ public class DatabaseManager {
         }
 
         try {
-            // Insert into TRANSACTIONS table
-            String txSql = "INSERT INTO TRANSACTIONS " +
-                    "(TRANSACTION_ID, TIMESTAMP, SUBTOTAL, TAX, TOTAL, PAYMENT_METHOD) " +
-                    "VALUES (?, ?, ?, ?, ?, ?)";
+            connection.setAutoCommit(false);
+
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    writeTransaction(transaction, receiptNumber);
+                    connection.commit();
+
+                    System.out.println("✓ Transaction saved: " + receiptNumber);
+                    return true;
 
-            try (PreparedStatement pstmt = connection.prepareStatement(txSql)) {
+                } catch (SQLException e) {
+                    rollbackQuietly();
+                    if (attempt > 1 || !isConcurrentWriteConflict(e)) {
+                        throw e;
+                    }
+                    System.err.println("⚠ Sale " + receiptNumber + " collided with another lane - retrying");
+                }
+            }
+
+        } catch (SQLException e) {
+            System.err.println("✗ Failed to save transaction: " + e.getMessage());
+            return false;
+        } finally {
+            restoreAutoCommit();
+        }
+    }
+
+    /**
+     * Writes the sale rows and rollup updates without committing.
+     */
+    private void writeTransaction(Transaction transaction, String receiptNumber) throws SQLException {
+        java.time.LocalDateTime paidAt = transaction.getPayment().getPaymentTime();
+
+        // Insert into TRANSACTIONS table
+        String txSql = "INSERT INTO TRANSACTIONS " +
+                "(TRANSACTION_ID, TIMESTAMP, SUBTOTAL, TAX, TOTAL, PAYMENT_METHOD) " +
+                "VALUES (?, ?, ?, ?, ?, ?)";
+
+        try (PreparedStatement pstmt = connection.prepareStatement(txSql)) {
+            pstmt.setString(1, receiptNumber);
+            pstmt.setTimestamp(2, java.sql.Timestamp.valueOf(paidAt));
+            pstmt.setDouble(3, transaction.getSubtotal());
+            pstmt.setDouble(4, transaction.getTaxAmount());
+            pstmt.setDouble(5, transaction.getTotal());
+            pstmt.setString(6, transaction.getPayment().getMethod().name());
+
+            pstmt.executeUpdate();
+        }
+
+        // Insert items into TRANSACTION_ITEMS table
+        String itemSql = "INSERT INTO TRANSACTION_ITEMS " +
+                "(TRANSACTION_ID, UPC, DESCRIPTION, QUANTITY, UNIT_PRICE, LINE_TOTAL) " +
+                "VALUES (?, ?, ?, ?, ?, ?)";
+
+        try (PreparedStatement pstmt = connection.prepareStatement(itemSql)) {
+            for (TransactionItem txItem : transaction.getItems()) {
                 pstmt.setString(1, receiptNumber);
-                pstmt.setTimestamp(2, java.sql.Timestamp.valueOf(transaction.getPayment().getPaymentTime()));
-                pstmt.setDouble(3, transaction.getSubtotal());
-                pstmt.setDouble(4, transaction.getTaxAmount());
-                pstmt.setDouble(5, transaction.getTotal());
-                pstmt.setString(6, transaction.getPayment().getMethod().name());
+                pstmt.setString(2, txItem.getUpc());
+                pstmt.setString(3, txItem.getDescription());
+                pstmt.setInt(4, txItem.getQuantity());
+                pstmt.setDouble(5, txItem.getUnitPrice());
+                pstmt.setDouble(6, txItem.getLineTotal());
 
-                pstmt.executeUpdate();
+                pstmt.addBatch();
             }
+            pstmt.executeBatch();
+        }
 
-            // Insert items into TRANSACTION_ITEMS table
-            String itemSql = "INSERT INTO TRANSACTION_ITEMS " +
-                    "(TRANSACTION_ID, UPC, DESCRIPTION, QUANTITY, UNIT_PRICE, LINE_TOTAL) " +
-                    "VALUES (?, ?, ?, ?, ?, ?)";
+        // Roll the sale into the day's per-item totals, one row per UPC in UPC order,
+        // so lanes selling overlapping baskets lock rollup rows in the same order
+        Map<String, double[]> totalsByUpc = new java.util.TreeMap<>();
+        for (TransactionItem txItem : transaction.getItems()) {
+            double[] totals = totalsByUpc.computeIfAbsent(txItem.getUpc(), upc -> new double[2]);
+            totals[0] += txItem.getQuantity();
+            totals[1] += txItem.getLineTotal();
+        }
 
-            try (PreparedStatement pstmt = connection.prepareStatement(itemSql)) {
-                for (TransactionItem txItem : transaction.getItems()) {
-                    pstmt.setString(1, receiptNumber);
-                    pstmt.setString(2, txItem.getUpc());
-                    pstmt.setString(3, txItem.getDescription());
-                    pstmt.setInt(4, txItem.getQuantity());
-                    pstmt.setDouble(5, txItem.getUnitPrice());
-                    pstmt.setDouble(6, txItem.getLineTotal());
+        java.sql.Date saleDate = java.sql.Date.valueOf(paidAt.toLocalDate());
 
-                    pstmt.addBatch();
-                }
-                pstmt.executeBatch();
+        try (PreparedStatement pstmt = connection.prepareStatement(MERGE_DAILY_ITEM_SALES_SQL)) {
+            for (Map.Entry<String, double[]> entry : totalsByUpc.entrySet()) {
+                pstmt.setDate(1, saleDate);
+                pstmt.setString(2, entry.getKey());
+                pstmt.setInt(3, (int) entry.getValue()[0]);
+                pstmt.setDouble(4, entry.getValue()[1]);
+
+                pstmt.addBatch();
             }
+            pstmt.executeBatch();
+        }
+    }
 
-            System.out.println("✓ Transaction saved: " + receiptNumber);
-            return true;
+    /**
+     * Whether a failed write lost a race with another connection and may succeed if repeated:
+     * both inserted the same new key, or one waited too long on the other's row locks.
+     */
+    private static boolean isConcurrentWriteConflict(SQLException e) {
+        for (SQLException cause = e; cause != null; cause = cause.getNextException()) {
+            String state = cause.getSQLState();
+            if (DUPLICATE_KEY_STATE.equals(state) || LOCK_TIMEOUT_STATE.equals(state)
+                    || DEADLOCK_STATE.equals(state)) {
+                return true;
+            }
+        }
+        return false;
+    }
 
+    /**
+     * Rolls back the open transaction, ignoring secondary failures.
+     */
+    private void rollbackQuietly() {
+        try {
+            connection.rollback();
         } catch (SQLException e) {
-            System.err.println("✗ Failed to save transaction: " + e.getMessage());
-            return false;
+            System.err.println("✗ Rollback failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the connection to auto-commit mode after a multi-statement write.
+     */
+    private void restoreAutoCommit() {
+        try {
+            connection.setAutoCommit(true);
+        } catch (SQLException e) {
+            System.err.println("✗ Failed to restore auto-commit: " + e.getMessage());
         }
     }
 
     /**
      * Gets sales data for the last N days.
      * Returns map of UPC to total quantity sold.
+     * Reads the DAILY_ITEM_SALES rollup, so cost scales with catalog size, not history.
      */
     public java.util.Map<String, Integer> getSalesDataForDays(int days) {
         java.util.Map<String, Integer> salesMap = new java.util.HashMap<>();
 
-        String sql = "SELECT UPC, SUM(QUANTITY) AS TOTAL_SOLD " +
-                "FROM TRANSACTION_ITEMS TI " +
-                "JOIN TRANSACTIONS T ON TI.TRANSACTION_ID = T.TRANSACTION_ID " +
-                "WHERE T.TIMESTAMP >= DATEADD('DAY', ?, CURRENT_TIMESTAMP()) " +
+        String sql = "SELECT UPC, SUM(QUANTITY_SOLD) AS TOTAL_SOLD " +
+                "FROM DAILY_ITEM_SALES " +
+                "WHERE SALE_DATE >= DATEADD('DAY', ?, CURRENT_DATE) " +
                 "GROUP BY UPC " +
                 "ORDER BY TOTAL_SOLD DESC";
 
@@ -447,10 +676,9 @@ public class DatabaseManager {
             }
 
             // Get top selling items from last 30 days
-            String sql = "SELECT UPC, SUM(QUANTITY) AS TOTAL_SOLD " +
-                    "FROM TRANSACTION_ITEMS TI " +
-                    "JOIN TRANSACTIONS T ON TI.TRANSACTION_ID = T.TRANSACTION_ID " +
-                    "WHERE T.TIMESTAMP >= DATEADD('DAY', -30, CURRENT_TIMESTAMP()) " +
+            String sql = "SELECT UPC, SUM(QUANTITY_SOLD) AS TOTAL_SOLD " +
+                    "FROM DAILY_ITEM_SALES " +
+                    "WHERE SALE_DATE >= DATEADD('DAY', -30, CURRENT_DATE) " +
                     "GROUP BY UPC " +
                     "ORDER BY TOTAL_SOLD DESC " +
                     "LIMIT ?";
@@ -499,8 +727,8 @@ public class DatabaseManager {
     public boolean saveSuspendedTransaction(SuspendedTransaction suspension) {
         String sql = "INSERT INTO SUSPENDED_TRANSACTIONS " +
                 "(SUSPENSION_ID, SUSPENDED_AT, SUSPENSION_DATE, TRANSACTION_STATE, " +
-                "SUBTOTAL, TAX, TOTAL, ITEM_COUNT, ITEMS_JSON, NOTE) " +
-                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+                "SUBTOTAL, TAX, TOTAL, ITEM_COUNT, ITEMS_JSON, ITEMS_DATA, NOTE, LANE_ID) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
 
         try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
             pstmt.setString(1, suspension.getSuspensionId());
@@ -512,7 +740,9 @@ public class DatabaseManager {
             pstmt.setDouble(7, suspension.getTotal());
             pstmt.setInt(8, suspension.getItemCount());
             pstmt.setString(9, suspension.getItemsJson());
-            pstmt.setString(10, suspension.getNote());
+            pstmt.setBytes(10, suspension.getItemsData());
+            pstmt.setString(11, suspension.getNote());
+            pstmt.setString(12, suspension.getLaneId());
 
             pstmt.executeUpdate();
             System.out.println("✓ Suspended transaction saved: " + suspension.getSuspensionId());
@@ -545,6 +775,7 @@ public class DatabaseManager {
                 suspension.setTotal(rs.getDouble("TOTAL"));
                 suspension.setItemCount(rs.getInt("ITEM_COUNT"));
                 suspension.setItemsJson(rs.getString("ITEMS_JSON"));
+                suspension.setItemsData(rs.getBytes("ITEMS_DATA"));
                 suspension.setNote(rs.getString("NOTE"));
 
                 suspensions.add(suspension);
@@ -559,6 +790,167 @@ public class DatabaseManager {
         return suspensions;
     }
 
+    /**
+     * Retrieves suspended transaction headers, without basket payloads.
+     * Covers every lane; baskets currently being resumed elsewhere are left out.
+     * Use loadSuspendedBasket() to fetch the items of one suspension.
+     */
+    public List<SuspendedTransaction> getSuspendedTransactionHeaders() {
+        List<SuspendedTransaction> suspensions = new ArrayList<>();
+
+        String sql = "SELECT SUSPENSION_ID, SUSPENDED_AT, TRANSACTION_STATE, SUBTOTAL, TAX, TOTAL, " +
+                "ITEM_COUNT, NOTE, LANE_ID, VERSION FROM SUSPENDED_TRANSACTIONS " +
+                "WHERE CLAIMED_BY IS NULL OR CLAIMED_AT < DATEADD('MINUTE', -" +
+                SUSPENSION_CLAIM_TIMEOUT_MINUTES + ", CURRENT_TIMESTAMP()) " +
+                "ORDER BY SUSPENDED_AT DESC";
+
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+
+            while (rs.next()) {
+                SuspendedTransaction suspension = new SuspendedTransaction();
+                suspension.setSuspensionId(rs.getString("SUSPENSION_ID"));
+                suspension.setSuspendedAt(rs.getTimestamp("SUSPENDED_AT").toLocalDateTime());
+                suspension.setTransactionState(rs.getString("TRANSACTION_STATE"));
+                suspension.setSubtotal(rs.getDouble("SUBTOTAL"));
+                suspension.setTax(rs.getDouble("TAX"));
+                suspension.setTotal(rs.getDouble("TOTAL"));
+                suspension.setItemCount(rs.getInt("ITEM_COUNT"));
+                suspension.setNote(rs.getString("NOTE"));
+                suspension.setLaneId(rs.getString("LANE_ID"));
+                suspension.setVersion(rs.getInt("VERSION"));
+
+                suspensions.add(suspension);
+            }
+
+            System.out.println("✓ Retrieved " + suspensions.size() + " suspended transaction headers");
+
+        } catch (SQLException e) {
+            System.err.println("✗ Failed to retrieve suspensions: " + e.getMessage());
+        }
+
+        return suspensions;
+    }
+
+    /**
+     * Fetches the basket payload for a suspension loaded as a header.
+     * @param suspension The suspension to fill in
+     * @return true if the basket was found and loaded
+     */
+    public boolean loadSuspendedBasket(SuspendedTransaction suspension) {
+        String sql = "SELECT ITEMS_JSON, ITEMS_DATA FROM SUSPENDED_TRANSACTIONS WHERE SUSPENSION_ID = ?";
+
+        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            pstmt.setString(1, suspension.getSuspensionId());
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (!rs.next()) {
+                    System.out.println("⚠ Suspension not found: " + suspension.getSuspensionId());
+                    return false;
+                }
+
+                suspension.setItemsJson(rs.getString("ITEMS_JSON"));
+                suspension.setItemsData(rs.getBytes("ITEMS_DATA"));
+                return suspension.hasBasket();
+            }
+
+        } catch (SQLException e) {
+            System.err.println("✗ Failed to load suspended basket: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Claims a suspension for one lane, if nobody has changed it since it was read.
+     * The version check makes the claim atomic across lanes sharing this database:
+     * of several lanes claiming the same version, exactly one succeeds.
+     * @param suspensionId The suspension to claim
+     * @param expectedVersion The version the caller last saw
+     * @param laneId The claiming lane
+     * @return true if this lane now owns the suspension
+     */
+    public boolean claimSuspendedTransaction(String suspensionId, int expectedVersion, String laneId) {
+        try (PreparedStatement pstmt = connection.prepareStatement(CLAIM_SUSPENSION_SQL)) {
+            pstmt.setString(1, laneId);
+            pstmt.setString(2, suspensionId);
+            pstmt.setInt(3, expectedVersion);
+
+            if (pstmt.executeUpdate() == 1) {
+                return true;
+            }
+
+            System.out.println("⚠ Suspension " + suspensionId + " was claimed or changed by another lane");
+            return false;
+
+        } catch (SQLException e) {
+            System.err.println("✗ Failed to claim suspension: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Gives up a claim so the suspension can be resumed again from any lane.
+     */
+    public boolean releaseSuspendedTransaction(String suspensionId, String laneId) {
+        try (PreparedStatement pstmt = connection.prepareStatement(RELEASE_SUSPENSION_SQL)) {
+            pstmt.setString(1, suspensionId);
+            pstmt.setString(2, laneId);
+            return pstmt.executeUpdate() == 1;
+
+        } catch (SQLException e) {
+            System.err.println("✗ Failed to release suspension: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Deletes a claimed suspension once the claiming lane has resumed or discarded it.
+     * @return false if the claim was lost (e.g. it timed out and another lane took over)
+     */
+    public boolean completeSuspendedTransactionClaim(String suspensionId, String laneId) {
+        try (PreparedStatement pstmt = connection.prepareStatement(COMPLETE_SUSPENSION_CLAIM_SQL)) {
+            pstmt.setString(1, suspensionId);
+            pstmt.setString(2, laneId);
+
+            if (pstmt.executeUpdate() == 1) {
+                System.out.println("✓ Completed claim on suspended transaction: " + suspensionId);
+                return true;
+            }
+
+            System.out.println("⚠ Claim on " + suspensionId + " no longer held by " + laneId);
+            return false;
+
+        } catch (SQLException e) {
+            System.err.println("✗ Failed to complete suspension claim: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Deletes an expired suspension, if nobody has claimed or changed it since it was read.
+     * @param suspensionId The suspension to delete
+     * @param expectedVersion The version the caller last saw
+     * @return false if a lane is resuming it, it changed, or it is already gone
+     */
+    public boolean expireSuspendedTransaction(String suspensionId, int expectedVersion) {
+        try (PreparedStatement pstmt = connection.prepareStatement(EXPIRE_SUSPENSION_SQL)) {
+            pstmt.setString(1, suspensionId);
+            pstmt.setInt(2, expectedVersion);
+
+            if (pstmt.executeUpdate() == 1) {
+                System.out.println("✓ Expired suspended transaction: " + suspensionId);
+                return true;
+            }
+
+            System.out.println("⚠ Suspension " + suspensionId + " was claimed or changed; not expired");
+            return false;
+
+        } catch (SQLException e) {
+            System.err.println("✗ Failed to expire suspension: " + e.getMessage());
+            return false;
+        }
+    }
+
     /**
      * Deletes a suspended transaction by ID.
      */
@@ -584,14 +976,18 @@ public class DatabaseManager {
     }
 
     /**
-     * Deletes all suspended transactions from previous days.
-     * Used for daily cleanup.
+     * Deletes suspended transactions parked before the cutoff, whichever lane parked them.
+     * Used for daily cleanup; the cutoff is now minus the suspension TTL.
+     * Suspensions currently claimed by a lane are left for that lane to finish.
      */
-    public int cleanupExpiredSuspensions() {
-        String sql = "DELETE FROM SUSPENDED_TRANSACTIONS WHERE SUSPENSION_DATE < CURRENT_DATE";
+    public int cleanupExpiredSuspensions(java.time.LocalDateTime cutoff) {
+        try (PreparedStatement pstmt = connection.prepareStatement(CLEANUP_EXPIRED_SUSPENSIONS_SQL);
+             Statement stmt = connection.createStatement()) {
+            pstmt.setTimestamp(1, Timestamp.valueOf(cutoff));
+            int deleted = pstmt.executeUpdate();
 
-        try (Statement stmt = connection.createStatement()) {
-            int deleted = stmt.executeUpdate(sql);
+            // Past days' counters are no longer needed; IDs are only drawn for today
+            stmt.executeUpdate("DELETE FROM SUSPENSION_SEQUENCES WHERE SEQUENCE_DATE < CURRENT_DATE");
 
             if (deleted > 0) {
                 System.out.println("✓ Cleaned up " + deleted + " expired suspended transactions");
@@ -631,20 +1027,118 @@ public class DatabaseManager {
      * Gets the next suspension sequence number for today.
      */
     public int getNextSuspensionSequence() {
-        String sql = "SELECT COUNT(*) FROM SUSPENDED_TRANSACTIONS " +
-                "WHERE SUSPENSION_DATE = CURRENT_DATE";
+        return getNextSuspensionSequence(java.time.LocalDate.now());
+    }
 
-        try (Statement stmt = connection.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+    /**
+     * Atomically draws the next suspension sequence number for a day.
+     * A single-row UPDATE on the day's counter, so it is O(1) and never hands
+     * out the same number twice, even across lanes or after deletions.
+     *
+     * @param date The suspension date
+     * @return The sequence number, or -1 if the counter could not be updated
+     */
+    public int getNextSuspensionSequence(java.time.LocalDate date) {
+        java.sql.Date sqlDate = java.sql.Date.valueOf(date);
 
-            if (rs.next()) {
-                return rs.getInt(1) + 1;  // Next sequence number
+        try {
+            // Fast path: today's counter already exists
+            int next = incrementSuspensionSequence(sqlDate);
+            if (next > 0) {
+                return next;
+            }
+
+            // First suspension of the day: create the counter, then draw from it like
+            // everyone else, so a lane incrementing in between cannot be handed the same number
+            try (PreparedStatement pstmt = connection.prepareStatement(SEED_SUSPENSION_SEQUENCE_SQL)) {
+                pstmt.setDate(1, sqlDate);
+                pstmt.setDate(2, sqlDate);
+                pstmt.executeUpdate();
+            } catch (SQLException e) {
+                // Another lane created the counter first
+                if (!"23505".equals(e.getSQLState())) {
+                    throw e;
+                }
+            }
+
+            next = incrementSuspensionSequence(sqlDate);
+            if (next > 0) {
+                return next;
             }
-            return 1;
+
+            System.err.println("✗ Failed to get suspension sequence: counter missing for " + date);
+            return -1;
 
         } catch (SQLException e) {
             System.err.println("✗ Failed to get suspension sequence: " + e.getMessage());
-            return 1;
+            return -1;
+        }
+    }
+
+    /**
+     * Increments the day's counter and returns the new value, or 0 if no counter exists yet.
+     */
+    private int incrementSuspensionSequence(java.sql.Date date) throws SQLException {
+        try (PreparedStatement pstmt = connection.prepareStatement(NEXT_SUSPENSION_SEQUENCE_SQL)) {
+            pstmt.setDate(1, date);
+            ResultSet rs = pstmt.executeQuery();
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    /**
+     * Reserves a block of receipt sequence numbers for one lane.
+     * Numbers never repeat for a lane, even across restarts; numbers left unused
+     * in a block when the register stops are simply skipped.
+     * @param storeNumber The store
+     * @param laneNumber The lane within the store
+     * @param blockSize How many numbers to reserve
+     * @return The first number of the block, or -1 on failure
+     */
+    public long reserveReceiptSequenceBlock(int storeNumber, int laneNumber, int blockSize) {
+        try {
+            // Fast path: the lane's counter already exists
+            long last = advanceReceiptSequence(storeNumber, laneNumber, blockSize);
+            if (last > 0) {
+                return last - blockSize + 1;
+            }
+
+            // First block for the lane: create the counter, then reserve from it like everyone else
+            try (PreparedStatement seed = connection.prepareStatement(SEED_RECEIPT_SEQUENCE_SQL)) {
+                seed.setInt(1, storeNumber);
+                seed.setInt(2, laneNumber);
+                seed.executeUpdate();
+            } catch (SQLException e) {
+                // Another connection created the counter first
+                if (!"23505".equals(e.getSQLState())) {
+                    throw e;
+                }
+            }
+
+            last = advanceReceiptSequence(storeNumber, laneNumber, blockSize);
+            if (last > 0) {
+                return last - blockSize + 1;
+            }
+
+            System.err.println("✗ Failed to reserve receipt numbers: counter missing for lane " + laneNumber);
+            return -1;
+
+        } catch (SQLException e) {
+            System.err.println("✗ Failed to reserve receipt numbers: " + e.getMessage());
+            return -1;
+        }
+    }
+
+    /**
+     * Advances the lane's counter by a block and returns the new value, or 0 if no counter exists yet.
+     */
+    private long advanceReceiptSequence(int storeNumber, int laneNumber, int blockSize) throws SQLException {
+        try (PreparedStatement pstmt = connection.prepareStatement(RESERVE_RECEIPT_SEQUENCE_SQL)) {
+            pstmt.setInt(1, blockSize);
+            pstmt.setInt(2, storeNumber);
+            pstmt.setInt(3, laneNumber);
+            ResultSet rs = pstmt.executeQuery();
+            return rs.next() ? rs.getLong(1) : 0;
         }
     }
 
@@ -656,4 +1150,22 @@ public class DatabaseManager {
     public Connection getConnection() {
         return connection;
     }
+
+    /**
+     * Opens a separate connection to the same database.
+     * Background jobs use this so their transactions never interleave
+     * with the register's own connection.
+     * Caller is responsible for closing it.
+     */
+    public Connection openConnection() throws SQLException {
+        return DriverManager.getConnection(jdbcUrl, JDBC_USER, JDBC_PASSWORD);
+    }
+
+    /**
+     * Gets the JDBC URL this manager connects to.
+     * Additional connections to the same database should be opened with it.
+     */
+    public String getJdbcUrl() {
+        return jdbcUrl;
+    }
 }
\ No newline at end of file
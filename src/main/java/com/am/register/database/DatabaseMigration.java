@@ -1,16 +1,108 @@
 package com.am.register.database;
 
+import java.nio.charset.StandardCharsets;
 import java.sql.Connection;
-import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32;
 
 /**
- * Handles database schema migrations.
- * Adds new columns to existing tables without losing data.
+ * Handles versioned database schema migrations.
+ * Migrations run in order and are recorded in SCHEMA_VERSION with a checksum,
+ * so an up-to-date database is detected with a single lookup on startup.
+ * A recorded checksum that no longer matches this build's migration means the
+ * migration was edited after release, and the schema is refused.
+ * Must run after DatabaseManager.createTables().
  */
 public class DatabaseMigration {
 
+    private static final String CREATE_SCHEMA_VERSION_TABLE_SQL =
+            "CREATE TABLE IF NOT EXISTS SCHEMA_VERSION (" +
+                    "VERSION INT PRIMARY KEY, " +
+                    "DESCRIPTION VARCHAR(255) NOT NULL, " +
+                    "CHECKSUM BIGINT NOT NULL, " +
+                    "APPLIED_AT TIMESTAMP NOT NULL)";
+
+    private static final String SELECT_CURRENT_VERSION_SQL =
+            "SELECT VERSION, CHECKSUM FROM SCHEMA_VERSION ORDER BY VERSION DESC LIMIT 1";
+
+    private static final String SELECT_APPLIED_VERSIONS_SQL =
+            "SELECT VERSION, CHECKSUM FROM SCHEMA_VERSION ORDER BY VERSION";
+
+    private static final String INSERT_VERSION_SQL =
+            "INSERT INTO SCHEMA_VERSION (VERSION, DESCRIPTION, CHECKSUM, APPLIED_AT) " +
+                    "VALUES (?, ?, ?, CURRENT_TIMESTAMP())";
+
+    private static final List<Migration> MIGRATIONS = new ArrayList<>();
+
+    static {
+        // Append only: never edit or reorder a migration once it has shipped.
+        MIGRATIONS.add(new Migration(1, "Add ITEMS category and popularity columns",
+                "ALTER TABLE ITEMS ADD COLUMN IF NOT EXISTS CATEGORY VARCHAR(50) DEFAULT 'OTHER'",
+                "ALTER TABLE ITEMS ADD COLUMN IF NOT EXISTS IS_POPULAR BOOLEAN DEFAULT FALSE"));
+
+        MIGRATIONS.add(new Migration(2, "Index TRANSACTIONS by timestamp",
+                "CREATE INDEX IF NOT EXISTS IDX_TRANSACTIONS_TIMESTAMP ON TRANSACTIONS(TIMESTAMP)"));
+
+        MIGRATIONS.add(new Migration(3, "Index TRANSACTION_ITEMS by transaction and UPC",
+                "CREATE INDEX IF NOT EXISTS IDX_TRANSACTION_ITEMS_TX_UPC " +
+                        "ON TRANSACTION_ITEMS(TRANSACTION_ID, UPC)"));
+
+        MIGRATIONS.add(new Migration(4, "Index SUSPENDED_TRANSACTIONS by suspension date",
+                "CREATE INDEX IF NOT EXISTS IDX_SUSPENDED_TRANSACTIONS_DATE " +
+                        "ON SUSPENDED_TRANSACTIONS(SUSPENSION_DATE)"));
+
+        MIGRATIONS.add(new Migration(5, "Store suspended baskets in compact binary form",
+                "ALTER TABLE SUSPENDED_TRANSACTIONS ADD COLUMN IF NOT EXISTS ITEMS_DATA VARBINARY",
+                "ALTER TABLE SUSPENDED_TRANSACTIONS ALTER COLUMN ITEMS_JSON SET NULL"));
+
+        MIGRATIONS.add(new Migration(6, "Track suspension ownership for cross-lane claims",
+                "ALTER TABLE SUSPENDED_TRANSACTIONS ADD COLUMN IF NOT EXISTS VERSION INT DEFAULT 0 NOT NULL",
+                "ALTER TABLE SUSPENDED_TRANSACTIONS ADD COLUMN IF NOT EXISTS LANE_ID VARCHAR(32)",
+                "ALTER TABLE SUSPENDED_TRANSACTIONS ADD COLUMN IF NOT EXISTS CLAIMED_BY VARCHAR(32)",
+                "ALTER TABLE SUSPENDED_TRANSACTIONS ADD COLUMN IF NOT EXISTS CLAIMED_AT TIMESTAMP"));
+
+        MIGRATIONS.add(new Migration(7, "Add per-day suspension ID counters",
+                "CREATE TABLE IF NOT EXISTS SUSPENSION_SEQUENCES (" +
+                        "SEQUENCE_DATE DATE PRIMARY KEY, " +
+                        "LAST_VALUE INT NOT NULL)"));
+
+        MIGRATIONS.add(new Migration(8, "Add per-lane receipt number blocks",
+                "CREATE TABLE IF NOT EXISTS RECEIPT_SEQUENCES (" +
+                        "STORE_NUMBER INT NOT NULL, " +
+                        "LANE_NUMBER INT NOT NULL, " +
+                        "LAST_RESERVED BIGINT NOT NULL, " +
+                        "PRIMARY KEY (STORE_NUMBER, LANE_NUMBER))"));
+
+        // Databases that ran a build with the unversioned rollup already have the table;
+        // it is rebuilt from history so every install starts from the same totals.
+        MIGRATIONS.add(new Migration(9, "Add daily per-item sales rollup",
+                "CREATE TABLE IF NOT EXISTS DAILY_ITEM_SALES (" +
+                        "SALE_DATE DATE NOT NULL, " +
+                        "UPC VARCHAR(20) NOT NULL, " +
+                        "QUANTITY_SOLD INT NOT NULL, " +
+                        "REVENUE DECIMAL(12,2) NOT NULL, " +
+                        "PRIMARY KEY (SALE_DATE, UPC))",
+                "DELETE FROM DAILY_ITEM_SALES",
+                "INSERT INTO DAILY_ITEM_SALES (SALE_DATE, UPC, QUANTITY_SOLD, REVENUE) " +
+                        "SELECT CAST(T.TIMESTAMP AS DATE), TI.UPC, SUM(TI.QUANTITY), SUM(TI.LINE_TOTAL) " +
+                        "FROM TRANSACTION_ITEMS TI " +
+                        "JOIN TRANSACTIONS T ON TI.TRANSACTION_ID = T.TRANSACTION_ID " +
+                        "GROUP BY CAST(T.TIMESTAMP AS DATE), TI.UPC"));
+
+        MIGRATIONS.add(new Migration(10, "Add sales archive partition list",
+                "CREATE TABLE IF NOT EXISTS SALES_ARCHIVE_PARTITIONS (" +
+                        "MONTH_KEY CHAR(6) PRIMARY KEY, " +
+                        "TRANSACTION_COUNT INT NOT NULL, " +
+                        "ITEM_COUNT INT NOT NULL, " +
+                        "ARCHIVED_AT TIMESTAMP NOT NULL)"));
+    }
+
     private final Connection connection;
 
     public DatabaseMigration(Connection connection) {
@@ -18,49 +110,182 @@ public class DatabaseMigration {
     }
 
     /**
-     * Checks if a column exists in a table.
+     * A single schema change, identified by version number.
      */
-    private boolean columnExists(String tableName, String columnName) throws Exception {
-        DatabaseMetaData metadata = connection.getMetaData();
-        ResultSet rs = metadata.getColumns(null, null, tableName, columnName);
-        boolean exists = rs.next();
-        rs.close();
-        return exists;
+    private static class Migration {
+        private final int version;
+        private final String description;
+        private final List<String> statements;
+        private final long checksum;
+
+        Migration(int version, String description, String... statements) {
+            this.version = version;
+            this.description = description;
+
+            List<String> list = new ArrayList<>();
+            Collections.addAll(list, statements);
+            this.statements = Collections.unmodifiableList(list);
+
+            CRC32 crc = new CRC32();
+            for (String sql : statements) {
+                crc.update(sql.getBytes(StandardCharsets.UTF_8));
+            }
+            this.checksum = crc.getValue();
+        }
     }
 
     /**
-     * Migrates ITEMS table to include category and popularity columns.
+     * Gets the newest schema version known to this build.
      */
-    public void migrateToVersion2() {
-        System.out.println("\n=== DATABASE MIGRATION v1.0 → v2.0 ===");
+    public static int getLatestVersion() {
+        return MIGRATIONS.get(MIGRATIONS.size() - 1).version;
+    }
 
+    /**
+     * Brings the schema up to the latest version.
+     * @return true if the schema is current, false if a migration failed
+     */
+    public boolean migrate() {
         try (Statement stmt = connection.createStatement()) {
+            stmt.execute(CREATE_SCHEMA_VERSION_TABLE_SQL);
+        } catch (SQLException e) {
+            System.err.println("✗ Failed to create SCHEMA_VERSION table: " + e.getMessage());
+            return false;
+        }
+
+        int currentVersion;
+        int latestVersion = getLatestVersion();
+        try {
+            currentVersion = readCurrentVersion();
 
-            // Check and add CATEGORY column
-            if (!columnExists("ITEMS", "CATEGORY")) {
-                System.out.println("Adding CATEGORY column...");
-                stmt.execute("ALTER TABLE ITEMS ADD COLUMN CATEGORY VARCHAR(50) DEFAULT 'OTHER'");
-                System.out.println("✓ CATEGORY column added");
-            } else {
-                System.out.println("✓ CATEGORY column already exists");
+            if (currentVersion > latestVersion) {
+                System.err.println("✗ Database schema v" + currentVersion +
+                        " is newer than this build (v" + latestVersion + ")");
+                return false;
             }
 
-            // Check and add IS_POPULAR column
-            if (!columnExists("ITEMS", "IS_POPULAR")) {
-                System.out.println("Adding IS_POPULAR column...");
-                stmt.execute("ALTER TABLE ITEMS ADD COLUMN IS_POPULAR BOOLEAN DEFAULT FALSE");
-                System.out.println("✓ IS_POPULAR column added");
-            } else {
-                System.out.println("✓ IS_POPULAR column already exists");
+            // Up to date: the newest row is enough. Before migrating, check every applied row.
+            boolean verified = verifyChecksums(currentVersion == latestVersion
+                    ? SELECT_CURRENT_VERSION_SQL : SELECT_APPLIED_VERSIONS_SQL);
+            if (!verified) {
+                return false;
             }
+        } catch (SQLException e) {
+            System.err.println("✗ Failed to read schema version: " + e.getMessage());
+            return false;
+        }
+
+        if (currentVersion == latestVersion) {
+            System.out.println("✓ Schema up to date (v" + currentVersion + ")");
+            return true;
+        }
+
+        System.out.println("\n=== DATABASE MIGRATION v" + currentVersion + " → v" + latestVersion + " ===");
 
-            System.out.println("\n✓ Migration complete");
-            System.out.println("  Existing data preserved");
-            System.out.println("  New columns added with default values\n");
+        for (Migration migration : MIGRATIONS) {
+            if (migration.version <= currentVersion) {
+                continue;
+            }
+
+            if (!apply(migration)) {
+                return false;
+            }
+        }
 
-        } catch (Exception e) {
-            System.err.println("✗ Migration failed: " + e.getMessage());
-            e.printStackTrace();
+        System.out.println("✓ Migration complete\n");
+        return true;
+    }
+
+    /**
+     * Reads the newest applied version, or 0 for a new database.
+     */
+    private int readCurrentVersion() throws SQLException {
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery(SELECT_CURRENT_VERSION_SQL)) {
+            return rs.next() ? rs.getInt("VERSION") : 0;
+        }
+    }
+
+    /**
+     * Compares recorded checksums with this build's migrations.
+     * @param sql Query selecting the VERSION and CHECKSUM rows to check
+     * @return false if any row was applied from a different migration than this build has
+     */
+    private boolean verifyChecksums(String sql) throws SQLException {
+        boolean verified = true;
+
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+
+            while (rs.next()) {
+                int version = rs.getInt("VERSION");
+                long checksum = rs.getLong("CHECKSUM");
+                Migration migration = findMigration(version);
+
+                if (migration == null) {
+                    System.err.println("✗ Schema v" + version + " is recorded but unknown to this build");
+                    verified = false;
+                } else if (migration.checksum != checksum) {
+                    System.err.println("✗ Checksum mismatch for schema v" + version +
+                            " (" + migration.description + ") - migration was edited after release");
+                    verified = false;
+                }
+            }
+        }
+
+        return verified;
+    }
+
+    private static Migration findMigration(int version) {
+        for (Migration migration : MIGRATIONS) {
+            if (migration.version == version) {
+                return migration;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Applies one migration and records it, atomically where the database allows.
+     */
+    private boolean apply(Migration migration) {
+        System.out.println("Applying v" + migration.version + ": " + migration.description + "...");
+
+        try {
+            connection.setAutoCommit(false);
+
+            try (Statement stmt = connection.createStatement()) {
+                for (String sql : migration.statements) {
+                    stmt.execute(sql);
+                }
+            }
+
+            try (PreparedStatement pstmt = connection.prepareStatement(INSERT_VERSION_SQL)) {
+                pstmt.setInt(1, migration.version);
+                pstmt.setString(2, migration.description);
+                pstmt.setLong(3, migration.checksum);
+                pstmt.executeUpdate();
+            }
+
+            connection.commit();
+            System.out.println("✓ v" + migration.version + " applied");
+            return true;
+
+        } catch (SQLException e) {
+            try {
+                connection.rollback();
+            } catch (SQLException rollbackError) {
+                System.err.println("✗ Rollback failed: " + rollbackError.getMessage());
+            }
+            System.err.println("✗ Migration v" + migration.version + " failed: " + e.getMessage());
+            return false;
+
+        } finally {
+            try {
+                connection.setAutoCommit(true);
+            } catch (SQLException e) {
+                System.err.println("✗ Failed to restore auto-commit: " + e.getMessage());
+            }
         }
     }
-}
\ No newline at end of file
+}
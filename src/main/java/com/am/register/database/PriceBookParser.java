@@ -94,58 +94,11 @@ public class PriceBookParser {
         }
 
         try {
-            String[] parts = line.split("\t");
-
-            // Support both old (3 columns) and new (5 columns) format
-            if (parts.length != 3 && parts.length != 5) {
-                System.err.println("  ✗ Line " + lineNumber + ": Invalid format (expected 3 or 5 columns, got " + parts.length + ")");
-                System.err.println("    Content: " + line);
-                return false;
-            }
-
-            // Extract required fields
-            String upc = parts[0].trim();
-            String description = parts[1].trim();
-            String priceStr = parts[2].trim();
-
-            // Extract optional fields (for new format)
-            String category = "OTHER";
-            boolean isPopular = false;
-
-            if (parts.length == 5) {
-                category = parts[3].trim();
-                isPopular = Boolean.parseBoolean(parts[4].trim());
-            }
-
-            // Validate UPC
-            if (upc.isEmpty()) {
-                System.err.println("  ✗ Line " + lineNumber + ": UPC is empty");
-                return false;
-            }
-
-            // Validate Description
-            if (description.isEmpty()) {
-                System.err.println("  ✗ Line " + lineNumber + ": Description is empty");
-                return false;
-            }
-
-            // Validate Price
-            double price;
-            try {
-                price = Double.parseDouble(priceStr);
-            } catch (NumberFormatException e) {
-                System.err.println("  ✗ Line " + lineNumber + ": Invalid price '" + priceStr + "'");
-                return false;
-            }
-
-            if (price < 0) {
-                System.err.println("  ✗ Line " + lineNumber + ": Price must be positive");
+            Item item = parseItem(line, lineNumber);
+            if (item == null) {
                 return false;
             }
 
-            // Create Item with all fields
-            Item item = new Item(upc, description, price, category, isPopular);
-
             // Insert into database
             boolean inserted = databaseManager.insertItem(item);
 
@@ -161,6 +114,66 @@ public class PriceBookParser {
         }
     }
 
+    /**
+     * Parses and validates a single non-empty line without touching the database.
+     * @param line The line to parse
+     * @param lineNumber The line number (for error reporting)
+     * @return The item, or null if the line is invalid (the reason is printed)
+     */
+    public static Item parseItem(String line, int lineNumber) {
+        String[] parts = line.split("\t");
+
+        // Support both old (3 columns) and new (5 columns) format
+        if (parts.length != 3 && parts.length != 5) {
+            System.err.println("  ✗ Line " + lineNumber + ": Invalid format (expected 3 or 5 columns, got " + parts.length + ")");
+            System.err.println("    Content: " + line);
+            return null;
+        }
+
+        // Extract required fields
+        String upc = parts[0].trim();
+        String description = parts[1].trim();
+        String priceStr = parts[2].trim();
+
+        // Extract optional fields (for new format)
+        String category = "OTHER";
+        boolean isPopular = false;
+
+        if (parts.length == 5) {
+            category = parts[3].trim();
+            isPopular = Boolean.parseBoolean(parts[4].trim());
+        }
+
+        // Validate UPC
+        if (upc.isEmpty()) {
+            System.err.println("  ✗ Line " + lineNumber + ": UPC is empty");
+            return null;
+        }
+
+        // Validate Description
+        if (description.isEmpty()) {
+            System.err.println("  ✗ Line " + lineNumber + ": Description is empty");
+            return null;
+        }
+
+        // Validate Price
+        double price;
+        try {
+            price = Double.parseDouble(priceStr);
+        } catch (NumberFormatException e) {
+            System.err.println("  ✗ Line " + lineNumber + ": Invalid price '" + priceStr + "'");
+            return null;
+        }
+
+        if (price < 0) {
+            System.err.println("  ✗ Line " + lineNumber + ": Price must be positive");
+            return null;
+        }
+
+        // Create Item with all fields
+        return new Item(upc, description, price, category, isPopular);
+    }
+
     /**
      * Prints a summary of the parsing results.
      */
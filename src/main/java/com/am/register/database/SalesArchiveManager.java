@@ -0,0 +1,262 @@
+package com.am.register.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Moves closed months of sales history out of the live TRANSACTIONS and
+ * TRANSACTION_ITEMS tables into per-month partition tables.
+ * Keeps the live tables (and their indexes) bounded to recent months, while
+ * range queries and exports can still span live and archived data.
+ * Archived months are listed in SALES_ARCHIVE_PARTITIONS (schema v10).
+ */
+public class SalesArchiveManager {
+
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private static final String MERGE_PARTITION_SQL =
+            "MERGE INTO SALES_ARCHIVE_PARTITIONS P " +
+                    "USING (VALUES (CAST(? AS CHAR(6)), CAST(? AS INT), CAST(? AS INT))) " +
+                    "S(MONTH_KEY, TX_COUNT, ITEM_COUNT) " +
+                    "ON P.MONTH_KEY = S.MONTH_KEY " +
+                    "WHEN MATCHED THEN UPDATE SET " +
+                    "P.TRANSACTION_COUNT = P.TRANSACTION_COUNT + S.TX_COUNT, " +
+                    "P.ITEM_COUNT = P.ITEM_COUNT + S.ITEM_COUNT, " +
+                    "P.ARCHIVED_AT = CURRENT_TIMESTAMP() " +
+                    "WHEN NOT MATCHED THEN INSERT (MONTH_KEY, TRANSACTION_COUNT, ITEM_COUNT, ARCHIVED_AT) " +
+                    "VALUES (S.MONTH_KEY, S.TX_COUNT, S.ITEM_COUNT, CURRENT_TIMESTAMP())";
+
+    private final DatabaseManager databaseManager;
+    private final int liveMonths;
+
+    /**
+     * Creates an archive manager.
+     * @param databaseManager Source of connections to the register database
+     * @param liveMonths Number of months (including the current one) kept in the live tables
+     */
+    public SalesArchiveManager(DatabaseManager databaseManager, int liveMonths) {
+        if (databaseManager == null) {
+            throw new IllegalArgumentException("DatabaseManager cannot be null");
+        }
+        if (liveMonths < 1) {
+            throw new IllegalArgumentException("At least the current month must stay live");
+        }
+        this.databaseManager = databaseManager;
+        this.liveMonths = liveMonths;
+    }
+
+    /**
+     * Archives every month older than the live window.
+     * @return Number of transactions moved to partitions
+     */
+    public int archiveClosedMonths() {
+        YearMonth firstLiveMonth = YearMonth.now().minusMonths(liveMonths - 1);
+        int archived = 0;
+
+        try (Connection conn = databaseManager.openConnection()) {
+            YearMonth month = findOldestLiveMonth(conn);
+            while (month != null && month.isBefore(firstLiveMonth)) {
+                archived += archiveMonth(conn, month);
+                month = month.plusMonths(1);
+            }
+
+        } catch (SQLException e) {
+            System.err.println("✗ Sales archival failed: " + e.getMessage());
+        }
+
+        if (archived > 0) {
+            System.out.println("✓ Archived " + archived + " transactions older than " + firstLiveMonth);
+        }
+
+        return archived;
+    }
+
+    /**
+     * Finds the month of the oldest live transaction (uses the TIMESTAMP index).
+     */
+    private YearMonth findOldestLiveMonth(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT MIN(TIMESTAMP) FROM TRANSACTIONS")) {
+
+            if (rs.next()) {
+                Timestamp oldest = rs.getTimestamp(1);
+                if (oldest != null) {
+                    return YearMonth.from(oldest.toLocalDateTime());
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Moves one month of transactions into its partition tables in a single commit.
+     */
+    private int archiveMonth(Connection conn, YearMonth month) throws SQLException {
+        String txTable = transactionsPartition(month);
+        String itemsTable = itemsPartition(month);
+        Timestamp start = Timestamp.valueOf(month.atDay(1).atStartOfDay());
+        Timestamp end = Timestamp.valueOf(month.plusMonths(1).atDay(1).atStartOfDay());
+
+        String inMonth = "TIMESTAMP >= ? AND TIMESTAMP < ?";
+        String monthTxIds = "SELECT TRANSACTION_ID FROM TRANSACTIONS WHERE " + inMonth;
+
+        conn.setAutoCommit(false);
+        try {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("CREATE TABLE IF NOT EXISTS " + txTable +
+                        " AS SELECT * FROM TRANSACTIONS WITH NO DATA");
+                stmt.execute("CREATE TABLE IF NOT EXISTS " + itemsTable +
+                        " AS SELECT * FROM TRANSACTION_ITEMS WITH NO DATA");
+            }
+
+            int items = executeForMonth(conn,
+                    "INSERT INTO " + itemsTable + " SELECT * FROM TRANSACTION_ITEMS " +
+                            "WHERE TRANSACTION_ID IN (" + monthTxIds + ")", start, end);
+            int transactions = executeForMonth(conn,
+                    "INSERT INTO " + txTable + " SELECT * FROM TRANSACTIONS WHERE " + inMonth, start, end);
+
+            // Children first: TRANSACTION_ITEMS references TRANSACTIONS
+            executeForMonth(conn,
+                    "DELETE FROM TRANSACTION_ITEMS WHERE TRANSACTION_ID IN (" + monthTxIds + ")", start, end);
+            executeForMonth(conn, "DELETE FROM TRANSACTIONS WHERE " + inMonth, start, end);
+
+            if (transactions > 0) {
+                try (PreparedStatement pstmt = conn.prepareStatement(MERGE_PARTITION_SQL)) {
+                    pstmt.setString(1, month.format(PARTITION_SUFFIX));
+                    pstmt.setInt(2, transactions);
+                    pstmt.setInt(3, items);
+                    pstmt.executeUpdate();
+                }
+            }
+
+            conn.commit();
+
+            if (transactions > 0) {
+                System.out.println("✓ Archived " + month + ": " + transactions +
+                        " transactions, " + items + " line items");
+            }
+            return transactions;
+
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+
+    private int executeForMonth(Connection conn, String sql, Timestamp start, Timestamp end)
+            throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setTimestamp(1, start);
+            pstmt.setTimestamp(2, end);
+            return pstmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Gets units sold per UPC for a date range, spanning live and archived history.
+     * Only partitions overlapping the range are read.
+     * @param from First day of the range (inclusive)
+     * @param to Last day of the range (inclusive)
+     * @return Map of UPC to total quantity sold
+     */
+    public Map<String, Integer> getSalesDataBetween(LocalDate from, LocalDate to) {
+        Map<String, Integer> salesMap = new HashMap<>();
+        Timestamp start = Timestamp.valueOf(from.atStartOfDay());
+        Timestamp end = Timestamp.valueOf(to.plusDays(1).atStartOfDay());
+
+        try (Connection conn = databaseManager.openConnection()) {
+            List<String[]> sources = getSourceTablesBetween(conn, from, to);
+
+            StringBuilder sql = new StringBuilder("SELECT UPC, SUM(QUANTITY) AS TOTAL_SOLD FROM (");
+            for (int i = 0; i < sources.size(); i++) {
+                if (i > 0) {
+                    sql.append(" UNION ALL ");
+                }
+                sql.append("SELECT TI.UPC, TI.QUANTITY FROM ").append(sources.get(i)[1]).append(" TI ")
+                        .append("JOIN ").append(sources.get(i)[0]).append(" T ")
+                        .append("ON TI.TRANSACTION_ID = T.TRANSACTION_ID ")
+                        .append("WHERE T.TIMESTAMP >= ? AND T.TIMESTAMP < ?");
+            }
+            sql.append(") GROUP BY UPC");
+
+            try (PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+                int param = 1;
+                for (int i = 0; i < sources.size(); i++) {
+                    pstmt.setTimestamp(param++, start);
+                    pstmt.setTimestamp(param++, end);
+                }
+
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        salesMap.put(rs.getString("UPC"), rs.getInt("TOTAL_SOLD"));
+                    }
+                }
+            }
+
+            System.out.println("✓ Retrieved sales data " + from + " to " + to + " across " +
+                    sources.size() + " partition(s): " + salesMap.size() + " items");
+
+        } catch (SQLException e) {
+            System.err.println("✗ Failed to get archived sales data: " + e.getMessage());
+        }
+
+        return salesMap;
+    }
+
+    /**
+     * Lists the TRANSACTIONS / TRANSACTION_ITEMS table pairs holding sales in a date range:
+     * the live tables first, then every archived partition overlapping the range.
+     * @return Pairs of {transactionsTable, itemsTable}
+     */
+    public List<String[]> getSourceTablesBetween(Connection conn, LocalDate from, LocalDate to)
+            throws SQLException {
+        List<String[]> sources = new ArrayList<>();
+        sources.add(new String[]{"TRANSACTIONS", "TRANSACTION_ITEMS"});
+
+        for (YearMonth month : getArchivedMonths(conn)) {
+            if (!month.isBefore(YearMonth.from(from)) && !month.isAfter(YearMonth.from(to))) {
+                sources.add(new String[]{transactionsPartition(month), itemsPartition(month)});
+            }
+        }
+
+        return sources;
+    }
+
+    /**
+     * Lists the months that have been archived.
+     */
+    private List<YearMonth> getArchivedMonths(Connection conn) throws SQLException {
+        List<YearMonth> months = new ArrayList<>();
+
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(
+                     "SELECT MONTH_KEY FROM SALES_ARCHIVE_PARTITIONS ORDER BY MONTH_KEY")) {
+            while (rs.next()) {
+                months.add(YearMonth.parse(rs.getString("MONTH_KEY"), PARTITION_SUFFIX));
+            }
+        }
+
+        return months;
+    }
+
+    private static String transactionsPartition(YearMonth month) {
+        return "TRANSACTIONS_" + month.format(PARTITION_SUFFIX);
+    }
+
+    private static String itemsPartition(YearMonth month) {
+        return "TRANSACTION_ITEMS_" + month.format(PARTITION_SUFFIX);
+    }
+}
@@ -0,0 +1,229 @@
+package com.am.register.journal;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchronous event journal.
+ * Logging threads filter by level and sampling, then hand the event to a
+ * lock-free ring buffer and return; a single background consumer drains the
+ * buffer in batches and writes to every sink. When the buffer is full the
+ * event is dropped and counted rather than stalling the caller, and the
+ * consumer records how many were lost.
+ */
+public class EventJournal {
+
+    public static final int DEFAULT_CAPACITY = 16_384;
+
+    private static final int MAX_BATCH = 512;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+    private final EventRingBuffer<JournalEvent> buffer;
+    private final List<JournalSink> sinks = new CopyOnWriteArrayList<>();
+    private final Map<String, Sampler> samplers = new ConcurrentHashMap<>();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong droppedUnreported = new AtomicLong();
+    private final AtomicLong published = new AtomicLong();
+    private final Thread consumer;
+
+    private volatile JournalLevel minimumLevel = JournalLevel.INFO;
+    private volatile boolean running = true;
+    private volatile boolean consumerParked;
+
+    /**
+     * Keeps one event in every N of a type.
+     */
+    private static class Sampler {
+        private final int oneIn;
+        private final AtomicLong seen = new AtomicLong();
+
+        Sampler(int oneIn) {
+            this.oneIn = oneIn;
+        }
+
+        boolean sample() {
+            return seen.getAndIncrement() % oneIn == 0;
+        }
+    }
+
+    public EventJournal() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity Events buffered before new ones are dropped
+     */
+    public EventJournal(int capacity) {
+        this.buffer = new EventRingBuffer<>(capacity);
+        this.consumer = new Thread(this::consumeLoop, "event-journal");
+        this.consumer.setDaemon(true);
+        this.consumer.start();
+    }
+
+    public void addSink(JournalSink sink) {
+        sinks.add(sink);
+    }
+
+    /**
+     * Detaches a sink. It is flushed and closed by the caller, not the journal.
+     */
+    public void removeSink(JournalSink sink) {
+        sinks.remove(sink);
+    }
+
+    public void setMinimumLevel(JournalLevel level) {
+        this.minimumLevel = level;
+    }
+
+    public JournalLevel getMinimumLevel() {
+        return minimumLevel;
+    }
+
+    /**
+     * Keeps only one in every N events of a type. Errors are never sampled.
+     * @param oneIn 1 keeps everything
+     */
+    public void setSampling(String type, int oneIn) {
+        if (oneIn < 1) {
+            throw new IllegalArgumentException("Sampling rate must be at least 1");
+        }
+        if (oneIn == 1) {
+            samplers.remove(type);
+        } else {
+            samplers.put(type, new Sampler(oneIn));
+        }
+    }
+
+    /**
+     * Checks level and sampling before an event is built, so rejected events
+     * cost the caller nothing. Counts toward the type's sampling.
+     */
+    public boolean accepts(JournalLevel level, String type) {
+        if (!level.isAtLeast(minimumLevel)) {
+            return false;
+        }
+        if (level == JournalLevel.ERROR || samplers.isEmpty()) {
+            return true;
+        }
+        Sampler sampler = samplers.get(type);
+        return sampler == null || sampler.sample();
+    }
+
+    /**
+     * Queues an event for the sinks. Never blocks.
+     * @return false if the journal is closed or the buffer was full
+     */
+    public boolean publish(JournalEvent event) {
+        if (!running || !buffer.offer(event)) {
+            dropped.incrementAndGet();
+            droppedUnreported.incrementAndGet();
+            return false;
+        }
+
+        published.incrementAndGet();
+        if (consumerParked) {
+            LockSupport.unpark(consumer);
+        }
+        return true;
+    }
+
+    public long getPublishedCount() {
+        return published.get();
+    }
+
+    /**
+     * Gets how many events were dropped because the buffer was full or the journal closed.
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    private void consumeLoop() {
+        while (true) {
+            int drained = drain();
+
+            if (drained > 0) {
+                flushSinks();
+                continue;
+            }
+            if (!running) {
+                break;
+            }
+
+            consumerParked = true;
+            LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            consumerParked = false;
+        }
+
+        // Producers may have slipped in while closing
+        drain();
+        flushSinks();
+    }
+
+    private int drain() {
+        int count = 0;
+        JournalEvent event;
+        while (count < MAX_BATCH && (event = buffer.poll()) != null) {
+            writeToSinks(event);
+            count++;
+        }
+
+        long lost = droppedUnreported.getAndSet(0);
+        if (lost > 0) {
+            writeToSinks(new JournalEvent(JournalLevel.WARN, "JOURNAL_OVERFLOW", "dropped", lost));
+            count++;
+        }
+        return count;
+    }
+
+    private void writeToSinks(JournalEvent event) {
+        for (JournalSink sink : sinks) {
+            try {
+                sink.write(event);
+            } catch (IOException | RuntimeException e) {
+                System.err.println("✗ Journal sink " + sink.getClass().getSimpleName() + " failed: " + e.getMessage());
+            }
+        }
+    }
+
+    private void flushSinks() {
+        for (JournalSink sink : sinks) {
+            try {
+                sink.flush();
+            } catch (IOException e) {
+                System.err.println("✗ Journal sink " + sink.getClass().getSimpleName() + " failed to flush: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Stops accepting events, writes everything queued and closes the sinks.
+     */
+    public void close() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(consumer);
+
+        try {
+            consumer.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        for (JournalSink sink : sinks) {
+            try {
+                sink.close();
+            } catch (IOException e) {
+                System.err.println("✗ Journal sink " + sink.getClass().getSimpleName() + " failed to close: " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.am.register.journal;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free ring buffer for many producers and one consumer.
+ * Each slot carries a sequence number: producers claim a position with one
+ * CAS on the tail and publish by advancing the slot's sequence, so a full
+ * buffer is detected without locks and offer() never blocks.
+ */
+final class EventRingBuffer<T> {
+
+    private final AtomicReferenceArray<T> slots;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private long head;  // Consumer thread only
+
+    /**
+     * @param capacity Rounded up to a power of two
+     */
+    EventRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Adds an element if there is room. Safe from any thread.
+     * @return false if the buffer is full
+     */
+    boolean offer(T element) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) position & mask;
+            long difference = sequences.get(index) - position;
+
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots.lazySet(index, element);
+                    sequences.set(index, position + 1);  // Publishes the slot to the consumer
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                return false;  // Consumer has not freed this slot yet
+            } else {
+                position = tail.get();  // Another producer took it
+            }
+        }
+    }
+
+    /**
+     * Removes the next published element. Consumer thread only.
+     * @return The element, or null if none is ready
+     */
+    T poll() {
+        int index = (int) head & mask;
+        if (sequences.get(index) != head + 1) {
+            return null;
+        }
+
+        T element = slots.get(index);
+        slots.lazySet(index, null);
+        sequences.set(index, head + mask + 1);  // Frees the slot for the next lap
+        head++;
+        return element;
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+}
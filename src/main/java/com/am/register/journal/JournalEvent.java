@@ -0,0 +1,83 @@
+package com.am.register.journal;
+
+/**
+ * One structured journal record: a type, a level and named fields.
+ * Built on the logging thread with raw values only; all formatting happens
+ * in the sinks on the journal's consumer thread.
+ *
+ * Money is carried as whole cents (long) in fields whose names end in "Cents".
+ * Field values are Strings, boxed numbers, booleans, Lists or Maps of these.
+ */
+public final class JournalEvent {
+
+    private final long epochMillis;
+    private final JournalLevel level;
+    private final String type;
+    private final Object[] fields;  // name, value, name, value, ...
+
+    /**
+     * @param keyValues Alternating field names and values
+     */
+    public JournalEvent(JournalLevel level, String type, Object... keyValues) {
+        if ((keyValues.length & 1) != 0) {
+            throw new IllegalArgumentException("Fields must be name/value pairs");
+        }
+        this.epochMillis = System.currentTimeMillis();
+        this.level = level;
+        this.type = type;
+        this.fields = keyValues;
+    }
+
+    public long getEpochMillis() {
+        return epochMillis;
+    }
+
+    public JournalLevel getLevel() {
+        return level;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public int getFieldCount() {
+        return fields.length / 2;
+    }
+
+    public String getFieldName(int index) {
+        return (String) fields[index * 2];
+    }
+
+    public Object getFieldValue(int index) {
+        return fields[index * 2 + 1];
+    }
+
+    /**
+     * Gets a field by name.
+     * @return The value, or null if the event has no such field
+     */
+    public Object get(String name) {
+        for (int i = 0; i < fields.length; i += 2) {
+            if (fields[i].equals(name)) {
+                return fields[i + 1];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets a numeric field as a long, or 0 if absent.
+     */
+    public long getLong(String name) {
+        Object value = get(name);
+        return value instanceof Number ? ((Number) value).longValue() : 0L;
+    }
+
+    /**
+     * Gets a field as a string, or null if absent.
+     */
+    public String getString(String name) {
+        Object value = get(name);
+        return value != null ? value.toString() : null;
+    }
+}
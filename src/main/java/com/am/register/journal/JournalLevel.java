@@ -0,0 +1,18 @@
+package com.am.register.journal;
+
+/**
+ * Severity of a journal event, lowest first.
+ */
+public enum JournalLevel {
+    DEBUG,
+    INFO,
+    WARN,
+    ERROR;
+
+    /**
+     * Checks if events at this level pass a minimum level.
+     */
+    public boolean isAtLeast(JournalLevel minimum) {
+        return ordinal() >= minimum.ordinal();
+    }
+}
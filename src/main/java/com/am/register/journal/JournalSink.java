@@ -0,0 +1,22 @@
+package com.am.register.journal;
+
+import java.io.IOException;
+
+/**
+ * Destination for journal events. Only ever called from the journal's
+ * consumer thread, so implementations need no locking.
+ */
+public interface JournalSink {
+
+    /**
+     * Writes one event. May buffer until flush().
+     */
+    void write(JournalEvent event) throws IOException;
+
+    /**
+     * Called after each drained batch.
+     */
+    void flush() throws IOException;
+
+    void close() throws IOException;
+}
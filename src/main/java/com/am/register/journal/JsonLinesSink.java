@@ -0,0 +1,186 @@
+package com.am.register.journal;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes events as JSON lines to rotating files.
+ * One object per line: {"ts":epochMillis,"level":"INFO","type":"ITEM_SCANNED",...fields}.
+ * A new file is started each day and whenever the current one passes the size
+ * limit; only the newest maxFiles files are kept.
+ */
+public class JsonLinesSink implements JournalSink {
+
+    public static final long DEFAULT_MAX_FILE_BYTES = 32L * 1024 * 1024;
+    public static final int DEFAULT_MAX_FILES = 30;
+
+    private static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final String PREFIX = "journal_";
+    private static final String SUFFIX = ".jsonl";
+
+    private final Path directory;
+    private final long maxFileBytes;
+    private final int maxFiles;
+    private final ZoneId zone = ZoneId.systemDefault();
+    private final StringBuilder line = new StringBuilder(512);
+
+    private Writer writer;
+    private long fileBytes;
+    private long nextDayStartMillis;  // Rotate when an event reaches this
+
+    public JsonLinesSink(Path directory) {
+        this(directory, DEFAULT_MAX_FILE_BYTES, DEFAULT_MAX_FILES);
+    }
+
+    public JsonLinesSink(Path directory, long maxFileBytes, int maxFiles) {
+        if (maxFileBytes < 1 || maxFiles < 1) {
+            throw new IllegalArgumentException("File size and count limits must be positive");
+        }
+        this.directory = directory;
+        this.maxFileBytes = maxFileBytes;
+        this.maxFiles = maxFiles;
+    }
+
+    @Override
+    public void write(JournalEvent event) throws IOException {
+        if (writer == null || event.getEpochMillis() >= nextDayStartMillis || fileBytes >= maxFileBytes) {
+            rotate(event.getEpochMillis());
+        }
+
+        line.setLength(0);
+        line.append("{\"ts\":").append(event.getEpochMillis())
+                .append(",\"level\":\"").append(event.getLevel().name())
+                .append("\",\"type\":");
+        appendString(line, event.getType());
+
+        for (int i = 0; i < event.getFieldCount(); i++) {
+            line.append(',');
+            appendString(line, event.getFieldName(i));
+            line.append(':');
+            appendValue(line, event.getFieldValue(i));
+        }
+        line.append("}\n");
+
+        writer.append(line);
+        fileBytes += line.length();  // Close enough for rotation; mostly ASCII
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (writer != null) {
+            writer.close();
+            writer = null;
+        }
+    }
+
+    private void rotate(long epochMillis) throws IOException {
+        close();
+        Files.createDirectories(directory);
+
+        LocalDate day = Instant.ofEpochMilli(epochMillis).atZone(zone).toLocalDate();
+        nextDayStartMillis = day.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+
+        Path file;
+        int part = 0;
+        do {
+            file = directory.resolve(PREFIX + day.format(DAY_FORMAT) + "_" + String.format("%03d", part++) + SUFFIX);
+        } while (Files.exists(file) && Files.size(file) >= maxFileBytes);
+
+        fileBytes = Files.exists(file) ? Files.size(file) : 0;
+        writer = new BufferedWriter(new OutputStreamWriter(
+                Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND),
+                StandardCharsets.UTF_8), 1 << 16);
+
+        deleteOldFiles();
+    }
+
+    private void deleteOldFiles() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, PREFIX + "*" + SUFFIX)) {
+            for (Path file : stream) {
+                files.add(file);
+            }
+        }
+        if (files.size() <= maxFiles) {
+            return;
+        }
+
+        Collections.sort(files);  // Names sort oldest first
+        for (int i = 0; i < files.size() - maxFiles; i++) {
+            Files.deleteIfExists(files.get(i));
+        }
+    }
+
+    private static void appendValue(StringBuilder sb, Object value) {
+        if (value == null) {
+            sb.append("null");
+        } else if (value instanceof Number || value instanceof Boolean) {
+            sb.append(value);
+        } else if (value instanceof Map) {
+            sb.append('{');
+            boolean first = true;
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                if (!first) sb.append(',');
+                appendString(sb, String.valueOf(entry.getKey()));
+                sb.append(':');
+                appendValue(sb, entry.getValue());
+                first = false;
+            }
+            sb.append('}');
+        } else if (value instanceof List) {
+            sb.append('[');
+            boolean first = true;
+            for (Object element : (List<?>) value) {
+                if (!first) sb.append(',');
+                appendValue(sb, element);
+                first = false;
+            }
+            sb.append(']');
+        } else {
+            appendString(sb, value.toString());
+        }
+    }
+
+    private static void appendString(StringBuilder sb, String value) {
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"': sb.append("\\\""); break;
+                case '\\': sb.append("\\\\"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                case '\t': sb.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        sb.append('"');
+    }
+}
@@ -0,0 +1,160 @@
+package com.am.register.load;
+
+import com.am.register.api.LaneApiClient;
+import com.am.register.model.CardType;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Drives a lane on a lane API server through the bundled client.
+ * The basket is known only from the last reply, which every lane request
+ * returns, so line lookups cost no extra round trip. Transport failures are
+ * thrown unchecked and counted as errors by the driver.
+ */
+class ApiLoadLane implements LoadLane {
+
+    private final LaneApiClient client;
+    private final String laneId;
+    private JsonObject transaction;  // Basket as of the last reply
+
+    private ApiLoadLane(LaneApiClient client, String laneId, JsonObject transaction) {
+        this.client = client;
+        this.laneId = laneId;
+        this.transaction = transaction;
+    }
+
+    /**
+     * Opens the lane on the server.
+     * @return The lane, or null if the server refused to open it
+     */
+    static ApiLoadLane open(LaneApiClient client, String laneId) throws IOException {
+        LaneApiClient.Response response = client.openLane(laneId);
+        if (!response.isOk()) {
+            System.err.println("✗ Could not open lane " + laneId + ": " + response.getError());
+            return null;
+        }
+        return new ApiLoadLane(client, laneId, response.getTransaction());
+    }
+
+    @Override
+    public String getLaneId() {
+        return laneId;
+    }
+
+    @Override
+    public boolean scan(String upc) {
+        return apply(call(() -> client.scan(laneId, upc)));
+    }
+
+    @Override
+    public boolean voidLine(String upc) {
+        int index = upc != null ? lineIndex(upc) : lines().size() - 1;
+        if (index < 0) {
+            return false;
+        }
+        return apply(call(() -> client.voidLine(laneId, index)));
+    }
+
+    @Override
+    public boolean changeQuantity(String upc, int quantity) {
+        int index = lineIndex(upc);
+        if (index < 0) {
+            return false;
+        }
+        return apply(call(() -> client.changeQuantity(laneId, index, quantity)));
+    }
+
+    @Override
+    public String suspend(String note) {
+        if (itemCount() == 0) {
+            return null;
+        }
+        LaneApiClient.Response response = call(() -> client.suspend(laneId, note));
+        return apply(response) ? response.getBody().get("suspensionId").getAsString() : null;
+    }
+
+    @Override
+    public boolean resume(String suspensionId) {
+        if (itemCount() > 0) {
+            return false;
+        }
+        return apply(call(() -> client.resume(laneId, suspensionId)));
+    }
+
+    @Override
+    public int tender(CardType cardType) {
+        if (itemCount() == 0) {
+            return -1;
+        }
+        int lines = lines().size();
+        LaneApiClient.Response response = call(() -> cardType != null
+                ? client.tenderCard(laneId, cardType)
+                : client.tenderExact(laneId));
+        return apply(response) ? lines : -1;
+    }
+
+    @Override
+    public void clear() {
+        apply(call(() -> client.clear(laneId)));
+    }
+
+    @Override
+    public boolean deleteSuspension(String suspensionId) {
+        return apply(call(() -> client.deleteSuspension(laneId, suspensionId)));
+    }
+
+    @Override
+    public void close() {
+        try {
+            client.clear(laneId);
+            client.closeLane(laneId);
+        } catch (IOException e) {
+            System.err.println("✗ Could not close lane " + laneId + ": " + e.getMessage());
+        }
+    }
+
+    private interface Call {
+        LaneApiClient.Response send() throws IOException;
+    }
+
+    private static LaneApiClient.Response call(Call call) {
+        try {
+            return call.send();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Keeps the basket from a reply.
+     * @return true if the request succeeded
+     */
+    private boolean apply(LaneApiClient.Response response) {
+        JsonObject latest = response.getTransaction();
+        if (latest != null) {
+            transaction = latest;
+        }
+        return response.isOk();
+    }
+
+    private JsonArray lines() {
+        return transaction.getAsJsonArray("lines");
+    }
+
+    private int itemCount() {
+        return transaction.get("itemCount").getAsInt();
+    }
+
+    private int lineIndex(String upc) {
+        JsonArray lines = lines();
+        for (int i = 0; i < lines.size(); i++) {
+            if (lines.get(i).getAsJsonObject().get("upc").getAsString().equals(upc)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,163 @@
+package com.am.register.load;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Plays a scan stream into one headless lane, in-process or over the lane API.
+ * Actions are issued on a fixed schedule (open loop): if an action runs long,
+ * the following ones are issued late and their response times include the
+ * wait, instead of the schedule silently slowing down with the register.
+ * A rate of zero issues actions back to back.
+ */
+public class LaneDriver implements Runnable {
+
+    private final LoadLane lane;
+    private final ScanStream stream;
+    private final LoadResults results;
+    private final long intervalNanos;
+    private final long durationNanos;
+    private final Deque<String> parked = new ArrayDeque<>();  // Suspension IDs, oldest first
+
+    private volatile boolean stopped;
+    private long actionsIssued;
+
+    /**
+     * @param lane The lane to drive, in-process or over the lane API
+     * @param stream Actions to play
+     * @param results Shared results for the run
+     * @param actionsPerSecond Issue rate, or 0 for as fast as possible
+     * @param durationNanos How long to run before stopping
+     */
+    LaneDriver(LoadLane lane, ScanStream stream, LoadResults results,
+               double actionsPerSecond, long durationNanos) {
+        this.lane = lane;
+        this.stream = stream;
+        this.results = results;
+        this.intervalNanos = actionsPerSecond > 0 ? (long) (1_000_000_000L / actionsPerSecond) : 0;
+        this.durationNanos = durationNanos;
+    }
+
+    /**
+     * Asks the driver to stop after its current action.
+     */
+    public void stop() {
+        stopped = true;
+    }
+
+    public long getActionsIssued() {
+        return actionsIssued;
+    }
+
+    /**
+     * Deletes baskets this lane parked and never resumed, so a run against a
+     * shared server leaves no load-test suspensions behind. Call after run() returns.
+     * @return Number of suspensions deleted
+     */
+    public int discardParked() {
+        int deleted = 0;
+        for (String suspensionId : parked) {
+            if (lane.deleteSuspension(suspensionId)) {
+                deleted++;
+            }
+        }
+        parked.clear();
+        return deleted;
+    }
+
+    @Override
+    public void run() {
+        long start = System.nanoTime();
+        long end = start + durationNanos;
+        long due = start;
+
+        while (!stopped) {
+            long now = System.nanoTime();
+            if (intervalNanos > 0) {
+                while (now < due) {
+                    LockSupport.parkNanos(due - now);
+                    now = System.nanoTime();
+                }
+            } else {
+                due = now;
+            }
+            if (now - end >= 0) {
+                break;
+            }
+
+            LoadAction action = stream.next();
+            if (action == null) {
+                break;
+            }
+
+            actionsIssued++;
+            try {
+                if (perform(action)) {
+                    results.record(action.getType(), System.nanoTime() - due);
+                } else {
+                    results.skip(action.getType());
+                }
+            } catch (RuntimeException e) {
+                results.error();
+                System.err.println("✗ " + lane.getLaneId() + " failed on " + action + ": " + e.getMessage());
+            }
+
+            due += intervalNanos;
+        }
+    }
+
+    /**
+     * Applies one action to the lane.
+     * @return false if the action did not apply to the basket as it stood
+     */
+    private boolean perform(LoadAction action) {
+        switch (action.getType()) {
+            case SCAN:
+                return lane.scan(action.getUpc());
+
+            case VOID:
+                return lane.voidLine(action.getUpc());
+
+            case QUANTITY:
+                return lane.changeQuantity(action.getUpc(), action.getQuantity());
+
+            case SUSPEND: {
+                String suspensionId = lane.suspend("Load test");
+                if (suspensionId == null) {
+                    return false;
+                }
+                parked.add(suspensionId);
+                return true;
+            }
+
+            case RESUME: {
+                String suspensionId = parked.poll();
+                if (suspensionId == null) {
+                    return false;
+                }
+                if (!lane.resume(suspensionId)) {
+                    parked.add(suspensionId);  // Still parked; try it again after the others
+                    return false;
+                }
+                return true;
+            }
+
+            case TENDER: {
+                int lines = lane.tender(action.getCardType());
+                if (lines < 0) {
+                    return false;
+                }
+                results.sale(lines);
+                return true;
+            }
+
+            case CLEAR:
+                lane.clear();
+                return true;
+
+            default:
+                return false;
+        }
+    }
+}
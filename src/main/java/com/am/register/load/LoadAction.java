@@ -0,0 +1,94 @@
+package com.am.register.load;
+
+import com.am.register.model.CardType;
+
+/**
+ * One cashier action in a scan stream.
+ * Lines are identified by UPC rather than position so recorded streams
+ * replay correctly even if the basket ends up ordered differently.
+ */
+public final class LoadAction {
+
+    public enum Type {
+        SCAN,       // Scan a UPC (unknown UPCs exercise the not-found path)
+        VOID,       // Void the line with a UPC, or the last line if none given
+        QUANTITY,   // Set the quantity of the line with a UPC
+        SUSPEND,    // Park the basket
+        RESUME,     // Resume the oldest basket this lane parked
+        TENDER,     // Tender and complete the sale
+        CLEAR       // Abandon the basket
+    }
+
+    private final Type type;
+    private final String upc;
+    private final int quantity;
+    private final CardType cardType;  // TENDER only; null pays exact cash
+
+    private LoadAction(Type type, String upc, int quantity, CardType cardType) {
+        this.type = type;
+        this.upc = upc;
+        this.quantity = quantity;
+        this.cardType = cardType;
+    }
+
+    public static LoadAction scan(String upc) {
+        return new LoadAction(Type.SCAN, upc, 1, null);
+    }
+
+    /**
+     * @param upc Line to void, or null for the last line
+     */
+    public static LoadAction voidLine(String upc) {
+        return new LoadAction(Type.VOID, upc, 0, null);
+    }
+
+    public static LoadAction quantity(String upc, int quantity) {
+        return new LoadAction(Type.QUANTITY, upc, quantity, null);
+    }
+
+    public static LoadAction suspend() {
+        return new LoadAction(Type.SUSPEND, null, 0, null);
+    }
+
+    public static LoadAction resume() {
+        return new LoadAction(Type.RESUME, null, 0, null);
+    }
+
+    /**
+     * @param cardType Card to pay with, or null to pay exact cash
+     */
+    public static LoadAction tender(CardType cardType) {
+        return new LoadAction(Type.TENDER, null, 0, cardType);
+    }
+
+    public static LoadAction clear() {
+        return new LoadAction(Type.CLEAR, null, 0, null);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getUpc() {
+        return upc;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public CardType getCardType() {
+        return cardType;
+    }
+
+    @Override
+    public String toString() {
+        switch (type) {
+            case SCAN: return "SCAN " + upc;
+            case VOID: return upc != null ? "VOID " + upc : "VOID";
+            case QUANTITY: return "QTY " + upc + " " + quantity;
+            case TENDER: return cardType != null ? "TENDER CARD " + cardType.name() : "TENDER CASH";
+            default: return type.name();
+        }
+    }
+}
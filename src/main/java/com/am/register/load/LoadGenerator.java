@@ -0,0 +1,457 @@
+package com.am.register.load;
+
+import com.am.register.api.LaneApiClient;
+import com.am.register.controller.RegisterController;
+import com.am.register.database.DatabaseManager;
+import com.am.register.database.DatabaseMigration;
+import com.am.register.database.PriceBookParser;
+import com.am.register.metrics.LatencyHistogram;
+import com.am.register.metrics.MetricsRegistry;
+import com.am.register.model.Item;
+import com.am.register.service.RegisterServices;
+import com.am.register.util.ConsoleJournal;
+import com.am.register.util.SuspensionStore;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Headless load generator.
+ * Runs several simulated lanes in one JVM against the shared services, each
+ * replaying a synthetic or recorded scan stream through its own
+ * RegisterController, and reports throughput, response-time percentiles and
+ * the database write rate.
+ *
+ * Usage: LoadGenerator [--lanes 4] [--rate 5] [--duration 60] [--script file.txt|journal.jsonl]
+ *        [--jdbc url] [--receipts dir] [--first-lane 901] [--basket 12] [--seed 1]
+ *        [--report results.json] [--api http://127.0.0.1:8765] [--console]
+ *
+ * --rate is actions per second per lane (0 runs flat out). By default the run
+ * uses a private in-memory database, set up with the schema and price book
+ * first, and archives its receipts to a scratch directory that is deleted
+ * afterwards, so synthetic sales never reach the store's real data. Pass
+ * --jdbc (e.g. the register's H2 server) to load a real database and
+ * --receipts to keep the archive. Lanes are
+ * numbered from --first-lane so their receipt sequences stay apart from the
+ * store's real lanes. With --api the lanes are opened on a running
+ * LaneApiServer and driven over HTTP by LaneApiClient instead, so the figures
+ * include the API and its transport; --jdbc is then the server's business.
+ */
+public class LoadGenerator {
+
+    private static final String PRICE_BOOK = "pricebook_categorized.tsv";
+    private static final String DEFAULT_JDBC_URL = "jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1";
+
+    private int lanes = 4;
+    private double rate = 5;
+    private double durationSeconds = 60;
+    private Path script;
+    private String jdbcUrl = DEFAULT_JDBC_URL;
+    private Path receiptDirectory;  // Null for a scratch directory
+    private int firstLane = 901;
+    private int meanBasketSize = 12;
+    private long seed = 1;
+    private Path report;
+    private String api;
+    private boolean console;
+
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+
+        LoadGenerator generator = new LoadGenerator();
+        try {
+            generator.parseArguments(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println("✗ " + e.getMessage());
+            System.err.println("Usage: LoadGenerator [--lanes N] [--rate actionsPerSecond] [--duration seconds]");
+            System.err.println("       [--script file.txt|journal.jsonl] [--jdbc url] [--receipts dir] [--first-lane N]");
+            System.err.println("       [--basket meanItems] [--seed N] [--report results.json] [--api url] [--console]");
+            System.exit(2);
+        }
+
+        boolean ok = generator.run();
+        ConsoleJournal.shutdown();
+        System.exit(ok ? 0 : 1);
+    }
+
+    private void parseArguments(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if (option.equals("--console")) {
+                console = true;
+                continue;
+            }
+            if (i + 1 == args.length) {
+                throw new IllegalArgumentException("Missing value for " + option);
+            }
+
+            String value = args[++i];
+            try {
+                switch (option) {
+                    case "--lanes": lanes = Integer.parseInt(value); break;
+                    case "--rate": rate = Double.parseDouble(value); break;
+                    case "--duration": durationSeconds = Double.parseDouble(value); break;
+                    case "--script": script = Paths.get(value); break;
+                    case "--jdbc": jdbcUrl = value; break;
+                    case "--receipts": receiptDirectory = Paths.get(value); break;
+                    case "--first-lane": firstLane = Integer.parseInt(value); break;
+                    case "--basket": meanBasketSize = Integer.parseInt(value); break;
+                    case "--seed": seed = Long.parseLong(value); break;
+                    case "--report": report = Paths.get(value); break;
+                    case "--api": api = value; break;
+                    default: throw new IllegalArgumentException("Unknown option " + option);
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid number for " + option + ": " + value);
+            }
+        }
+
+        if (lanes < 1 || firstLane < 1 || firstLane + lanes - 1 > 999) {
+            throw new IllegalArgumentException("Lanes must be numbered within 1-999");
+        }
+        if (rate < 0 || durationSeconds <= 0) {
+            throw new IllegalArgumentException("Rate cannot be negative and duration must be positive");
+        }
+    }
+
+    /**
+     * Sets up the lanes, runs the load and prints the report.
+     * @return false if setup failed
+     */
+    boolean run() {
+        ConsoleJournal.setConsoleOutput(console);
+
+        System.out.println("=== LOAD TEST ===");
+        System.out.println("Lanes:    " + lanes + " (LOAD-" + firstLane + " to LOAD-" + (firstLane + lanes - 1) + ")");
+        System.out.println("Rate:     " + (rate > 0 ? rate + " actions/s per lane" : "unthrottled"));
+        System.out.println("Duration: " + durationSeconds + " s");
+        System.out.println("Stream:   " + (script != null ? script : "synthetic, mean basket " + meanBasketSize));
+        System.out.println(api != null ? "Lane API: " + api : "Database: " + jdbcUrl);
+        System.out.println();
+
+        List<LoadAction> recorded = null;
+        if (script != null) {
+            try {
+                recorded = ScriptScanStream.read(script);
+                System.out.println("✓ Loaded " + recorded.size() + " actions from " + script);
+            } catch (IOException | IllegalArgumentException e) {
+                System.err.println("✗ Could not read script: " + e.getMessage());
+                return false;
+            }
+        }
+
+        return api != null ? runOverApi(recorded) : runInProcess(recorded);
+    }
+
+    /**
+     * Runs the lanes as controllers in this JVM against the shared services.
+     */
+    private boolean runInProcess(List<LoadAction> recorded) {
+        DatabaseManager setupDatabase = new DatabaseManager(jdbcUrl);
+        if (!setupDatabase.connect()) {
+            return false;
+        }
+        if (jdbcUrl.startsWith("jdbc:h2:mem:") && !prepareInMemoryDatabase(setupDatabase)) {
+            setupDatabase.disconnect();
+            return false;
+        }
+
+        Path receipts = receiptDirectory;
+        if (receipts == null) {
+            try {
+                receipts = Files.createTempDirectory("load-receipts");
+            } catch (IOException e) {
+                System.err.println("✗ Could not create a scratch receipt directory: " + e.getMessage());
+                setupDatabase.disconnect();
+                return false;
+            }
+        }
+        System.out.println("Receipts: " + receipts + (receiptDirectory == null ? " (scratch)" : ""));
+
+        RegisterServices services = RegisterServices.open(jdbcUrl,
+                SuspensionStore.DEFAULT_CAPACITY, SuspensionStore.DEFAULT_TTL, receipts);
+        if (services == null) {
+            setupDatabase.disconnect();
+            deleteScratch(receipts);
+            return false;
+        }
+
+        List<String> upcs = new ArrayList<>();
+        for (Item item : services.getCatalog().getAllItems()) {
+            upcs.add(item.getUpc());
+        }
+
+        List<LoadLane> loadLanes = new ArrayList<>();
+        List<MetricsRegistry> laneMetrics = new ArrayList<>();
+        if (recorded != null || !upcs.isEmpty()) {
+            for (int i = 0; i < lanes; i++) {
+                RegisterController controller = RegisterController.openLane(services, "LOAD-" + (firstLane + i));
+                if (controller == null) {
+                    System.err.println("✗ Could not open a connection for lane " + (firstLane + i));
+                    break;
+                }
+                loadLanes.add(new LocalLoadLane(controller));
+                laneMetrics.add(controller.getMetrics());
+            }
+        }
+
+        boolean ok = runLanes(loadLanes, recorded, upcs, laneMetrics);
+
+        services.shutdown();
+        setupDatabase.disconnect();
+        deleteScratch(receipts);
+        return ok;
+    }
+
+    /**
+     * Deletes the receipt directory if it is the run's scratch directory.
+     */
+    private void deleteScratch(Path receipts) {
+        if (receiptDirectory != null) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(receipts)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.delete(file);
+            }
+        } catch (IOException e) {
+            System.err.println("✗ Could not delete scratch receipts in " + receipts + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Runs the lanes on a lane API server through the bundled client.
+     * Only client-side response times are reported; the server's own timings are on its JMX beans.
+     */
+    private boolean runOverApi(List<LoadAction> recorded) {
+        LaneApiClient client = new LaneApiClient(api);
+        List<String> upcs = new ArrayList<>();
+        List<LoadLane> loadLanes = new ArrayList<>();
+
+        try {
+            LaneApiClient.Response items = client.listItems();
+            if (!items.isOk()) {
+                System.err.println("✗ Could not read the catalog: " + items.getError());
+                return false;
+            }
+            for (JsonElement item : items.getBody().getAsJsonArray("items")) {
+                upcs.add(item.getAsJsonObject().get("upc").getAsString());
+            }
+
+            if (recorded != null || !upcs.isEmpty()) {
+                for (int i = 0; i < lanes; i++) {
+                    ApiLoadLane lane = ApiLoadLane.open(client, "LOAD-" + (firstLane + i));
+                    if (lane == null) {
+                        break;
+                    }
+                    loadLanes.add(lane);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("✗ Lane API unreachable at " + api + ": " + e.getMessage());
+            loadLanes.forEach(LoadLane::close);
+            return false;
+        }
+
+        return runLanes(loadLanes, recorded, upcs, new ArrayList<>());
+    }
+
+    /**
+     * Drives the opened lanes for the run's duration, reports, and closes them.
+     * @return false if there was nothing to run
+     */
+    private boolean runLanes(List<LoadLane> loadLanes, List<LoadAction> recorded, List<String> upcs,
+                             List<MetricsRegistry> laneMetrics) {
+        if (recorded == null && upcs.isEmpty()) {
+            System.err.println("✗ Catalog is empty; load a price book or pass --script");
+            return false;
+        }
+
+        LoadResults results = new LoadResults();
+        List<LaneDriver> drivers = new ArrayList<>();
+        long durationNanos = (long) (durationSeconds * TimeUnit.SECONDS.toNanos(1));
+
+        for (int i = 0; i < loadLanes.size(); i++) {
+            ScanStream stream = recorded != null
+                    ? new ScriptScanStream(recorded, true, i * recorded.size() / lanes)
+                    : new SyntheticScanStream(upcs, seed + i).setMeanBasketSize(meanBasketSize);
+            drivers.add(new LaneDriver(loadLanes.get(i), stream, results, rate, durationNanos));
+        }
+
+        System.out.println("✓ " + drivers.size() + " lanes ready, running...");
+        List<Thread> threads = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int i = 0; i < drivers.size(); i++) {
+            Thread thread = new Thread(drivers.get(i), "load-lane-" + (firstLane + i));
+            thread.start();
+            threads.add(thread);
+        }
+        for (Thread thread : threads) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                drivers.forEach(LaneDriver::stop);
+            }
+        }
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+        long actions = 0;
+        int discarded = 0;
+        for (LaneDriver driver : drivers) {
+            actions += driver.getActionsIssued();
+            discarded += driver.discardParked();
+        }
+
+        Map<String, Object> summary = summarize(results, drivers.size(), laneMetrics, actions, elapsedSeconds);
+        printReport(summary, discarded);
+        if (report != null) {
+            writeReport(summary);
+        }
+
+        for (LoadLane lane : loadLanes) {
+            lane.close();
+        }
+        return true;
+    }
+
+    private boolean prepareInMemoryDatabase(DatabaseManager database) {
+        if (!database.createTables() || !new DatabaseMigration(database.getConnection()).migrate()) {
+            System.err.println("✗ Could not create the in-memory schema");
+            return false;
+        }
+        return new PriceBookParser(database).parseFile(PRICE_BOOK);
+    }
+
+    /**
+     * Collects the run's figures into one map, printed to the console and optionally saved as JSON.
+     */
+    private Map<String, Object> summarize(LoadResults results, int laneCount, List<MetricsRegistry> laneMetrics,
+                                          long actions, double elapsedSeconds) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("lanes", laneCount);
+        summary.put("targetRatePerLane", rate);
+        summary.put("elapsedSeconds", round(elapsedSeconds));
+        summary.put("actions", actions);
+        summary.put("actionsPerSecond", round(actions / elapsedSeconds));
+        summary.put("scansPerSecond", round(results.getResponseTimes(LoadAction.Type.SCAN).getCount() / elapsedSeconds));
+        summary.put("salesCompleted", results.getSalesCompleted());
+        summary.put("salesPerSecond", round(results.getSalesCompleted() / elapsedSeconds));
+        summary.put("errors", results.getErrors());
+
+        // Each sale writes a header row, one row per line and one daily-sales merge per line
+        long rows = results.getSalesCompleted() + 2 * results.getLinesPersisted();
+        summary.put("dbLineRowsPerSecond", round(results.getLinesPersisted() / elapsedSeconds));
+        summary.put("dbRowWritesPerSecond", round(rows / elapsedSeconds));
+
+        Map<String, Object> responseTimes = new LinkedHashMap<>();
+        responseTimes.put("ALL", percentiles(results.getAllResponseTimes(), 0));
+        for (LoadAction.Type type : LoadAction.Type.values()) {
+            LatencyHistogram.Snapshot snapshot = results.getResponseTimes(type);
+            if (snapshot.getCount() > 0 || results.getSkipped(type) > 0) {
+                responseTimes.put(type.name(), percentiles(snapshot, results.getSkipped(type)));
+            }
+        }
+        summary.put("responseTimesMillis", responseTimes);
+
+        // The controllers' own timings, merged across lanes
+        Map<String, LatencyHistogram.Snapshot> merged = new LinkedHashMap<>();
+        for (MetricsRegistry metrics : laneMetrics) {
+            metrics.histogramSnapshots().forEach((name, snapshot) -> merged.merge(name, snapshot, LatencyHistogram.Snapshot::plus));
+        }
+        Map<String, Object> internals = new LinkedHashMap<>();
+        merged.forEach((name, snapshot) -> {
+            if (snapshot.getCount() > 0) {
+                internals.put(name, percentiles(snapshot, 0));
+            }
+        });
+        summary.put("registerTimingsMillis", internals);
+
+        return summary;
+    }
+
+    private static Map<String, Object> percentiles(LatencyHistogram.Snapshot snapshot, long skipped) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("count", snapshot.getCount());
+        if (skipped > 0) {
+            values.put("skipped", skipped);
+        }
+        values.put("p50", millis(snapshot.getPercentileNanos(50)));
+        values.put("p90", millis(snapshot.getPercentileNanos(90)));
+        values.put("p99", millis(snapshot.getPercentileNanos(99)));
+        values.put("p999", millis(snapshot.getPercentileNanos(99.9)));
+        values.put("max", millis(snapshot.getMaxNanos()));
+        return values;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void printReport(Map<String, Object> summary, int discarded) {
+        System.out.println();
+        System.out.println("=== LOAD TEST RESULTS ===");
+        System.out.println("Lanes:            " + summary.get("lanes"));
+        System.out.println("Elapsed:          " + summary.get("elapsedSeconds") + " s");
+        System.out.println("Actions:          " + summary.get("actions") + " (" + summary.get("actionsPerSecond") + "/s)");
+        System.out.println("Scans:            " + summary.get("scansPerSecond") + "/s");
+        System.out.println("Sales completed:  " + summary.get("salesCompleted") + " (" + summary.get("salesPerSecond") + "/s)");
+        System.out.println("DB writes:        " + summary.get("dbRowWritesPerSecond") + " rows/s ("
+                + summary.get("dbLineRowsPerSecond") + " sale lines/s)");
+        System.out.println("Errors:           " + summary.get("errors"));
+        if (discarded > 0) {
+            System.out.println("Parked baskets deleted: " + discarded);
+        }
+
+        System.out.println();
+        System.out.println("Response time by action (ms, from when due):");
+        printTable((Map<String, Object>) summary.get("responseTimesMillis"));
+
+        System.out.println();
+        System.out.println("Register timings, all lanes (ms):");
+        printTable((Map<String, Object>) summary.get("registerTimingsMillis"));
+        System.out.println();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void printTable(Map<String, Object> rows) {
+        System.out.println(String.format("  %-18s %9s %9s %9s %9s %9s %9s %8s",
+                "", "count", "p50", "p90", "p99", "p99.9", "max", "skipped"));
+        for (Map.Entry<String, Object> row : rows.entrySet()) {
+            Map<String, Object> values = (Map<String, Object>) row.getValue();
+            System.out.println(String.format("  %-18s %9d %9.3f %9.3f %9.3f %9.3f %9.3f %8s",
+                    row.getKey(), (Long) values.get("count"),
+                    (Double) values.get("p50"), (Double) values.get("p90"), (Double) values.get("p99"),
+                    (Double) values.get("p999"), (Double) values.get("max"),
+                    values.containsKey("skipped") ? values.get("skipped") : ""));
+        }
+    }
+
+    private void writeReport(Map<String, Object> summary) {
+        try (Writer writer = Files.newBufferedWriter(report, StandardCharsets.UTF_8)) {
+            new GsonBuilder().setPrettyPrinting().create().toJson(summary, writer);
+            System.out.println("✓ Report written to " + report);
+        } catch (IOException e) {
+            System.err.println("✗ Could not write report: " + e.getMessage());
+        }
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 1000.0) / 1000.0;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 10) / 10.0;
+    }
+}
@@ -0,0 +1,47 @@
+package com.am.register.load;
+
+import com.am.register.model.CardType;
+
+/**
+ * A lane the load generator can drive: in-process or over the lane API.
+ * Each method reports whether the action applied to the basket as it stood,
+ * so both kinds of lane skip the same actions.
+ */
+interface LoadLane {
+
+    String getLaneId();
+
+    boolean scan(String upc);
+
+    /**
+     * @param upc Line to void, or null for the last line
+     */
+    boolean voidLine(String upc);
+
+    boolean changeQuantity(String upc, int quantity);
+
+    /**
+     * @return The suspension ID, or null if nothing was parked
+     */
+    String suspend(String note);
+
+    /**
+     * Resumes a parked basket into this lane's empty basket.
+     */
+    boolean resume(String suspensionId);
+
+    /**
+     * Tenders the basket, by card or else in exact cash.
+     * @return Lines sold, or -1 if the sale did not complete
+     */
+    int tender(CardType cardType);
+
+    void clear();
+
+    boolean deleteSuspension(String suspensionId);
+
+    /**
+     * Releases the lane after the run.
+     */
+    void close();
+}
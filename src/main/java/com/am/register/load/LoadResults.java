@@ -0,0 +1,83 @@
+package com.am.register.load;
+
+import com.am.register.metrics.LatencyHistogram;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Outcome counters and response times shared by every lane in a run.
+ * Response time is measured from when an action was due, not when it started,
+ * so a lane that falls behind its schedule reports the delay customers see.
+ */
+public class LoadResults {
+
+    private final Map<LoadAction.Type, LatencyHistogram> responseTimes = new EnumMap<>(LoadAction.Type.class);
+    private final Map<LoadAction.Type, LongAdder> skipped = new EnumMap<>(LoadAction.Type.class);
+    private final LatencyHistogram allResponseTimes = new LatencyHistogram("all");
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder salesCompleted = new LongAdder();
+    private final LongAdder linesPersisted = new LongAdder();
+
+    public LoadResults() {
+        for (LoadAction.Type type : LoadAction.Type.values()) {
+            responseTimes.put(type, new LatencyHistogram(type.name()));
+            skipped.put(type, new LongAdder());
+        }
+    }
+
+    /**
+     * Records a completed action.
+     */
+    public void record(LoadAction.Type type, long responseNanos) {
+        responseTimes.get(type).record(responseNanos);
+        allResponseTimes.record(responseNanos);
+    }
+
+    /**
+     * Counts an action that did not apply, e.g. a void on an empty basket.
+     */
+    public void skip(LoadAction.Type type) {
+        skipped.get(type).increment();
+    }
+
+    /**
+     * Counts an action that threw.
+     */
+    public void error() {
+        errors.increment();
+    }
+
+    /**
+     * Counts a completed sale and the line rows written for it.
+     */
+    public void sale(int lines) {
+        salesCompleted.increment();
+        linesPersisted.add(lines);
+    }
+
+    public LatencyHistogram.Snapshot getResponseTimes(LoadAction.Type type) {
+        return responseTimes.get(type).snapshot();
+    }
+
+    public LatencyHistogram.Snapshot getAllResponseTimes() {
+        return allResponseTimes.snapshot();
+    }
+
+    public long getSkipped(LoadAction.Type type) {
+        return skipped.get(type).sum();
+    }
+
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    public long getSalesCompleted() {
+        return salesCompleted.sum();
+    }
+
+    public long getLinesPersisted() {
+        return linesPersisted.sum();
+    }
+}
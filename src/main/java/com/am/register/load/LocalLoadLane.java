@@ -0,0 +1,117 @@
+package com.am.register.load;
+
+import com.am.register.controller.RegisterController;
+import com.am.register.model.CardType;
+import com.am.register.model.InputSource;
+import com.am.register.model.Receipt;
+import com.am.register.model.Transaction;
+import com.am.register.model.TransactionItem;
+
+import java.util.List;
+
+/**
+ * Drives a headless RegisterController in this JVM.
+ */
+class LocalLoadLane implements LoadLane {
+
+    private final RegisterController controller;
+
+    LocalLoadLane(RegisterController controller) {
+        this.controller = controller;
+    }
+
+    RegisterController getController() {
+        return controller;
+    }
+
+    @Override
+    public String getLaneId() {
+        return controller.getLaneId();
+    }
+
+    @Override
+    public boolean scan(String upc) {
+        if (controller.getCurrentTransaction().isTendering()) {
+            return false;
+        }
+        controller.processUPCScan(upc, InputSource.SCANNER);
+        return true;
+    }
+
+    @Override
+    public boolean voidLine(String upc) {
+        Transaction transaction = controller.getCurrentTransaction();
+        int index = upc != null ? lineIndex(transaction, upc) : transaction.getLineCount() - 1;
+        if (index < 0 || transaction.isTendering()) {
+            return false;
+        }
+        return controller.voidItem(index);
+    }
+
+    @Override
+    public boolean changeQuantity(String upc, int quantity) {
+        Transaction transaction = controller.getCurrentTransaction();
+        int index = lineIndex(transaction, upc);
+        if (index < 0 || transaction.isTendering()) {
+            return false;
+        }
+        return controller.changeItemQuantity(index, quantity);
+    }
+
+    @Override
+    public String suspend(String note) {
+        if (controller.getCurrentTransaction().getItemCount() == 0) {
+            return null;
+        }
+        return controller.suspendCurrentTransaction(note);
+    }
+
+    @Override
+    public boolean resume(String suspensionId) {
+        if (controller.getCurrentTransaction().getItemCount() > 0) {
+            return false;
+        }
+        return controller.resumeSuspendedTransaction(suspensionId);
+    }
+
+    @Override
+    public int tender(CardType cardType) {
+        Transaction transaction = controller.getCurrentTransaction();
+        if (transaction.getItemCount() == 0) {
+            return -1;
+        }
+        int lines = transaction.getLineCount();
+        if (!transaction.isTendering()) {
+            controller.startTendering();
+        }
+        Receipt receipt = cardType != null
+                ? controller.processCardPayment(cardType)
+                : controller.processExactCashPayment();
+        return receipt != null ? lines : -1;
+    }
+
+    @Override
+    public void clear() {
+        controller.startNewTransaction();
+    }
+
+    @Override
+    public boolean deleteSuspension(String suspensionId) {
+        return controller.deleteSuspension(suspensionId);
+    }
+
+    @Override
+    public void close() {
+        controller.shutdown();
+    }
+
+    private static int lineIndex(Transaction transaction, String upc) {
+        List<TransactionItem> items = transaction.getItems();
+        for (int i = 0; i < items.size(); i++) {
+            if (items.get(i).getUpc().equals(upc)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
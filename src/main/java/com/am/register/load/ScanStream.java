@@ -0,0 +1,14 @@
+package com.am.register.load;
+
+/**
+ * Source of cashier actions for one simulated lane.
+ * Each lane gets its own stream, so implementations need not be thread-safe.
+ */
+public interface ScanStream {
+
+    /**
+     * Gets the next action.
+     * @return The action, or null when the stream is exhausted
+     */
+    LoadAction next();
+}
@@ -0,0 +1,207 @@
+package com.am.register.load;
+
+import com.am.register.model.CardType;
+import com.am.register.util.ConsoleJournal;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Replays a recorded list of actions, optionally looping.
+ *
+ * Two formats are read. Script files (.txt) have one action per line:
+ * <pre>
+ *   # comment
+ *   SCAN 041594904794
+ *   QTY 041594904794 3
+ *   VOID 041594904794     (or just VOID for the last line)
+ *   SUSPEND
+ *   RESUME
+ *   TENDER CASH           (or TENDER CARD VISA)
+ *   CLEAR
+ * </pre>
+ * Journal files (.jsonl) written by the register are converted back into the
+ * cashier actions that produced them, so a day's real traffic can be replayed.
+ */
+public class ScriptScanStream implements ScanStream {
+
+    private final List<LoadAction> actions;
+    private final boolean loop;
+    private int position;
+
+    /**
+     * @param actions Actions to replay
+     * @param loop Start over at the end instead of finishing
+     * @param offset Where to start, so lanes sharing a script are not in lockstep
+     */
+    public ScriptScanStream(List<LoadAction> actions, boolean loop, int offset) {
+        if (actions.isEmpty()) {
+            throw new IllegalArgumentException("Script has no actions");
+        }
+        this.actions = Collections.unmodifiableList(new ArrayList<>(actions));
+        this.loop = loop;
+        this.position = loop ? Math.floorMod(offset, actions.size()) : 0;
+    }
+
+    @Override
+    public LoadAction next() {
+        if (position == actions.size()) {
+            if (!loop) {
+                return null;
+            }
+            position = 0;
+        }
+        return actions.get(position++);
+    }
+
+    /**
+     * Reads a script or journal file, chosen by the .jsonl extension.
+     * @throws IOException if the file cannot be read
+     * @throws IllegalArgumentException if a script line is invalid
+     */
+    public static List<LoadAction> read(Path file) throws IOException {
+        return file.getFileName().toString().endsWith(".jsonl") ? readJournal(file) : readScript(file);
+    }
+
+    /**
+     * Reads a script file.
+     */
+    public static List<LoadAction> readScript(Path file) throws IOException {
+        List<LoadAction> actions = new ArrayList<>();
+        int lineNumber = 0;
+
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+
+                try {
+                    actions.add(parseScriptLine(line.split("\\s+")));
+                } catch (RuntimeException e) {
+                    throw new IllegalArgumentException(file + " line " + lineNumber + ": " + e.getMessage(), e);
+                }
+            }
+        }
+        return actions;
+    }
+
+    private static LoadAction parseScriptLine(String[] parts) {
+        switch (parts[0].toUpperCase()) {
+            case "SCAN":
+                requireArguments(parts, 2);
+                return LoadAction.scan(parts[1]);
+            case "VOID":
+                return LoadAction.voidLine(parts.length > 1 ? parts[1] : null);
+            case "QTY":
+                requireArguments(parts, 3);
+                return LoadAction.quantity(parts[1], Integer.parseInt(parts[2]));
+            case "SUSPEND":
+                return LoadAction.suspend();
+            case "RESUME":
+                return LoadAction.resume();
+            case "TENDER":
+                if (parts.length > 1 && parts[1].equalsIgnoreCase("CARD")) {
+                    return LoadAction.tender(parts.length > 2 ? CardType.valueOf(parts[2].toUpperCase()) : CardType.VISA);
+                }
+                return LoadAction.tender(null);
+            case "CLEAR":
+                return LoadAction.clear();
+            default:
+                throw new IllegalArgumentException("Unknown action '" + parts[0] + "'");
+        }
+    }
+
+    private static void requireArguments(String[] parts, int count) {
+        if (parts.length < count) {
+            throw new IllegalArgumentException(parts[0] + " needs " + (count - 1) + " argument(s)");
+        }
+    }
+
+    /**
+     * Rebuilds cashier actions from a register journal.
+     * Tendering shows up as TAX_CALCULATED followed by a payment message, and
+     * every completed sale also logs TRANSACTION_CLEARED, which is skipped so
+     * only baskets cleared by hand become CLEAR actions.
+     */
+    public static List<LoadAction> readJournal(Path file) throws IOException {
+        List<LoadAction> actions = new ArrayList<>();
+        boolean tendering = false;
+
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+
+                JsonObject event;
+                try {
+                    event = JsonParser.parseString(line).getAsJsonObject();
+                } catch (RuntimeException e) {
+                    continue;  // Torn final line of a journal still being written
+                }
+
+                switch (string(event, "type")) {
+                    case ConsoleJournal.ITEM_SCANNED:
+                    case ConsoleJournal.ITEM_NOT_FOUND:
+                        actions.add(LoadAction.scan(string(event, "upc")));
+                        break;
+                    case ConsoleJournal.ITEM_VOIDED:
+                        actions.add(LoadAction.voidLine(string(event, "upc")));
+                        break;
+                    case ConsoleJournal.QUANTITY_CHANGED:
+                        actions.add(LoadAction.quantity(string(event, "upc"), event.get("newQuantity").getAsInt()));
+                        break;
+                    case ConsoleJournal.TRANSACTION_SUSPENDED:
+                        actions.add(LoadAction.suspend());
+                        break;
+                    case ConsoleJournal.TRANSACTION_RESUMED:
+                        actions.add(LoadAction.resume());
+                        break;
+                    case ConsoleJournal.TAX_CALCULATED:
+                        tendering = true;
+                        break;
+                    case ConsoleJournal.INFO:
+                        String message = string(event, "message");
+                        if (tendering && message.startsWith("Card payment processed")) {
+                            actions.add(LoadAction.tender(CardType.VISA));
+                            tendering = false;
+                        } else if (tendering && message.startsWith("Cash payment processed")) {
+                            actions.add(LoadAction.tender(null));
+                            tendering = false;
+                        } else if (message.startsWith("Transaction completed")) {
+                            tendering = false;
+                        }
+                        break;
+                    case ConsoleJournal.TRANSACTION_CLEARED:
+                        if (!actions.isEmpty() && actions.get(actions.size() - 1).getType() != LoadAction.Type.TENDER) {
+                            actions.add(LoadAction.clear());
+                        }
+                        tendering = false;
+                        break;
+                    default:
+                        break;
+                }
+            }
+        }
+        return actions;
+    }
+
+    private static String string(JsonObject event, String field) {
+        JsonElement value = event.get(field);
+        return value == null || value.isJsonNull() ? "" : value.getAsString();
+    }
+}
@@ -0,0 +1,142 @@
+package com.am.register.load;
+
+import com.am.register.model.CardType;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Endless stream of randomly generated baskets.
+ * Item choice is skewed so a small part of the catalog accounts for most
+ * scans, as at a real counter. Voids, quantity changes, mis-scans, suspends,
+ * resumes and abandoned baskets appear at configurable rates.
+ */
+public class SyntheticScanStream implements ScanStream {
+
+    private static final CardType[] CARDS = {CardType.VISA, CardType.VISA, CardType.MASTERCARD,
+            CardType.AMERICAN_EXPRESS, CardType.DISCOVER};
+
+    private final List<String> upcs;
+    private final Random random;
+    private final Deque<LoadAction> pending = new ArrayDeque<>();
+
+    private int meanBasketSize = 12;
+    private double voidRate = 0.03;         // Per scan
+    private double quantityRate = 0.02;     // Per scan
+    private double notFoundRate = 0.01;     // Per scan
+    private double suspendRate = 0.02;      // Per basket
+    private double abandonRate = 0.01;      // Per basket
+    private double cardShare = 0.6;         // Of tenders
+    private int parked;                     // Baskets this stream has suspended and not resumed
+
+    /**
+     * @param upcs Catalog UPCs; earlier entries are scanned more often
+     * @param seed Random seed, so runs can be repeated
+     */
+    public SyntheticScanStream(List<String> upcs, long seed) {
+        if (upcs == null || upcs.isEmpty()) {
+            throw new IllegalArgumentException("Synthetic stream needs at least one UPC");
+        }
+        this.upcs = upcs;
+        this.random = new Random(seed);
+    }
+
+    public SyntheticScanStream setMeanBasketSize(int meanBasketSize) {
+        if (meanBasketSize < 1) {
+            throw new IllegalArgumentException("Mean basket size must be at least 1");
+        }
+        this.meanBasketSize = meanBasketSize;
+        return this;
+    }
+
+    public SyntheticScanStream setVoidRate(double voidRate) {
+        this.voidRate = voidRate;
+        return this;
+    }
+
+    public SyntheticScanStream setQuantityRate(double quantityRate) {
+        this.quantityRate = quantityRate;
+        return this;
+    }
+
+    public SyntheticScanStream setNotFoundRate(double notFoundRate) {
+        this.notFoundRate = notFoundRate;
+        return this;
+    }
+
+    public SyntheticScanStream setSuspendRate(double suspendRate) {
+        this.suspendRate = suspendRate;
+        return this;
+    }
+
+    public SyntheticScanStream setAbandonRate(double abandonRate) {
+        this.abandonRate = abandonRate;
+        return this;
+    }
+
+    public SyntheticScanStream setCardShare(double cardShare) {
+        this.cardShare = cardShare;
+        return this;
+    }
+
+    @Override
+    public LoadAction next() {
+        if (pending.isEmpty()) {
+            generateBasket();
+        }
+        return pending.poll();
+    }
+
+    private void generateBasket() {
+        // Pick up a parked basket now and then instead of starting fresh
+        if (parked > 0 && random.nextDouble() < 0.5) {
+            pending.add(LoadAction.resume());
+            parked--;
+        }
+
+        List<String> lines = new ArrayList<>();
+        int scans = 1 + random.nextInt(2 * meanBasketSize - 1);  // Uniform, mean meanBasketSize
+
+        for (int i = 0; i < scans; i++) {
+            if (random.nextDouble() < notFoundRate) {
+                pending.add(LoadAction.scan(String.format("999%09d", random.nextInt(1_000_000_000))));
+                continue;
+            }
+
+            String upc = pickUpc();
+            pending.add(LoadAction.scan(upc));
+            if (!lines.contains(upc)) {
+                lines.add(upc);
+            }
+
+            if (random.nextDouble() < voidRate) {
+                String voided = lines.remove(random.nextInt(lines.size()));
+                pending.add(LoadAction.voidLine(voided));
+            } else if (random.nextDouble() < quantityRate) {
+                pending.add(LoadAction.quantity(lines.get(random.nextInt(lines.size())), 2 + random.nextInt(3)));
+            }
+        }
+
+        double end = random.nextDouble();
+        if (end < suspendRate) {
+            pending.add(LoadAction.suspend());
+            parked++;
+        } else if (end < suspendRate + abandonRate) {
+            pending.add(LoadAction.clear());
+        } else {
+            boolean card = random.nextDouble() < cardShare;
+            pending.add(LoadAction.tender(card ? CARDS[random.nextInt(CARDS.length)] : null));
+        }
+    }
+
+    /**
+     * Picks a UPC with a quadratic skew toward the front of the list.
+     */
+    private String pickUpc() {
+        double r = random.nextDouble();
+        return upcs.get((int) (r * r * upcs.size()));
+    }
+}
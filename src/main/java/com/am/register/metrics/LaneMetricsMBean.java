@@ -0,0 +1,112 @@
+package com.am.register.metrics;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanOperationInfo;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Exposes one lane's metrics over JMX as read-only attributes.
+ * Counters appear under their own names; each histogram contributes
+ * name.count, name.meanMicros, name.p50Micros, name.p90Micros, name.p99Micros,
+ * name.p999Micros and name.maxMicros, all cumulative since the lane started.
+ */
+public class LaneMetricsMBean implements DynamicMBean {
+
+    private static final String[] HISTOGRAM_FIELDS =
+            {"count", "meanMicros", "p50Micros", "p90Micros", "p99Micros", "p999Micros", "maxMicros"};
+
+    private final MetricsRegistry registry;
+
+    public LaneMetricsMBean(MetricsRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public Object getAttribute(String attribute) throws AttributeNotFoundException {
+        Long counter = registry.counterValues().get(attribute);
+        if (counter != null) {
+            return counter;
+        }
+
+        int dot = attribute.lastIndexOf('.');
+        if (dot > 0) {
+            LatencyHistogram.Snapshot snapshot = registry.histogramSnapshots().get(attribute.substring(0, dot));
+            if (snapshot != null) {
+                Object value = histogramField(snapshot, attribute.substring(dot + 1));
+                if (value != null) {
+                    return value;
+                }
+            }
+        }
+        throw new AttributeNotFoundException("No metric " + attribute + " on lane " + registry.getLaneId());
+    }
+
+    private static Object histogramField(LatencyHistogram.Snapshot snapshot, String field) {
+        switch (field) {
+            case "count": return snapshot.getCount();
+            case "meanMicros": return snapshot.getMeanNanos() / 1000.0;
+            case "p50Micros": return snapshot.getPercentileNanos(50) / 1000.0;
+            case "p90Micros": return snapshot.getPercentileNanos(90) / 1000.0;
+            case "p99Micros": return snapshot.getPercentileNanos(99) / 1000.0;
+            case "p999Micros": return snapshot.getPercentileNanos(99.9) / 1000.0;
+            case "maxMicros": return snapshot.getMaxNanos() / 1000.0;
+            default: return null;
+        }
+    }
+
+    @Override
+    public AttributeList getAttributes(String[] attributes) {
+        AttributeList list = new AttributeList();
+        for (String attribute : attributes) {
+            try {
+                list.add(new Attribute(attribute, getAttribute(attribute)));
+            } catch (AttributeNotFoundException e) {
+                // Omitted, per the DynamicMBean contract
+            }
+        }
+        return list;
+    }
+
+    @Override
+    public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+        throw new AttributeNotFoundException("Metrics are read-only");
+    }
+
+    @Override
+    public AttributeList setAttributes(AttributeList attributes) {
+        return new AttributeList();
+    }
+
+    @Override
+    public Object invoke(String actionName, Object[] params, String[] signature) {
+        throw new UnsupportedOperationException("No operations on lane metrics");
+    }
+
+    @Override
+    public MBeanInfo getMBeanInfo() {
+        List<MBeanAttributeInfo> attributes = new ArrayList<>();
+
+        for (String counter : registry.counterValues().keySet()) {
+            attributes.add(new MBeanAttributeInfo(counter, Long.class.getName(),
+                    "Count of " + counter, true, false, false));
+        }
+        for (Map.Entry<String, LatencyHistogram.Snapshot> entry : registry.histogramSnapshots().entrySet()) {
+            for (String field : HISTOGRAM_FIELDS) {
+                String type = field.equals("count") ? Long.class.getName() : Double.class.getName();
+                attributes.add(new MBeanAttributeInfo(entry.getKey() + "." + field, type,
+                        entry.getKey() + " latency " + field, true, false, false));
+            }
+        }
+
+        return new MBeanInfo(getClass().getName(), "Register lane " + registry.getLaneId() + " metrics",
+                attributes.toArray(new MBeanAttributeInfo[0]), null,
+                new MBeanOperationInfo[0], null);
+    }
+}
@@ -0,0 +1,87 @@
+package com.am.register.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histograms and counters for one lane.
+ * Metrics are created on first use and live for the lane's lifetime, so hot
+ * paths can look them up once and keep the reference.
+ */
+public class MetricsRegistry {
+
+    // Histograms
+    public static final String SCAN_LOOKUP = "scan.lookup";
+    public static final String SCAN_TO_DISPLAY = "scan.toDisplay";
+    public static final String TOTALS_RECOMPUTE = "totals.recompute";
+    public static final String UI_REFRESH = "ui.refresh";
+    public static final String TENDER = "tender";
+    public static final String RECEIPT_RENDER = "receipt.render";
+    public static final String DB_PERSIST = "db.persist";
+    public static final String UI_EVENT_DELAY = "ui.eventDelay";
+
+    // Counters
+    public static final String SCANS = "scans";
+    public static final String NOT_FOUND = "scans.notFound";
+    public static final String DUPLICATE_READS = "scans.duplicateReads";
+    public static final String VOIDS = "voids";
+    public static final String UI_STALLS = "ui.stalls";
+
+    private final String laneId;
+    private final ConcurrentMap<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LongAdder> counters = new ConcurrentHashMap<>();
+
+    public MetricsRegistry(String laneId) {
+        this.laneId = laneId;
+
+        // Register the standard metrics up front so they are visible before first use
+        for (String name : new String[]{SCAN_LOOKUP, SCAN_TO_DISPLAY, TOTALS_RECOMPUTE, UI_REFRESH,
+                TENDER, RECEIPT_RENDER, DB_PERSIST, UI_EVENT_DELAY}) {
+            histogram(name);
+        }
+        for (String name : new String[]{SCANS, NOT_FOUND, DUPLICATE_READS, VOIDS, UI_STALLS}) {
+            counter(name);
+        }
+    }
+
+    public String getLaneId() {
+        return laneId;
+    }
+
+    /**
+     * Gets or creates a histogram.
+     */
+    public LatencyHistogram histogram(String name) {
+        LatencyHistogram histogram = histograms.get(name);
+        return histogram != null ? histogram : histograms.computeIfAbsent(name, LatencyHistogram::new);
+    }
+
+    /**
+     * Gets or creates a counter.
+     */
+    public LongAdder counter(String name) {
+        LongAdder counter = counters.get(name);
+        return counter != null ? counter : counters.computeIfAbsent(name, n -> new LongAdder());
+    }
+
+    /**
+     * Snapshots every histogram, sorted by name.
+     */
+    public Map<String, LatencyHistogram.Snapshot> histogramSnapshots() {
+        Map<String, LatencyHistogram.Snapshot> snapshots = new TreeMap<>();
+        histograms.forEach((name, histogram) -> snapshots.put(name, histogram.snapshot()));
+        return snapshots;
+    }
+
+    /**
+     * Reads every counter, sorted by name.
+     */
+    public Map<String, Long> counterValues() {
+        Map<String, Long> values = new TreeMap<>();
+        counters.forEach((name, counter) -> values.put(name, counter.sum()));
+        return values;
+    }
+}
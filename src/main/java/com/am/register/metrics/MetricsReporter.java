@@ -0,0 +1,174 @@
+package com.am.register.metrics;
+
+import com.am.register.util.ConsoleJournal;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes lane metrics over JMX and dumps periodic snapshots to the journal.
+ * Each dump covers only the interval since the previous one, so percentiles
+ * reflect recent behaviour rather than the whole day.
+ */
+public class MetricsReporter {
+
+    public static final long DEFAULT_INTERVAL_SECONDS = 60;
+    public static final String JMX_DOMAIN = "com.am.register";
+
+    private final Map<String, MetricsRegistry> lanes = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, LatencyHistogram.Snapshot>> previous = new HashMap<>();  // Guarded by this
+    private final Map<String, Map<String, Long>> previousCounters = new HashMap<>();  // Guarded by this
+    private final ScheduledExecutorService scheduler;
+
+    public MetricsReporter() {
+        this(DEFAULT_INTERVAL_SECONDS);
+    }
+
+    /**
+     * @param intervalSeconds Seconds between snapshot dumps
+     */
+    public MetricsReporter(long intervalSeconds) {
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "metrics-reporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(() -> {
+            try {
+                dump();
+            } catch (RuntimeException e) {
+                System.err.println("✗ Metrics dump failed: " + e.getMessage());
+            }
+        }, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Starts reporting a lane and registers its MBean as
+     * com.am.register:type=LaneMetrics,lane=&lt;laneId&gt;.
+     */
+    public void register(MetricsRegistry registry) {
+        lanes.put(registry.getLaneId(), registry);
+
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = objectName(registry.getLaneId());
+            try {
+                server.registerMBean(new LaneMetricsMBean(registry), name);
+            } catch (InstanceAlreadyExistsException e) {
+                // A lane reopened under the same ID replaces the old bean
+                server.unregisterMBean(name);
+                server.registerMBean(new LaneMetricsMBean(registry), name);
+            }
+        } catch (JMException e) {
+            System.err.println("✗ Could not register metrics MBean for " + registry.getLaneId() + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Writes the lane's final interval, stops reporting it and removes its MBean.
+     */
+    public void unregister(String laneId) {
+        MetricsRegistry registry = lanes.remove(laneId);
+        if (registry != null) {
+            synchronized (this) {
+                dump(registry);
+                previous.remove(laneId);
+                previousCounters.remove(laneId);
+            }
+        }
+
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = objectName(laneId);
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+        } catch (JMException e) {
+            System.err.println("✗ Could not unregister metrics MBean for " + laneId + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Writes one snapshot per lane to the journal, covering the interval since the last dump.
+     * Lanes with no activity in the interval are skipped.
+     */
+    public synchronized void dump() {
+        for (MetricsRegistry registry : lanes.values()) {
+            dump(registry);
+        }
+    }
+
+    private void dump(MetricsRegistry registry) {
+        String laneId = registry.getLaneId();
+        Map<String, LatencyHistogram.Snapshot> current = registry.histogramSnapshots();
+        Map<String, Long> counters = registry.counterValues();
+        Map<String, LatencyHistogram.Snapshot> before = previous.getOrDefault(laneId, Map.of());
+        Map<String, Long> countersBefore = previousCounters.getOrDefault(laneId, Map.of());
+
+        Map<String, Object> histograms = new LinkedHashMap<>();
+        for (Map.Entry<String, LatencyHistogram.Snapshot> entry : current.entrySet()) {
+            LatencyHistogram.Snapshot earlier = before.get(entry.getKey());
+            LatencyHistogram.Snapshot interval = earlier != null ? entry.getValue().since(earlier) : entry.getValue();
+            if (interval.getCount() > 0) {
+                histograms.put(entry.getKey(), summarize(interval));
+            }
+        }
+
+        Map<String, Object> counts = new LinkedHashMap<>();
+        boolean counted = false;
+        for (Map.Entry<String, Long> entry : counters.entrySet()) {
+            long delta = entry.getValue() - countersBefore.getOrDefault(entry.getKey(), 0L);
+            counts.put(entry.getKey(), delta);
+            counted |= delta != 0;
+        }
+
+        previous.put(laneId, current);
+        previousCounters.put(laneId, counters);
+
+        if (!histograms.isEmpty() || counted) {
+            ConsoleJournal.logMetrics(laneId, histograms, counts);
+        }
+    }
+
+    /**
+     * Stops the schedule, writing each remaining lane's final interval and removing its MBean.
+     */
+    public void shutdown() {
+        scheduler.shutdown();
+        for (String laneId : lanes.keySet()) {
+            unregister(laneId);
+        }
+    }
+
+    private static Map<String, Object> summarize(LatencyHistogram.Snapshot snapshot) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("count", snapshot.getCount());
+        summary.put("p50Micros", micros(snapshot.getPercentileNanos(50)));
+        summary.put("p90Micros", micros(snapshot.getPercentileNanos(90)));
+        summary.put("p99Micros", micros(snapshot.getPercentileNanos(99)));
+        summary.put("p999Micros", micros(snapshot.getPercentileNanos(99.9)));
+        summary.put("maxMicros", micros(snapshot.getMaxNanos()));
+        return summary;
+    }
+
+    /**
+     * Nanoseconds to microseconds with one decimal.
+     */
+    private static double micros(long nanos) {
+        return Math.round(nanos / 100.0) / 10.0;
+    }
+
+    private static ObjectName objectName(String laneId) throws JMException {
+        return new ObjectName(JMX_DOMAIN + ":type=LaneMetrics,lane=" + ObjectName.quote(laneId));
+    }
+}
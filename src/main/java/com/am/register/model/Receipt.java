@@ -23,8 +23,11 @@ public class Receipt {
     private String promoCode = null;
 
     /**
-     * Generates a unique receipt number based on timestamp.
+     * Generates a receipt number based on timestamp.
+     * Only unique to the second on a single lane.
+     * @deprecated Use ReceiptNumberGenerator for lane-aware, collision-free numbers
      */
+    @Deprecated
     public static String generateReceiptNumber() {
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
         return "R" + LocalDateTime.now().format(formatter);
@@ -1,6 +1,7 @@
 package com.am.register.model;
 
 import lombok.Data;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
@@ -19,19 +20,56 @@ public class SuspendedTransaction {
     private double tax;
     private double total;
     private int itemCount;
-    private String itemsJson;  // Serialized List<TransactionItem>
+    private String itemsJson;  // Legacy: serialized List<TransactionItem>
+    private byte[] itemsData;  // BasketCodec encoding (UPC, quantity, price)
     private String note;  // Optional: "Customer forgot wallet"
+    private String laneId;  // Lane that suspended the basket
+    private int version;  // Row version, bumped on every claim or release
 
     /**
      * Generates a suspension ID based on current date and sequence.
      * Format: S-YYYYMMDD-NNN
      */
     public static String generateSuspensionId(int sequenceNumber) {
+        return generateSuspensionId(LocalDate.now(), sequenceNumber);
+    }
+
+    /**
+     * Generates a suspension ID for a specific date.
+     * Use the same date the sequence number was drawn for.
+     */
+    public static String generateSuspensionId(LocalDate date, int sequenceNumber) {
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyyMMdd");
-        String dateStr = LocalDateTime.now().format(formatter);
+        String dateStr = date.format(formatter);
         return String.format("S-%s-%03d", dateStr, sequenceNumber);
     }
 
+    /**
+     * Checks whether the basket payload has been loaded.
+     * Headers loaded for listing carry no payload until fetched on demand.
+     */
+    public boolean hasBasket() {
+        return itemsData != null || itemsJson != null;
+    }
+
+    /**
+     * Copies the header fields, leaving out the basket payload.
+     */
+    public SuspendedTransaction toHeader() {
+        SuspendedTransaction header = new SuspendedTransaction();
+        header.setSuspensionId(suspensionId);
+        header.setSuspendedAt(suspendedAt);
+        header.setTransactionState(transactionState);
+        header.setSubtotal(subtotal);
+        header.setTax(tax);
+        header.setTotal(total);
+        header.setItemCount(itemCount);
+        header.setNote(note);
+        header.setLaneId(laneId);
+        header.setVersion(version);
+        return header;
+    }
+
     /**
      * Gets formatted suspension time for display.
      */
@@ -60,7 +98,7 @@ public class SuspendedTransaction {
     }
 
     /**
-     * Checks if suspension is from a previous day (eligible for cleanup).
+     * Checks if suspension is from a previous day (still kept until its TTL passes).
      */
     public boolean isFromPreviousDay() {
         LocalDateTime now = LocalDateTime.now();
@@ -49,6 +49,74 @@ public class Transaction {
         items.add(new TransactionItem(item));
     }
 
+    /**
+     * Adds a burst of scanned items in one pass, with the same result as
+     * calling addItem() for each in order.
+     * @return The line each item landed on, in the order given
+     */
+    public List<TransactionItem> addItems(List<Item> scanned) {
+        List<TransactionItem> lines = new ArrayList<>(scanned.size());
+        Map<String, TransactionItem> byUpc = new HashMap<>();
+        for (TransactionItem txItem : items) {
+            byUpc.putIfAbsent(txItem.getUpc(), txItem);
+        }
+
+        for (Item item : scanned) {
+            TransactionItem line = byUpc.get(item.getUpc());
+            if (line != null) {
+                line.incrementQuantity();
+            } else {
+                line = new TransactionItem(item);
+                items.add(line);
+                byUpc.put(item.getUpc(), line);
+            }
+            lines.add(line);
+        }
+
+        return lines;
+    }
+
+    /**
+     * Rebuilds a transaction from saved lines in a single pass.
+     * Lines sharing a UPC are merged, as addItem() would have done.
+     * @param lines Saved lines with their quantities and prices
+     * @param state State to restore (TENDERING requires at least one line)
+     */
+    public static Transaction restore(List<TransactionItem> lines, TransactionState state) {
+        Transaction transaction = new Transaction();
+        Map<String, TransactionItem> byUpc = new HashMap<>();
+
+        for (TransactionItem line : lines) {
+            TransactionItem existing = byUpc.get(line.getUpc());
+            if (existing != null) {
+                existing.setQuantity(existing.getQuantity() + line.getQuantity());
+            } else {
+                byUpc.put(line.getUpc(), line);
+                transaction.items.add(line);
+            }
+        }
+
+        if (state == TransactionState.TENDERING) {
+            transaction.startTendering();
+        }
+
+        return transaction;
+    }
+
+    /**
+     * Copies the lines, payment and state, so the copy can be read on another
+     * thread while this transaction carries on changing.
+     */
+    public Transaction copy() {
+        Transaction copy = new Transaction();
+        for (TransactionItem line : items) {
+            copy.items.add(new TransactionItem(line.getItem(), line.getQuantity()));
+        }
+        copy.payment = payment;
+        copy.state = state;
+        return copy;
+    }
+
     /**
      * Gets all scanned items (for backward compatibility).
      * Expands quantities into individual items.
@@ -23,6 +23,15 @@ public class TransactionItem {
         this.quantity = 1;
     }
 
+    /**
+     * Creates a transaction item with the given quantity.
+     * @param quantity Must be >= 1
+     */
+    public TransactionItem(Item item, int quantity) {
+        this(item);
+        setQuantity(quantity);
+    }
+
     /**
      * Gets the line total (price × quantity).
      */
@@ -0,0 +1,85 @@
+package com.am.register.scanner;
+
+import java.awt.*;
+import java.awt.event.KeyEvent;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Reads a USB scanner that types its codes as keystrokes.
+ * Keystrokes are captured application-wide without requiring focus. A code
+ * is told apart from typing by speed: characters arriving faster than the
+ * timeout are consumed so they do not land in whatever field has focus.
+ * AWT cannot tell two keyboards apart, so all keystrokes form one device;
+ * scanners that can be switched to a serial or network mode should use
+ * StreamScanSource or SocketScanSource instead.
+ */
+public class KeyboardWedgeSource implements ScanInputSource {
+
+    public static final String DEVICE_ID = "keyboard";
+    public static final long SCAN_TIMEOUT_MS = 100;  // Scanner types fast
+
+    private final BooleanSupplier enabled;
+    private ScanDecoder decoder;  // Event thread only
+    private KeyEventDispatcher dispatcher;
+
+    /**
+     * @param enabled Checked on every keystroke; while false, keys pass through untouched
+     */
+    public KeyboardWedgeSource(BooleanSupplier enabled) {
+        this.enabled = enabled;
+    }
+
+    @Override
+    public String getName() {
+        return "keyboard wedge";
+    }
+
+    @Override
+    public void start(ScanListener listener) {
+        decoder = new ScanDecoder(DEVICE_ID, SCAN_TIMEOUT_MS, ScanDecoder.DEFAULT_DUPLICATE_WINDOW_MILLIS, listener);
+        dispatcher = e -> {
+            // Only process KEY_TYPED events to get actual characters
+            if (e.getID() == KeyEvent.KEY_TYPED) {
+                return handleKeyTyped(e);
+            }
+            return false; // Allow event to propagate normally
+        };
+        KeyboardFocusManager.getCurrentKeyboardFocusManager().addKeyEventDispatcher(dispatcher);
+    }
+
+    /**
+     * @return true to consume the keystroke
+     */
+    private boolean handleKeyTyped(KeyEvent e) {
+        if (!enabled.getAsBoolean()) {
+            return false;
+        }
+
+        switch (decoder.accept(e.getKeyChar(), System.nanoTime())) {
+            case EMITTED:
+            case SUPPRESSED:
+                return true;  // The Enter that ended a code
+            case BUFFERED:
+            case DISCARDED:
+                // Consume only at scanner speed, so ordinary typing still works
+                return decoder.isLastCharFast();
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Gets the keyboard's decoder. Only touch it on the event thread.
+     */
+    public ScanDecoder getDecoder() {
+        return decoder;
+    }
+
+    @Override
+    public void close() {
+        if (dispatcher != null) {
+            KeyboardFocusManager.getCurrentKeyboardFocusManager().removeKeyEventDispatcher(dispatcher);
+            dispatcher = null;
+        }
+    }
+}
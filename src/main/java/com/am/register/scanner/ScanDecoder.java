@@ -0,0 +1,169 @@
+package com.am.register.scanner;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Assembles one device's characters into barcodes.
+ * Every device gets its own decoder, so a handheld, a flatbed and a typist
+ * can no longer corrupt each other's reads. Characters are buffered in a
+ * fixed array; the only allocation is the String handed to the listener.
+ * <p>
+ * A decoder is confined to the thread that reads its device and is not thread-safe.
+ */
+public final class ScanDecoder {
+
+    public static final int MAX_CODE_LENGTH = 64;  // Longest GS1-128 payload is 48
+    public static final long DEFAULT_DUPLICATE_WINDOW_MILLIS = 150;
+
+    /**
+     * What a character did to the decoder.
+     */
+    public enum Result {
+        /** Letter or digit added to the code being read */
+        BUFFERED,
+        /** Not part of a barcode (punctuation, or a terminator with nothing read) */
+        IGNORED,
+        /** Terminator completed a code and it was sent to the listener */
+        EMITTED,
+        /** Terminator completed a repeat of the last code inside the duplicate window */
+        SUPPRESSED,
+        /** Part of a code too long to be a barcode; dropped up to its terminator */
+        DISCARDED
+    }
+
+    private enum State { IDLE, READING, OVERFLOW }
+
+    private final String deviceId;
+    private final long interCharNanos;  // 0 = no timeout (line-oriented devices)
+    private final long duplicateWindowNanos;
+    private final ScanListener listener;
+
+    private final char[] buffer = new char[MAX_CODE_LENGTH];
+    private int length;
+    private State state = State.IDLE;
+    private long lastCharNanos;
+    private boolean lastCharFast;
+
+    private final char[] lastCode = new char[MAX_CODE_LENGTH];
+    private int lastCodeLength;  // 0 until something is emitted
+    private long lastEmitNanos;
+
+    /**
+     * @param deviceId Name reported to the listener
+     * @param interCharMillis Longest gap between characters of one code; a slower
+     *                        character starts a new code (0 to disable, for devices
+     *                        that always terminate their codes)
+     * @param duplicateWindowMillis How long a repeat of the last code is treated as a double read
+     * @param listener Receives the completed codes
+     */
+    public ScanDecoder(String deviceId, long interCharMillis, long duplicateWindowMillis, ScanListener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("ScanListener cannot be null");
+        }
+        this.deviceId = deviceId;
+        this.interCharNanos = TimeUnit.MILLISECONDS.toNanos(interCharMillis);
+        this.duplicateWindowNanos = TimeUnit.MILLISECONDS.toNanos(duplicateWindowMillis);
+        this.listener = listener;
+        this.lastCharNanos = System.nanoTime();
+    }
+
+    /**
+     * Feeds one character.
+     * @param nowNanos System.nanoTime() when the character arrived
+     */
+    public Result accept(char c, long nowNanos) {
+        boolean fast = interCharNanos == 0 || nowNanos - lastCharNanos <= interCharNanos;
+        lastCharNanos = nowNanos;
+        lastCharFast = fast;
+
+        if (!fast && state != State.IDLE) {
+            // A partial code went stale: a typist, or a read that lost its terminator
+            clear();
+        }
+
+        if (c == '\n' || c == '\r') {
+            return finish(nowNanos);
+        }
+
+        if (!Character.isLetterOrDigit(c)) {
+            return Result.IGNORED;
+        }
+
+        if (state == State.OVERFLOW) {
+            return Result.DISCARDED;
+        }
+        if (length == MAX_CODE_LENGTH) {
+            state = State.OVERFLOW;
+            length = 0;
+            return Result.DISCARDED;
+        }
+
+        buffer[length++] = c;
+        state = State.READING;
+        return Result.BUFFERED;
+    }
+
+    /**
+     * Feeds raw ASCII bytes that arrived together, e.g. one read() from a stream.
+     */
+    public void accept(byte[] bytes, int offset, int count, long nowNanos) {
+        for (int i = offset; i < offset + count; i++) {
+            accept((char) (bytes[i] & 0xFF), nowNanos);
+        }
+    }
+
+    private Result finish(long nowNanos) {
+        if (state == State.OVERFLOW) {
+            clear();
+            return Result.DISCARDED;
+        }
+        if (length == 0) {
+            return Result.IGNORED;
+        }
+
+        if (length == lastCodeLength
+                && nowNanos - lastEmitNanos < duplicateWindowNanos
+                && Arrays.equals(buffer, 0, length, lastCode, 0, length)) {
+            // Held trigger or presentation re-read: keep suppressing while the repeats continue
+            lastEmitNanos = nowNanos;
+            clear();
+            listener.duplicateSuppressed(deviceId);
+            return Result.SUPPRESSED;
+        }
+
+        System.arraycopy(buffer, 0, lastCode, 0, length);
+        lastCodeLength = length;
+        lastEmitNanos = nowNanos;
+        String code = new String(buffer, 0, length);
+        clear();
+        listener.scanned(deviceId, code, nowNanos);
+        return Result.EMITTED;
+    }
+
+    /**
+     * Drops the code being read.
+     */
+    public void clear() {
+        length = 0;
+        state = State.IDLE;
+    }
+
+    /**
+     * Whether the last character followed the one before it at scanner speed.
+     */
+    public boolean isLastCharFast() {
+        return lastCharFast;
+    }
+
+    public String getDeviceId() {
+        return deviceId;
+    }
+
+    /**
+     * Gets the code read so far (for debugging).
+     */
+    public String getBufferContent() {
+        return new String(buffer, 0, length);
+    }
+}
@@ -0,0 +1,26 @@
+package com.am.register.scanner;
+
+import java.io.IOException;
+
+/**
+ * A place barcodes come from: the keyboard wedge, a stream or a socket.
+ * A source may carry several devices, each with its own ScanDecoder.
+ */
+public interface ScanInputSource {
+
+    /**
+     * Gets a short description for the console, e.g. "socket 127.0.0.1:9100".
+     */
+    String getName();
+
+    /**
+     * Starts reading and sending completed codes to the listener.
+     * @throws IOException if the source cannot be opened (e.g. the port is taken)
+     */
+    void start(ScanListener listener) throws IOException;
+
+    /**
+     * Stops reading and releases the source.
+     */
+    void close();
+}
@@ -0,0 +1,22 @@
+package com.am.register.scanner;
+
+/**
+ * Receives complete barcodes from scanner devices.
+ * Each device reports from its own thread, so implementations must be thread-safe.
+ */
+public interface ScanListener {
+
+    /**
+     * Called once per barcode read.
+     * @param deviceId The device that read it, e.g. "keyboard" or "socket:9100#2"
+     * @param code The barcode, letters and digits only
+     * @param receivedNanos System.nanoTime() when the terminator arrived
+     */
+    void scanned(String deviceId, String code, long receivedNanos);
+
+    /**
+     * Called when a device re-reads the code it just sent and the read is dropped.
+     */
+    default void duplicateSuppressed(String deviceId) {
+    }
+}
@@ -0,0 +1,116 @@
+package com.am.register.scanner;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Accepts network scanners and scanner bridges on a local TCP port.
+ * Each connection is its own device with its own decoder and thread, and
+ * sends newline-terminated codes, e.g. {@code printf '012345678905\n' | nc 127.0.0.1 9100}.
+ * Only the loopback interface is bound; a bridge on the same machine relays
+ * scanners that live elsewhere.
+ */
+public class SocketScanSource implements ScanInputSource {
+
+    public static final int DEFAULT_PORT = 9100;
+    private static final int READ_BUFFER_SIZE = 512;
+
+    private final int port;
+    private final long duplicateWindowMillis;
+    private final AtomicInteger connections = new AtomicInteger();
+    private final Set<Socket> open = ConcurrentHashMap.newKeySet();
+    private ServerSocket server;
+    private volatile boolean closed;
+
+    public SocketScanSource(int port) {
+        this(port, ScanDecoder.DEFAULT_DUPLICATE_WINDOW_MILLIS);
+    }
+
+    public SocketScanSource(int port, long duplicateWindowMillis) {
+        this.port = port;
+        this.duplicateWindowMillis = duplicateWindowMillis;
+    }
+
+    @Override
+    public String getName() {
+        return "socket 127.0.0.1:" + getPort();
+    }
+
+    /**
+     * Gets the bound port (useful when constructed with port 0).
+     */
+    public int getPort() {
+        return server != null ? server.getLocalPort() : port;
+    }
+
+    @Override
+    public void start(ScanListener listener) throws IOException {
+        server = new ServerSocket(port, 16, InetAddress.getLoopbackAddress());
+        Thread acceptor = new Thread(() -> accept(listener), "scanner-socket-" + getPort());
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    private void accept(ScanListener listener) {
+        while (!closed) {
+            try {
+                Socket socket = server.accept();
+                String deviceId = "socket:" + getPort() + "#" + connections.incrementAndGet();
+                open.add(socket);
+                Thread reader = new Thread(() -> read(socket, deviceId, listener), "scanner-" + deviceId);
+                reader.setDaemon(true);
+                reader.start();
+            } catch (IOException e) {
+                if (!closed) {
+                    System.err.println("✗ Scanner socket " + getPort() + " stopped accepting: " + e.getMessage());
+                }
+                return;
+            }
+        }
+    }
+
+    private void read(Socket socket, String deviceId, ScanListener listener) {
+        ScanDecoder decoder = new ScanDecoder(deviceId, 0, duplicateWindowMillis, listener);
+        byte[] buffer = new byte[READ_BUFFER_SIZE];
+        System.out.println("✓ Scanner " + deviceId + " connected from " + socket.getRemoteSocketAddress());
+
+        try (socket; InputStream in = socket.getInputStream()) {
+            int count;
+            while ((count = in.read(buffer)) != -1) {
+                decoder.accept(buffer, 0, count, System.nanoTime());
+            }
+        } catch (IOException e) {
+            if (!closed) {
+                System.err.println("✗ Scanner " + deviceId + " failed: " + e.getMessage());
+            }
+        } finally {
+            open.remove(socket);
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        closeQuietly(server);
+        for (Socket socket : open) {
+            closeQuietly(socket);
+        }
+    }
+
+    private static void closeQuietly(java.io.Closeable closeable) {
+        if (closeable == null) {
+            return;
+        }
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            // Closing anyway
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.am.register.scanner;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Reads newline-terminated codes from a byte stream on its own thread.
+ * Covers stdin (piped scans, scripted testing) and serial scanners exposed as
+ * a device node or named pipe, e.g. /dev/ttyACM0 with the port already
+ * configured. The stream is one device. Reads go into a reused buffer.
+ */
+public class StreamScanSource implements ScanInputSource {
+
+    private static final int READ_BUFFER_SIZE = 512;
+
+    /**
+     * Opens the stream on the reader thread, since opening a pipe or device can block.
+     */
+    public interface Opener {
+        InputStream open() throws IOException;
+    }
+
+    private final String deviceId;
+    private final Opener opener;
+    private final long duplicateWindowMillis;
+    private volatile InputStream in;
+    private volatile boolean closed;
+    private Thread reader;
+
+    public StreamScanSource(String deviceId, Opener opener) {
+        this(deviceId, opener, ScanDecoder.DEFAULT_DUPLICATE_WINDOW_MILLIS);
+    }
+
+    public StreamScanSource(String deviceId, Opener opener, long duplicateWindowMillis) {
+        this.deviceId = deviceId;
+        this.opener = opener;
+        this.duplicateWindowMillis = duplicateWindowMillis;
+    }
+
+    /**
+     * Codes typed or piped into the process.
+     */
+    public static StreamScanSource stdin() {
+        return new StreamScanSource("stdin", () -> System.in);
+    }
+
+    /**
+     * A serial scanner's device node, or a named pipe fed by another program.
+     */
+    public static StreamScanSource device(Path path) {
+        return new StreamScanSource(path.toString(), () -> Files.newInputStream(path));
+    }
+
+    @Override
+    public String getName() {
+        return "stream " + deviceId;
+    }
+
+    @Override
+    public void start(ScanListener listener) {
+        // Codes are always terminated, so no inter-character timeout
+        ScanDecoder decoder = new ScanDecoder(deviceId, 0, duplicateWindowMillis, listener);
+        reader = new Thread(() -> read(decoder), "scanner-" + deviceId);
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    private void read(ScanDecoder decoder) {
+        byte[] buffer = new byte[READ_BUFFER_SIZE];
+        try (InputStream stream = opener.open()) {
+            in = stream;
+            int count;
+            while (!closed && (count = stream.read(buffer)) != -1) {
+                decoder.accept(buffer, 0, count, System.nanoTime());
+            }
+            if (!closed) {
+                System.out.println("✓ Scanner " + deviceId + " reached end of input");
+            }
+        } catch (IOException e) {
+            if (!closed) {
+                System.err.println("✗ Scanner " + deviceId + " failed: " + e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        InputStream stream = in;
+        if (stream != null && stream != System.in) {
+            try {
+                stream.close();  // Unblocks the reader
+            } catch (IOException e) {
+                // Closing anyway
+            }
+        }
+        if (reader != null) {
+            reader.interrupt();
+        }
+    }
+}
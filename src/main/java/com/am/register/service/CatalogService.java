@@ -0,0 +1,121 @@
+package com.am.register.service;
+
+import com.am.register.database.DatabaseManager;
+import com.am.register.model.Item;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Thread-safe item catalog shared by every lane.
+ * Lookups are served from a concurrent cache, so repeat scans on busy lanes
+ * never wait on each other; misses go to the database one at a time, and a
+ * burst of scans sends all of its misses in one query.
+ */
+public class CatalogService {
+
+    private final DatabaseManager database;
+    private final ConcurrentMap<String, Item> cache = new ConcurrentHashMap<>();
+
+    /**
+     * @param database Connection owned by the shared services (not a lane's)
+     */
+    public CatalogService(DatabaseManager database) {
+        if (database == null) {
+            throw new IllegalArgumentException("DatabaseManager cannot be null");
+        }
+        this.database = database;
+    }
+
+    /**
+     * Looks up an item by UPC.
+     * @return The item, or null if the UPC is not in the catalog
+     */
+    public Item getItem(String upc) {
+        Item cached = cache.get(upc);
+        if (cached != null) {
+            return cached;
+        }
+
+        Item item;
+        synchronized (database) {
+            item = database.getItemByUPC(upc);
+        }
+
+        if (item != null) {
+            cache.putIfAbsent(upc, item);
+        }
+        return item;
+    }
+
+    /**
+     * Looks up a burst of UPCs. Cached items are served without locking and
+     * all misses go to the database together in a single query.
+     * @return Found items keyed by UPC; UPCs not in the catalog are absent
+     */
+    public Map<String, Item> getItems(Collection<String> upcs) {
+        Map<String, Item> found = new HashMap<>();
+        Set<String> misses = new LinkedHashSet<>();
+
+        for (String upc : upcs) {
+            Item cached = cache.get(upc);
+            if (cached != null) {
+                found.put(upc, cached);
+            } else {
+                misses.add(upc);
+            }
+        }
+
+        if (misses.isEmpty()) {
+            return found;
+        }
+
+        Map<String, Item> loaded;
+        synchronized (database) {
+            loaded = misses.size() == 1
+                    ? singleItem(database.getItemByUPC(misses.iterator().next()))
+                    : database.getItemsByUPC(misses);
+        }
+
+        for (Item item : loaded.values()) {
+            cache.putIfAbsent(item.getUpc(), item);
+            found.put(item.getUpc(), item);
+        }
+        return found;
+    }
+
+    private static Map<String, Item> singleItem(Item item) {
+        return item != null ? Map.of(item.getUpc(), item) : Map.of();
+    }
+
+    public List<Item> getAllItems() {
+        synchronized (database) {
+            return database.getAllItems();
+        }
+    }
+
+    public List<Item> getPopularItems() {
+        synchronized (database) {
+            return database.getPopularItems();
+        }
+    }
+
+    public int getItemCount() {
+        synchronized (database) {
+            return database.getItemCount();
+        }
+    }
+
+    /**
+     * Drops cached items. Call after the price book is reloaded.
+     */
+    public void invalidate() {
+        cache.clear();
+    }
+}
@@ -0,0 +1,310 @@
+package com.am.register.service;
+
+import com.am.register.model.Receipt;
+import com.am.register.util.ReceiptArchive;
+import com.am.register.util.ReceiptArchive.IndexEntry;
+import com.am.register.util.ReceiptGenerator;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Archives completed receipts and finds them again for reprints and returns.
+ * Every archived receipt is indexed in memory by number, time and amount, so
+ * lookups never scan the receipts directory or query the database. Text for
+ * recent receipts is kept in a small LRU cache; older ones are read from their
+ * segment file with a single positional read.
+ */
+public class ReceiptService {
+
+    private static final int TEXT_CACHE_SIZE = 256;
+    private static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private static final Comparator<IndexEntry> BY_TIME =
+            Comparator.comparingLong(IndexEntry::getEpochSecond)
+                    .thenComparing(IndexEntry::getReceiptNumber);
+    private static final Comparator<IndexEntry> BY_AMOUNT =
+            Comparator.comparingLong(IndexEntry::getTotalCents)
+                    .thenComparing(BY_TIME);
+
+    private final Path directory;
+    private final ReceiptArchive archive;
+
+    // Lookups by number are lock-free; the ordered indexes are guarded by this
+    private final Map<String, IndexEntry> byNumber = new ConcurrentHashMap<>();
+    private final NavigableSet<IndexEntry> byTime = new TreeSet<>(BY_TIME);
+    private final NavigableSet<IndexEntry> byAmount = new TreeSet<>(BY_AMOUNT);
+
+    // Recently archived or viewed receipt text, least recently used evicted first. Guarded by itself.
+    private final Map<String, String> textCache =
+            new LinkedHashMap<String, String>(TEXT_CACHE_SIZE, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                    return size() > TEXT_CACHE_SIZE;
+                }
+            };
+
+    // Archived but not yet on disk; offset is unknown until the writer reports it
+    private final Map<String, String> pendingText = new ConcurrentHashMap<>();
+    private final Map<String, Consumer<String>> lostHandlers = new ConcurrentHashMap<>();
+
+    public ReceiptService() {
+        this(Paths.get(ReceiptArchive.DEFAULT_DIRECTORY));
+    }
+
+    /**
+     * @param directory Where the daily receipt archive files live
+     */
+    public ReceiptService(Path directory) {
+        this.directory = directory;
+        this.archive = new ReceiptArchive(directory, new ReceiptArchive.Listener() {
+            @Override
+            public void written(IndexEntry entry) {
+                onWritten(entry);
+            }
+
+            @Override
+            public void failed(String receiptNumber, IOException cause) {
+                onLost(receiptNumber, cause);
+            }
+        });
+    }
+
+    /**
+     * Indexes every receipt already in the archive directory.
+     * Only the small index files are read; receipt text stays on disk.
+     * @return Number of receipts indexed
+     */
+    public int load() {
+        if (!Files.isDirectory(directory)) {
+            return 0;
+        }
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "receipts_*" + ReceiptArchive.INDEX_SUFFIX)) {
+            for (Path file : files) {
+                LocalDate day = parseDay(file);
+                if (day == null) {
+                    continue;
+                }
+                for (IndexEntry entry : ReceiptArchive.readIndex(directory, day)) {
+                    index(entry);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("✗ Failed to index receipt archive: " + e.getMessage());
+        }
+        return byNumber.size();
+    }
+
+    /**
+     * Archives a completed receipt. It can be looked up immediately,
+     * even before the background writer has put it on disk.
+     * @return false if the archive could not accept it
+     */
+    public boolean archive(Receipt receipt) {
+        return archive(receipt, null);
+    }
+
+    /**
+     * Archives a completed receipt, with a handler for the receipt being lost later
+     * because the writer could not put it on disk.
+     * @param lostHandler Given an explanation, on the archive writer thread; may be null
+     * @return false if the archive could not accept it
+     */
+    public boolean archive(Receipt receipt, Consumer<String> lostHandler) {
+        String number = receipt.getReceiptNumber();
+        String text = ReceiptGenerator.formatReceipt(receipt);
+
+        pendingText.put(number, text);
+        synchronized (textCache) {
+            textCache.put(number, text);
+        }
+        index(new IndexEntry(number, receipt.getTimestamp().toLocalDate(), -1, 0,
+                receipt.getTimestamp().toEpochSecond(ZoneOffset.UTC),
+                Math.round(receipt.getTotal() * 100)));
+
+        if (lostHandler != null) {
+            lostHandlers.put(number, lostHandler);
+        }
+        if (!archive.append(receipt, text)) {
+            forget(number);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Gets a receipt's summary by number.
+     * @return The entry, or null if no such receipt has been archived
+     */
+    public IndexEntry find(String receiptNumber) {
+        return byNumber.get(receiptNumber);
+    }
+
+    /**
+     * Gets the printable text of a receipt.
+     * @return The receipt text, or null if it is unknown or unreadable
+     */
+    public String getText(String receiptNumber) {
+        synchronized (textCache) {
+            String cached = textCache.get(receiptNumber);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        String text = pendingText.get(receiptNumber);
+        IndexEntry entry = byNumber.get(receiptNumber);
+        if (text == null && entry != null && entry.getOffset() >= 0) {
+            try {
+                text = ReceiptArchive.readText(directory, entry);
+            } catch (IOException e) {
+                System.err.println("✗ Failed to read receipt " + receiptNumber + ": " + e.getMessage());
+                return null;
+            }
+        }
+
+        if (text != null) {
+            synchronized (textCache) {
+                textCache.put(receiptNumber, text);
+            }
+        }
+        return text;
+    }
+
+    /**
+     * Finds receipts issued at or after from and before to, newest first.
+     */
+    public synchronized List<IndexEntry> findBetween(LocalDateTime from, LocalDateTime to) {
+        IndexEntry low = probe(from.toEpochSecond(ZoneOffset.UTC), 0);
+        IndexEntry high = probe(to.toEpochSecond(ZoneOffset.UTC), 0);
+        return new ArrayList<>(byTime.subSet(low, true, high, false).descendingSet());
+    }
+
+    /**
+     * Finds receipts issued on a given day, newest first.
+     */
+    public List<IndexEntry> findByDate(LocalDate day) {
+        return findBetween(day.atStartOfDay(), day.plusDays(1).atStartOfDay());
+    }
+
+    /**
+     * Finds receipts whose total is within [min, max], newest first.
+     */
+    public synchronized List<IndexEntry> findByAmount(double min, double max) {
+        IndexEntry low = probe(Long.MIN_VALUE, Math.round(min * 100));
+        IndexEntry high = probe(Long.MAX_VALUE, Math.round(max * 100));
+
+        List<IndexEntry> result = new ArrayList<>(byAmount.subSet(low, true, high, true));
+        result.sort(BY_TIME.reversed());
+        return result;
+    }
+
+    /**
+     * Gets the most recently issued receipts, newest first.
+     */
+    public synchronized List<IndexEntry> getRecent(int limit) {
+        List<IndexEntry> result = new ArrayList<>(Math.min(limit, byTime.size()));
+        for (IndexEntry entry : byTime.descendingSet()) {
+            if (result.size() >= limit) {
+                break;
+            }
+            result.add(entry);
+        }
+        return result;
+    }
+
+    public int size() {
+        return byNumber.size();
+    }
+
+    /**
+     * Writes everything still queued and stops the archive writer.
+     */
+    public void close() {
+        archive.close();
+    }
+
+    /**
+     * Called on the archive writer thread once a receipt is on disk.
+     */
+    private void onWritten(IndexEntry entry) {
+        index(entry);
+        pendingText.remove(entry.getReceiptNumber());
+        lostHandlers.remove(entry.getReceiptNumber());
+    }
+
+    /**
+     * Called on the archive writer thread when a receipt could not be written.
+     */
+    private void onLost(String receiptNumber, IOException cause) {
+        Consumer<String> handler = lostHandlers.get(receiptNumber);
+        forget(receiptNumber);
+        if (handler != null) {
+            handler.accept("Receipt " + receiptNumber + " could not be saved to the archive: " + cause.getMessage());
+        }
+    }
+
+    /**
+     * Drops a receipt that never reached the archive, so lookups do not offer it.
+     */
+    private void forget(String receiptNumber) {
+        pendingText.remove(receiptNumber);
+        lostHandlers.remove(receiptNumber);
+        synchronized (textCache) {
+            textCache.remove(receiptNumber);
+        }
+        synchronized (this) {
+            IndexEntry entry = byNumber.get(receiptNumber);
+            if (entry != null && entry.getOffset() < 0) {
+                byNumber.remove(receiptNumber);
+                byTime.remove(entry);
+                byAmount.remove(entry);
+            }
+        }
+    }
+
+    private synchronized void index(IndexEntry entry) {
+        IndexEntry previous = byNumber.put(entry.getReceiptNumber(), entry);
+        if (previous != null) {
+            byTime.remove(previous);
+            byAmount.remove(previous);
+        }
+        byTime.add(entry);
+        byAmount.add(entry);
+    }
+
+    /**
+     * Builds a search bound that sorts before every real entry with the same keys.
+     */
+    private static IndexEntry probe(long epochSecond, long totalCents) {
+        return new IndexEntry("", null, -1, 0, epochSecond, totalCents);
+    }
+
+    private static LocalDate parseDay(Path indexFile) {
+        String name = indexFile.getFileName().toString();
+        String digits = name.substring("receipts_".length(), name.length() - ReceiptArchive.INDEX_SUFFIX.length());
+        try {
+            return LocalDate.parse(digits, DAY_FORMAT);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.am.register.service;
+
+import com.am.register.database.DatabaseManager;
+import com.am.register.metrics.MetricsReporter;
+import com.am.register.util.ReceiptArchive;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Services shared by every lane running in this JVM.
+ * The services hold their own database connection; each lane persists its
+ * sales through a separate connection from openLaneDatabase(), so lanes
+ * never interleave statements on one JDBC connection.
+ */
+public class RegisterServices {
+
+    private static final int IO_THREADS = 2;
+
+    private final DatabaseManager database;
+    private final CatalogService catalog;
+    private final SuspensionService suspensions;
+    private final ReceiptService receipts;
+    private final MetricsReporter metricsReporter;
+    private final ExecutorService ioExecutor;
+
+    /**
+     * @param database Connected manager dedicated to the shared services
+     * @param maxSuspensions Maximum number of parked baskets across all lanes
+     * @param suspensionTtl How long a parked basket is kept before it expires
+     */
+    public RegisterServices(DatabaseManager database, int maxSuspensions, Duration suspensionTtl) {
+        this(database, maxSuspensions, suspensionTtl, Paths.get(ReceiptArchive.DEFAULT_DIRECTORY));
+    }
+
+    /**
+     * @param database Connected manager dedicated to the shared services
+     * @param maxSuspensions Maximum number of parked baskets across all lanes
+     * @param suspensionTtl How long a parked basket is kept before it expires
+     * @param receiptDirectory Where completed receipts are archived
+     */
+    public RegisterServices(DatabaseManager database, int maxSuspensions, Duration suspensionTtl,
+                            Path receiptDirectory) {
+        if (database == null) {
+            throw new IllegalArgumentException("DatabaseManager cannot be null");
+        }
+        this.database = database;
+        this.catalog = new CatalogService(database);
+        this.suspensions = new SuspensionService(database, maxSuspensions, suspensionTtl);
+        this.receipts = new ReceiptService(receiptDirectory);
+        this.metricsReporter = new MetricsReporter();
+
+        AtomicInteger ioThreads = new AtomicInteger();
+        this.ioExecutor = Executors.newFixedThreadPool(IO_THREADS, r -> {
+            Thread thread = new Thread(r, "register-io-" + ioThreads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        int indexed = receipts.load();
+        if (indexed > 0) {
+            System.out.println("✓ Indexed " + indexed + " archived receipts");
+        }
+    }
+
+    /**
+     * Connects to a database and starts the shared services on it.
+     * @param jdbcUrl Database to use; DatabaseManager.DEFAULT_JDBC_URL for the register's H2 server
+     * @return The services, or null if the connection failed
+     */
+    public static RegisterServices open(String jdbcUrl, int maxSuspensions, Duration suspensionTtl) {
+        return open(jdbcUrl, maxSuspensions, suspensionTtl, Paths.get(ReceiptArchive.DEFAULT_DIRECTORY));
+    }
+
+    /**
+     * Connects to a database and starts the shared services on it, archiving receipts elsewhere.
+     * @return The services, or null if the connection failed
+     */
+    public static RegisterServices open(String jdbcUrl, int maxSuspensions, Duration suspensionTtl,
+                                        Path receiptDirectory) {
+        DatabaseManager database = new DatabaseManager(jdbcUrl);
+        if (!database.connect()) {
+            return null;
+        }
+        return new RegisterServices(database, maxSuspensions, suspensionTtl, receiptDirectory);
+    }
+
+    /**
+     * Opens a dedicated database connection for one lane.
+     * @return A connected manager, or null if the connection failed
+     */
+    public DatabaseManager openLaneDatabase() {
+        DatabaseManager laneDatabase = new DatabaseManager(database.getJdbcUrl());
+        return laneDatabase.connect() ? laneDatabase : null;
+    }
+
+    public CatalogService getCatalog() {
+        return catalog;
+    }
+
+    public SuspensionService getSuspensions() {
+        return suspensions;
+    }
+
+    /**
+     * Gets the receipt archive and lookup shared by all lanes.
+     */
+    public ReceiptService getReceipts() {
+        return receipts;
+    }
+
+    /**
+     * Gets the reporter that publishes each lane's metrics over JMX and to the journal.
+     */
+    public MetricsReporter getMetricsReporter() {
+        return metricsReporter;
+    }
+
+    /**
+     * Gets the executor for database work that belongs to no lane: catalog
+     * pages, popularity recalculation and reports. Anything that changes a
+     * basket goes through the lane's AsyncLane instead, to keep its order.
+     */
+    public ExecutorService getIoExecutor() {
+        return ioExecutor;
+    }
+
+    /**
+     * Writes a final metrics snapshot, flushes the receipt archive and closes
+     * the shared connection. Lanes must be shut down first.
+     */
+    public void shutdown() {
+        ioExecutor.shutdown();
+        try {
+            ioExecutor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        metricsReporter.shutdown();
+        receipts.close();
+        synchronized (database) {
+            database.disconnect();
+        }
+    }
+}
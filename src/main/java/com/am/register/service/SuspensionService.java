@@ -0,0 +1,289 @@
+package com.am.register.service;
+
+import com.am.register.database.DatabaseManager;
+import com.am.register.model.SuspendedTransaction;
+import com.am.register.util.SuspensionStore;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Thread-safe suspension handling shared by every lane in the JVM.
+ * Owns the in-memory suspension index and the recently viewed basket cache,
+ * and performs all claim/release bookkeeping against the database.
+ */
+public class SuspensionService {
+
+    private static final int BASKET_CACHE_SIZE = 4;
+
+    private final DatabaseManager database;
+    private final SuspensionStore store;  // Headers, all lanes
+
+    // Recently viewed baskets, least recently used evicted first. Guarded by itself.
+    private final Map<String, SuspendedTransaction> basketCache =
+            new LinkedHashMap<String, SuspendedTransaction>(BASKET_CACHE_SIZE, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, SuspendedTransaction> eldest) {
+                    return size() > BASKET_CACHE_SIZE;
+                }
+            };
+
+    /**
+     * @param database Connection owned by the shared services (not a lane's)
+     * @param capacity Maximum number of parked baskets
+     * @param ttl How long a parked basket is kept before it expires
+     */
+    public SuspensionService(DatabaseManager database, int capacity, Duration ttl) {
+        if (database == null) {
+            throw new IllegalArgumentException("DatabaseManager cannot be null");
+        }
+        this.database = database;
+        this.store = new SuspensionStore(capacity, ttl);
+    }
+
+    /**
+     * Loads suspension headers from the database.
+     * Basket payloads are fetched on demand by getBasket().
+     * @return Number of suspensions known after loading
+     */
+    public int load() {
+        List<SuspendedTransaction> headers;
+        synchronized (database) {
+            headers = database.getSuspendedTransactionHeaders();
+        }
+        for (SuspendedTransaction header : headers) {
+            store.add(header);
+        }
+        return store.size();
+    }
+
+    /**
+     * Re-reads suspension headers from the database so baskets parked by other
+     * processes show up and ones resumed elsewhere disappear.
+     */
+    public void refresh() {
+        List<SuspendedTransaction> current;
+        synchronized (database) {
+            current = database.getSuspendedTransactionHeaders();
+        }
+
+        Map<String, SuspendedTransaction> byId = new HashMap<>();
+        for (SuspendedTransaction header : current) {
+            byId.put(header.getSuspensionId(), header);
+        }
+
+        for (SuspendedTransaction known : store.newestFirst()) {
+            SuspendedTransaction latest = byId.get(known.getSuspensionId());
+            if (latest == null || latest.getVersion() != known.getVersion()) {
+                forget(known.getSuspensionId());
+            }
+        }
+
+        for (SuspendedTransaction header : current) {
+            store.add(header);  // No-op for headers already present
+        }
+    }
+
+    /**
+     * Allocates the next suspension ID for a date.
+     * @return The ID, or null if no sequence number could be drawn
+     */
+    public String allocateId(LocalDate date) {
+        int sequence;
+        synchronized (database) {
+            sequence = database.getNextSuspensionSequence(date);
+        }
+        return sequence < 0 ? null : SuspendedTransaction.generateSuspensionId(date, sequence);
+    }
+
+    /**
+     * Saves a new suspension, reserving a slot first so capacity holds under concurrency.
+     * @return false if the store is full or the database write failed
+     */
+    public boolean save(SuspendedTransaction suspension) {
+        SuspendedTransaction header = suspension.toHeader();
+        if (!store.tryAdd(header)) {
+            return false;
+        }
+
+        boolean saved;
+        synchronized (database) {
+            saved = database.saveSuspendedTransaction(suspension);
+        }
+
+        if (!saved) {
+            store.remove(suspension.getSuspensionId());
+            return false;
+        }
+
+        // Keep the basket while it is recent
+        synchronized (basketCache) {
+            basketCache.put(suspension.getSuspensionId(), suspension);
+        }
+        return true;
+    }
+
+    public SuspendedTransaction find(String suspensionId) {
+        return store.get(suspensionId);
+    }
+
+    /**
+     * Gets a suspended transaction with its basket loaded.
+     * Recently viewed baskets are served from a small LRU cache.
+     * @return The suspension with items, or null if not found
+     */
+    public SuspendedTransaction getBasket(String suspensionId) {
+        synchronized (basketCache) {
+            SuspendedTransaction cached = basketCache.get(suspensionId);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        SuspendedTransaction header = store.get(suspensionId);
+        if (header == null) {
+            return null;
+        }
+
+        SuspendedTransaction suspension = header.toHeader();
+        boolean loaded;
+        synchronized (database) {
+            loaded = database.loadSuspendedBasket(suspension);
+        }
+        if (!loaded) {
+            return null;
+        }
+
+        synchronized (basketCache) {
+            basketCache.put(suspensionId, suspension);
+        }
+        return suspension;
+    }
+
+    /**
+     * Claims a suspension at the version the caller last saw.
+     * On failure the stale header is dropped and the list refreshed.
+     * @return true if the lane now owns the suspension
+     */
+    public boolean claim(SuspendedTransaction header, String laneId) {
+        boolean claimed;
+        synchronized (database) {
+            claimed = database.claimSuspendedTransaction(header.getSuspensionId(), header.getVersion(), laneId);
+        }
+
+        if (!claimed) {
+            forget(header.getSuspensionId());
+            refresh();
+        }
+        return claimed;
+    }
+
+    /**
+     * Gives up a claim so the suspension can be resumed again from any lane.
+     */
+    public boolean release(String suspensionId, String laneId) {
+        synchronized (database) {
+            return database.releaseSuspendedTransaction(suspensionId, laneId);
+        }
+    }
+
+    /**
+     * Deletes a claimed suspension and drops it from memory.
+     * @return false if the claim was lost before completion
+     */
+    public boolean complete(String suspensionId, String laneId) {
+        boolean completed;
+        synchronized (database) {
+            completed = database.completeSuspendedTransactionClaim(suspensionId, laneId);
+        }
+        forget(suspensionId);
+        return completed;
+    }
+
+    /**
+     * Drops suspensions whose TTL has passed, in memory and in the database.
+     * A suspension is only dropped once its row is deleted at the version last
+     * seen and unclaimed, so expiry never races a lane resuming it. The others
+     * are put back and the list refreshed to pick up their current state.
+     * @return The expired suspensions
+     */
+    public List<SuspendedTransaction> expire(LocalDateTime now) {
+        List<SuspendedTransaction> expired = new ArrayList<>();
+        boolean stale = false;
+
+        for (SuspendedTransaction suspension : store.expire(now)) {
+            boolean deleted;
+            synchronized (database) {
+                deleted = database.expireSuspendedTransaction(suspension.getSuspensionId(), suspension.getVersion());
+            }
+
+            if (deleted) {
+                evictBasket(suspension.getSuspensionId());
+                expired.add(suspension);
+            } else {
+                store.add(suspension);
+                stale = true;
+            }
+        }
+
+        if (stale) {
+            refresh();
+        }
+        return expired;
+    }
+
+    /**
+     * Expires suspensions past their TTL, then sweeps the database for any this
+     * register never loaded (e.g. parked by a lane that has since stopped).
+     * A basket parked late in the day is kept its full TTL across midnight.
+     * @return Number of suspensions removed
+     */
+    public int cleanupExpired(LocalDateTime now) {
+        int removed = expire(now).size();
+        synchronized (database) {
+            removed += database.cleanupExpiredSuspensions(now.minus(getTtl()));
+        }
+        return removed;
+    }
+
+    public List<SuspendedTransaction> list() {
+        return store.newestFirst();
+    }
+
+    public List<SuspendedTransaction> search(String query) {
+        return store.searchNotes(query);
+    }
+
+    public int size() {
+        return store.size();
+    }
+
+    public boolean isFull() {
+        return store.isFull();
+    }
+
+    public int getCapacity() {
+        return store.getCapacity();
+    }
+
+    public Duration getTtl() {
+        return store.getTtl();
+    }
+
+    private void forget(String suspensionId) {
+        store.remove(suspensionId);
+        evictBasket(suspensionId);
+    }
+
+    private void evictBasket(String suspensionId) {
+        synchronized (basketCache) {
+            basketCache.remove(suspensionId);
+        }
+    }
+}
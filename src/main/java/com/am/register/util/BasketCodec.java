@@ -0,0 +1,152 @@
+package com.am.register.util;
+
+import com.am.register.model.TransactionItem;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compact binary codec for suspended baskets.
+ * Stores only what is needed to rebuild a basket: UPC, quantity and the
+ * unit price captured at suspend time. Descriptions and categories are
+ * looked up from the catalog again on resume.
+ *
+ * Format v1: version (byte), lineCount (varint), then per line:
+ *   upcLength (varint), upc (UTF-8), quantity (varint), unitPriceCents (varint)
+ */
+public class BasketCodec {
+
+    public static final int VERSION = 1;
+
+    /**
+     * One decoded basket line.
+     */
+    public static class Line {
+        private final String upc;
+        private final int quantity;
+        private final long unitPriceCents;
+
+        public Line(String upc, int quantity, long unitPriceCents) {
+            this.upc = upc;
+            this.quantity = quantity;
+            this.unitPriceCents = unitPriceCents;
+        }
+
+        public String getUpc() {
+            return upc;
+        }
+
+        public int getQuantity() {
+            return quantity;
+        }
+
+        public double getUnitPrice() {
+            return unitPriceCents / 100.0;
+        }
+    }
+
+    /**
+     * Encodes basket lines to a byte array.
+     */
+    public static byte[] encode(List<TransactionItem> items) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(4 + items.size() * 18);
+        try {
+            write(out, items);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);  // ByteArrayOutputStream never throws
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Decodes a byte array produced by encode().
+     */
+    public static List<Line> decode(byte[] data) {
+        try {
+            return read(new ByteArrayInputStream(data));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Corrupt suspended basket: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Streams basket lines to an output stream.
+     */
+    public static void write(OutputStream out, List<TransactionItem> items) throws IOException {
+        out.write(VERSION);
+        writeVarint(out, items.size());
+
+        for (TransactionItem txItem : items) {
+            byte[] upc = txItem.getUpc().getBytes(StandardCharsets.UTF_8);
+            writeVarint(out, upc.length);
+            out.write(upc);
+            writeVarint(out, txItem.getQuantity());
+            writeVarint(out, Math.round(txItem.getUnitPrice() * 100));
+        }
+    }
+
+    /**
+     * Streams basket lines from an input stream.
+     */
+    public static List<Line> read(InputStream in) throws IOException {
+        int version = in.read();
+        if (version != VERSION) {
+            throw new IOException("Unsupported basket encoding version: " + version);
+        }
+
+        int lineCount = (int) readVarint(in);
+        List<Line> lines = new ArrayList<>(lineCount);
+
+        for (int i = 0; i < lineCount; i++) {
+            byte[] upc = new byte[(int) readVarint(in)];
+            int offset = 0;
+            while (offset < upc.length) {
+                int n = in.read(upc, offset, upc.length - offset);
+                if (n < 0) {
+                    throw new EOFException("Truncated UPC");
+                }
+                offset += n;
+            }
+
+            int quantity = (int) readVarint(in);
+            long priceCents = readVarint(in);
+            lines.add(new Line(new String(upc, StandardCharsets.UTF_8), quantity, priceCents));
+        }
+
+        return lines;
+    }
+
+    private static void writeVarint(OutputStream out, long value) throws IOException {
+        if (value < 0) {
+            throw new IllegalArgumentException("Negative value in basket: " + value);
+        }
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarint(InputStream in) throws IOException {
+        long result = 0;
+        int shift = 0;
+        int b;
+        do {
+            b = in.read();
+            if (b < 0) {
+                throw new EOFException("Truncated varint");
+            }
+            result |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return result;
+    }
+}
@@ -1,171 +1,440 @@
 package com.am.register.util;
 
+import com.am.register.journal.EventJournal;
+import com.am.register.journal.JournalEvent;
+import com.am.register.journal.JournalLevel;
+import com.am.register.journal.JournalSink;
+import com.am.register.journal.JsonLinesSink;
 import com.am.register.model.Item;
 import com.am.register.model.InputSource;
 import com.am.register.model.TaxBreakdown;
 
+import java.nio.file.Paths;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
- * Console-based journal for logging register events.
+ * Journal for logging register events.
+ * Each call captures raw values into a structured event and returns at once;
+ * the shared EventJournal writes it on its own thread to JSON lines files
+ * under journal/ and, optionally, to the console in the familiar layout.
  */
 public class ConsoleJournal {
 
-    private static final DateTimeFormatter TIMESTAMP_FORMAT =
-            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    public static final String JOURNAL_DIRECTORY = "journal";
+
+    // Event types
+    public static final String ITEM_SCANNED = "ITEM_SCANNED";
+    public static final String ITEM_NOT_FOUND = "ITEM_NOT_FOUND";
+    public static final String TRANSACTION_SUSPENDED = "TRANSACTION_SUSPENDED";
+    public static final String TRANSACTION_RESUMED = "TRANSACTION_RESUMED";
+    public static final String SUSPENSION_CLEANUP = "SUSPENSION_CLEANUP";
+    public static final String ITEM_VOIDED = "ITEM_VOIDED";
+    public static final String QUANTITY_CHANGED = "QUANTITY_CHANGED";
+    public static final String TRANSACTION_CLEARED = "TRANSACTION_CLEARED";
+    public static final String TAX_CALCULATED = "TAX_CALCULATED";
+    public static final String METRICS = "METRICS";
+    public static final String INFO = "INFO";
+    public static final String ERROR = "ERROR";
+
+    private static final EventJournal JOURNAL = new EventJournal();
+    private static final ConsoleSink CONSOLE = new ConsoleSink();
+
+    static {
+        JOURNAL.addSink(new JsonLinesSink(Paths.get(JOURNAL_DIRECTORY)));
+        JOURNAL.addSink(CONSOLE);
+        Runtime.getRuntime().addShutdownHook(new Thread(JOURNAL::close, "event-journal-shutdown"));
+    }
+
+    /**
+     * Gets the shared journal, e.g. to change its level or sampling.
+     */
+    public static EventJournal getJournal() {
+        return JOURNAL;
+    }
+
+    /**
+     * Turns the human-readable console output on or off. Files are always written.
+     */
+    public static void setConsoleOutput(boolean enabled) {
+        JOURNAL.removeSink(CONSOLE);
+        if (enabled) {
+            JOURNAL.addSink(CONSOLE);
+        }
+    }
+
+    /**
+     * Writes everything queued and closes the journal files.
+     */
+    public static void shutdown() {
+        JOURNAL.close();
+    }
 
     /**
      * Logs when an item is added to transaction.
      */
     public static void logItemScanned(Item item, int quantity, double subtotal, double tax, double total, InputSource source) {
-        printHeader(source.getJournalLabel());
-        System.out.println("  UPC: " + item.getUpc());
-        System.out.println("  Description: " + item.getDescription());
-        System.out.println("  Category: " + item.getCategory());
-        System.out.println("  Price: $" + String.format("%.2f", item.getPrice()));
-        System.out.println("  Quantity: " + quantity);
-        System.out.println("  Line Total: $" + String.format("%.2f", item.getPrice() * quantity));
-        System.out.println("  ---");
-        System.out.println("  Subtotal: $" + String.format("%.2f", subtotal));
-        System.out.println("  Tax: $" + String.format("%.2f", tax));
-        System.out.println("  Total: $" + String.format("%.2f", total));
-        System.out.println();
+        if (!JOURNAL.accepts(JournalLevel.INFO, ITEM_SCANNED)) {
+            return;
+        }
+        JOURNAL.publish(new JournalEvent(JournalLevel.INFO, ITEM_SCANNED,
+                "source", source.getJournalLabel(),
+                "upc", item.getUpc(),
+                "description", item.getDescription(),
+                "category", item.getCategory(),
+                "priceCents", cents(item.getPrice()),
+                "quantity", quantity,
+                "lineTotalCents", cents(item.getPrice() * quantity),
+                "subtotalCents", cents(subtotal),
+                "taxCents", cents(tax),
+                "totalCents", cents(total)));
     }
 
     /**
      * Logs when a scanned UPC is not found in the database.
      */
     public static void logItemNotFound(String upc) {
-        printHeader("ITEM NOT FOUND");
-        System.out.println("  UPC: " + upc);
-        System.out.println("  Action: Item not in price book");
-        System.out.println();
+        if (!JOURNAL.accepts(JournalLevel.WARN, ITEM_NOT_FOUND)) {
+            return;
+        }
+        JOURNAL.publish(new JournalEvent(JournalLevel.WARN, ITEM_NOT_FOUND, "upc", upc));
     }
 
     /**
      * Logs when a transaction is suspended.
      */
     public static void logTransactionSuspended(String suspensionId, int itemCount, double total, String note) {
-        printHeader("TRANSACTION SUSPENDED");
-        System.out.println("  Suspension ID: " + suspensionId);
-        System.out.println("  Items: " + itemCount);
-        System.out.println("  Total: $" + String.format("%.2f", total));
-        if (note != null && !note.trim().isEmpty()) {
-            System.out.println("  Note: " + note);
+        if (!JOURNAL.accepts(JournalLevel.INFO, TRANSACTION_SUSPENDED)) {
+            return;
         }
-        System.out.println();
+        JOURNAL.publish(new JournalEvent(JournalLevel.INFO, TRANSACTION_SUSPENDED,
+                "suspensionId", suspensionId,
+                "items", itemCount,
+                "totalCents", cents(total),
+                "note", note));
     }
 
     /**
      * Logs when a suspended transaction is resumed.
      */
     public static void logTransactionResumed(String suspensionId, int itemCount, double total) {
-        printHeader("TRANSACTION RESUMED");
-        System.out.println("  Suspension ID: " + suspensionId);
-        System.out.println("  Items: " + itemCount);
-        System.out.println("  Total: $" + String.format("%.2f", total));
-        System.out.println();
+        if (!JOURNAL.accepts(JournalLevel.INFO, TRANSACTION_RESUMED)) {
+            return;
+        }
+        JOURNAL.publish(new JournalEvent(JournalLevel.INFO, TRANSACTION_RESUMED,
+                "suspensionId", suspensionId,
+                "items", itemCount,
+                "totalCents", cents(total)));
     }
 
     /**
      * Logs daily cleanup of expired suspensions.
      */
     public static void logSuspensionCleanup(int count) {
-        printHeader("SUSPENSION CLEANUP");
-        if (count > 0) {
-            System.out.println("  Removed " + count + " expired suspensions from previous days");
-        } else {
-            System.out.println("  No expired suspensions to remove");
+        if (!JOURNAL.accepts(JournalLevel.INFO, SUSPENSION_CLEANUP)) {
+            return;
         }
-        System.out.println();
+        JOURNAL.publish(new JournalEvent(JournalLevel.INFO, SUSPENSION_CLEANUP, "removed", count));
     }
 
     /**
      * Logs when an item is voided from the transaction.
      */
     public static void logItemVoided(Item item, int quantity, double lineTotal) {
-        printHeader("ITEM VOIDED");
-        System.out.println("  UPC: " + item.getUpc());
-        System.out.println("  Description: " + item.getDescription());
-        System.out.println("  Quantity Voided: " + quantity);
-        System.out.println("  Amount Removed: $" + String.format("%.2f", lineTotal));
-        System.out.println();
+        if (!JOURNAL.accepts(JournalLevel.INFO, ITEM_VOIDED)) {
+            return;
+        }
+        JOURNAL.publish(new JournalEvent(JournalLevel.INFO, ITEM_VOIDED,
+                "upc", item.getUpc(),
+                "description", item.getDescription(),
+                "quantity", quantity,
+                "amountCents", cents(lineTotal)));
     }
 
     /**
      * Logs when item quantity is changed.
      */
     public static void logQuantityChanged(Item item, int oldQuantity, int newQuantity, double newSubtotal) {
-        printHeader("QUANTITY CHANGED");
-        System.out.println("  UPC: " + item.getUpc());
-        System.out.println("  Description: " + item.getDescription());
-        System.out.println("  Old Quantity: " + oldQuantity);
-        System.out.println("  New Quantity: " + newQuantity);
-        System.out.println("  Change: " + (newQuantity > oldQuantity ? "+" : "") + (newQuantity - oldQuantity));
-        System.out.println("  New Subtotal: $" + String.format("%.2f", newSubtotal));
-        System.out.println();
+        if (!JOURNAL.accepts(JournalLevel.INFO, QUANTITY_CHANGED)) {
+            return;
+        }
+        JOURNAL.publish(new JournalEvent(JournalLevel.INFO, QUANTITY_CHANGED,
+                "upc", item.getUpc(),
+                "description", item.getDescription(),
+                "oldQuantity", oldQuantity,
+                "newQuantity", newQuantity,
+                "subtotalCents", cents(newSubtotal)));
     }
 
     /**
      * Logs when a transaction is cleared.
      */
     public static void logTransactionCleared(int itemCount, double total) {
-        printHeader("TRANSACTION CLEARED");
-        System.out.println("  Items: " + itemCount);
-        System.out.println("  Total: $" + String.format("%.2f", total));
-        System.out.println();
+        if (!JOURNAL.accepts(JournalLevel.INFO, TRANSACTION_CLEARED)) {
+            return;
+        }
+        JOURNAL.publish(new JournalEvent(JournalLevel.INFO, TRANSACTION_CLEARED,
+                "items", itemCount,
+                "totalCents", cents(total)));
     }
 
     /**
      * Logs a general informational message.
      */
     public static void logInfo(String message) {
-        printHeader("INFO");
-        System.out.println("  " + message);
-        System.out.println();
+        if (!JOURNAL.accepts(JournalLevel.INFO, INFO)) {
+            return;
+        }
+        JOURNAL.publish(new JournalEvent(JournalLevel.INFO, INFO, "message", message));
     }
 
     /**
      * Logs an error message.
      */
     public static void logError(String message) {
-        printHeader("ERROR");
-        System.err.println("  " + message);
-        System.out.println();
+        JOURNAL.publish(new JournalEvent(JournalLevel.ERROR, ERROR, "message", message));
     }
 
     /**
-     * Prints a formatted header with timestamp.
+     * Logs tax calculation with category breakdown.
      */
-    private static void printHeader(String eventType) {
-        String timestamp = LocalDateTime.now().format(TIMESTAMP_FORMAT);
-        System.out.println("[" + timestamp + "] " + eventType);
+    public static void logTaxCalculated(double subtotal, TaxBreakdown breakdown, double total) {
+        if (!JOURNAL.accepts(JournalLevel.INFO, TAX_CALCULATED)) {
+            return;
+        }
+
+        List<Map<String, Object>> categories = new ArrayList<>();
+        if (breakdown.hasMultipleTaxRates()) {
+            for (TaxBreakdown.CategoryTax catTax : breakdown.getCategoryTaxes().values()) {
+                Map<String, Object> category = new LinkedHashMap<>();
+                category.put("category", catTax.getCategory());
+                category.put("ratePercent", Math.round(catTax.getTaxRate() * 100));
+                category.put("taxCents", cents(catTax.getTaxAmount()));
+                category.put("subtotalCents", cents(catTax.getSubtotal()));
+                categories.add(category);
+            }
+            categories.sort((a, b) -> String.valueOf(a.get("category")).compareTo(String.valueOf(b.get("category"))));
+        }
+
+        JOURNAL.publish(new JournalEvent(JournalLevel.INFO, TAX_CALCULATED,
+                "subtotalCents", cents(subtotal),
+                "taxCents", cents(breakdown.getTotalTax()),
+                "totalCents", cents(total),
+                "categories", categories));
     }
 
     /**
-     * Logs tax calculation with category breakdown.
+     * Logs a lane's latency and counter snapshot for the last reporting interval.
+     * @param histograms Histogram name to a map of count and percentile fields in microseconds
+     * @param counters Counter name to the increase over the interval
      */
-    public static void logTaxCalculated(double subtotal, TaxBreakdown breakdown, double total) {
-        printHeader("TAX CALCULATED");
-        System.out.println("  Subtotal: $" + String.format("%.2f", subtotal));
+    public static void logMetrics(String laneId, Map<String, Object> histograms, Map<String, Object> counters) {
+        if (!JOURNAL.accepts(JournalLevel.INFO, METRICS)) {
+            return;
+        }
+        JOURNAL.publish(new JournalEvent(JournalLevel.INFO, METRICS,
+                "lane", laneId,
+                "histograms", histograms,
+                "counters", counters));
+    }
 
-        if (breakdown.hasMultipleTaxRates()) {
-            System.out.println("\n  Tax Breakdown:");
-            breakdown.getCategoryTaxes().values().stream()
-                    .sorted((a, b) -> a.getCategory().compareTo(b.getCategory()))
-                    .forEach(catTax -> {
-                        System.out.println(String.format("    %s (%s): $%.2f on $%.2f",
-                                catTax.getCategory(),
-                                catTax.getFormattedRate(),
-                                catTax.getTaxAmount(),
-                                catTax.getSubtotal()));
-                    });
-            System.out.println();
-        }
-
-        System.out.println("  Total Tax: $" + String.format("%.2f", breakdown.getTotalTax()));
-        System.out.println("  Grand Total: $" + String.format("%.2f", total));
-        System.out.println();
-    }
-}
\ No newline at end of file
+    private static long cents(double amount) {
+        return ReceiptRenderer.cents(amount);
+    }
+
+    /**
+     * Renders events to the console in the register's original journal layout.
+     * Each event is printed with a single write.
+     */
+    static class ConsoleSink implements JournalSink {
+
+        private static final DateTimeFormatter TIMESTAMP_FORMAT =
+                DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+        private final ZoneId zone = ZoneId.systemDefault();
+        private final StringBuilder out = new StringBuilder(512);
+
+        @Override
+        public void write(JournalEvent event) {
+            out.setLength(0);
+
+            switch (event.getType()) {
+                case ITEM_SCANNED:
+                    header(event, event.getString("source"));
+                    line("UPC: ", event.getString("upc"));
+                    line("Description: ", event.getString("description"));
+                    line("Category: ", event.getString("category"));
+                    money("Price: ", event, "priceCents");
+                    line("Quantity: ", event.getString("quantity"));
+                    money("Line Total: ", event, "lineTotalCents");
+                    line("---", "");
+                    money("Subtotal: ", event, "subtotalCents");
+                    money("Tax: ", event, "taxCents");
+                    money("Total: ", event, "totalCents");
+                    break;
+
+                case ITEM_NOT_FOUND:
+                    header(event, "ITEM NOT FOUND");
+                    line("UPC: ", event.getString("upc"));
+                    line("Action: ", "Item not in price book");
+                    break;
+
+                case TRANSACTION_SUSPENDED:
+                    header(event, "TRANSACTION SUSPENDED");
+                    line("Suspension ID: ", event.getString("suspensionId"));
+                    line("Items: ", event.getString("items"));
+                    money("Total: ", event, "totalCents");
+                    String note = event.getString("note");
+                    if (note != null && !note.trim().isEmpty()) {
+                        line("Note: ", note);
+                    }
+                    break;
+
+                case TRANSACTION_RESUMED:
+                    header(event, "TRANSACTION RESUMED");
+                    line("Suspension ID: ", event.getString("suspensionId"));
+                    line("Items: ", event.getString("items"));
+                    money("Total: ", event, "totalCents");
+                    break;
+
+                case SUSPENSION_CLEANUP:
+                    header(event, "SUSPENSION CLEANUP");
+                    long removed = event.getLong("removed");
+                    line(removed > 0 ? "Removed " + removed + " suspensions past their TTL"
+                            : "No expired suspensions to remove", "");
+                    break;
+
+                case ITEM_VOIDED:
+                    header(event, "ITEM VOIDED");
+                    line("UPC: ", event.getString("upc"));
+                    line("Description: ", event.getString("description"));
+                    line("Quantity Voided: ", event.getString("quantity"));
+                    money("Amount Removed: ", event, "amountCents");
+                    break;
+
+                case QUANTITY_CHANGED:
+                    header(event, "QUANTITY CHANGED");
+                    long oldQuantity = event.getLong("oldQuantity");
+                    long newQuantity = event.getLong("newQuantity");
+                    line("UPC: ", event.getString("upc"));
+                    line("Description: ", event.getString("description"));
+                    line("Old Quantity: ", String.valueOf(oldQuantity));
+                    line("New Quantity: ", String.valueOf(newQuantity));
+                    line("Change: ", (newQuantity > oldQuantity ? "+" : "") + (newQuantity - oldQuantity));
+                    money("New Subtotal: ", event, "subtotalCents");
+                    break;
+
+                case TRANSACTION_CLEARED:
+                    header(event, "TRANSACTION CLEARED");
+                    line("Items: ", event.getString("items"));
+                    money("Total: ", event, "totalCents");
+                    break;
+
+                case TAX_CALCULATED:
+                    header(event, "TAX CALCULATED");
+                    money("Subtotal: ", event, "subtotalCents");
+                    List<?> categories = (List<?>) event.get("categories");
+                    if (categories != null && !categories.isEmpty()) {
+                        out.append("\n  Tax Breakdown:\n");
+                        for (Object element : categories) {
+                            Map<?, ?> category = (Map<?, ?>) element;
+                            out.append("    ").append(category.get("category"))
+                                    .append(" (").append(category.get("ratePercent")).append("%): ");
+                            appendMoney(((Number) category.get("taxCents")).longValue());
+                            out.append(" on ");
+                            appendMoney(((Number) category.get("subtotalCents")).longValue());
+                            out.append('\n');
+                        }
+                        out.append('\n');
+                    }
+                    money("Total Tax: ", event, "taxCents");
+                    money("Grand Total: ", event, "totalCents");
+                    break;
+
+                case METRICS:
+                    header(event, "METRICS " + event.getString("lane"));
+                    Map<?, ?> histograms = (Map<?, ?>) event.get("histograms");
+                    for (Map.Entry<?, ?> entry : histograms.entrySet()) {
+                        Map<?, ?> summary = (Map<?, ?>) entry.getValue();
+                        out.append("  ").append(entry.getKey())
+                                .append(": n=").append(summary.get("count"))
+                                .append(" p50=").append(summary.get("p50Micros"))
+                                .append(" p90=").append(summary.get("p90Micros"))
+                                .append(" p99=").append(summary.get("p99Micros"))
+                                .append(" max=").append(summary.get("maxMicros"))
+                                .append(" us\n");
+                    }
+                    Map<?, ?> counters = (Map<?, ?>) event.get("counters");
+                    for (Map.Entry<?, ?> entry : counters.entrySet()) {
+                        line(entry.getKey() + ": ", String.valueOf(entry.getValue()));
+                    }
+                    break;
+
+                case ERROR:
+                    // Message goes to stderr, as it always has
+                    header(event, "ERROR");
+                    System.out.print(out);
+                    System.err.println("  " + event.getString("message"));
+                    System.out.println();
+                    return;
+
+                case INFO:
+                    header(event, "INFO");
+                    line("", event.getString("message"));
+                    break;
+
+                default:
+                    header(event, event.getType());
+                    for (int i = 0; i < event.getFieldCount(); i++) {
+                        line(event.getFieldName(i) + ": ", String.valueOf(event.getFieldValue(i)));
+                    }
+            }
+
+            out.append('\n');
+            System.out.print(out);
+        }
+
+        @Override
+        public void flush() {
+            System.out.flush();
+        }
+
+        @Override
+        public void close() {
+            System.out.flush();
+        }
+
+        private void header(JournalEvent event, String label) {
+            LocalDateTime time = LocalDateTime.ofInstant(Instant.ofEpochMilli(event.getEpochMillis()), zone);
+            out.append('[').append(time.format(TIMESTAMP_FORMAT)).append("] ").append(label).append('\n');
+        }
+
+        private void line(String label, String value) {
+            out.append("  ").append(label).append(value).append('\n');
+        }
+
+        private void money(String label, JournalEvent event, String field) {
+            out.append("  ").append(label);
+            appendMoney(event.getLong(field));
+            out.append('\n');
+        }
+
+        private void appendMoney(long cents) {
+            if (cents < 0) {
+                out.append('-');
+                cents = -cents;
+            }
+            out.append('$').append(cents / 100).append('.');
+            if (cents % 100 < 10) {
+                out.append('0');
+            }
+            out.append(cents % 100);
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package com.am.register.util;
 
 import com.am.register.database.DatabaseManager;
+import com.am.register.database.SalesArchiveManager;
+
+import java.time.LocalDate;
 
 /**
  * Manages dynamic popularity calculations based on sales data.
@@ -55,15 +58,26 @@ public class PopularityManager {
      * Prints sales report for debugging.
      */
     public void printSalesReport() {
-        java.util.Map<String, Integer> salesData =
-                databaseManager.getSalesDataForDays(SALES_PERIOD_DAYS);
+        printTopSellers("Last " + SALES_PERIOD_DAYS + " Days",
+                databaseManager.getSalesDataForDays(SALES_PERIOD_DAYS));
+    }
+
+    /**
+     * Prints the best sellers of the last 12 months, including months already
+     * moved to the sales archive.
+     */
+    public void printYearSalesReport(SalesArchiveManager archiveManager) {
+        LocalDate today = LocalDate.now();
+        printTopSellers("Last 12 Months", archiveManager.getSalesDataBetween(today.minusMonths(12), today));
+    }
 
+    private static void printTopSellers(String period, java.util.Map<String, Integer> salesData) {
         if (salesData.isEmpty()) {
             System.out.println("\nNo sales data available\n");
             return;
         }
 
-        System.out.println("\n=== SALES REPORT (Last " + SALES_PERIOD_DAYS + " Days) ===");
+        System.out.println("\n=== SALES REPORT (" + period + ") ===");
         System.out.println();
 
         salesData.entrySet().stream()
@@ -0,0 +1,483 @@
+package com.am.register.util;
+
+import com.am.register.model.Receipt;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Appends receipts to daily segment files on a background thread.
+ *
+ * Each day has two files in the receipts directory:
+ *   receipts_yyyyMMdd.seg - formatted receipt text, one record after another
+ *   receipts_yyyyMMdd.idx - one fixed record per receipt (see writeIndexRecord)
+ *
+ * Callers only format and enqueue; the writer drains whatever has queued up,
+ * appends it sequentially and forces both files to disk once per batch.
+ * The index is written after the text, so an index record never points past
+ * the end of its segment. A listener is told about each receipt once it is on disk.
+ * <p>
+ * Several processes (the register, the lane API server, the load generator)
+ * may archive into the same directory, so each batch is written while holding
+ * an exclusive lock on the day's segment file. A batch that fails is rolled
+ * back, and retried after reopening the files; if it still cannot be written,
+ * the listener is told which receipts were lost.
+ */
+public class ReceiptArchive {
+
+    public static final String DEFAULT_DIRECTORY = "receipts";
+    public static final String SEGMENT_SUFFIX = ".seg";
+    public static final String INDEX_SUFFIX = ".idx";
+
+    private static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final int QUEUE_CAPACITY = 10_000;
+    private static final int MAX_BATCH = 256;
+    private static final int MAX_WRITE_ATTEMPTS = 5;
+    private static final long RETRY_DELAY_MILLIS = 500;  // Multiplied by the attempt number
+
+    // File locks are held per process, so archives in this JVM also take turns on a day's files
+    private static final Map<Path, Object> DAY_LOCKS = new ConcurrentHashMap<>();
+
+    private final Path directory;
+    private final BlockingQueue<Entry> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final Thread writerThread;
+    private final Listener listener;
+    private volatile boolean running = true;
+
+    // Writer thread only
+    private LocalDate currentDay;
+    private FileChannel segment;
+    private FileChannel index;
+    private final ByteArrayOutputStream indexBytes = new ByteArrayOutputStream(1 << 14);
+    private final DataOutputStream indexOut = new DataOutputStream(indexBytes);
+
+    /**
+     * Told about receipts as the writer finishes with them, on the writer thread.
+     */
+    public interface Listener {
+
+        /**
+         * A receipt is on disk.
+         */
+        void written(IndexEntry entry);
+
+        /**
+         * A receipt could not be written after every retry and is not in the archive.
+         */
+        default void failed(String receiptNumber, IOException cause) {
+        }
+    }
+
+    /**
+     * One queued receipt, already formatted on the caller's thread.
+     */
+    private static class Entry {
+        private final String receiptNumber;
+        private final LocalDate day;
+        private final long epochSecond;
+        private final long totalCents;
+        private final byte[] text;
+
+        Entry(Receipt receipt, String text) {
+            this.receiptNumber = receipt.getReceiptNumber();
+            this.day = receipt.getTimestamp().toLocalDate();
+            this.epochSecond = receipt.getTimestamp().toEpochSecond(ZoneOffset.UTC);
+            this.totalCents = Math.round(receipt.getTotal() * 100);
+            this.text = text.getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Location and summary of one archived receipt, as stored in the index file.
+     */
+    public static class IndexEntry {
+        private final String receiptNumber;
+        private final LocalDate day;
+        private final long offset;
+        private final int length;
+        private final long epochSecond;
+        private final long totalCents;
+
+        public IndexEntry(String receiptNumber, LocalDate day, long offset, int length,
+                          long epochSecond, long totalCents) {
+            this.receiptNumber = receiptNumber;
+            this.day = day;
+            this.offset = offset;
+            this.length = length;
+            this.epochSecond = epochSecond;
+            this.totalCents = totalCents;
+        }
+
+        public String getReceiptNumber() {
+            return receiptNumber;
+        }
+
+        public LocalDate getDay() {
+            return day;
+        }
+
+        public long getOffset() {
+            return offset;
+        }
+
+        public int getLength() {
+            return length;
+        }
+
+        public long getEpochSecond() {
+            return epochSecond;
+        }
+
+        public LocalDateTime getTimestamp() {
+            return LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+        }
+
+        public long getTotalCents() {
+            return totalCents;
+        }
+
+        public double getTotal() {
+            return totalCents / 100.0;
+        }
+    }
+
+    public ReceiptArchive() {
+        this(Paths.get(DEFAULT_DIRECTORY), null);
+    }
+
+    /**
+     * @param directory Where the daily segment and index files live
+     * @param listener Told about each receipt once it is on disk or lost; may be null
+     */
+    public ReceiptArchive(Path directory, Listener listener) {
+        this.directory = directory;
+        this.listener = listener;
+        this.writerThread = new Thread(this::writeLoop, "receipt-archive-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    /**
+     * Gets the segment file for a day.
+     */
+    public static Path segmentFile(Path directory, LocalDate day) {
+        return directory.resolve("receipts_" + day.format(DAY_FORMAT) + SEGMENT_SUFFIX);
+    }
+
+    /**
+     * Gets the index file for a day.
+     */
+    public static Path indexFile(Path directory, LocalDate day) {
+        return directory.resolve("receipts_" + day.format(DAY_FORMAT) + INDEX_SUFFIX);
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Reads every complete record from one day's index file.
+     * A record cut short by a crash is ignored.
+     * @return The entries in write order, or an empty list if the day has no archive
+     */
+    public static List<IndexEntry> readIndex(Path directory, LocalDate day) throws IOException {
+        List<IndexEntry> entries = new ArrayList<>();
+        Path file = indexFile(directory, day);
+        if (!Files.exists(file)) {
+            return entries;
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            while (true) {
+                String receiptNumber;
+                try {
+                    receiptNumber = in.readUTF();
+                } catch (EOFException e) {
+                    break;
+                }
+                try {
+                    entries.add(new IndexEntry(receiptNumber, day,
+                            in.readLong(), in.readInt(), in.readLong(), in.readLong()));
+                } catch (EOFException e) {
+                    System.err.println("✗ Truncated receipt index record in " + file + " ignored");
+                    break;
+                }
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Reads one receipt's text from its segment file with a single positional read.
+     */
+    public static String readText(Path directory, IndexEntry entry) throws IOException {
+        try (FileChannel channel = FileChannel.open(segmentFile(directory, entry.getDay()), StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(entry.getLength());
+            long position = entry.getOffset();
+            while (buffer.hasRemaining()) {
+                int n = channel.read(buffer, position);
+                if (n < 0) {
+                    throw new EOFException("Receipt " + entry.getReceiptNumber() + " is past the end of its segment");
+                }
+                position += n;
+            }
+            return new String(buffer.array(), StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Queues a receipt for archiving. Returns immediately.
+     * @return false if the archive is closed or its queue is full
+     */
+    public boolean append(Receipt receipt) {
+        return append(receipt, ReceiptGenerator.formatReceipt(receipt));
+    }
+
+    /**
+     * Queues a receipt whose text the caller has already formatted.
+     * @return false if the archive is closed or its queue is full
+     */
+    public boolean append(Receipt receipt, String text) {
+        if (!running) {
+            System.err.println("✗ Receipt archive is closed; receipt not archived: " + receipt.getReceiptNumber());
+            return false;
+        }
+
+        if (!queue.offer(new Entry(receipt, text))) {
+            System.err.println("✗ Receipt archive queue full; receipt not archived: " + receipt.getReceiptNumber());
+            return false;
+        }
+        return true;
+    }
+
+    private void writeLoop() {
+        List<Entry> batch = new ArrayList<>(MAX_BATCH);
+
+        while (running || !queue.isEmpty()) {
+            try {
+                Entry first = queue.poll(250, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, MAX_BATCH - 1);
+
+                writeWithRetry(batch);
+
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } finally {
+                batch.clear();
+            }
+        }
+
+        closeFiles();
+    }
+
+    /**
+     * Writes a batch, reopening the files and trying again with whatever is not yet on disk.
+     * Receipts that still cannot be written are reported to the listener.
+     */
+    private void writeWithRetry(List<Entry> batch) throws InterruptedException {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                writeBatch(batch);
+                return;
+            } catch (IOException e) {
+                closeFiles();  // Reopened by the next attempt
+                if (attempt == MAX_WRITE_ATTEMPTS) {
+                    System.err.println("✗ Failed to archive " + batch.size() + " receipts after " +
+                            attempt + " attempts: " + e.getMessage());
+                    reportFailed(batch, e);
+                    return;
+                }
+                System.err.println("✗ Failed to archive " + batch.size() + " receipts (attempt " +
+                        attempt + "), retrying: " + e.getMessage());
+                Thread.sleep(RETRY_DELAY_MILLIS * attempt);
+            }
+        }
+    }
+
+    /**
+     * Writes a batch one day's run of receipts at a time, removing each run
+     * from the batch once it is on disk.
+     */
+    private void writeBatch(List<Entry> batch) throws IOException {
+        while (!batch.isEmpty()) {
+            LocalDate day = batch.get(0).day;
+            int end = 1;
+            while (end < batch.size() && batch.get(end).day.equals(day)) {
+                end++;
+            }
+            if (!day.equals(currentDay) || segment == null) {
+                roll(day);
+            }
+
+            List<Entry> run = batch.subList(0, end);
+            List<IndexEntry> written = writeDay(run);
+            run.clear();
+
+            if (listener != null) {
+                for (IndexEntry entry : written) {
+                    try {
+                        listener.written(entry);
+                    } catch (RuntimeException e) {
+                        System.err.println("✗ Receipt archive listener failed: " + e.getMessage());
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Appends receipts for the current day under the day's lock.
+     * Other writers append only under the same lock, so the segment's size is
+     * where this batch's text starts. If anything fails, both files are cut
+     * back to where they were, so a retry leaves no partial records behind.
+     */
+    @SuppressWarnings("try")  // The file lock is only held for the block's duration, never read
+    private List<IndexEntry> writeDay(List<Entry> entries) throws IOException {
+        List<IndexEntry> written = new ArrayList<>(entries.size());
+        synchronized (DAY_LOCKS.computeIfAbsent(segmentFile(directory, currentDay).toAbsolutePath(), p -> new Object())) {
+            try (FileLock lock = segment.lock()) {
+                long segmentStart = segment.size();
+                long indexStart = index.size();
+                try {
+                    indexBytes.reset();
+                    long offset = segmentStart;
+                    for (Entry entry : entries) {
+                        writeFully(segment, ByteBuffer.wrap(entry.text));
+                        writeIndexRecord(entry, offset);
+                        written.add(new IndexEntry(entry.receiptNumber, entry.day, offset, entry.text.length,
+                                entry.epochSecond, entry.totalCents));
+                        offset += entry.text.length;
+                    }
+
+                    // One fsync per file per batch, text before index
+                    segment.force(false);
+                    writeFully(index, ByteBuffer.wrap(indexBytes.toByteArray()));
+                    index.force(false);
+                    return written;
+
+                } catch (IOException e) {
+                    rollBack(segmentStart, indexStart);
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private void rollBack(long segmentStart, long indexStart) {
+        try {
+            segment.truncate(segmentStart);
+            index.truncate(indexStart);
+        } catch (IOException e) {
+            System.err.println("✗ Failed to roll back receipt archive files: " + e.getMessage());
+        }
+    }
+
+    private void reportFailed(List<Entry> batch, IOException cause) {
+        if (listener == null) {
+            return;
+        }
+        for (Entry entry : batch) {
+            try {
+                listener.failed(entry.receiptNumber, cause);
+            } catch (RuntimeException e) {
+                System.err.println("✗ Receipt archive listener failed: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Index record: receipt number (modified UTF-8), segment offset (long),
+     * length (int), local time as epoch second at UTC (long), total in cents (long).
+     */
+    private void writeIndexRecord(Entry entry, long offset) throws IOException {
+        indexOut.writeUTF(entry.receiptNumber);
+        indexOut.writeLong(offset);
+        indexOut.writeInt(entry.text.length);
+        indexOut.writeLong(entry.epochSecond);
+        indexOut.writeLong(entry.totalCents);
+    }
+
+    private void roll(LocalDate day) throws IOException {
+        closeFiles();
+        Files.createDirectories(directory);
+
+        segment = FileChannel.open(segmentFile(directory, day),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        index = FileChannel.open(indexFile(directory, day),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        currentDay = day;
+    }
+
+    private void closeFiles() {
+        try {
+            if (segment != null) {
+                segment.close();
+            }
+            if (index != null) {
+                index.close();
+            }
+        } catch (IOException e) {
+            System.err.println("✗ Failed to close receipt archive files: " + e.getMessage());
+        } finally {
+            segment = null;
+            index = null;
+            currentDay = null;
+        }
+    }
+
+    /**
+     * Stops accepting receipts, writes everything already queued and closes the files.
+     */
+    public void close() {
+        if (!running) {
+            return;
+        }
+        running = false;  // The writer drains the queue, then exits within one poll interval
+
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (writerThread.isAlive()) {
+            System.err.println("✗ Receipt archive writer did not finish; " + queue.size() + " receipts pending");
+        } else {
+            System.out.println("✓ Receipt archive closed");
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.am.register.util;
+
+import com.am.register.database.DatabaseManager;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntToLongFunction;
+
+/**
+ * Issues unique receipt numbers for one lane.
+ * Format: R{store:3}{lane:3}-{yyMMddHHmmss}-{sequence:6+}, e.g. R001002-261018143015-004817.
+ *
+ * The sequence is monotonic per lane and never reused: numbers come from blocks
+ * reserved in the database, so a restart continues after the last reserved block.
+ * Within a block numbers are handed out with a single atomic increment; only the
+ * thread that exhausts a block takes a lock to reserve the next one.
+ */
+public class ReceiptNumberGenerator {
+
+    public static final int DEFAULT_STORE_NUMBER = 1;
+    public static final int DEFAULT_BLOCK_SIZE = 1000;
+
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("yyMMddHHmmss");
+
+    private final String prefix;
+    private final int blockSize;
+    private final IntToLongFunction blockSource;
+    private volatile Block block;
+    private volatile TimeStamp timeStamp = new TimeStamp(-1, "");  // Formatted once per second
+
+    /**
+     * A reserved range of sequence numbers [next, end].
+     */
+    private static class Block {
+        private final AtomicLong next;
+        private final long end;
+
+        Block(long first, long end) {
+            this.next = new AtomicLong(first);
+            this.end = end;
+        }
+    }
+
+    private static class TimeStamp {
+        private final long second;
+        private final String text;
+
+        TimeStamp(long second, String text) {
+            this.second = second;
+            this.text = text;
+        }
+    }
+
+    /**
+     * @param storeNumber Store number (0-999)
+     * @param laneNumber Lane number within the store (0-999)
+     * @param blockSize Numbers reserved per trip to the block source
+     * @param blockSource Reserves blockSize numbers and returns the first, or a negative value on failure
+     */
+    public ReceiptNumberGenerator(int storeNumber, int laneNumber, int blockSize, IntToLongFunction blockSource) {
+        if (storeNumber < 0 || storeNumber > 999 || laneNumber < 0 || laneNumber > 999) {
+            throw new IllegalArgumentException("Store and lane numbers must be between 0 and 999");
+        }
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("Block size must be positive");
+        }
+        this.prefix = String.format("R%03d%03d-", storeNumber, laneNumber);
+        this.blockSize = blockSize;
+        this.blockSource = blockSource;
+    }
+
+    /**
+     * Creates a generator whose sequence is persisted in RECEIPT_SEQUENCES.
+     */
+    public static ReceiptNumberGenerator forDatabase(DatabaseManager database, int storeNumber, int laneNumber) {
+        return new ReceiptNumberGenerator(storeNumber, laneNumber, DEFAULT_BLOCK_SIZE, size -> {
+            synchronized (database) {
+                return database.reserveReceiptSequenceBlock(storeNumber, laneNumber, size);
+            }
+        });
+    }
+
+    /**
+     * Issues the next receipt number.
+     * @throws IllegalStateException if a new block could not be reserved
+     */
+    public String next() {
+        long sequence = nextSequence();
+        String digits = Long.toString(sequence);
+
+        StringBuilder sb = new StringBuilder(prefix.length() + 20 + digits.length());
+        sb.append(prefix).append(currentTime()).append('-');
+        for (int i = digits.length(); i < 6; i++) {
+            sb.append('0');
+        }
+        return sb.append(digits).toString();
+    }
+
+    private String currentTime() {
+        long second = System.currentTimeMillis() / 1000;
+        TimeStamp cached = timeStamp;
+        if (cached.second == second) {
+            return cached.text;
+        }
+
+        String formatted = LocalDateTime.now().format(TIME_FORMAT);
+        timeStamp = new TimeStamp(second, formatted);
+        return formatted;
+    }
+
+    /**
+     * Issues the next sequence number without formatting.
+     */
+    public long nextSequence() {
+        while (true) {
+            Block current = block;
+            if (current != null) {
+                long value = current.next.getAndIncrement();
+                if (value <= current.end) {
+                    return value;
+                }
+            }
+            refill(current);
+        }
+    }
+
+    /**
+     * Reserves a new block unless another thread already replaced the exhausted one.
+     */
+    private synchronized void refill(Block exhausted) {
+        if (block != exhausted) {
+            return;
+        }
+
+        long first = blockSource.applyAsLong(blockSize);
+        if (first < 0) {
+            throw new IllegalStateException("Could not reserve receipt numbers");
+        }
+        block = new Block(first, first + blockSize - 1);
+    }
+}
@@ -0,0 +1,438 @@
+package com.am.register.util;
+
+import com.am.register.model.Payment;
+import com.am.register.model.Receipt;
+import com.am.register.model.TaxBreakdown;
+import com.am.register.model.TransactionItem;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Renders receipts from a layout compiled once at class load.
+ *
+ * The layout is a fixed list of segments: constant lines are laid out (centered,
+ * padded) ahead of time, and dynamic segments write straight into a reusable line
+ * buffer using fixed-point money formatting. Each finished line goes to one of two
+ * reusable outputs: plain text, or an ESC/POS byte stream for thermal printers.
+ *
+ * Not thread-safe: keep one renderer per thread (ReceiptGenerator does this).
+ */
+public class ReceiptRenderer {
+
+    public static final int WIDTH = 50;
+
+    private static final int ITEM_DESCRIPTION_WIDTH = WIDTH - 16;
+    private static final int ITEM_DESCRIPTION_COLUMN = WIDTH - 12;
+
+    // ESC/POS commands
+    private static final byte ESC = 0x1B;
+    private static final byte GS = 0x1D;
+    private static final byte[] ESC_POS_INIT = {ESC, '@'};
+    private static final byte[] ESC_POS_ALIGN_LEFT = {ESC, 'a', 0};
+    private static final byte[] ESC_POS_ALIGN_CENTER = {ESC, 'a', 1};
+    private static final byte[] ESC_POS_BOLD_ON = {ESC, 'E', 1};
+    private static final byte[] ESC_POS_BOLD_OFF = {ESC, 'E', 0};
+    private static final byte[] ESC_POS_FEED_AND_CUT = {ESC, 'd', 4, GS, 'V', 1};
+
+    private static final int STYLE_PLAIN = 0;
+    private static final int STYLE_CENTER = 1;
+    private static final int STYLE_BOLD = 2;
+
+    /**
+     * One step of the layout.
+     */
+    private interface Segment {
+        void render(Receipt receipt, ReceiptRenderer out);
+    }
+
+    private static final Segment RULE = constant("-".repeat(WIDTH), STYLE_PLAIN);
+    private static final Segment BLANK = constant("", STYLE_PLAIN);
+
+    private static final Segment[] LAYOUT = {
+            constant("MOCK REGISTER SYSTEM", STYLE_CENTER | STYLE_BOLD),
+            constant("Thank you for your purchase!", STYLE_CENTER),
+            RULE,
+            (r, out) -> out.begin().text("Receipt #: ").text(r.getReceiptNumber()).end(STYLE_PLAIN),
+            (r, out) -> out.begin().text("Date: ").timestamp(r.getTimestamp()).end(STYLE_PLAIN),
+            RULE,
+            constant("QTY  ITEM                                    TOTAL", STYLE_PLAIN),
+            RULE,
+            ReceiptRenderer::renderItems,
+            (r, out) -> out.amountLine("SUBTOTAL:", cents(r.getSubtotal()), false, STYLE_PLAIN),
+            ReceiptRenderer::renderTaxBreakdown,
+            (r, out) -> out.amountLine("TOTAL TAX:", cents(r.getTax()), false, STYLE_PLAIN),
+            (r, out) -> {
+                if (r.getDiscount() > 0) {
+                    out.amountLine("DISCOUNT:", cents(r.getDiscount()), true, STYLE_PLAIN);
+                }
+            },
+            RULE,
+            (r, out) -> out.amountLine("TOTAL:", cents(r.getTotal()), false, STYLE_BOLD),
+            ReceiptRenderer::renderPayment,
+            RULE,
+            BLANK,
+            (r, out) -> out.begin().text("Items Sold: ").number(r.getTransactionItems().size()).end(STYLE_CENTER),
+            BLANK,
+            constant("Visit us again soon!", STYLE_CENTER),
+            constant("www.mockregister.com", STYLE_CENTER)
+    };
+
+    // Line being built
+    private final char[] line = new char[WIDTH * 4];
+    private int length;
+
+    // Outputs, reused between receipts
+    private final StringBuilder text = new StringBuilder(2048);
+    private byte[] escPos = new byte[2048];
+    private int escPosLength;
+    private boolean escPosMode;
+
+    // Per-receipt tax grouping, reused between receipts
+    private String[] taxCategories = new String[8];
+    private double[] taxSubtotals = new double[8];
+    private int taxCategoryCount;
+
+    /**
+     * Renders a receipt as plain text, one line per receipt line.
+     */
+    public String renderText(Receipt receipt) {
+        text.setLength(0);
+        escPosMode = false;
+        render(receipt);
+        return text.toString();
+    }
+
+    /**
+     * Renders a receipt as an ESC/POS print job: initialise, the receipt body with
+     * centered and bold lines marked up, then feed and partial cut.
+     * Characters outside ASCII are printed as '?'.
+     */
+    public byte[] renderEscPos(Receipt receipt) {
+        escPosLength = 0;
+        escPosMode = true;
+        writeBytes(ESC_POS_INIT);
+        render(receipt);
+        writeBytes(ESC_POS_FEED_AND_CUT);
+        return Arrays.copyOf(escPos, escPosLength);
+    }
+
+    private void render(Receipt receipt) {
+        for (Segment segment : LAYOUT) {
+            segment.render(receipt, this);
+        }
+    }
+
+    // ==================== DYNAMIC SEGMENTS ====================
+
+    private static void renderItems(Receipt receipt, ReceiptRenderer out) {
+        for (TransactionItem txItem : receipt.getTransactionItems()) {
+            // Format: " 2x  Coca-Cola 12oz                          $3.98"
+            out.begin();
+            out.padLeft(txItem.getQuantity(), 2).text("x  ");
+            int descriptionStart = out.length;
+            out.truncated(txItem.getDescription(), ITEM_DESCRIPTION_WIDTH);
+            out.padTo(descriptionStart + ITEM_DESCRIPTION_COLUMN).text(" ");
+            out.moneyRight(cents(txItem.getLineTotal()), false, 6);
+            out.end(STYLE_PLAIN);
+        }
+    }
+
+    /**
+     * Groups line totals by category in one pass and prints per-category tax,
+     * sorted by category, when more than the default rate applies.
+     */
+    private static void renderTaxBreakdown(Receipt receipt, ReceiptRenderer out) {
+        out.taxCategoryCount = 0;
+        boolean nonDefaultRate = false;
+
+        for (TransactionItem txItem : receipt.getTransactionItems()) {
+            String category = txItem.getItem().getCategory();
+            int index = out.taxCategoryIndex(category);
+            out.taxSubtotals[index] += txItem.getLineTotal();
+            nonDefaultRate |= TaxBreakdown.getTaxRateForCategory(category) != TaxBreakdown.TAX_RATE_DEFAULT;
+        }
+
+        if (out.taxCategoryCount <= 1 && !nonDefaultRate) {
+            return;
+        }
+
+        out.sortTaxCategories();
+        BLANK.render(receipt, out);
+        for (int i = 0; i < out.taxCategoryCount; i++) {
+            String category = out.taxCategories[i];
+            double rate = TaxBreakdown.getTaxRateForCategory(category);
+
+            out.begin().text("  ").text(String.valueOf(category)).text(" Tax (").number(Math.round(rate * 100)).text("%):");
+            out.alignRight(cents(out.taxSubtotals[i] * rate), false);
+            out.end(STYLE_PLAIN);
+        }
+        BLANK.render(receipt, out);
+    }
+
+    private static void renderPayment(Receipt receipt, ReceiptRenderer out) {
+        Payment payment = receipt.getPayment();
+
+        BLANK.render(receipt, out);
+        out.begin().text("Payment Method: ").text(payment.getMethod().getDisplayName()).end(STYLE_PLAIN);
+
+        if (payment.isCash()) {
+            out.amountLine("Tendered:", cents(payment.getAmountTendered()), false, STYLE_PLAIN);
+            out.amountLine("Change:", cents(payment.getChangeAmount()), false, STYLE_PLAIN);
+        } else if (payment.isCard()) {
+            out.begin().text("Card Type: ").text(payment.getCardType().getDisplayName()).end(STYLE_PLAIN);
+            out.begin().text("Transaction Approved").end(STYLE_PLAIN);
+        }
+    }
+
+    // ==================== LINE BUILDING ====================
+
+    /**
+     * Compiles a constant line once; rendering it is a plain copy.
+     */
+    private static Segment constant(String content, int style) {
+        char[] chars = content.toCharArray();
+        return (r, out) -> {
+            out.begin();
+            System.arraycopy(chars, 0, out.line, 0, chars.length);
+            out.length = chars.length;
+            out.end(style);
+        };
+    }
+
+    private ReceiptRenderer begin() {
+        length = 0;
+        return this;
+    }
+
+    private ReceiptRenderer text(String value) {
+        int n = Math.min(value.length(), line.length - length);
+        value.getChars(0, n, line, length);
+        length += n;
+        return this;
+    }
+
+    private ReceiptRenderer truncated(String value, int maxLength) {
+        if (value.length() <= maxLength) {
+            return text(value);
+        }
+        value.getChars(0, maxLength - 3, line, length);
+        length += maxLength - 3;
+        return text("...");
+    }
+
+    private ReceiptRenderer padTo(int column) {
+        while (length < column && length < line.length) {
+            line[length++] = ' ';
+        }
+        return this;
+    }
+
+    private ReceiptRenderer number(long value) {
+        if (value < 0) {
+            line[length++] = '-';
+            value = -value;
+        }
+        int start = length;
+        do {
+            line[length++] = (char) ('0' + value % 10);
+            value /= 10;
+        } while (value > 0);
+        reverse(start, length - 1);
+        return this;
+    }
+
+    private ReceiptRenderer padLeft(long value, int width) {
+        int start = length;
+        number(value);
+        int digits = length - start;
+        if (digits < width) {
+            int shift = width - digits;
+            System.arraycopy(line, start, line, start + shift, digits);
+            Arrays.fill(line, start, start + shift, ' ');
+            length += shift;
+        }
+        return this;
+    }
+
+    private ReceiptRenderer twoDigits(int value) {
+        line[length++] = (char) ('0' + value / 10);
+        line[length++] = (char) ('0' + value % 10);
+        return this;
+    }
+
+    /**
+     * Writes yyyy-MM-dd HH:mm:ss without a formatter.
+     */
+    private ReceiptRenderer timestamp(LocalDateTime time) {
+        number(time.getYear()).text("-").twoDigits(time.getMonthValue()).text("-").twoDigits(time.getDayOfMonth());
+        text(" ").twoDigits(time.getHour()).text(":").twoDigits(time.getMinute()).text(":").twoDigits(time.getSecond());
+        return this;
+    }
+
+    /**
+     * Writes a fixed-point amount as $d.cc (or -$d.cc).
+     */
+    private ReceiptRenderer money(long cents, boolean negative) {
+        if (cents < 0) {
+            negative = !negative;
+            cents = -cents;
+        }
+        if (negative) {
+            line[length++] = '-';
+        }
+        line[length++] = '$';
+        number(cents / 100);
+        line[length++] = '.';
+        return twoDigits((int) (cents % 100));
+    }
+
+    /**
+     * Writes an amount right-aligned in a field of at least width characters.
+     */
+    private ReceiptRenderer moneyRight(long cents, boolean negative, int width) {
+        int start = length;
+        money(cents, negative);
+        int written = length - start;
+        if (written < width) {
+            int shift = width - written;
+            System.arraycopy(line, start, line, start + shift, written);
+            Arrays.fill(line, start, start + shift, ' ');
+            length += shift;
+        }
+        return this;
+    }
+
+    /**
+     * Writes an amount flush with the right margin, at least one space after the label.
+     */
+    private ReceiptRenderer alignRight(long cents, boolean negative) {
+        int start = length;
+        money(cents, negative);
+        int written = length - start;
+        int shift = Math.max(1, WIDTH - start - written);
+        System.arraycopy(line, start, line, start + shift, written);
+        Arrays.fill(line, start, start + shift, ' ');
+        length += shift;
+        return this;
+    }
+
+    private void amountLine(String label, long cents, boolean negative, int style) {
+        begin().text(label).alignRight(cents, negative).end(style);
+    }
+
+    private void reverse(int from, int to) {
+        while (from < to) {
+            char c = line[from];
+            line[from++] = line[to];
+            line[to--] = c;
+        }
+    }
+
+    /**
+     * Sends the finished line to the active output.
+     */
+    private void end(int style) {
+        if (escPosMode) {
+            endEscPos(style);
+            return;
+        }
+
+        if ((style & STYLE_CENTER) != 0 && length < WIDTH) {
+            for (int i = (WIDTH - length) / 2; i > 0; i--) {
+                text.append(' ');
+            }
+        }
+        text.append(line, 0, length).append('\n');
+    }
+
+    private void endEscPos(int style) {
+        boolean center = (style & STYLE_CENTER) != 0;
+        boolean bold = (style & STYLE_BOLD) != 0;
+
+        if (center) writeBytes(ESC_POS_ALIGN_CENTER);
+        if (bold) writeBytes(ESC_POS_BOLD_ON);
+
+        ensureEscPosCapacity(length + 1);
+        for (int i = 0; i < length; i++) {
+            char c = line[i];
+            escPos[escPosLength++] = (byte) (c < 0x80 ? c : '?');
+        }
+        escPos[escPosLength++] = '\n';
+
+        if (bold) writeBytes(ESC_POS_BOLD_OFF);
+        if (center) writeBytes(ESC_POS_ALIGN_LEFT);
+    }
+
+    private void writeBytes(byte[] bytes) {
+        ensureEscPosCapacity(bytes.length);
+        System.arraycopy(bytes, 0, escPos, escPosLength, bytes.length);
+        escPosLength += bytes.length;
+    }
+
+    private void ensureEscPosCapacity(int extra) {
+        if (escPosLength + extra > escPos.length) {
+            escPos = Arrays.copyOf(escPos, Math.max(escPos.length * 2, escPosLength + extra));
+        }
+    }
+
+    // ==================== TAX GROUPING ====================
+
+    private int taxCategoryIndex(String category) {
+        for (int i = 0; i < taxCategoryCount; i++) {
+            if (Objects.equals(taxCategories[i], category)) {
+                return i;
+            }
+        }
+
+        if (taxCategoryCount == taxCategories.length) {
+            taxCategories = Arrays.copyOf(taxCategories, taxCategoryCount * 2);
+            taxSubtotals = Arrays.copyOf(taxSubtotals, taxCategoryCount * 2);
+        }
+        taxCategories[taxCategoryCount] = category;
+        taxSubtotals[taxCategoryCount] = 0.0;
+        return taxCategoryCount++;
+    }
+
+    /**
+     * Insertion sort; a receipt has a handful of categories at most.
+     */
+    private void sortTaxCategories() {
+        for (int i = 1; i < taxCategoryCount; i++) {
+            String category = taxCategories[i];
+            double subtotal = taxSubtotals[i];
+            int j = i - 1;
+            while (j >= 0 && compareCategories(taxCategories[j], category) > 0) {
+                taxCategories[j + 1] = taxCategories[j];
+                taxSubtotals[j + 1] = taxSubtotals[j];
+                j--;
+            }
+            taxCategories[j + 1] = category;
+            taxSubtotals[j + 1] = subtotal;
+        }
+    }
+
+    private static int compareCategories(String a, String b) {
+        if (a == null || b == null) {
+            return a == null ? (b == null ? 0 : -1) : 1;
+        }
+        return a.compareTo(b);
+    }
+
+    /**
+     * Converts a currency amount to whole cents, rounding half up the same way
+     * String.format("%.2f") does (on the shortest decimal form of the double).
+     * Only amounts within a hair of a half cent take the BigDecimal path.
+     */
+    static long cents(double amount) {
+        double scaled = amount * 100;
+        double fraction = Math.abs(scaled - (long) scaled);
+        if (Math.abs(fraction - 0.5) < 1e-6) {
+            return BigDecimal.valueOf(amount).setScale(2, RoundingMode.HALF_UP).unscaledValue().longValue();
+        }
+        return Math.round(scaled);
+    }
+}
@@ -0,0 +1,78 @@
+package com.am.register.util;
+
+import com.am.register.database.SalesArchiveManager;
+
+import java.time.LocalDate;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scheduler that archives closed months of sales history.
+ * Runs once at startup and then once per day after midnight.
+ */
+public class SalesArchiveScheduler {
+    private final SalesArchiveManager archiveManager;
+    private final ScheduledExecutorService scheduler;
+    private LocalDate lastRunDate;
+
+    /**
+     * Creates a new archive scheduler
+     * @param archiveManager The archive manager that performs the moves
+     */
+    public SalesArchiveScheduler(SalesArchiveManager archiveManager) {
+        this.archiveManager = archiveManager;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "sales-archiver");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts the archive scheduler.
+     * Checks every hour whether a new day has started.
+     */
+    public void start() {
+        scheduler.scheduleAtFixedRate(() -> {
+            try {
+                checkAndArchive();
+            } catch (Exception e) {
+                System.err.println("Error during sales archival: " + e.getMessage());
+                e.printStackTrace();
+            }
+        }, 0, 1, TimeUnit.HOURS);
+
+        System.out.println("Sales archive scheduler started");
+    }
+
+    /**
+     * Archives once per calendar day
+     */
+    private void checkAndArchive() {
+        LocalDate today = LocalDate.now();
+
+        if (lastRunDate == null || today.isAfter(lastRunDate)) {
+            archiveManager.archiveClosedMonths();
+            lastRunDate = today;
+        }
+    }
+
+    /**
+     * Stops the archive scheduler gracefully
+     */
+    public void stop() {
+        if (scheduler != null && !scheduler.isShutdown()) {
+            scheduler.shutdown();
+            try {
+                if (!scheduler.awaitTermination(5, TimeUnit.SECONDS)) {
+                    scheduler.shutdownNow();
+                }
+                System.out.println("Sales archive scheduler stopped");
+            } catch (InterruptedException e) {
+                scheduler.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
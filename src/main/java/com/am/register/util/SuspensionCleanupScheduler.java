@@ -11,22 +11,20 @@ import java.util.concurrent.TimeUnit;
 
 /**
  * Scheduler that automatically cleans up old suspended transactions.
- * Runs daily at midnight to remove transactions older than 7 days.
+ * Expires suspensions past their TTL every hour, and once a day sweeps the
+ * database for expired ones this register never loaded.
  */
 public class SuspensionCleanupScheduler {
     private final RegisterController controller;
     private final ScheduledExecutorService scheduler;
-    private final int retentionDays;
     private LocalDateTime lastCleanupDate;
 
     /**
      * Creates a new cleanup scheduler
      * @param controller The register controller
-     * @param retentionDays Number of days to keep suspended transactions (default: 7)
      */
-    public SuspensionCleanupScheduler(RegisterController controller, int retentionDays) {
+    public SuspensionCleanupScheduler(RegisterController controller) {
         this.controller = controller;
-        this.retentionDays = retentionDays;
         this.scheduler = Executors.newSingleThreadScheduledExecutor();
         this.lastCleanupDate = LocalDateTime.now().truncatedTo(ChronoUnit.DAYS);
     }
@@ -46,13 +44,17 @@ public class SuspensionCleanupScheduler {
             }
         }, 0, 1, TimeUnit.HOURS); // Check every hour
 
-        System.out.println("Suspension cleanup scheduler started (retention: " + retentionDays + " days)");
+        System.out.println("Suspension cleanup scheduler started (TTL: " +
+                controller.getSuspensionTtl().toHours() + "h)");
     }
 
     /**
      * Checks if we've crossed midnight and performs cleanup if needed
      */
     private void checkAndCleanup() {
+        // TTL expiry only visits suspensions that are due, so run it every check
+        controller.expireSuspensions();
+
         LocalDateTime now = LocalDateTime.now();
         LocalDateTime currentDate = now.truncatedTo(ChronoUnit.DAYS);
 
@@ -67,11 +69,7 @@ public class SuspensionCleanupScheduler {
      * Performs the actual cleanup of old suspended transactions
      */
     private void performCleanup() {
-        LocalDateTime cutoffDate = LocalDateTime.now().minusDays(retentionDays);
-        int removedCount = controller.cleanupOldSuspensions(cutoffDate);
-
-        // Log the cleanup result
-        ConsoleJournal.logSuspensionCleanup(removedCount);
+        controller.performDailyCleanup();
     }
 
     /**
@@ -0,0 +1,260 @@
+package com.am.register.util;
+
+import com.am.register.model.SuspendedTransaction;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory index of suspended transaction headers.
+ * Lookups by ID are O(1), listings are kept in suspension-time order, notes are
+ * searchable by word prefix, and TTL expiry runs on a hashed timing wheel so each
+ * sweep only touches the entries that are actually due.
+ * Safe to share between lanes and the cleanup scheduler: lookups by ID and counts
+ * read a concurrent map without locking, while updates that touch several
+ * indexes are serialized.
+ */
+public class SuspensionStore {
+
+    public static final int DEFAULT_CAPACITY = 200;
+    public static final Duration DEFAULT_TTL = Duration.ofHours(24);
+
+    private static final long TICK_MILLIS = 60_000;  // One-minute wheel resolution
+    private static final int WHEEL_SLOTS = 512;
+    private static final Comparator<SuspendedTransaction> BY_TIME =
+            Comparator.comparing(SuspendedTransaction::getSuspendedAt)
+                    .thenComparing(SuspendedTransaction::getSuspensionId);
+
+    private final int capacity;
+    private final Duration ttl;
+
+    private final Map<String, SuspendedTransaction> byId = new ConcurrentHashMap<>();
+    private final NavigableSet<SuspendedTransaction> byTime = new TreeSet<>(BY_TIME);
+    private final TreeMap<String, Set<String>> noteIndex = new TreeMap<>();
+
+    // Timing wheel: slot -> IDs due in that slot (possibly on a later rotation)
+    private final List<Set<String>> wheel = new ArrayList<>(WHEEL_SLOTS);
+    private final Map<String, Long> deadlineTicks = new HashMap<>();
+    private long lastTick;
+
+    public SuspensionStore() {
+        this(DEFAULT_CAPACITY, DEFAULT_TTL);
+    }
+
+    /**
+     * Creates a store.
+     * @param capacity Maximum number of suspensions accepted by isFull()
+     * @param ttl How long a suspension lives before expire() drops it
+     */
+    public SuspensionStore(int capacity, Duration ttl) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be at least 1");
+        }
+        if (ttl == null || ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("TTL must be positive");
+        }
+        this.capacity = capacity;
+        this.ttl = ttl;
+        for (int i = 0; i < WHEEL_SLOTS; i++) {
+            wheel.add(new HashSet<>());
+        }
+        this.lastTick = toTick(LocalDateTime.now());
+    }
+
+    /**
+     * Adds a suspension. Capacity is not enforced here so that rows already in the
+     * database can always be loaded; callers check isFull() before suspending.
+     * @return false if a suspension with the same ID is already present
+     */
+    public synchronized boolean add(SuspendedTransaction suspension) {
+        String id = suspension.getSuspensionId();
+        if (byId.containsKey(id)) {
+            return false;
+        }
+
+        byId.put(id, suspension);
+        byTime.add(suspension);
+        indexNote(id, suspension.getNote());
+
+        // Already overdue entries fire on the next sweep rather than a rotation later
+        long deadline = Math.max(toTick(suspension.getSuspendedAt().plus(ttl)), lastTick + 1);
+        deadlineTicks.put(id, deadline);
+        wheel.get(slot(deadline)).add(id);
+        return true;
+    }
+
+    /**
+     * Adds a suspension only if the store is below capacity.
+     * The check and the insert are atomic, so concurrent lanes cannot overshoot.
+     * @return false if the store is full or the ID is already present
+     */
+    public synchronized boolean tryAdd(SuspendedTransaction suspension) {
+        return !isFull() && add(suspension);
+    }
+
+    /**
+     * Gets a suspension by ID, or null if not present.
+     */
+    public SuspendedTransaction get(String suspensionId) {
+        return byId.get(suspensionId);
+    }
+
+    /**
+     * Removes a suspension by ID.
+     * @return The removed suspension, or null if not present
+     */
+    public synchronized SuspendedTransaction remove(String suspensionId) {
+        SuspendedTransaction suspension = byId.remove(suspensionId);
+        if (suspension == null) {
+            return null;
+        }
+
+        byTime.remove(suspension);
+        unindexNote(suspensionId, suspension.getNote());
+
+        Long deadline = deadlineTicks.remove(suspensionId);
+        if (deadline != null) {
+            wheel.get(slot(deadline)).remove(suspensionId);
+        }
+        return suspension;
+    }
+
+    /**
+     * Gets all suspensions, newest first.
+     */
+    public synchronized List<SuspendedTransaction> newestFirst() {
+        return new ArrayList<>(byTime.descendingSet());
+    }
+
+    /**
+     * Finds suspensions whose note contains words starting with every word of the query.
+     * Matching is case-insensitive. Results are newest first.
+     */
+    public synchronized List<SuspendedTransaction> searchNotes(String query) {
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty()) {
+            return newestFirst();
+        }
+
+        Set<String> matches = null;
+        for (String term : terms) {
+            Set<String> termMatches = new HashSet<>();
+            for (Set<String> ids : noteIndex.subMap(term, true, term + Character.MAX_VALUE, true).values()) {
+                termMatches.addAll(ids);
+            }
+
+            if (matches == null) {
+                matches = termMatches;
+            } else {
+                matches.retainAll(termMatches);
+            }
+            if (matches.isEmpty()) {
+                return new ArrayList<>();
+            }
+        }
+
+        List<SuspendedTransaction> result = new ArrayList<>();
+        for (String id : matches) {
+            result.add(byId.get(id));
+        }
+        result.sort(BY_TIME.reversed());
+        return result;
+    }
+
+    /**
+     * Advances the timing wheel to now and removes every suspension whose TTL has passed.
+     * Only the slots passed since the last call are visited.
+     * @return The expired suspensions
+     */
+    public synchronized List<SuspendedTransaction> expire(LocalDateTime now) {
+        long nowTick = toTick(now);
+        List<String> due = new ArrayList<>();
+
+        if (nowTick > lastTick) {
+            // After a full rotation every slot has been passed; visit each once
+            long first = Math.max(lastTick + 1, nowTick - WHEEL_SLOTS + 1);
+            for (long tick = first; tick <= nowTick; tick++) {
+                for (String id : wheel.get(slot(tick))) {
+                    if (deadlineTicks.get(id) <= nowTick) {
+                        due.add(id);
+                    }
+                }
+            }
+            lastTick = nowTick;
+        }
+
+        List<SuspendedTransaction> expired = new ArrayList<>();
+        for (String id : due) {
+            expired.add(remove(id));
+        }
+        return expired;
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    public boolean isFull() {
+        return byId.size() >= capacity;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    private void indexNote(String id, String note) {
+        for (String token : tokenize(note)) {
+            noteIndex.computeIfAbsent(token, t -> new HashSet<>()).add(id);
+        }
+    }
+
+    private void unindexNote(String id, String note) {
+        for (String token : tokenize(note)) {
+            Set<String> ids = noteIndex.get(token);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    noteIndex.remove(token);
+                }
+            }
+        }
+    }
+
+    private static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static long toTick(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() / TICK_MILLIS;
+    }
+
+    private static int slot(long tick) {
+        return (int) Math.floorMod(tick, (long) WHEEL_SLOTS);
+    }
+}
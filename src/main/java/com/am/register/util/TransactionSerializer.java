@@ -7,20 +7,21 @@ import com.google.gson.reflect.TypeToken;
 
 import java.lang.reflect.Type;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Function;
 
 /**
- * Serializes and deserializes transactions to/from JSON.
- * Used for suspending transactions to database.
+ * Serializes and deserializes suspended transactions.
+ * New suspensions use the compact BasketCodec; JSON is kept for reading
+ * suspensions saved by older versions.
  */
 public class TransactionSerializer {
 
-    private static final Gson gson = new GsonBuilder()
-            .setPrettyPrinting()
-            .create();
+    private static final Gson gson = new GsonBuilder().create();
 
     /**
-     * Serializes a list of TransactionItems to JSON.
+     * Serializes a list of TransactionItems to JSON (legacy format).
      */
     public static String serializeItems(List<TransactionItem> items) {
         return gson.toJson(items);
@@ -50,7 +51,7 @@ public class TransactionSerializer {
         suspension.setTax(transaction.getTaxAmount());
         suspension.setTotal(transaction.getTotal());
         suspension.setItemCount(transaction.getItemCount());
-        suspension.setItemsJson(serializeItems(transaction.getItems()));
+        suspension.setItemsData(BasketCodec.encode(transaction.getItems()));
         suspension.setNote(note);
 
         return suspension;
@@ -58,27 +59,40 @@ public class TransactionSerializer {
 
     /**
      * Restores a Transaction from a SuspendedTransaction.
+     * @param suspension The suspension to restore
+     * @param catalog Looks up the current catalog item for a UPC (may return null)
      */
-    public static Transaction restoreTransaction(SuspendedTransaction suspension) {
-        Transaction transaction = new Transaction();
-
+    public static Transaction restoreTransaction(SuspendedTransaction suspension,
+                                                 Function<String, Item> catalog) {
         // Restore items
-        List<TransactionItem> items = deserializeItems(suspension.getItemsJson());
-
-        // Manually rebuild transaction (can't directly set private list)
-        for (TransactionItem txItem : items) {
-            // Add each item with its quantity
-            for (int i = 0; i < txItem.getQuantity(); i++) {
-                transaction.addItem(txItem.getItem());
-            }
-        }
+        List<TransactionItem> items = suspension.getItemsData() != null
+                ? decodeItems(suspension.getItemsData(), catalog)
+                : deserializeItems(suspension.getItemsJson());
 
-        // Restore state
+        // Build lines directly, keeping quantities and suspended prices
         TransactionState state = TransactionState.valueOf(suspension.getTransactionState());
-        if (state == TransactionState.TENDERING) {
-            transaction.startTendering();
+        return Transaction.restore(items, state);
+    }
+
+    /**
+     * Rebuilds basket lines from the compact encoding.
+     * Descriptions and categories come from the catalog; the price is the one
+     * captured at suspend time.
+     */
+    private static List<TransactionItem> decodeItems(byte[] data, Function<String, Item> catalog) {
+        List<BasketCodec.Line> lines = BasketCodec.decode(data);
+        List<TransactionItem> items = new ArrayList<>(lines.size());
+
+        for (BasketCodec.Line line : lines) {
+            Item current = catalog.apply(line.getUpc());
+            Item item = current != null
+                    ? new Item(line.getUpc(), current.getDescription(), line.getUnitPrice(),
+                            current.getCategory(), current.isPopular())
+                    : new Item(line.getUpc(), "UPC " + line.getUpc(), line.getUnitPrice());
+
+            items.add(new TransactionItem(item, line.getQuantity()));
         }
 
-        return transaction;
+        return items;
     }
-}
\ No newline at end of file
+}
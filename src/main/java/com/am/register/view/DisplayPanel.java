@@ -3,10 +3,11 @@ package com.am.register.view;
 import com.am.register.model.*;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import javax.swing.table.DefaultTableCellRenderer;  // ADD THIS (for cell renderers)
 import java.awt.*;
 import java.awt.event.ActionListener;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Display panel showing the current transaction.
@@ -14,8 +15,10 @@ import java.awt.event.ActionListener;
  */
 public class DisplayPanel extends JPanel {
 
+    private static final Font TAX_ROW_FONT = new Font("SansSerif", Font.ITALIC, 11);
+
     private final JTable itemsTable;
-    private final DefaultTableModel tableModel;
+    private final TransactionTableModel tableModel;
     private final JLabel subtotalLabel;
     private final JButton clearButton;
     private final JButton voidItemButton;
@@ -24,6 +27,16 @@ public class DisplayPanel extends JPanel {
     private final JLabel taxLabel;
     private final JLabel totalLabel;
     private JPanel taxBreakdownPanel;
+    private final List<TaxRow> taxRows = new ArrayList<>();  // Reused across updates
+    private Transaction transaction = new Transaction();  // As last displayed
+
+    /**
+     * Gets the transaction as last displayed.
+     * The window reads this rather than the lane's live basket, which changes on the lane's thread.
+     */
+    public Transaction getTransaction() {
+        return transaction;
+    }
 
     /**
      * Sets listener for transaction state changes.
@@ -37,20 +50,8 @@ public class DisplayPanel extends JPanel {
         setLayout(new BorderLayout(10, 10));
         setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
 
-        // UPDATED: 5 columns instead of 2
-        String[] columnNames = {"#", "Description", "Qty", "Price", "Line Total"};
-        tableModel = new DefaultTableModel(columnNames, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-
-            @Override
-            public Class<?> getColumnClass(int columnIndex) {
-                if (columnIndex == 0 || columnIndex == 2) return Integer.class;
-                return String.class;
-            }
-        };
+        // Updated row by row as the basket changes
+        tableModel = new TransactionTableModel();
 
         // Create table
         itemsTable = new JTable(tableModel);
@@ -212,25 +213,14 @@ public class DisplayPanel extends JPanel {
 
     /**
      * Updates the display with current transaction data.
-     * Called by controller when transaction changes.
+     * Called by controller when transaction changes. Only the table rows
+     * that differ from what is shown are touched.
      * @param transaction The current transaction
      */
     public void updateDisplay(Transaction transaction) {
-        // Clear existing rows
-        tableModel.setRowCount(0);
-
-        // Add items with quantities
-        int rowNum = 1;
-        for (TransactionItem txItem : transaction.getItems()) {
-            Object[] row = {
-                    rowNum++,
-                    txItem.getDescription(),
-                    txItem.getQuantity(),
-                    String.format("$%.2f", txItem.getUnitPrice()),
-                    String.format("$%.2f", txItem.getLineTotal())
-            };
-            tableModel.addRow(row);
-        }
+        this.transaction = transaction;
+
+        int changedRow = tableModel.update(transaction.getItems());
 
         boolean hasItems = transaction.getItemCount() > 0;
         clearButton.setEnabled(hasItems);
@@ -239,72 +229,84 @@ public class DisplayPanel extends JPanel {
             paymentEnabledCallback.accept(hasItems && !transaction.isPaid());
         }
 
-        // Update financial display with tax breakdown
+        // Update financial display with tax breakdown (computed once, as getTotal() would)
+        TaxBreakdown breakdown = transaction.calculateTaxBreakdown();
         double subtotal = transaction.getSubtotal();
-        double tax = transaction.getTaxAmount();
-        double total = transaction.getTotal();
+        double tax = breakdown.getTotalTax();
+        double total = subtotal + tax;
 
         subtotalLabel.setText(String.format("$%.2f", subtotal));
         taxLabel.setText(String.format("$%.2f", tax));
         totalLabel.setText(String.format("$%.2f", total));
 
         // Update tax breakdown
-        updateTaxBreakdown(transaction);
+        updateTaxBreakdown(breakdown);
 
         // Notify state change
         if (stateChangeListener != null) {
             stateChangeListener.accept(transaction.getState());
         }
 
-        // Scroll to bottom
-        if (tableModel.getRowCount() > 0) {
-            itemsTable.scrollRectToVisible(
-                    itemsTable.getCellRect(tableModel.getRowCount() - 1, 0, true)
-            );
+        // Scroll to the line that just changed
+        if (changedRow >= 0) {
+            itemsTable.scrollRectToVisible(itemsTable.getCellRect(changedRow, 0, true));
         }
     }
 
     /**
      * Updates the tax breakdown display.
+     * Rows are kept and relabelled; the panel is only laid out again when the number of rows changes.
      */
-    private void updateTaxBreakdown(Transaction transaction) {
-        this.taxBreakdownPanel.removeAll();
-
-        if (transaction.getItemCount() == 0) {
-            taxBreakdownPanel.revalidate();
-            taxBreakdownPanel.repaint();
-            return;
-        }
-
-        TaxBreakdown breakdown = transaction.calculateTaxBreakdown();
+    private void updateTaxBreakdown(TaxBreakdown breakdown) {
+        List<TaxBreakdown.CategoryTax> shown = new ArrayList<>();
 
         // Only show breakdown if there are special tax rates
         if (breakdown.hasMultipleTaxRates()) {
+            shown.addAll(breakdown.getCategoryTaxes().values());
             // Sort categories for consistent display
-            breakdown.getCategoryTaxes().values().stream()
-                    .sorted((a, b) -> a.getCategory().compareTo(b.getCategory()))
-                    .forEach(catTax -> {
-                        JPanel catRow = new JPanel(new FlowLayout(FlowLayout.RIGHT, 5, 0));
-                        catRow.setBackground(Color.WHITE);
-
-                        JLabel catLabel = new JLabel(String.format("  %s (%s):",
-                                catTax.getCategory(), catTax.getFormattedRate()));
-                        catLabel.setFont(new Font("SansSerif", Font.ITALIC, 11));
-                        catLabel.setForeground(Color.GRAY);
-
-                        JLabel catTaxLabel = new JLabel(String.format("$%.2f", catTax.getTaxAmount()));
-                        catTaxLabel.setFont(new Font("SansSerif", Font.ITALIC, 11));
-                        catTaxLabel.setForeground(Color.GRAY);
-
-                        catRow.add(catLabel);
-                        catRow.add(catTaxLabel);
-
-                        taxBreakdownPanel.add(catRow);
-                    });
+            shown.sort((a, b) -> a.getCategory().compareTo(b.getCategory()));
+        }
+
+        while (taxRows.size() < shown.size()) {
+            taxRows.add(new TaxRow());
+        }
+
+        for (int i = 0; i < shown.size(); i++) {
+            TaxBreakdown.CategoryTax catTax = shown.get(i);
+            TaxRow taxRow = taxRows.get(i);
+            taxRow.categoryLabel.setText(String.format("  %s (%s):", catTax.getCategory(), catTax.getFormattedRate()));
+            taxRow.amountLabel.setText(String.format("$%.2f", catTax.getTaxAmount()));
         }
 
-        taxBreakdownPanel.revalidate();
-        taxBreakdownPanel.repaint();
+        if (taxBreakdownPanel.getComponentCount() != shown.size()) {
+            while (taxBreakdownPanel.getComponentCount() > shown.size()) {
+                taxBreakdownPanel.remove(taxBreakdownPanel.getComponentCount() - 1);
+            }
+            while (taxBreakdownPanel.getComponentCount() < shown.size()) {
+                taxBreakdownPanel.add(taxRows.get(taxBreakdownPanel.getComponentCount()).panel);
+            }
+            taxBreakdownPanel.revalidate();
+            taxBreakdownPanel.repaint();
+        }
+    }
+
+    /**
+     * One category line of the tax breakdown.
+     */
+    private static final class TaxRow {
+        final JPanel panel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 5, 0));
+        final JLabel categoryLabel = new JLabel();
+        final JLabel amountLabel = new JLabel();
+
+        TaxRow() {
+            panel.setBackground(Color.WHITE);
+            categoryLabel.setFont(TAX_ROW_FONT);
+            categoryLabel.setForeground(Color.GRAY);
+            amountLabel.setFont(TAX_ROW_FONT);
+            amountLabel.setForeground(Color.GRAY);
+            panel.add(categoryLabel);
+            panel.add(amountLabel);
+        }
     }
 
     /**
@@ -0,0 +1,102 @@
+package com.am.register.view;
+
+import com.am.register.metrics.LatencyHistogram;
+import com.am.register.metrics.MetricsRegistry;
+import com.am.register.util.ConsoleJournal;
+
+import javax.swing.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Watches the Swing event thread for freezes.
+ * A probe is posted to the event queue at a fixed interval; the time it waits
+ * to run is recorded as ui.eventDelay, and a probe still waiting after the
+ * stall threshold counts as a freeze (ui.stalls) and logs what the event
+ * thread is doing, so work that slipped back onto it is easy to find.
+ */
+public class EventThreadWatchdog {
+
+    public static final long DEFAULT_PROBE_MILLIS = 100;
+    public static final long DEFAULT_STALL_MILLIS = 250;
+    private static final int STACK_FRAMES = 12;
+
+    private final LatencyHistogram delays;
+    private final LongAdder stalls;
+    private final long probeMillis;
+    private final long stallNanos;
+    private final ScheduledExecutorService scheduler;
+    private final AtomicLong postedAt = new AtomicLong();  // nanoTime of the waiting probe, 0 if none
+    private volatile Thread eventThread;
+    private boolean stallReported;  // Probe thread only
+
+    public EventThreadWatchdog(MetricsRegistry metrics) {
+        this(metrics, DEFAULT_PROBE_MILLIS, DEFAULT_STALL_MILLIS);
+    }
+
+    /**
+     * @param metrics Registry of the lane the window belongs to
+     * @param probeMillis How often to probe the event queue
+     * @param stallMillis Wait after which the event thread counts as frozen
+     */
+    public EventThreadWatchdog(MetricsRegistry metrics, long probeMillis, long stallMillis) {
+        this.delays = metrics.histogram(MetricsRegistry.UI_EVENT_DELAY);
+        this.stalls = metrics.counter(MetricsRegistry.UI_STALLS);
+        this.probeMillis = probeMillis;
+        this.stallNanos = TimeUnit.MILLISECONDS.toNanos(stallMillis);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "event-thread-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void start() {
+        scheduler.scheduleWithFixedDelay(this::probe, probeMillis, probeMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    private void probe() {
+        long now = System.nanoTime();
+        long posted = postedAt.get();
+
+        if (posted != 0) {
+            // The last probe has not run yet: the event thread is busy
+            if (!stallReported && now - posted > stallNanos) {
+                stallReported = true;
+                stalls.increment();
+                reportStall(now - posted);
+            }
+            return;
+        }
+
+        stallReported = false;
+        postedAt.set(now);
+        SwingUtilities.invokeLater(() -> {
+            eventThread = Thread.currentThread();
+            delays.recordSince(now);
+            postedAt.set(0);
+        });
+    }
+
+    private void reportStall(long blockedNanos) {
+        StringBuilder message = new StringBuilder(String.format(
+                "Event thread blocked for %d ms", TimeUnit.NANOSECONDS.toMillis(blockedNanos)));
+
+        Thread thread = eventThread;
+        if (thread != null) {
+            StackTraceElement[] stack = thread.getStackTrace();
+            for (int i = 0; i < Math.min(stack.length, STACK_FRAMES); i++) {
+                message.append("\n    at ").append(stack[i]);
+            }
+        }
+
+        ConsoleJournal.logError(message.toString());
+    }
+}
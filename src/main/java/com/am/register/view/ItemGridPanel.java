@@ -1,5 +1,6 @@
 package com.am.register.view;
 
+import com.am.register.controller.AsyncLane;
 import com.am.register.controller.RegisterController;
 import com.am.register.model.Item;
 import com.am.register.model.InputSource;
@@ -7,6 +8,8 @@ import com.am.register.model.InputSource;
 import javax.swing.*;
 import java.awt.*;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 
 /**
  * Panel displaying a 4x4 grid of item buttons for quick selection.
@@ -18,7 +21,7 @@ public class ItemGridPanel extends JPanel {
     private static final int GRID_ROWS = 4;
     private static final int GRID_COLS = 4;
 
-    private final RegisterController controller;
+    private final AsyncLane lane;
     private final JButton[][] gridButtons;
     private final JButton nextButton;
     private final JButton prevButton;
@@ -33,10 +36,10 @@ public class ItemGridPanel extends JPanel {
 
     /**
      * Creates the item grid panel.
-     * @param controller The register controller
+     * @param lane The lane item buttons add to
      */
-    public ItemGridPanel(RegisterController controller) {
-        this.controller = controller;
+    public ItemGridPanel(AsyncLane lane) {
+        this.lane = lane;
         this.gridButtons = new JButton[GRID_ROWS][GRID_COLS];
 
         setLayout(new BorderLayout(5, 5));
@@ -212,23 +215,41 @@ public class ItemGridPanel extends JPanel {
      * Toggles between showing all items and popular items only.
      */
     private void togglePopular() {
+        popularButton.setEnabled(false);  // Until the page arrives
         if (showingPopular) {
             // Switch back to all items
-            List<Item> allItems = controller.getAllItems();
-            loadItems(allItems);
-            popularButton.setText("⭐ Popular");
-            popularButton.setBackground(new Color(255, 215, 0)); // Gold
-            showingPopular = false;
+            fetchItems(RegisterController::getAllItems, () -> {
+                popularButton.setText("⭐ Popular");
+                popularButton.setBackground(new Color(255, 215, 0)); // Gold
+                showingPopular = false;
+            });
         } else {
             // Switch to popular items
-            List<Item> popularItems = controller.getPopularItems();
-            loadItems(popularItems);
-            popularButton.setText("📋 All Items");
-            popularButton.setBackground(new Color(200, 200, 200)); // Gray
-            showingPopular = true;
+            fetchItems(RegisterController::getPopularItems, () -> {
+                popularButton.setText("📋 All Items");
+                popularButton.setBackground(new Color(200, 200, 200)); // Gray
+                showingPopular = true;
+            });
         }
     }
 
+    /**
+     * Reads items on the I/O executor, then shows them and runs onLoaded on the event thread.
+     */
+    private void fetchItems(Function<RegisterController, List<Item>> query, Runnable onLoaded) {
+        RegisterController controller = lane.getController();
+        CompletableFuture.supplyAsync(() -> query.apply(controller), controller.getServices().getIoExecutor())
+                .whenCompleteAsync((items, error) -> {
+                    popularButton.setEnabled(true);
+                    if (error != null) {
+                        System.err.println("✗ Could not load items: " + error.getMessage());
+                        return;
+                    }
+                    loadItems(items);
+                    onLoaded.run();
+                }, SwingLaneView.EVENT_THREAD);
+    }
+
     /**
      * Truncates text to specified length with ellipsis.
      */
@@ -248,7 +269,7 @@ public class ItemGridPanel extends JPanel {
         if (itemIndex < allItems.size()) {
             Item item = allItems.get(itemIndex);
             // Add item to transaction via controller
-            controller.processUPCScan(item.getUpc(), com.am.register.model.InputSource.QUICK_ADD);
+            lane.scan(item.getUpc(), InputSource.QUICK_ADD, System.nanoTime());
         }
     }
 
@@ -1,37 +1,52 @@
 package com.am.register.view;
 
+import com.am.register.analytics.ColumnarSalesExporter;
+import com.am.register.controller.AsyncLane;
 import com.am.register.controller.RegisterController;
 import com.am.register.controller.ScannerInputHandler;
 import com.am.register.database.DatabaseManager;
+import com.am.register.database.SalesArchiveManager;
 import com.am.register.model.*;
 import com.am.register.util.PopularityManager;
 import com.am.register.model.SuspendedTransaction;
 import com.am.register.util.SuspensionCleanupScheduler;
+import com.am.register.util.SalesArchiveScheduler;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.KeyEvent;
 
 /**
  * Main application window - CORRECTED LAYOUT
+ * Nothing here runs database work on the event thread: basket actions go to
+ * the lane's AsyncLane, other queries to the shared I/O executor, and the
+ * window updates when their results arrive. Basket state is read from what
+ * the display last showed, never from the lane's live transaction.
  */
 public class MainFrame extends JFrame {
 
     private final DisplayPanel displayPanel;
     private final ItemGridPanel itemGridPanel;
-    private final RegisterController controller;
+    private final AsyncLane lane;
+    private final RegisterController controller;  // Shared services only; basket actions go through lane
+    private final Executor io;
     private JButton changeQuantityButton;
     private PaymentPanel paymentPanel;
     private JTextField manualUpcField;
     private JButton tenderButton;
-    private PopularityManager popularityManager;
     private JButton suspendButton;
     private SuspensionCleanupScheduler cleanupScheduler;
+    private SalesArchiveScheduler archiveScheduler;
+    private static final int LIVE_SALES_MONTHS = 3;  // Current month + 2 prior stay in live tables
 
-    public MainFrame(ScannerInputHandler scannerHandler, RegisterController controller) {
-        this.controller = controller;
-        this.popularityManager = new PopularityManager(controller.getDatabaseManager());
+    public MainFrame(ScannerInputHandler scannerHandler, AsyncLane lane) {
+        this.lane = lane;
+        this.controller = lane.getController();
+        this.io = controller.getServices().getIoExecutor();
 
         setTitle("Mock Register System");
         setSize(1200, 700);
@@ -41,12 +56,12 @@ public class MainFrame extends JFrame {
         setMinimumSize(new Dimension(1200, 700));
 
         displayPanel = new DisplayPanel();
-        itemGridPanel = new ItemGridPanel(controller);
+        itemGridPanel = new ItemGridPanel(lane);
 
         displayPanel.setClearButtonListener(e -> clearTransaction());
 
         displayPanel.setPaymentEnabledCallback(enabled -> {
-            boolean isShopping = controller.getCurrentTransaction().isShopping();
+            boolean isShopping = displayPanel.getTransaction().isShopping();
             tenderButton.setEnabled(enabled && isShopping);
             suspendButton.setEnabled(enabled && !controller.isSuspensionLimitReached());  // NEW
         });
@@ -59,9 +74,14 @@ public class MainFrame extends JFrame {
 
 
         // Initialize and start cleanup scheduler
-        cleanupScheduler = new SuspensionCleanupScheduler(controller, 0);
+        cleanupScheduler = new SuspensionCleanupScheduler(controller);
         cleanupScheduler.start();
 
+        // Archive closed months of sales history off the live tables
+        archiveScheduler = new SalesArchiveScheduler(
+                new SalesArchiveManager(controller.getDatabaseManager(), LIVE_SALES_MONTHS));
+        archiveScheduler.start();
+
         setupShutdownHook();
     }
 
@@ -107,7 +127,7 @@ public class MainFrame extends JFrame {
         manualUpcField.addActionListener(e -> {
             String upc = manualUpcField.getText().trim();
             if (!upc.isEmpty()) {
-                controller.processUPCScan(upc, InputSource.MANUAL);
+                lane.scan(upc, InputSource.MANUAL, System.nanoTime());
                 manualUpcField.setText("");
                 manualUpcField.requestFocusInWindow();
             }
@@ -164,14 +184,13 @@ public class MainFrame extends JFrame {
 
         // PAYMENT PANEL (bottom)
         paymentPanel = new PaymentPanel();
-        paymentPanel.setCashExactListener(e -> controller.processExactCashPayment());
-        paymentPanel.setCashNextDollarListener(e -> controller.processNextDollarPayment());
+        paymentPanel.setCashExactListener(e -> lane.submit(RegisterController::processExactCashPayment));
+        paymentPanel.setCashNextDollarListener(e -> lane.submit(RegisterController::processNextDollarPayment));
         paymentPanel.setCashCustomListener(e -> showCustomCashDialog());
         paymentPanel.setCardPaymentListener(e -> {
             CardType cardType = CardType.valueOf(e.getActionCommand());
-            controller.processCardPayment(cardType);
+            lane.submit(c -> c.processCardPayment(cardType));
         });
-        controller.setPaymentPanel(paymentPanel);
 
         // Assemble right panel: Controls (top) + Grid (center) + Payment (bottom)
         // Create middle panel for grid + action buttons
@@ -202,36 +221,60 @@ public class MainFrame extends JFrame {
     }
 
     private void loadItemGrid() {
-        SwingUtilities.invokeLater(() -> {
-            java.util.List<com.am.register.model.Item> items = controller.getAllItems();
-            itemGridPanel.loadItems(items);
-        });
+        CompletableFuture.supplyAsync(controller::getAllItems, io)
+                .thenAcceptAsync(itemGridPanel::loadItems, SwingLaneView.EVENT_THREAD);
+    }
+
+    /**
+     * Runs a job on the I/O executor with its own database connection, so it
+     * neither shares the lane's connection nor holds up catalog lookups.
+     * @param done Called on the event thread with true if the job ran
+     */
+    private void runWithOwnConnection(Consumer<DatabaseManager> job, Consumer<Boolean> done) {
+        CompletableFuture.supplyAsync(() -> {
+            DatabaseManager database = controller.getServices().openLaneDatabase();
+            if (database == null) {
+                return false;
+            }
+            try {
+                job.accept(database);
+                return true;
+            } finally {
+                database.disconnect();
+            }
+        }, io).exceptionally(e -> {
+            System.err.println("✗ Background job failed: " + e.getMessage());
+            return false;
+        }).thenAcceptAsync(done, SwingLaneView.EVENT_THREAD);
     }
 
     /**
      * Suspends the current transaction.
+     * @return Completes with the suspension ID, or null if nothing was suspended
      */
-    private void suspendTransaction() {
-        if (controller.getCurrentTransaction().getItemCount() == 0) {
+    private CompletableFuture<String> suspendTransaction() {
+        Transaction transaction = displayPanel.getTransaction();
+        if (transaction.getItemCount() == 0) {
             JOptionPane.showMessageDialog(
                     this,
                     "Cannot suspend an empty transaction",
                     "No Items",
                     JOptionPane.WARNING_MESSAGE
             );
-            return;
+            return CompletableFuture.completedFuture(null);
         }
 
         // Check if limit reached
         if (controller.isSuspensionLimitReached()) {
             JOptionPane.showMessageDialog(
                     this,
-                    "Maximum suspended transactions reached (10).\n\n" +
+                    "Maximum suspended transactions reached (" +
+                            controller.getMaxSuspendedTransactions() + ").\n\n" +
                             "Please resume or delete existing suspensions first.",
                     "Limit Reached",
                     JOptionPane.WARNING_MESSAGE
             );
-            return;
+            return CompletableFuture.completedFuture(null);
         }
 
         // Ask for optional note
@@ -240,41 +283,53 @@ public class MainFrame extends JFrame {
                 "Suspend current transaction?\n\n" +
                         String.format("Items: %d  |  Total: $%.2f\n\n" +
                                         "Optional note (reason for suspension):",
-                                controller.getCurrentTransaction().getItemCount(),
-                                controller.getCurrentTransaction().getTotal()),
+                                transaction.getItemCount(),
+                                transaction.getTotal()),
                 "Suspend Transaction",
                 JOptionPane.QUESTION_MESSAGE
         );
 
         // User cancelled
         if (note == null) {
-            return;
+            return CompletableFuture.completedFuture(null);
         }
 
         // Suspend transaction
-        String suspensionId = controller.suspendCurrentTransaction(note.trim());
-
-        if (suspensionId != null) {
-            JOptionPane.showMessageDialog(
-                    this,
-                    "Transaction suspended successfully!\n\n" +
-                            "Suspension ID: " + suspensionId + "\n" +
-                            "Use 'Resume Transaction' to restore it.",
-                    "Suspended",
-                    JOptionPane.INFORMATION_MESSAGE
-            );
-
-            // Update UI for new empty transaction
-            updateUIForState(TransactionState.SHOPPING);
-        }
+        String trimmedNote = note.trim();
+        return lane.submit(c -> c.suspendCurrentTransaction(trimmedNote))
+                .thenApplyAsync(suspensionId -> {
+                    if (suspensionId != null) {
+                        JOptionPane.showMessageDialog(
+                                this,
+                                "Transaction suspended successfully!\n\n" +
+                                        "Suspension ID: " + suspensionId + "\n" +
+                                        "Use 'Resume Transaction' to restore it.",
+                                "Suspended",
+                                JOptionPane.INFORMATION_MESSAGE
+                        );
+
+                        // Update UI for new empty transaction
+                        updateUIForState(TransactionState.SHOPPING);
+                    }
+                    return suspensionId;
+                }, SwingLaneView.EVENT_THREAD);
     }
 
     /**
      * Shows dialog to resume a suspended transaction.
      */
     private void resumeTransaction() {
-        List<SuspendedTransaction> suspensions = controller.getSuspendedTransactions();
+        // Pick up baskets parked on other lanes
+        CompletableFuture.supplyAsync(() -> {
+            controller.refreshSuspensions();
+            return controller.getSuspendedTransactions();
+        }, io).thenAcceptAsync(this::chooseSuspension, SwingLaneView.EVENT_THREAD);
+    }
 
+    /**
+     * Offers the parked baskets for resuming or deleting.
+     */
+    private void chooseSuspension(List<SuspendedTransaction> suspensions) {
         if (suspensions.isEmpty()) {
             JOptionPane.showMessageDialog(
                     this,
@@ -286,7 +341,7 @@ public class MainFrame extends JFrame {
         }
 
         // Check if current transaction has items
-        if (controller.getCurrentTransaction().getItemCount() > 0) {
+        if (displayPanel.getTransaction().getItemCount() > 0) {
             int result = JOptionPane.showConfirmDialog(
                     this,
                     "Current transaction has items!\n\n" +
@@ -299,58 +354,63 @@ public class MainFrame extends JFrame {
             );
 
             if (result == JOptionPane.YES_OPTION) {
-                suspendTransaction();
                 // After suspending, show resume dialog again
-                resumeTransaction();
+                suspendTransaction().thenAccept(suspensionId -> {
+                    if (suspensionId != null) {
+                        resumeTransaction();
+                    }
+                });
             }
             return;
         }
 
         // Show suspended transactions dialog
-        SuspendedTransactionsDialog dialog = new SuspendedTransactionsDialog(this, suspensions);
+        // Note search reads the in-memory suspension index only, so it is safe on this thread
+        SuspendedTransactionsDialog dialog =
+                new SuspendedTransactionsDialog(this, suspensions, controller::searchSuspensions);
         dialog.setVisible(true);
 
         // Handle result
         if (dialog.isResumed()) {
             String suspensionId = dialog.getSelectedSuspensionId();
-            boolean success = controller.resumeSuspendedTransaction(suspensionId);
-
-            if (success) {
-                JOptionPane.showMessageDialog(
-                        this,
-                        "Transaction resumed successfully!\n\n" +
-                                "Suspension ID: " + suspensionId,
-                        "Resumed",
-                        JOptionPane.INFORMATION_MESSAGE
-                );
+            lane.submit(c -> c.resumeSuspendedTransaction(suspensionId)).thenAcceptAsync(success -> {
+                if (success) {
+                    JOptionPane.showMessageDialog(
+                            this,
+                            "Transaction resumed successfully!\n\n" +
+                                    "Suspension ID: " + suspensionId,
+                            "Resumed",
+                            JOptionPane.INFORMATION_MESSAGE
+                    );
 
-                // Update UI to match restored state
-                updateUIForState(controller.getCurrentTransaction().getState());
-            } else {
-                JOptionPane.showMessageDialog(
-                        this,
-                        "Failed to resume transaction",
-                        "Error",
-                        JOptionPane.ERROR_MESSAGE
-                );
-            }
+                    // Update UI to match restored state
+                    updateUIForState(displayPanel.getTransaction().getState());
+                } else {
+                    JOptionPane.showMessageDialog(
+                            this,
+                            "Failed to resume transaction",
+                            "Error",
+                            JOptionPane.ERROR_MESSAGE
+                    );
+                }
+            }, SwingLaneView.EVENT_THREAD);
         } else if (dialog.isDeleted()) {
             String suspensionId = dialog.getSelectedSuspensionId();
-            boolean success = controller.deleteSuspension(suspensionId);
-
-            if (success) {
-                JOptionPane.showMessageDialog(
-                        this,
-                        "Suspended transaction deleted",
-                        "Deleted",
-                        JOptionPane.INFORMATION_MESSAGE
-                );
+            lane.submit(c -> c.deleteSuspension(suspensionId)).thenAcceptAsync(success -> {
+                if (success) {
+                    JOptionPane.showMessageDialog(
+                            this,
+                            "Suspended transaction deleted",
+                            "Deleted",
+                            JOptionPane.INFORMATION_MESSAGE
+                    );
 
-                // Refresh the dialog if there are more suspensions
-                if (controller.getSuspendedTransactionCount() > 0) {
-                    resumeTransaction();
+                    // Refresh the dialog if there are more suspensions
+                    if (controller.getSuspendedTransactionCount() > 0) {
+                        resumeTransaction();
+                    }
                 }
-            }
+            }, SwingLaneView.EVENT_THREAD);
         }
     }
 
@@ -364,7 +424,7 @@ public class MainFrame extends JFrame {
             return; // No selection
         }
 
-        TransactionItem txItem = controller.getCurrentTransaction().getItem(selectedRow);
+        TransactionItem txItem = displayPanel.getTransaction().getItem(selectedRow);
 
         if (txItem == null) {
             return;
@@ -392,7 +452,7 @@ public class MainFrame extends JFrame {
                     return;
                 }
 
-                controller.changeItemQuantity(selectedRow, newQuantity);
+                lane.changeItemQuantity(txItem.getUpc(), newQuantity);
                 displayPanel.clearSelection();
 
             } catch (NumberFormatException ex) {
@@ -416,7 +476,7 @@ public class MainFrame extends JFrame {
             return;
         }
 
-        TransactionItem txItem = controller.getCurrentTransaction().getItem(selectedRow);
+        TransactionItem txItem = displayPanel.getTransaction().getItem(selectedRow);
 
         if (txItem == null) {
             return;
@@ -432,7 +492,7 @@ public class MainFrame extends JFrame {
         );
 
         if (result == JOptionPane.YES_OPTION) {
-            controller.voidItem(selectedRow);
+            lane.voidItem(txItem.getUpc());
             displayPanel.clearSelection();
         }
     }
@@ -441,7 +501,7 @@ public class MainFrame extends JFrame {
      * Starts the tendering phase.
      */
     private void startTendering() {
-        if (controller.getCurrentTransaction().getItemCount() == 0) {
+        if (displayPanel.getTransaction().getItemCount() == 0) {
             JOptionPane.showMessageDialog(
                     this,
                     "Cannot tender an empty transaction",
@@ -451,11 +511,8 @@ public class MainFrame extends JFrame {
             return;
         }
 
-        // Transition to tendering state
-        controller.startTendering();
-
-        // Update UI state
-        updateUIForState(controller.getCurrentTransaction().getState());
+        // Transition to tendering state; the display update that follows switches the UI over
+        lane.submit(RegisterController::startTendering);
     }
 
     /**
@@ -478,11 +535,13 @@ public class MainFrame extends JFrame {
             manualUpcField.setToolTipText("Type UPC and press Enter");
         }
 
+        Transaction tx = displayPanel.getTransaction();
+
         // Tender button
-        tenderButton.setEnabled(isShopping && controller.getCurrentTransaction().getItemCount() > 0);
+        tenderButton.setEnabled(isShopping && tx.getItemCount() > 0);
 
         // Suspend button (NEW) - enabled when items exist, regardless of state
-        suspendButton.setEnabled(controller.getCurrentTransaction().getItemCount() > 0 &&
+        suspendButton.setEnabled(tx.getItemCount() > 0 &&
                 !controller.isSuspensionLimitReached());
 
         // Change quantity button (only in shopping)
@@ -492,7 +551,6 @@ public class MainFrame extends JFrame {
         if (paymentPanel != null) {
             paymentPanel.setPaymentEnabled(isTendering);
             if (isTendering) {
-                Transaction tx = controller.getCurrentTransaction();
                 paymentPanel.setTotals(tx.getSubtotal(), tx.getTaxAmount(), tx.getTotal());
             }
         }
@@ -518,8 +576,13 @@ public class MainFrame extends JFrame {
         resumeItem.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_F4, 0));  // F4 shortcut
         resumeItem.addActionListener(e -> resumeTransaction());
 
+        JMenuItem findReceiptItem = new JMenuItem("Find Receipt...");
+        findReceiptItem.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_F5, 0));
+        findReceiptItem.addActionListener(e -> findReceipt());
+
         transactionMenu.add(suspendItem);   // NEW
         transactionMenu.add(resumeItem);    // NEW
+        transactionMenu.add(findReceiptItem);
         transactionMenu.addSeparator();
         transactionMenu.add(clearItem);
 
@@ -533,8 +596,16 @@ public class MainFrame extends JFrame {
         JMenuItem salesReportItem = new JMenuItem("View Sales Report");
         salesReportItem.addActionListener(e -> viewSalesReport());
 
+        JMenuItem yearReportItem = new JMenuItem("View 12-Month Sales Report");
+        yearReportItem.addActionListener(e -> viewYearSalesReport());
+
+        JMenuItem exportSalesItem = new JMenuItem("Export Sales History...");
+        exportSalesItem.addActionListener(e -> exportSalesHistory());
+
         toolsMenu.add(refreshPopularItem);
         toolsMenu.add(salesReportItem);
+        toolsMenu.add(yearReportItem);
+        toolsMenu.add(exportSalesItem);
 
         // Help Menu
         JMenu helpMenu = new JMenu("Help");
@@ -556,6 +627,13 @@ public class MainFrame extends JFrame {
         setJMenuBar(menuBar);
     }
 
+    /**
+     * Opens the receipt lookup for reprints and returns.
+     */
+    private void findReceipt() {
+        new ReceiptLookupDialog(this, controller.getServices().getReceipts()).setVisible(true);
+    }
+
     /**
      * Refreshes popular items based on sales data.
      */
@@ -572,8 +650,16 @@ public class MainFrame extends JFrame {
 
         if (result == JOptionPane.YES_OPTION) {
             // Run in background to avoid freezing UI
-            SwingUtilities.invokeLater(() -> {
-                popularityManager.recalculatePopularItems();
+            runWithOwnConnection(database -> new PopularityManager(database).recalculatePopularItems(), ran -> {
+                if (!ran) {
+                    JOptionPane.showMessageDialog(
+                            this,
+                            "Could not refresh popular items.\nCheck console for details.",
+                            "Error",
+                            JOptionPane.ERROR_MESSAGE
+                    );
+                    return;
+                }
 
                 // Reload grid to show updated popular items
                 loadItemGrid();
@@ -602,11 +688,72 @@ public class MainFrame extends JFrame {
                 JOptionPane.INFORMATION_MESSAGE
         );
 
-        popularityManager.printSalesReport();
+        runWithOwnConnection(database -> new PopularityManager(database).printSalesReport(), ran -> { });
+    }
+
+    /**
+     * Shows the last year's best sellers in console, reading archived months as well as live sales.
+     */
+    private void viewYearSalesReport() {
+        JOptionPane.showMessageDialog(
+                this,
+                "12-month sales report printed to console.\n\n" +
+                        "It includes months already moved to the sales archive.",
+                "Sales Report",
+                JOptionPane.INFORMATION_MESSAGE
+        );
+
+        runWithOwnConnection(database -> new PopularityManager(database).printYearSalesReport(
+                new SalesArchiveManager(database, LIVE_SALES_MONTHS)), ran -> { });
+    }
+
+    /**
+     * Exports the last year of sales to a columnar file for offline analysis.
+     */
+    private void exportSalesHistory() {
+        java.time.LocalDate today = java.time.LocalDate.now();
+        java.nio.file.Path file = java.nio.file.Paths.get("exports", "sales_" +
+                today.format(java.time.format.DateTimeFormatter.BASIC_ISO_DATE) + ".posc");
+
+        int result = JOptionPane.showConfirmDialog(
+                this,
+                "Export the last 12 months of sales to\n" + file + "?",
+                "Export Sales History",
+                JOptionPane.YES_NO_OPTION,
+                JOptionPane.QUESTION_MESSAGE
+        );
+
+        if (result != JOptionPane.YES_OPTION) {
+            return;
+        }
+
+        // Export on its own thread and connection so the register stays responsive
+        new Thread(() -> {
+            long rows = -1;
+            try {
+                java.nio.file.Files.createDirectories(file.getParent());
+                ColumnarSalesExporter exporter = new ColumnarSalesExporter(
+                        controller.getDatabaseManager(),
+                        new SalesArchiveManager(controller.getDatabaseManager(), LIVE_SALES_MONTHS));
+                rows = exporter.export(today.minusMonths(12), today, file);
+            } catch (java.io.IOException ex) {
+                System.err.println("✗ Could not create exports directory: " + ex.getMessage());
+            }
+
+            long exported = rows;
+            SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(
+                    this,
+                    exported >= 0
+                            ? "Exported " + exported + " sales lines to\n" + file
+                            : "Export failed. Check console for details.",
+                    "Export Sales History",
+                    exported >= 0 ? JOptionPane.INFORMATION_MESSAGE : JOptionPane.ERROR_MESSAGE
+            ));
+        }, "sales-export").start();
     }
 
     private void showCustomCashDialog() {
-        double total = controller.getCurrentTransaction().getTotal();  // Changed
+        double total = displayPanel.getTransaction().getTotal();  // Changed
 
         String input = JOptionPane.showInputDialog(
                 this,
@@ -618,7 +765,7 @@ public class MainFrame extends JFrame {
         if (input != null && !input.trim().isEmpty()) {
             try {
                 double amount = Double.parseDouble(input.trim());
-                controller.processCustomCashPayment(amount);
+                lane.submit(c -> c.processCustomCashPayment(amount));
             } catch (NumberFormatException ex) {
                 JOptionPane.showMessageDialog(
                         this,
@@ -652,6 +799,13 @@ public class MainFrame extends JFrame {
                 JComponent.WHEN_IN_FOCUSED_WINDOW
         );
 
+        // F5 - Find receipt
+        getRootPane().registerKeyboardAction(
+                e -> findReceipt(),
+                KeyStroke.getKeyStroke(KeyEvent.VK_F5, 0),
+                JComponent.WHEN_IN_FOCUSED_WINDOW
+        );
+
         // Ctrl+U - Focus manual UPC
         getRootPane().registerKeyboardAction(
                 e -> manualUpcField.requestFocusInWindow(),
@@ -670,7 +824,7 @@ public class MainFrame extends JFrame {
     }
 
     private void clearTransaction() {
-        int itemCount = controller.getCurrentTransaction().getItemCount();
+        int itemCount = displayPanel.getTransaction().getItemCount();
 
         if (itemCount == 0) {
             displayPanel.showInfo("Transaction is already empty");
@@ -686,7 +840,7 @@ public class MainFrame extends JFrame {
         );
 
         if (result == JOptionPane.YES_OPTION) {
-            controller.startNewTransaction();
+            lane.run(RegisterController::startNewTransaction);
             displayPanel.showInfo("Transaction cleared");
         }
     }
@@ -715,6 +869,7 @@ public class MainFrame extends JFrame {
                         "F2 - Void transaction\n" +
                         "F3 - Suspend transaction\n" +
                         "F4 - Resume suspended transaction\n" +
+                        "F5 - Find receipt\n" +
                         "Ctrl+U - Focus manual UPC entry\n" +
                         "\nScanner works globally - just scan!",
                 "Keyboard Shortcuts",
@@ -723,7 +878,7 @@ public class MainFrame extends JFrame {
     }
 
     private void confirmAndClose() {
-        int itemCount = controller.getCurrentTransaction().getItemCount();
+        int itemCount = displayPanel.getTransaction().getItemCount();
 
         String message = itemCount > 0
                 ? "There are " + itemCount + " item(s) in the current transaction.\nAre you sure you want to exit?"
@@ -755,6 +910,9 @@ public class MainFrame extends JFrame {
             if (cleanupScheduler != null) {
                 cleanupScheduler.stop();
             }
+            if (archiveScheduler != null) {
+                archiveScheduler.stop();
+            }
         }));
     }
 }
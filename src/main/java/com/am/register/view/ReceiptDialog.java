@@ -11,11 +11,20 @@ import java.awt.*;
  */
 public class ReceiptDialog extends JDialog {
 
-    private final Receipt receipt;
+    private final String receiptNumber;
+    private final String receiptText;
 
     public ReceiptDialog(Frame parent, Receipt receipt) {
-        super(parent, "Receipt - " + receipt.getReceiptNumber(), true);
-        this.receipt = receipt;
+        this(parent, receipt.getReceiptNumber(), ReceiptGenerator.formatReceipt(receipt));
+    }
+
+    /**
+     * Shows already formatted receipt text, e.g. a reprint from the archive.
+     */
+    public ReceiptDialog(Frame parent, String receiptNumber, String receiptText) {
+        super(parent, "Receipt - " + receiptNumber, true);
+        this.receiptNumber = receiptNumber;
+        this.receiptText = receiptText;
 
         // Don't set fixed size - let it calculate based on content
         setLocationRelativeTo(parent);
@@ -43,7 +52,7 @@ public class ReceiptDialog extends JDialog {
         // Receipt content in text area
         JTextArea receiptArea = new JTextArea();
         receiptArea.setFont(new Font("Monospaced", Font.PLAIN, 12));
-        receiptArea.setText(ReceiptGenerator.formatReceipt(receipt));
+        receiptArea.setText(receiptText);
         receiptArea.setEditable(false);
         receiptArea.setCaretPosition(0);
 
@@ -86,7 +95,7 @@ public class ReceiptDialog extends JDialog {
     }
 
     private void saveReceipt() {
-        boolean saved = ReceiptGenerator.saveReceipt(receipt);
+        boolean saved = ReceiptGenerator.saveReceipt(receiptNumber, receiptText);
 
         if (saved) {
             JOptionPane.showMessageDialog(
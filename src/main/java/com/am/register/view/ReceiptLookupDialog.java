@@ -0,0 +1,211 @@
+package com.am.register.view;
+
+import com.am.register.service.ReceiptService;
+import com.am.register.util.ReceiptArchive.IndexEntry;
+
+import javax.swing.*;
+import javax.swing.table.DefaultTableCellRenderer;
+import javax.swing.table.DefaultTableModel;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Dialog for finding past receipts to reprint or process a return.
+ * Searches by receipt number, date (yyyy-MM-dd) or exact amount.
+ */
+public class ReceiptLookupDialog extends JDialog {
+
+    private static final int RECENT_LIMIT = 50;
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final Frame parent;
+    private final ReceiptService receipts;
+    private final JTextField searchField;
+    private final JTable receiptsTable;
+    private final DefaultTableModel tableModel;
+    private final JLabel statusLabel;
+
+    public ReceiptLookupDialog(Frame parent, ReceiptService receipts) {
+        super(parent, "Find Receipt", true);
+        this.parent = parent;
+        this.receipts = receipts;
+
+        setSize(600, 450);
+        setLocationRelativeTo(parent);
+        setDefaultCloseOperation(DISPOSE_ON_CLOSE);
+
+        // Create table model
+        String[] columnNames = {"Receipt #", "Date/Time", "Total"};
+        tableModel = new DefaultTableModel(columnNames, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+
+        // Create table
+        receiptsTable = new JTable(tableModel);
+        receiptsTable.setFont(new Font("SansSerif", Font.PLAIN, 13));
+        receiptsTable.setRowHeight(25);
+        receiptsTable.getTableHeader().setFont(new Font("SansSerif", Font.BOLD, 14));
+        receiptsTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        receiptsTable.getColumnModel().getColumn(0).setPreferredWidth(220);
+        receiptsTable.getColumnModel().getColumn(1).setPreferredWidth(160);
+        receiptsTable.getColumnModel().getColumn(2).setPreferredWidth(80);
+
+        DefaultTableCellRenderer rightRenderer = new DefaultTableCellRenderer();
+        rightRenderer.setHorizontalAlignment(JLabel.RIGHT);
+        receiptsTable.getColumnModel().getColumn(2).setCellRenderer(rightRenderer);
+
+        receiptsTable.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                if (e.getClickCount() == 2) {
+                    viewSelected();
+                }
+            }
+        });
+
+        searchField = new JTextField(20);
+        searchField.setFont(new Font("SansSerif", Font.PLAIN, 14));
+        searchField.addActionListener(e -> search());
+
+        statusLabel = new JLabel(" ");
+        statusLabel.setFont(new Font("SansSerif", Font.ITALIC, 12));
+
+        setupUI();
+        showResults(receipts.getRecent(RECENT_LIMIT), "Most recent receipts");
+    }
+
+    private void setupUI() {
+        setLayout(new BorderLayout(10, 10));
+
+        // Search panel
+        JPanel searchPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 10, 10));
+        JLabel searchLabel = new JLabel("Receipt #, date or amount:");
+        searchLabel.setFont(new Font("SansSerif", Font.BOLD, 14));
+
+        JButton searchButton = new JButton("Search");
+        searchButton.setFont(new Font("SansSerif", Font.BOLD, 14));
+        searchButton.addActionListener(e -> search());
+
+        searchPanel.add(searchLabel);
+        searchPanel.add(searchField);
+        searchPanel.add(searchButton);
+
+        JPanel centerPanel = new JPanel(new BorderLayout());
+        JScrollPane scrollPane = new JScrollPane(receiptsTable);
+        scrollPane.setBorder(BorderFactory.createEmptyBorder(0, 10, 0, 10));
+        statusLabel.setBorder(BorderFactory.createEmptyBorder(5, 12, 0, 10));
+        centerPanel.add(scrollPane, BorderLayout.CENTER);
+        centerPanel.add(statusLabel, BorderLayout.SOUTH);
+
+        // Button panel
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 10, 10));
+
+        JButton viewButton = new JButton("View / Reprint");
+        viewButton.setFont(new Font("SansSerif", Font.BOLD, 14));
+        viewButton.setPreferredSize(new Dimension(150, 40));
+        viewButton.addActionListener(e -> viewSelected());
+
+        JButton closeButton = new JButton("Close");
+        closeButton.setFont(new Font("SansSerif", Font.BOLD, 14));
+        closeButton.setPreferredSize(new Dimension(150, 40));
+        closeButton.addActionListener(e -> dispose());
+
+        buttonPanel.add(viewButton);
+        buttonPanel.add(closeButton);
+
+        add(searchPanel, BorderLayout.NORTH);
+        add(centerPanel, BorderLayout.CENTER);
+        add(buttonPanel, BorderLayout.SOUTH);
+    }
+
+    /**
+     * Interprets the query as a date, then an amount, then a receipt number.
+     */
+    private void search() {
+        String query = searchField.getText().trim();
+
+        if (query.isEmpty()) {
+            showResults(receipts.getRecent(RECENT_LIMIT), "Most recent receipts");
+            return;
+        }
+
+        try {
+            LocalDate day = LocalDate.parse(query);
+            showResults(receipts.findByDate(day), "Receipts on " + day);
+            return;
+        } catch (DateTimeParseException e) {
+            // Not a date
+        }
+
+        try {
+            double amount = Double.parseDouble(query.replace("$", ""));
+            showResults(receipts.findByAmount(amount, amount), String.format("Receipts totalling $%.2f", amount));
+            return;
+        } catch (NumberFormatException e) {
+            // Not an amount
+        }
+
+        List<IndexEntry> results = new ArrayList<>();
+        IndexEntry entry = receipts.find(query.toUpperCase());
+        if (entry != null) {
+            results.add(entry);
+        }
+        showResults(results, "Receipt " + query.toUpperCase());
+    }
+
+    private void showResults(List<IndexEntry> results, String description) {
+        tableModel.setRowCount(0);
+
+        for (IndexEntry entry : results) {
+            Object[] row = {
+                    entry.getReceiptNumber(),
+                    entry.getTimestamp().format(TIME_FORMAT),
+                    String.format("$%.2f", entry.getTotal())
+            };
+            tableModel.addRow(row);
+        }
+
+        statusLabel.setText(description + ": " + results.size() + " found");
+        if (!results.isEmpty()) {
+            receiptsTable.setRowSelectionInterval(0, 0);
+        }
+    }
+
+    private void viewSelected() {
+        int selectedRow = receiptsTable.getSelectedRow();
+
+        if (selectedRow < 0) {
+            JOptionPane.showMessageDialog(
+                    this,
+                    "Please select a receipt to view",
+                    "No Selection",
+                    JOptionPane.WARNING_MESSAGE
+            );
+            return;
+        }
+
+        String receiptNumber = (String) tableModel.getValueAt(selectedRow, 0);
+        String text = receipts.getText(receiptNumber);
+
+        if (text == null) {
+            JOptionPane.showMessageDialog(
+                    this,
+                    "Receipt " + receiptNumber + " could not be read.\nCheck console for details.",
+                    "Error",
+                    JOptionPane.ERROR_MESSAGE
+            );
+            return;
+        }
+
+        new ReceiptDialog(parent, receiptNumber, text).setVisible(true);
+    }
+}
@@ -3,26 +3,37 @@ package com.am.register.view;
 import com.am.register.model.SuspendedTransaction;
 
 import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import javax.swing.table.DefaultTableCellRenderer;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.util.List;
+import java.util.function.Function;
 
 /**
  * Dialog for viewing and managing suspended transactions.
+ * Typing in the search box narrows the list to baskets whose note matches.
  */
 public class SuspendedTransactionsDialog extends JDialog {
 
     private final List<SuspendedTransaction> suspensions;
+    private final Function<String, List<SuspendedTransaction>> noteSearch;
     private final JTable suspensionsTable;
     private final DefaultTableModel tableModel;
     private String selectedSuspensionId = null;
     private boolean resumed = false;
     private boolean deleted = false;
 
-    public SuspendedTransactionsDialog(Frame parent, List<SuspendedTransaction> suspensions) {
+    /**
+     * @param suspensions Baskets to offer, newest first
+     * @param noteSearch Finds baskets by note (e.g. "wal" finds "forgot wallet"); runs on the event thread
+     */
+    public SuspendedTransactionsDialog(Frame parent, List<SuspendedTransaction> suspensions,
+                                       Function<String, List<SuspendedTransaction>> noteSearch) {
         super(parent, "Suspended Transactions", true);
         this.suspensions = suspensions;
+        this.noteSearch = noteSearch;
 
         setSize(700, 400);
         setLocationRelativeTo(parent);
@@ -63,20 +74,16 @@ public class SuspendedTransactionsDialog extends JDialog {
         suspensionsTable.getColumnModel().getColumn(2).setCellRenderer(rightRenderer);
 
         // Populate table
-        populateTable();
+        populateTable(suspensions);
 
         // Create UI
         setupUI();
     }
 
-    private void populateTable() {
+    private void populateTable(List<SuspendedTransaction> shown) {
         tableModel.setRowCount(0);
 
-        if (suspensions.isEmpty()) {
-            return;
-        }
-
-        for (SuspendedTransaction suspension : suspensions) {
+        for (SuspendedTransaction suspension : shown) {
             Object[] row = {
                     suspension.getSuspensionId(),
                     suspension.getItemCount(),
@@ -102,9 +109,13 @@ public class SuspendedTransactionsDialog extends JDialog {
         titleLabel.setForeground(Color.BLACK);
         titlePanel.add(titleLabel);
 
-        // Table in scroll pane
+        // Table in scroll pane, under the note search
         JScrollPane scrollPane = new JScrollPane(suspensionsTable);
-        scrollPane.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+        scrollPane.setBorder(BorderFactory.createEmptyBorder(0, 10, 10, 10));
+
+        JPanel listPanel = new JPanel(new BorderLayout());
+        listPanel.add(createSearchPanel(), BorderLayout.NORTH);
+        listPanel.add(scrollPane, BorderLayout.CENTER);
 
         // Empty state message
         if (suspensions.isEmpty()) {
@@ -124,10 +135,48 @@ public class SuspendedTransactionsDialog extends JDialog {
         JPanel buttonPanel = createButtonPanel();
 
         add(titlePanel, BorderLayout.NORTH);
-        add(scrollPane, BorderLayout.CENTER);
+        add(listPanel, BorderLayout.CENTER);
         add(buttonPanel, BorderLayout.SOUTH);
     }
 
+    private JPanel createSearchPanel() {
+        JPanel searchPanel = new JPanel(new BorderLayout(10, 0));
+        searchPanel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+
+        JLabel searchLabel = new JLabel("Search notes:");
+        searchLabel.setFont(new Font("SansSerif", Font.BOLD, 14));
+
+        JTextField searchField = new JTextField();
+        searchField.setFont(new Font("SansSerif", Font.PLAIN, 14));
+        searchField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                applySearch(searchField.getText());
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                applySearch(searchField.getText());
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                applySearch(searchField.getText());
+            }
+        });
+
+        searchPanel.add(searchLabel, BorderLayout.WEST);
+        searchPanel.add(searchField, BorderLayout.CENTER);
+        return searchPanel;
+    }
+
+    /**
+     * Shows only the baskets whose note matches the query; a blank query shows them all.
+     */
+    private void applySearch(String query) {
+        populateTable(query.isBlank() ? suspensions : noteSearch.apply(query));
+    }
+
     private JPanel createButtonPanel() {
         JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 10, 10));
 
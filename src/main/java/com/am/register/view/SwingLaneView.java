@@ -0,0 +1,105 @@
+package com.am.register.view;
+
+import com.am.register.controller.LaneListener;
+import com.am.register.model.Receipt;
+import com.am.register.model.Transaction;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Shows a lane's events in the register window.
+ * Events arrive on the lane's thread and are passed to the event thread; the
+ * basket is copied first, since the lane keeps changing it meanwhile. The
+ * receipt dialog no longer holds up the lane, so the next customer's scans
+ * are taken while it is open.
+ * <p>
+ * Basket updates are coalesced to at most one display refresh per frame:
+ * only the newest basket is kept, and updates that land within a frame of
+ * the last refresh wait for the next one. Errors and receipts flush any
+ * waiting basket first, so they never appear ahead of the scans before them.
+ */
+public class SwingLaneView implements LaneListener {
+
+    /**
+     * Runs continuations on the Swing event thread, e.g. future.thenAcceptAsync(..., EVENT_THREAD).
+     */
+    public static final Executor EVENT_THREAD = SwingUtilities::invokeLater;
+
+    public static final long FRAME_MILLIS = 16;
+
+    private final DisplayPanel displayPanel;
+    private final AtomicReference<Transaction> pending = new AtomicReference<>();  // Newest basket not yet shown
+    private final Timer frameTimer;  // Event thread only
+    private long lastRefreshNanos;  // Event thread only
+
+    public SwingLaneView(DisplayPanel displayPanel) {
+        if (displayPanel == null) {
+            throw new IllegalArgumentException("DisplayPanel cannot be null");
+        }
+        this.displayPanel = displayPanel;
+        this.frameTimer = new Timer(0, e -> refresh());
+        this.frameTimer.setRepeats(false);
+    }
+
+    @Override
+    public void transactionChanged(Transaction transaction) {
+        Transaction snapshot = transaction.copy();
+        if (pending.getAndSet(snapshot) == null) {
+            // Nothing was waiting, so no refresh is scheduled yet
+            onEventThread(this::scheduleRefresh);
+        }
+    }
+
+    @Override
+    public void errorRaised(String message) {
+        onEventThread(() -> {
+            flush();
+            displayPanel.showError(message);
+        });
+    }
+
+    @Override
+    public void saleCompleted(Receipt receipt) {
+        onEventThread(() -> {
+            flush();
+            Frame parentFrame = (Frame) SwingUtilities.getWindowAncestor(displayPanel);
+            ReceiptDialog dialog = new ReceiptDialog(parentFrame, receipt);
+            dialog.setVisible(true);
+        });
+    }
+
+    private void scheduleRefresh() {
+        long sinceLast = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - lastRefreshNanos);
+        if (sinceLast >= FRAME_MILLIS) {
+            refresh();
+        } else {
+            frameTimer.setInitialDelay((int) (FRAME_MILLIS - sinceLast));
+            frameTimer.restart();
+        }
+    }
+
+    private void flush() {
+        frameTimer.stop();
+        refresh();
+    }
+
+    private void refresh() {
+        Transaction snapshot = pending.getAndSet(null);
+        if (snapshot != null) {
+            lastRefreshNanos = System.nanoTime();
+            displayPanel.updateDisplay(snapshot);
+        }
+    }
+
+    private static void onEventThread(Runnable action) {
+        if (SwingUtilities.isEventDispatchThread()) {
+            action.run();
+        } else {
+            SwingUtilities.invokeLater(action);
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.am.register.view;
+
+import com.am.register.model.TransactionItem;
+
+import javax.swing.table.AbstractTableModel;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Basket lines for the display table, updated in place.
+ * Each new basket is compared with the rows already shown and only the
+ * lines that were added, changed or voided are announced, as row ranges, so
+ * JTable repaints what changed instead of the whole basket. Prices are
+ * formatted once per change rather than on every paint.
+ * <p>
+ * The basket reaches the window as a copy (see SwingLaneView), so lines are
+ * matched by UPC and compared by value. Lines never move within a basket;
+ * other orders are still handled correctly, just with more events.
+ */
+class TransactionTableModel extends AbstractTableModel {
+
+    private static final String[] COLUMN_NAMES = {"#", "Description", "Qty", "Price", "Line Total"};
+
+    /**
+     * One displayed line, with its text ready for the renderer.
+     */
+    private static final class Row {
+        final String upc;
+        String description;
+        int quantity;
+        double unitPrice;
+        String priceText;
+        String lineTotalText;
+
+        Row(TransactionItem line) {
+            this.upc = line.getUpc();
+            set(line);
+        }
+
+        boolean matches(TransactionItem line) {
+            return quantity == line.getQuantity()
+                    && unitPrice == line.getUnitPrice()
+                    && description.equals(line.getDescription());
+        }
+
+        void set(TransactionItem line) {
+            if (unitPrice != line.getUnitPrice() || priceText == null) {
+                priceText = String.format("$%.2f", line.getUnitPrice());
+            }
+            description = line.getDescription();
+            quantity = line.getQuantity();
+            unitPrice = line.getUnitPrice();
+            lineTotalText = String.format("$%.2f", line.getLineTotal());
+        }
+    }
+
+    private final List<Row> rows = new ArrayList<>();
+
+    // Range of rows changed in the same way, announced as one event when the run ends
+    private enum Change { NONE, INSERTED, UPDATED, DELETED }
+    private Change pendingChange = Change.NONE;
+    private int pendingFirst;
+    private int pendingLast;
+
+    /**
+     * Brings the rows in line with a basket and fires events for what differs.
+     * @return The last row inserted or changed, or -1 if none were
+     */
+    public int update(List<TransactionItem> lines) {
+        Set<String> upcs = new HashSet<>(lines.size() * 2);
+        for (TransactionItem line : lines) {
+            upcs.add(line.getUpc());
+        }
+
+        int lastTouched = -1;
+        int row = 0;
+        for (TransactionItem line : lines) {
+            // Drop shown rows whose lines were voided
+            while (row < rows.size() && !rows.get(row).upc.equals(line.getUpc())
+                    && !upcs.contains(rows.get(row).upc)) {
+                record(Change.DELETED, row);
+                rows.remove(row);
+            }
+
+            if (row < rows.size() && rows.get(row).upc.equals(line.getUpc())) {
+                Row shown = rows.get(row);
+                if (!shown.matches(line)) {
+                    record(Change.UPDATED, row);
+                    shown.set(line);
+                    lastTouched = row;
+                }
+            } else {
+                record(Change.INSERTED, row);
+                rows.add(row, new Row(line));
+                lastTouched = row;
+            }
+            row++;
+        }
+
+        // Whatever is left past the basket's last line was voided or cleared
+        if (row < rows.size()) {
+            flush();
+            int last = rows.size() - 1;
+            rows.subList(row, rows.size()).clear();
+            fireTableRowsDeleted(row, last);
+        }
+        flush();
+
+        return lastTouched;
+    }
+
+    /**
+     * Notes a change about to be made to a row. A change that continues the
+     * pending range extends it; anything else first announces the range, so
+     * listeners never see an event for rows that have since moved.
+     * Deleting at the same index repeatedly is one contiguous range of the old rows.
+     */
+    private void record(Change change, int row) {
+        if (change == pendingChange) {
+            if (change == Change.DELETED && row == pendingFirst) {
+                pendingLast++;
+                return;
+            }
+            if (change != Change.DELETED && row == pendingLast + 1) {
+                pendingLast = row;
+                return;
+            }
+        }
+        flush();
+        pendingChange = change;
+        pendingFirst = row;
+        pendingLast = row;
+    }
+
+    private void flush() {
+        switch (pendingChange) {
+            case INSERTED:
+                fireTableRowsInserted(pendingFirst, pendingLast);
+                break;
+            case UPDATED:
+                fireTableRowsUpdated(pendingFirst, pendingLast);
+                break;
+            case DELETED:
+                fireTableRowsDeleted(pendingFirst, pendingLast);
+                break;
+            default:
+                break;
+        }
+        pendingChange = Change.NONE;
+    }
+
+    @Override
+    public int getRowCount() {
+        return rows.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMN_NAMES.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMN_NAMES[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int columnIndex) {
+        if (columnIndex == 0 || columnIndex == 2) return Integer.class;
+        return String.class;
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return false;
+    }
+
+    @Override
+    public Object getValueAt(int rowIndex, int columnIndex) {
+        Row row = rows.get(rowIndex);
+        switch (columnIndex) {
+            case 0:
+                return rowIndex + 1;  // Numbered by position, so a void renumbers without events
+            case 1:
+                return row.description;
+            case 2:
+                return row.quantity;
+            case 3:
+                return row.priceText;
+            default:
+                return row.lineTotalText;
+        }
+    }
+}
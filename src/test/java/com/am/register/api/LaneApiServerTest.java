@@ -0,0 +1,157 @@
+package com.am.register.api;
+
+import com.am.register.database.DatabaseManager;
+import com.am.register.database.DatabaseMigration;
+import com.am.register.model.Item;
+import com.am.register.service.RegisterServices;
+import com.am.register.util.SuspensionStore;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.sql.Statement;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The lane API over real HTTP, driven by LaneApiClient, against an in-memory database.
+ */
+class LaneApiServerTest {
+
+    private static final String URL = "jdbc:h2:mem:laneapi;DB_CLOSE_DELAY=-1";
+    private static final String LANE = "LANE-007";
+    private static final Item MILK = new Item("000000000017", "Milk", 3.49);
+
+    @TempDir
+    Path receipts;
+
+    private DatabaseManager setup;
+    private RegisterServices services;
+    private LaneApiServer server;
+    private LaneApiClient client;
+    private String baseUrl;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        setup = new DatabaseManager(URL);
+        assertTrue(setup.connect());
+        assertTrue(setup.createTables());
+        assertTrue(new DatabaseMigration(setup.getConnection()).migrate());
+        assertTrue(setup.insertItem(MILK));
+
+        services = RegisterServices.open(URL, SuspensionStore.DEFAULT_CAPACITY, SuspensionStore.DEFAULT_TTL, receipts);
+        assertNotNull(services);
+        server = new LaneApiServer(services, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0),
+                2, 4, LaneApiServer.DEFAULT_IDLE_TIMEOUT);
+        server.start();
+
+        baseUrl = "http://127.0.0.1:" + server.getPort();
+        client = new LaneApiClient(baseUrl);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        server.stop();
+        services.shutdown();
+        try (Statement stmt = setup.getConnection().createStatement()) {
+            stmt.execute("DROP ALL OBJECTS");
+        }
+        setup.disconnect();
+    }
+
+    @Test
+    void scanTenderAndFetchTheReceipt() throws Exception {
+        assertEquals(201, client.openLane(LANE).getStatus());
+
+        LaneApiClient.Response scanned = client.scan(LANE, MILK.getUpc());
+        assertTrue(scanned.isOk(), scanned.getError());
+        assertEquals(0, scanned.getBody().get("line").getAsInt());
+        assertEquals(1, scanned.getTransaction().get("itemCount").getAsInt());
+
+        LaneApiClient.Response paid = client.tenderCash(LANE, 10.00);
+        assertTrue(paid.isOk(), paid.getError());
+        JsonObject receipt = paid.getBody().getAsJsonObject("receipt");
+        String receiptNumber = receipt.get("receiptNumber").getAsString();
+        assertEquals("CASH", receipt.get("method").getAsString());
+        assertEquals(10.00, receipt.get("tendered").getAsDouble(), 0.001);
+        assertEquals(0, paid.getTransaction().get("itemCount").getAsInt(), "Lane starts a new basket");
+
+        String text = client.getReceiptText(receiptNumber);
+        assertNotNull(text, "No receipt text for " + receiptNumber);
+        assertTrue(text.contains(receiptNumber));
+        assertTrue(text.contains(MILK.getDescription()));
+    }
+
+    @Test
+    void refusalsAreReportedNotThrown() throws Exception {
+        assertEquals(404, client.scan(LANE, MILK.getUpc()).getStatus(), "Lane not open yet");
+        client.openLane(LANE);
+
+        assertEquals(404, client.scan(LANE, "999999999999").getStatus());
+        assertEquals(409, client.tenderExact(LANE).getStatus(), "Empty basket");
+        assertEquals(200, client.openLane(LANE).getStatus(), "Rejoining an open lane");
+    }
+
+    @Test
+    void parkedBasketsAreFoundByNote() throws Exception {
+        client.openLane(LANE);
+        client.scan(LANE, MILK.getUpc());
+        LaneApiClient.Response suspended = client.suspend(LANE, "Forgot wallet in car");
+        assertTrue(suspended.isOk(), suspended.getError());
+        String suspensionId = suspended.getBody().get("suspensionId").getAsString();
+
+        JsonArray found = client.searchSuspensions("wal car").getBody().getAsJsonArray("suspensions");
+        assertEquals(1, found.size());
+        assertEquals(suspensionId, found.get(0).getAsJsonObject().get("suspensionId").getAsString());
+
+        assertEquals(0, client.searchSuspensions("wallet milk").getBody().getAsJsonArray("suspensions").size());
+        assertEquals(1, client.listSuspensions().getBody().getAsJsonArray("suspensions").size());
+    }
+
+    @Test
+    void malformedBodiesAreBadRequests() throws Exception {
+        client.openLane(LANE);
+        client.scan(LANE, MILK.getUpc());
+
+        assertBadRequest("/scan", "{\"upc\": ");
+        assertBadRequest("/scan", "[\"" + MILK.getUpc() + "\"]");
+        assertBadRequest("/scan", "{}");
+        assertBadRequest("/void", "{\"line\": \"first\"}");
+        assertBadRequest("/quantity", "{\"line\": 0, \"quantity\": {}}");
+        assertBadRequest("/tender", "{\"method\": \"CASH\"}");
+        assertBadRequest("/tender", "{\"method\": \"CASH\", \"amount\": \"twenty\"}");
+        assertBadRequest("/tender", "{\"method\": \"CASH\", \"amount\": \"NaN\"}");
+        assertBadRequest("/tender", "{\"method\": \"CASH\", \"amount\": 1e999}");
+        assertBadRequest("/tender", "{\"method\": \"CARD\", \"cardType\": \"GOLD\"}");
+
+        // None of them touched the basket
+        LaneApiClient.Response lane = client.getLane(LANE);
+        assertEquals(1, lane.getTransaction().get("itemCount").getAsInt());
+    }
+
+    private void assertBadRequest(String action, String body) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/lanes/" + LANE + action))
+                .header("Content-Type", "application/json; charset=utf-8")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .timeout(Duration.ofSeconds(10))
+                .build();
+        HttpResponse<String> response = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(400, response.statusCode(), action + " " + body + " -> " + response.body());
+        assertTrue(JsonParser.parseString(response.body()).getAsJsonObject().has("error"));
+    }
+}
@@ -0,0 +1,163 @@
+package com.am.register.controller;
+
+import com.am.register.database.DatabaseManager;
+import com.am.register.database.DatabaseMigration;
+import com.am.register.model.InputSource;
+import com.am.register.model.Item;
+import com.am.register.model.Receipt;
+import com.am.register.model.Transaction;
+import com.am.register.service.RegisterServices;
+import com.am.register.util.SuspensionStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.awt.EventQueue;
+import java.nio.file.Path;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A lane driven from the event thread, as the window drives it, against a
+ * database that takes far longer than a frame to answer. The event thread
+ * must keep dispatching while the lane waits on the database.
+ */
+class LaneResponsivenessTest {
+
+    private static final String URL = "jdbc:h2:mem:responsiveness;DB_CLOSE_DELAY=-1";
+    private static final long DB_DELAY_MILLIS = 250;
+    private static final long MAX_EVENT_LATENCY_MILLIS = 100;
+    private static final String[] UPCS = {"000000000017", "000000000024", "000000000031", "000000000048"};
+
+    @TempDir
+    Path receipts;
+
+    private DatabaseManager setup;
+    private RegisterServices services;
+    private AsyncLane lane;
+
+    /**
+     * A database whose item lookups and sale commits are slow, as over a busy network.
+     */
+    private static class SlowDatabaseManager extends DatabaseManager {
+        SlowDatabaseManager() {
+            super(URL);
+        }
+
+        @Override
+        public Item getItemByUPC(String upc) {
+            pause();
+            return super.getItemByUPC(upc);
+        }
+
+        @Override
+        public Map<String, Item> getItemsByUPC(Collection<String> upcs) {
+            pause();
+            return super.getItemsByUPC(upcs);
+        }
+
+        @Override
+        public boolean saveTransaction(Transaction transaction, String receiptNumber) {
+            pause();
+            return super.saveTransaction(transaction, receiptNumber);
+        }
+
+        private static void pause() {
+            try {
+                Thread.sleep(DB_DELAY_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        setup = new DatabaseManager(URL);
+        assertTrue(setup.connect());
+        assertTrue(setup.createTables());
+        assertTrue(new DatabaseMigration(setup.getConnection()).migrate());
+        for (int i = 0; i < UPCS.length; i++) {
+            assertTrue(setup.insertItem(new Item(UPCS[i], "Test item " + i, 1.25 + i)));
+        }
+
+        DatabaseManager servicesDatabase = new SlowDatabaseManager();
+        DatabaseManager laneDatabase = new SlowDatabaseManager();
+        assertTrue(servicesDatabase.connect());
+        assertTrue(laneDatabase.connect());
+
+        services = new RegisterServices(servicesDatabase,
+                SuspensionStore.DEFAULT_CAPACITY, SuspensionStore.DEFAULT_TTL, receipts);
+        lane = new AsyncLane(new RegisterController(services, new LaneSession("LANE-001", laneDatabase)));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        lane.shutdown();
+        lane.getController().shutdown();
+        services.shutdown();
+        try (Statement stmt = setup.getConnection().createStatement()) {
+            stmt.execute("DROP ALL OBJECTS");
+        }
+        setup.disconnect();
+    }
+
+    @Test
+    void eventThreadKeepsDispatchingWhileTheLaneWaitsOnTheDatabase() throws Exception {
+        AtomicLong worstLatencyNanos = new AtomicLong();
+        Thread probe = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                long posted = System.nanoTime();
+                try {
+                    EventQueue.invokeAndWait(() -> worstLatencyNanos.accumulateAndGet(
+                            System.nanoTime() - posted, Math::max));
+                    Thread.sleep(5);
+                } catch (InterruptedException e) {
+                    return;
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        }, "event-thread-probe");
+
+        List<CompletableFuture<?>> actions = new ArrayList<>();
+        CompletableFuture<Receipt> sale = new CompletableFuture<>();
+        long start = System.nanoTime();
+        probe.start();
+        try {
+            // What the window does for a sale: scans, a void, then tender and pay
+            EventQueue.invokeAndWait(() -> {
+                for (int i = 0; i < 12; i++) {
+                    actions.add(lane.scan(UPCS[i % UPCS.length], InputSource.SCANNER, System.nanoTime()));
+                }
+                actions.add(lane.voidItem(UPCS[0]));
+                actions.add(lane.scan(UPCS[1], InputSource.MANUAL, System.nanoTime()));
+                actions.add(lane.submit(RegisterController::startTendering));
+                lane.submit(RegisterController::processExactCashPayment).thenAccept(sale::complete);
+            });
+
+            CompletableFuture.allOf(actions.toArray(new CompletableFuture[0])).get(30, TimeUnit.SECONDS);
+            assertNotNull(sale.get(30, TimeUnit.SECONDS), "The sale did not complete");
+        } finally {
+            probe.interrupt();
+            probe.join(TimeUnit.SECONDS.toMillis(5));
+        }
+
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        long worstMillis = TimeUnit.NANOSECONDS.toMillis(worstLatencyNanos.get());
+        assertTrue(elapsedMillis >= 2 * DB_DELAY_MILLIS,
+                "The sale took " + elapsedMillis + " ms; the slow database was not exercised");
+        assertTrue(worstMillis < MAX_EVENT_LATENCY_MILLIS,
+                "Event thread stalled for " + worstMillis + " ms while the lane waited on the database");
+    }
+}
@@ -0,0 +1,173 @@
+package com.am.register.database;
+
+import com.am.register.model.Item;
+import com.am.register.model.Payment;
+import com.am.register.model.Transaction;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The DAILY_ITEM_SALES rollup against the sales it summarises, including
+ * lanes that sell the same items at the same moment.
+ */
+class DailyItemSalesTest {
+
+    private static final String URL = "jdbc:h2:mem:dailysales;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000";
+    private static final int LANES = 8;
+    private static final int ROUNDS = 20;
+    private static final LocalDate FIRST_DAY = LocalDate.of(2031, 6, 1);
+
+    private static final Item MILK = new Item("000000000017", "Milk", 3.49);
+    private static final Item BREAD = new Item("000000000024", "Bread", 2.25);
+    private static final Item EGGS = new Item("000000000031", "Eggs", 4.10);
+
+    private final List<DatabaseManager> lanes = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        DatabaseManager setup = new DatabaseManager(URL);
+        assertTrue(setup.connect());
+        assertTrue(setup.createTables());
+        assertTrue(new DatabaseMigration(setup.getConnection()).migrate());
+        for (Item item : List.of(MILK, BREAD, EGGS)) {
+            assertTrue(setup.insertItem(item));
+        }
+        lanes.add(setup);
+
+        while (lanes.size() < LANES) {
+            DatabaseManager lane = new DatabaseManager(URL);
+            assertTrue(lane.connect());
+            lanes.add(lane);
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        try (Statement stmt = lanes.get(0).getConnection().createStatement()) {
+            stmt.execute("DROP ALL OBJECTS");
+        }
+        lanes.forEach(DatabaseManager::disconnect);
+    }
+
+    @Test
+    void rollupMatchesSavedSales() {
+        DatabaseManager lane = lanes.get(0);
+        LocalDateTime morning = FIRST_DAY.atTime(9, 30);
+        LocalDateTime justBeforeMidnight = FIRST_DAY.atTime(23, 59, 59);
+
+        assertTrue(lane.saveTransaction(sale(morning, MILK, BREAD, MILK), "R-1"));
+        assertTrue(lane.saveTransaction(sale(justBeforeMidnight, MILK), "R-2"));
+        assertTrue(lane.saveTransaction(sale(justBeforeMidnight.plusSeconds(1), MILK, EGGS), "R-3"));
+
+        assertRollup(FIRST_DAY, MILK, 3, 3 * 3.49);
+        assertRollup(FIRST_DAY, BREAD, 1, 2.25);
+        assertRollup(FIRST_DAY, EGGS, 0, 0);
+        assertRollup(FIRST_DAY.plusDays(1), MILK, 1, 3.49);
+        assertRollup(FIRST_DAY.plusDays(1), EGGS, 1, 4.10);
+    }
+
+    /**
+     * The migration rebuilds the rollup from history on the same day boundary
+     * that saving a sale uses.
+     */
+    @Test
+    void migrationRebuildsTheSameTotals() throws Exception {
+        DatabaseManager lane = lanes.get(0);
+        assertTrue(lane.saveTransaction(sale(FIRST_DAY.atTime(23, 59, 59), MILK, BREAD), "R-1"));
+        assertTrue(lane.saveTransaction(sale(FIRST_DAY.plusDays(1).atStartOfDay(), MILK), "R-2"));
+
+        try (Statement stmt = lane.getConnection().createStatement()) {
+            // As a database last migrated before the rollup was versioned
+            stmt.executeUpdate("DELETE FROM SCHEMA_VERSION WHERE VERSION >= 9");
+            stmt.executeUpdate("UPDATE DAILY_ITEM_SALES SET QUANTITY_SOLD = 99");
+        }
+        assertTrue(new DatabaseMigration(lane.getConnection()).migrate());
+
+        assertRollup(FIRST_DAY, MILK, 1, 3.49);
+        assertRollup(FIRST_DAY, BREAD, 1, 2.25);
+        assertRollup(FIRST_DAY.plusDays(1), MILK, 1, 3.49);
+    }
+
+    /**
+     * Every lane sells the same items, in opposite orders, as the first sale
+     * of a new day: all of them create or update the same rollup rows at once.
+     */
+    @Test
+    void concurrentLanesSellingTheSameItemsAllSave() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(LANES);
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                LocalDateTime paidAt = FIRST_DAY.plusDays(round).atTime(12, 0);
+                CyclicBarrier start = new CyclicBarrier(LANES);
+                List<Future<Boolean>> futures = new ArrayList<>();
+
+                for (int i = 0; i < LANES; i++) {
+                    DatabaseManager lane = lanes.get(i);
+                    Transaction basket = i % 2 == 0
+                            ? sale(paidAt, MILK, BREAD, EGGS)
+                            : sale(paidAt, EGGS, BREAD, MILK);
+                    String receiptNumber = "R-" + round + "-" + i;
+                    futures.add(pool.submit(() -> {
+                        start.await();
+                        return lane.saveTransaction(basket, receiptNumber);
+                    }));
+                }
+
+                for (Future<Boolean> future : futures) {
+                    assertTrue(future.get(60, TimeUnit.SECONDS), "A lane failed to save its sale");
+                }
+                assertRollup(paidAt.toLocalDate(), MILK, LANES, LANES * 3.49);
+                assertRollup(paidAt.toLocalDate(), BREAD, LANES, LANES * 2.25);
+                assertRollup(paidAt.toLocalDate(), EGGS, LANES, LANES * 4.10);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static Transaction sale(LocalDateTime paidAt, Item... items) {
+        Transaction transaction = new Transaction();
+        for (Item item : items) {
+            transaction.addItem(item);
+        }
+        transaction.startTendering();
+
+        Payment payment = Payment.createCashPayment(transaction.getTotal(), 0.0);
+        payment.setPaymentTime(paidAt);
+        transaction.setPayment(payment);
+        return transaction;
+    }
+
+    private void assertRollup(LocalDate day, Item item, int quantity, double revenue) {
+        String sql = "SELECT QUANTITY_SOLD, REVENUE FROM DAILY_ITEM_SALES WHERE SALE_DATE = ? AND UPC = ?";
+        try (PreparedStatement pstmt = lanes.get(0).getConnection().prepareStatement(sql)) {
+            pstmt.setDate(1, java.sql.Date.valueOf(day));
+            pstmt.setString(2, item.getUpc());
+            try (ResultSet rs = pstmt.executeQuery()) {
+                int sold = rs.next() ? rs.getInt(1) : 0;
+                double total = sold > 0 ? rs.getDouble(2) : 0;
+                assertEquals(quantity, sold, item.getDescription() + " sold on " + day);
+                assertEquals(revenue, total, 0.005, item.getDescription() + " revenue on " + day);
+            }
+        } catch (Exception e) {
+            throw new AssertionError(e);
+        }
+    }
+}
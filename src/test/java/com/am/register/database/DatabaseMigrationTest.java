@@ -0,0 +1,77 @@
+package com.am.register.database;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DatabaseMigrationTest {
+
+    private DatabaseManager database;
+
+    @BeforeEach
+    void setUp() {
+        database = new DatabaseManager("jdbc:h2:mem:migration;DB_CLOSE_DELAY=-1");
+        assertTrue(database.connect());
+        assertTrue(database.createTables());
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        try (Statement stmt = database.getConnection().createStatement()) {
+            stmt.execute("DROP ALL OBJECTS");
+        }
+        database.disconnect();
+    }
+
+    @Test
+    void migratesNewDatabaseAndIsIdempotent() throws Exception {
+        DatabaseMigration migration = new DatabaseMigration(database.getConnection());
+
+        assertTrue(migration.migrate());
+        assertTrue(migration.migrate());
+        try (Statement stmt = database.getConnection().createStatement()) {
+            var rs = stmt.executeQuery("SELECT COUNT(*), MAX(VERSION) FROM SCHEMA_VERSION");
+            rs.next();
+            assertEquals(DatabaseMigration.getLatestVersion(), rs.getInt(1));
+            assertEquals(DatabaseMigration.getLatestVersion(), rs.getInt(2));
+        }
+    }
+
+    @Test
+    void refusesEditedNewestMigration() throws Exception {
+        DatabaseMigration migration = new DatabaseMigration(database.getConnection());
+        assertTrue(migration.migrate());
+
+        try (Statement stmt = database.getConnection().createStatement()) {
+            stmt.executeUpdate("UPDATE SCHEMA_VERSION SET CHECKSUM = CHECKSUM + 1 WHERE VERSION = "
+                    + DatabaseMigration.getLatestVersion());
+        }
+
+        assertFalse(migration.migrate());
+    }
+
+    @Test
+    void refusesEditedOlderMigrationBeforeUpgrading() throws Exception {
+        DatabaseMigration migration = new DatabaseMigration(database.getConnection());
+        assertTrue(migration.migrate());
+
+        try (Statement stmt = database.getConnection().createStatement()) {
+            // Roll back to v2 with a tampered v1, as an old database upgraded by this build would look
+            stmt.executeUpdate("DELETE FROM SCHEMA_VERSION WHERE VERSION > 2");
+            stmt.executeUpdate("UPDATE SCHEMA_VERSION SET CHECKSUM = CHECKSUM + 1 WHERE VERSION = 1");
+        }
+
+        assertFalse(migration.migrate());
+        try (Statement stmt = database.getConnection().createStatement()) {
+            var rs = stmt.executeQuery("SELECT MAX(VERSION) FROM SCHEMA_VERSION");
+            rs.next();
+            assertEquals(2, rs.getInt(1), "No migration may run on a schema that failed verification");
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.am.register.database;
+
+import com.am.register.model.Item;
+import com.am.register.model.Payment;
+import com.am.register.model.Transaction;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Closed months moved into partitions, and sales read back across the live/archive boundary.
+ */
+class SalesArchiveManagerTest {
+
+    private static final String URL = "jdbc:h2:mem:archive;DB_CLOSE_DELAY=-1";
+    private static final int LIVE_MONTHS = 2;
+
+    private static final Item MILK = new Item("000000000017", "Milk", 3.49);
+    private static final Item BREAD = new Item("000000000024", "Bread", 2.25);
+
+    private DatabaseManager database;
+    private SalesArchiveManager archive;
+
+    // The last instant archived and the first kept live
+    private final LocalDateTime firstLive = YearMonth.now().minusMonths(LIVE_MONTHS - 1).atDay(1).atStartOfDay();
+    private final LocalDateTime lastArchived = firstLive.minusSeconds(1);
+
+    @BeforeEach
+    void setUp() {
+        database = new DatabaseManager(URL);
+        assertTrue(database.connect());
+        assertTrue(database.createTables());
+        assertTrue(new DatabaseMigration(database.getConnection()).migrate());
+        assertTrue(database.insertItem(MILK));
+        assertTrue(database.insertItem(BREAD));
+        archive = new SalesArchiveManager(database, LIVE_MONTHS);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        try (Statement stmt = database.getConnection().createStatement()) {
+            stmt.execute("DROP ALL OBJECTS");
+        }
+        database.disconnect();
+    }
+
+    @Test
+    void archivesOnlyClosedMonths() throws Exception {
+        save("R-1", firstLive.minusMonths(5), MILK);
+        save("R-2", lastArchived, MILK, BREAD);
+        save("R-3", firstLive, BREAD);
+        save("R-4", LocalDateTime.now(), MILK);
+
+        assertEquals(2, archive.archiveClosedMonths());
+        assertEquals(0, archive.archiveClosedMonths(), "Nothing left to archive");
+
+        assertEquals(2, count("SELECT COUNT(*) FROM TRANSACTIONS"));
+        assertEquals(0, count("SELECT COUNT(*) FROM TRANSACTIONS WHERE TIMESTAMP < ?", firstLive));
+        assertEquals(1, count("SELECT COUNT(*) FROM " + partition(lastArchived)));
+        assertEquals(2, count("SELECT COUNT(*) FROM TRANSACTION_ITEMS_" + suffix(lastArchived)));
+        assertEquals(1, count("SELECT TRANSACTION_COUNT FROM SALES_ARCHIVE_PARTITIONS WHERE MONTH_KEY = '"
+                + suffix(firstLive.minusMonths(5)) + "'"));
+    }
+
+    @Test
+    void readsSalesAcrossTheArchiveBoundary() {
+        save("R-1", firstLive.minusMonths(5), MILK);
+        save("R-2", lastArchived, MILK, MILK, BREAD);
+        save("R-3", firstLive, MILK);
+        archive.archiveClosedMonths();
+
+        LocalDate lastArchivedDay = lastArchived.toLocalDate();
+        LocalDate firstLiveDay = firstLive.toLocalDate();
+
+        Map<String, Integer> spanning = archive.getSalesDataBetween(lastArchivedDay, firstLiveDay);
+        assertEquals(3, spanning.get(MILK.getUpc()));
+        assertEquals(1, spanning.get(BREAD.getUpc()));
+
+        assertEquals(Map.of(MILK.getUpc(), 1), archive.getSalesDataBetween(firstLiveDay, LocalDate.now()));
+        assertEquals(Map.of(MILK.getUpc(), 2, BREAD.getUpc(), 1),
+                archive.getSalesDataBetween(lastArchivedDay, lastArchivedDay));
+        assertEquals(4, archive.getSalesDataBetween(firstLiveDay.minusYears(1), LocalDate.now())
+                .get(MILK.getUpc()));
+    }
+
+    private void save(String receiptNumber, LocalDateTime paidAt, Item... items) {
+        Transaction transaction = new Transaction();
+        for (Item item : items) {
+            transaction.addItem(item);
+        }
+        transaction.startTendering();
+
+        Payment payment = Payment.createCashPayment(transaction.getTotal(), 0.0);
+        payment.setPaymentTime(paidAt);
+        transaction.setPayment(payment);
+        assertTrue(database.saveTransaction(transaction, receiptNumber));
+    }
+
+    private int count(String sql, LocalDateTime... timestamps) throws Exception {
+        try (var pstmt = database.getConnection().prepareStatement(sql)) {
+            for (int i = 0; i < timestamps.length; i++) {
+                pstmt.setTimestamp(i + 1, java.sql.Timestamp.valueOf(timestamps[i]));
+            }
+            try (var rs = pstmt.executeQuery()) {
+                rs.next();
+                return rs.getInt(1);
+            }
+        }
+    }
+
+    private static String partition(LocalDateTime time) {
+        return "TRANSACTIONS_" + suffix(time);
+    }
+
+    private static String suffix(LocalDateTime time) {
+        return String.format("%04d%02d", time.getYear(), time.getMonthValue());
+    }
+}
@@ -0,0 +1,112 @@
+package com.am.register.database;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Many lanes, each with its own connection, drawing suspension IDs at once.
+ */
+class SuspensionSequenceTest {
+
+    private static final String URL = "jdbc:h2:mem:sequences;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000";
+    private static final int LANES = 12;
+    private static final int DRAWS_PER_LANE = 200;
+
+    private final List<DatabaseManager> lanes = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        DatabaseManager setup = new DatabaseManager(URL);
+        assertTrue(setup.connect());
+        assertTrue(setup.createTables());
+        assertTrue(new DatabaseMigration(setup.getConnection()).migrate());
+        lanes.add(setup);
+
+        while (lanes.size() < LANES) {
+            DatabaseManager lane = new DatabaseManager(URL);
+            assertTrue(lane.connect());
+            lanes.add(lane);
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        try (Statement stmt = lanes.get(0).getConnection().createStatement()) {
+            stmt.execute("DROP ALL OBJECTS");
+        }
+        lanes.forEach(DatabaseManager::disconnect);
+    }
+
+    @Test
+    void concurrentDrawsAreUniqueAndGapless() throws Exception {
+        List<Integer> drawn = drawConcurrently(LocalDate.of(2031, 3, 14), DRAWS_PER_LANE);
+
+        assertUniqueAndGapless(drawn, LANES * DRAWS_PER_LANE);
+    }
+
+    /**
+     * Every lane makes the first draw of a new day at the same moment, so most of
+     * them find no counter and race to create it (the duplicate-key path).
+     */
+    @Test
+    void firstDrawOfTheDayRaceIsUniqueAndGapless() throws Exception {
+        for (int day = 1; day <= 20; day++) {
+            List<Integer> drawn = drawConcurrently(LocalDate.of(2032, 1, day), 1);
+
+            assertUniqueAndGapless(drawn, LANES);
+        }
+    }
+
+    private List<Integer> drawConcurrently(LocalDate date, int drawsPerLane) throws Exception {
+        ConcurrentLinkedQueue<Integer> drawn = new ConcurrentLinkedQueue<>();
+        CyclicBarrier start = new CyclicBarrier(LANES);
+        ExecutorService pool = Executors.newFixedThreadPool(LANES);
+
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (DatabaseManager lane : lanes) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < drawsPerLane; i++) {
+                        drawn.add(lane.getNextSuspensionSequence(date));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        return new ArrayList<>(drawn);
+    }
+
+    private static void assertUniqueAndGapless(List<Integer> drawn, int expectedCount) {
+        assertEquals(expectedCount, drawn.size());
+        assertTrue(drawn.stream().allMatch(n -> n > 0), "A draw failed: " + drawn);
+
+        boolean[] seen = new boolean[expectedCount + 1];
+        for (int n : drawn) {
+            assertTrue(n <= expectedCount, "Gap below the maximum: drew " + n + " of " + expectedCount);
+            assertTrue(!seen[n], "Duplicate suspension sequence " + n);
+            seen[n] = true;
+        }
+    }
+}
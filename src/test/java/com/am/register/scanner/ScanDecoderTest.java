@@ -0,0 +1,130 @@
+package com.am.register.scanner;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Barcode assembly per device: interleaving, timeouts, double reads and oversized input.
+ */
+class ScanDecoderTest {
+
+    private static final long TIMEOUT_MILLIS = 50;
+    private static final long FAST_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+
+    private final List<String> reads = new ArrayList<>();
+    private final List<String> suppressed = new ArrayList<>();
+    private final ScanListener listener = new ScanListener() {
+        @Override
+        public void scanned(String deviceId, String code, long receivedNanos) {
+            reads.add(deviceId + ":" + code);
+        }
+
+        @Override
+        public void duplicateSuppressed(String deviceId) {
+            suppressed.add(deviceId);
+        }
+    };
+
+    private long now = System.nanoTime();
+
+    @Test
+    void interleavedDevicesKeepSeparateBuffers() {
+        ScanDecoder handheld = decoder("handheld");
+        ScanDecoder flatbed = decoder("flatbed");
+        String first = "049000053418\n";
+        String second = "028200003843\n";
+
+        for (int i = 0; i < first.length(); i++) {
+            now += FAST_NANOS;
+            handheld.accept(first.charAt(i), now);
+            flatbed.accept(second.charAt(i), now);
+        }
+
+        assertEquals(List.of("handheld:049000053418", "flatbed:028200003843"), reads);
+    }
+
+    @Test
+    void slowCharacterStartsANewCode() {
+        ScanDecoder decoder = decoder("keyboard");
+        feed(decoder, "123");
+        assertEquals("123", decoder.getBufferContent());
+
+        now += TimeUnit.MILLISECONDS.toNanos(TIMEOUT_MILLIS + 1);
+        assertEquals(ScanDecoder.Result.BUFFERED, decoder.accept('4', now));
+        assertFalse(decoder.isLastCharFast());
+        assertEquals("4", decoder.getBufferContent(), "The stale partial code was dropped");
+
+        feed(decoder, "56\n");
+        assertEquals(List.of("keyboard:456"), reads);
+    }
+
+    @Test
+    void noTimeoutKeepsSlowCharacters() {
+        ScanDecoder decoder = new ScanDecoder("stdin", 0, ScanDecoder.DEFAULT_DUPLICATE_WINDOW_MILLIS, listener);
+        for (char c : "789\n".toCharArray()) {
+            now += TimeUnit.SECONDS.toNanos(1);
+            decoder.accept(c, now);
+        }
+
+        assertEquals(List.of("stdin:789"), reads);
+    }
+
+    @Test
+    void repeatsInsideTheWindowAreSuppressed() {
+        ScanDecoder decoder = decoder("handheld");
+        long window = TimeUnit.MILLISECONDS.toNanos(ScanDecoder.DEFAULT_DUPLICATE_WINDOW_MILLIS);
+
+        assertEquals(ScanDecoder.Result.EMITTED, feed(decoder, "012345\n"));
+        now += window / 2;
+        assertEquals(ScanDecoder.Result.SUPPRESSED, feed(decoder, "012345\n"));
+        now += window / 2;
+        assertEquals(ScanDecoder.Result.SUPPRESSED, feed(decoder, "012345\n"), "Held trigger keeps suppressing");
+        assertEquals(ScanDecoder.Result.EMITTED, feed(decoder, "678901\n"), "A different code is never suppressed");
+        now += window;
+        assertEquals(ScanDecoder.Result.EMITTED, feed(decoder, "678901\n"), "Deliberate second scan");
+
+        assertEquals(List.of("handheld:012345", "handheld:678901", "handheld:678901"), reads);
+        assertEquals(List.of("handheld", "handheld"), suppressed);
+    }
+
+    @Test
+    void oversizedCodeIsDroppedUpToItsTerminator() {
+        ScanDecoder decoder = decoder("socket");
+        String longest = "9".repeat(ScanDecoder.MAX_CODE_LENGTH);
+
+        assertEquals(ScanDecoder.Result.EMITTED, feed(decoder, longest + "\n"));
+        assertEquals(ScanDecoder.Result.DISCARDED, feed(decoder, longest + "12"));
+        assertEquals("", decoder.getBufferContent());
+        assertEquals(ScanDecoder.Result.DISCARDED, feed(decoder, "\n"));
+
+        byte[] next = "0123\r".getBytes(StandardCharsets.US_ASCII);
+        now += FAST_NANOS;
+        decoder.accept(next, 0, next.length, now);
+
+        assertEquals(List.of("socket:" + longest, "socket:0123"), reads);
+    }
+
+    private ScanDecoder decoder(String deviceId) {
+        return new ScanDecoder(deviceId, TIMEOUT_MILLIS, ScanDecoder.DEFAULT_DUPLICATE_WINDOW_MILLIS, listener);
+    }
+
+    /**
+     * Types the characters at scanner speed.
+     * @return What the last character did
+     */
+    private ScanDecoder.Result feed(ScanDecoder decoder, String chars) {
+        ScanDecoder.Result result = null;
+        for (char c : chars.toCharArray()) {
+            now += FAST_NANOS;
+            result = decoder.accept(c, now);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,166 @@
+package com.am.register.service;
+
+import com.am.register.database.DatabaseManager;
+import com.am.register.database.DatabaseMigration;
+import com.am.register.model.Item;
+import com.am.register.model.SuspendedTransaction;
+import com.am.register.model.Transaction;
+import com.am.register.util.SuspensionStore;
+import com.am.register.util.TransactionSerializer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Lanes, each with its own connection and suspension list, resuming one basket at once.
+ */
+class SuspensionClaimTest {
+
+    private static final String URL = "jdbc:h2:mem:x;DB_CLOSE_DELAY=-1";
+    private static final int LANES = 8;
+    private static final int ROUNDS = 25;
+
+    private final List<DatabaseManager> databases = new ArrayList<>();
+    private final List<SuspensionService> lanes = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        DatabaseManager setup = new DatabaseManager(URL);
+        assertTrue(setup.connect());
+        assertTrue(setup.createTables());
+        assertTrue(new DatabaseMigration(setup.getConnection()).migrate());
+        databases.add(setup);
+
+        while (databases.size() < LANES) {
+            DatabaseManager database = new DatabaseManager(URL);
+            assertTrue(database.connect());
+            databases.add(database);
+        }
+        for (DatabaseManager database : databases) {
+            lanes.add(new SuspensionService(database, SuspensionStore.DEFAULT_CAPACITY, SuspensionStore.DEFAULT_TTL));
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        try (Statement stmt = databases.get(0).getConnection().createStatement()) {
+            stmt.execute("DROP ALL OBJECTS");
+        }
+        databases.forEach(DatabaseManager::disconnect);
+    }
+
+    @Test
+    void exactlyOneLaneResumesASuspension() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(LANES);
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                String id = park(lanes.get(0));
+                lanes.forEach(SuspensionService::load);
+
+                int resumed = raceToResume(pool, id);
+
+                assertEquals(1, resumed, "Lanes that resumed " + id);
+                assertFalse(rowExists(id), id + " is still parked after being resumed");
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void expiryLeavesASuspensionBeingResumed() {
+        SuspensionService resuming = lanes.get(0);
+        SuspensionService expiring = lanes.get(1);
+        String id = park(resuming);
+        expiring.load();
+
+        assertTrue(resuming.claim(resuming.find(id), "LANE-001"));
+        LocalDateTime pastTtl = LocalDateTime.now().plus(SuspensionStore.DEFAULT_TTL).plusHours(1);
+
+        assertTrue(expiring.expire(pastTtl).isEmpty());
+        assertEquals(0, expiring.cleanupExpired(pastTtl));
+        assertTrue(rowExists(id));
+        assertTrue(resuming.complete(id, "LANE-001"));
+    }
+
+    @Test
+    void expiryDeletesAnUnclaimedSuspension() {
+        SuspensionService lane = lanes.get(0);
+        String id = park(lane);
+
+        List<SuspendedTransaction> expired =
+                lane.expire(LocalDateTime.now().plus(SuspensionStore.DEFAULT_TTL).plusHours(1));
+
+        assertEquals(1, expired.size());
+        assertFalse(rowExists(id));
+        assertEquals(0, lane.size());
+    }
+
+    /**
+     * Every lane claims and completes the same suspension at the same moment.
+     * @return Number of lanes whose resume went through
+     */
+    private int raceToResume(ExecutorService pool, String id) throws Exception {
+        CyclicBarrier start = new CyclicBarrier(LANES);
+        List<Future<Boolean>> futures = new ArrayList<>();
+
+        for (int i = 0; i < LANES; i++) {
+            SuspensionService lane = lanes.get(i);
+            String laneId = String.format("LANE-%03d", i + 1);
+            futures.add(pool.submit(() -> {
+                SuspendedTransaction header = lane.find(id);
+                assertNotNull(header, laneId + " never saw " + id);
+                start.await();
+                return lane.claim(header, laneId) && lane.complete(id, laneId);
+            }));
+        }
+
+        int resumed = 0;
+        for (Future<Boolean> future : futures) {
+            if (future.get(60, TimeUnit.SECONDS)) {
+                resumed++;
+            }
+        }
+        return resumed;
+    }
+
+    private static String park(SuspensionService lane) {
+        Transaction transaction = new Transaction();
+        transaction.addItem(new Item("049000053418", "Test item", 1.99));
+
+        String id = lane.allocateId(LocalDate.now());
+        assertNotNull(id);
+        assertTrue(lane.save(TransactionSerializer.createSuspension(transaction, id, "Race")));
+        return id;
+    }
+
+    private boolean rowExists(String id) {
+        String sql = "SELECT 1 FROM SUSPENDED_TRANSACTIONS WHERE SUSPENSION_ID = ?";
+        try (PreparedStatement pstmt = databases.get(0).getConnection().prepareStatement(sql)) {
+            pstmt.setString(1, id);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next();
+            }
+        } catch (Exception e) {
+            throw new AssertionError(e);
+        }
+    }
+}
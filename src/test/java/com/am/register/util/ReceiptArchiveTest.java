@@ -0,0 +1,82 @@
+package com.am.register.util;
+
+import com.am.register.model.Receipt;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Several writers (the register, the API server, the load generator) archiving
+ * into the same directory at once.
+ */
+class ReceiptArchiveTest {
+
+    private static final int WRITERS = 3;
+    private static final int RECEIPTS_PER_WRITER = 2000;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void concurrentWritersKeepEveryOffsetValid() throws Exception {
+        LocalDateTime timestamp = LocalDate.of(2031, 5, 9).atTime(12, 0);
+        Map<String, String> expected = new HashMap<>();
+        List<List<Receipt>> perWriter = new ArrayList<>();
+        for (int w = 0; w < WRITERS; w++) {
+            List<Receipt> receipts = new ArrayList<>();
+            for (int i = 0; i < RECEIPTS_PER_WRITER; i++) {
+                Receipt receipt = new Receipt();
+                receipt.setReceiptNumber("R00100" + w + "-" + i);
+                receipt.setTimestamp(timestamp);
+                receipt.setSubtotal(i);
+                receipts.add(receipt);
+                expected.put(receipt.getReceiptNumber(), "writer " + w + " receipt " + i + "\n".repeat(i % 7));
+            }
+            perWriter.add(receipts);
+        }
+
+        CyclicBarrier start = new CyclicBarrier(WRITERS);
+        ExecutorService pool = Executors.newFixedThreadPool(WRITERS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (List<Receipt> receipts : perWriter) {
+                futures.add(pool.submit(() -> {
+                    ReceiptArchive archive = new ReceiptArchive(directory, null);
+                    start.await();
+                    for (Receipt receipt : receipts) {
+                        assertTrue(archive.append(receipt, expected.get(receipt.getReceiptNumber())));
+                    }
+                    archive.close();
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        List<ReceiptArchive.IndexEntry> index = ReceiptArchive.readIndex(directory, timestamp.toLocalDate());
+        assertEquals(WRITERS * RECEIPTS_PER_WRITER, index.size());
+        for (ReceiptArchive.IndexEntry entry : index) {
+            assertEquals(expected.get(entry.getReceiptNumber()), ReceiptArchive.readText(directory, entry),
+                    "Text at the offset indexed for " + entry.getReceiptNumber());
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.am.register.util;
+
+import com.am.register.database.DatabaseManager;
+import com.am.register.database.DatabaseMigration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Receipt numbers drawn from several threads at once.
+ */
+class ReceiptNumberGeneratorTest {
+
+    private static final String URL = "jdbc:h2:mem:receipts;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000";
+    private static final int THREADS = 8;
+    private static final int NUMBERS_PER_THREAD = 5000;
+    private static final int BLOCK_SIZE = 64;  // Small, so threads keep refilling
+
+    private final List<DatabaseManager> databases = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        DatabaseManager setup = new DatabaseManager(URL);
+        assertTrue(setup.connect());
+        assertTrue(setup.createTables());
+        assertTrue(new DatabaseMigration(setup.getConnection()).migrate());
+        databases.add(setup);
+
+        while (databases.size() < THREADS) {
+            DatabaseManager database = new DatabaseManager(URL);
+            assertTrue(database.connect());
+            databases.add(database);
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        try (Statement stmt = databases.get(0).getConnection().createStatement()) {
+            stmt.execute("DROP ALL OBJECTS");
+        }
+        databases.forEach(DatabaseManager::disconnect);
+    }
+
+    @Test
+    void sharedGeneratorNeverRepeatsANumber() throws Exception {
+        DatabaseManager database = databases.get(0);
+        ReceiptNumberGenerator generator = new ReceiptNumberGenerator(1, 1, BLOCK_SIZE, size -> {
+            synchronized (database) {
+                return database.reserveReceiptSequenceBlock(1, 1, size);
+            }
+        });
+
+        List<String> numbers = drawConcurrently(thread -> () -> generator.next());
+
+        assertUnique(numbers, THREADS * NUMBERS_PER_THREAD);
+        Set<Long> sequences = new HashSet<>();
+        for (String number : numbers) {
+            sequences.add(Long.parseLong(number.substring(number.lastIndexOf('-') + 1)));
+        }
+        assertEquals(numbers.size(), sequences.size(), "Sequence number reused");
+    }
+
+    /**
+     * Generators for the same lane on separate connections (e.g. a restart
+     * racing the old process) reserve disjoint blocks, including on the very
+     * first reservation, which creates the lane's counter.
+     */
+    @Test
+    void separateConnectionsReserveDisjointBlocks() throws Exception {
+        List<ReceiptNumberGenerator> generators = new ArrayList<>();
+        for (DatabaseManager database : databases) {
+            generators.add(new ReceiptNumberGenerator(1, 2, BLOCK_SIZE,
+                    size -> database.reserveReceiptSequenceBlock(1, 2, size)));
+        }
+
+        List<String> numbers = drawConcurrently(thread -> () -> generators.get(thread).next());
+
+        assertUnique(numbers, THREADS * NUMBERS_PER_THREAD);
+    }
+
+    private interface Draw {
+        Callable<String> forThread(int thread);
+    }
+
+    private List<String> drawConcurrently(Draw draw) throws Exception {
+        ConcurrentLinkedQueue<String> drawn = new ConcurrentLinkedQueue<>();
+        CyclicBarrier start = new CyclicBarrier(THREADS);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                Callable<String> next = draw.forThread(t);
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < NUMBERS_PER_THREAD; i++) {
+                        drawn.add(next.call());
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        return new ArrayList<>(drawn);
+    }
+
+    private static void assertUnique(List<String> numbers, int expectedCount) {
+        assertEquals(expectedCount, numbers.size());
+        Set<String> seen = new HashSet<>();
+        for (String number : numbers) {
+            assertTrue(seen.add(number), "Duplicate receipt number " + number);
+        }
+    }
+}